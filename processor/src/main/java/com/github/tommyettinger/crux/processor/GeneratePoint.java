@@ -0,0 +1,96 @@
+package com.github.tommyettinger.crux.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks {@link PointProcessor} to generate a final point class implementing {@code Point2} through {@code Point6}, plus
+ * (by default) a growable array-backed container for it, in the same package as the annotated class or package. The
+ * generated point implements every method of its interfaces, including the defaults, with math specialized for its
+ * component type, so code that only ever sees that class can have every call inlined by the JIT.
+ * <br>
+ * This can be repeated on one element to generate several classes, such as:
+ * <pre>{@code
+ * @GeneratePoint(name = "Cell2", rank = 2, type = GeneratePoint.Type.INT)
+ * @GeneratePoint(name = "Vec3", rank = 3)
+ * @GeneratePoint(name = "FixedVec3", rank = 3, mutable = false)
+ * final class PointTypes {
+ * }
+ * }</pre>
+ * The annotation is only kept in source, so the processor module is only needed at compile time.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.TYPE, ElementType.PACKAGE})
+@Repeatable(GeneratePoint.List.class)
+public @interface GeneratePoint {
+    /**
+     * The simple name of the point class to generate.
+     * @return a valid Java identifier that isn't already used in the annotated element's package
+     */
+    String name();
+
+    /**
+     * How many components the point has, from 2 to 6; this picks which of {@code Point2} through {@code Point6} it
+     * implements.
+     * @return the rank of the point, from 2 to 6
+     */
+    int rank();
+
+    /**
+     * The primitive type each component is stored as.
+     * @return the component type; defaults to {@link Type#FLOAT}
+     */
+    Type type() default Type.FLOAT;
+
+    /**
+     * If true, the point's fields are public and not final, and every method that changes a component edits the
+     * point in place; if false, the fields are final and those methods return a new point.
+     * @return true for a mutable point, which is the default
+     */
+    boolean mutable() default true;
+
+    /**
+     * The simple name of the container class to generate, which stores each component in its own primitive array.
+     * If this is empty, the container's name is {@link #name()} followed by {@code Array}.
+     * @return the container's name, or an empty String to use the default name
+     */
+    String container() default "";
+
+    /**
+     * If false, no container class is generated.
+     * @return true to generate a container, which is the default
+     */
+    boolean generateContainer() default true;
+
+    /**
+     * The primitive types a generated point can store its components as.
+     */
+    enum Type {
+        /**
+         * Components are {@code int}, so {@code floatingPoint()} is false, and the float setters truncate toward
+         * zero like a cast does.
+         */
+        INT,
+        /**
+         * Components are {@code float}, so they are returned as-is by the float accessors.
+         */
+        FLOAT,
+        /**
+         * Components are {@code double}, and lengths and distances are calculated in double precision before they are
+         * rounded to float.
+         */
+        DOUBLE
+    }
+
+    /**
+     * Holds repeated {@link GeneratePoint} annotations; the compiler creates this automatically.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @Target({ElementType.TYPE, ElementType.PACKAGE})
+    @interface List {
+        GeneratePoint[] value();
+    }
+}
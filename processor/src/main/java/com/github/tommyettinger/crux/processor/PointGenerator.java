@@ -0,0 +1,537 @@
+package com.github.tommyettinger.crux.processor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Writes the source of one generated point class and its container. Every method body is written out component by
+ * component, with the casts its component type needs and none that it doesn't, so nothing in the generated code loops
+ * over components or calls back into the interfaces' default methods.
+ */
+final class PointGenerator {
+    private static final String[] COMPONENTS = {"x", "y", "z", "w", "u", "v"};
+    private static final String CRUX = "com.github.tommyettinger.crux.";
+
+    private final String packageName, name, origin, iface, type;
+    private final int rank;
+    private final GeneratePoint.Type kind;
+    private final boolean mutable;
+    private final String[] c;
+    private StringBuilder sb;
+
+    PointGenerator(String packageName, String name, int rank, GeneratePoint.Type kind, boolean mutable,
+                   String origin) {
+        this.packageName = packageName;
+        this.name = name;
+        this.rank = rank;
+        this.kind = kind;
+        this.mutable = mutable;
+        this.origin = origin;
+        this.iface = "Point" + rank;
+        this.type = kind.name().toLowerCase(Locale.ROOT);
+        this.c = Arrays.copyOf(COMPONENTS, rank);
+    }
+
+    private void line(int indent, String text) {
+        for (int i = 0; i < indent; i++) {
+            sb.append("    ");
+        }
+        sb.append(text).append('\n');
+    }
+
+    private void blank() {
+        sb.append('\n');
+    }
+
+    /**
+     * Writes {@code text} as a doc comment, wrapped to 120 columns like the hand-written sources. A {@code {@...}} tag
+     * is never split across lines.
+     */
+    private void doc(int indent, String text) {
+        StringBuilder pad = new StringBuilder();
+        for (int i = 0; i < indent; i++) {
+            pad.append("    ");
+        }
+        String prefix = pad + " * ";
+        line(indent, "/**");
+        StringBuilder current = new StringBuilder(prefix);
+        int depth = 0, wordStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (ch == '{') depth++;
+            else if (ch == '}') depth--;
+            else if (ch == ' ' && depth == 0) {
+                if (i > wordStart) {
+                    String word = text.substring(wordStart, i);
+                    if (current.length() > prefix.length() && current.length() + 1 + word.length() > 120) {
+                        sb.append(current).append('\n');
+                        current.setLength(0);
+                        current.append(prefix);
+                    }
+                    if (current.length() > prefix.length()) current.append(' ');
+                    current.append(word);
+                }
+                wordStart = i + 1;
+            }
+        }
+        sb.append(current).append('\n');
+        line(indent, " */");
+    }
+
+    /**
+     * Joins the result of {@code each} for every component, separated by {@code separator}.
+     */
+    private String join(String separator, Function<String, String> each) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < rank; i++) {
+            if (i > 0) joined.append(separator);
+            joined.append(each.apply(c[i]));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * The parameter list for the given type, with one parameter named after each component.
+     */
+    private String params(String paramType) {
+        return join(", ", n -> paramType + " " + n);
+    }
+
+    /**
+     * Converts a component (or an expression with the component type) to a float.
+     */
+    private String toFloat(String expr) {
+        return kind == GeneratePoint.Type.DOUBLE ? "(float) " + expr : expr;
+    }
+
+    private String toInt(String expr) {
+        return kind == GeneratePoint.Type.INT ? expr : "(int) " + expr;
+    }
+
+    /**
+     * Converts a float expression to the component type.
+     */
+    private String fromFloat(String expr) {
+        if (kind != GeneratePoint.Type.INT) return expr;
+        return expr.indexOf(' ') < 0 ? "(int) " + expr : "(int) (" + expr + ")";
+    }
+
+    /**
+     * The squared length of the point, as a float for int and float components or a double for double components.
+     */
+    private String sumOfSquares(String prefix) {
+        if (kind == GeneratePoint.Type.INT)
+            return join(" + ", n -> "(float) " + prefix + n + " * " + prefix + n);
+        return join(" + ", n -> prefix + n + " * " + prefix + n);
+    }
+
+    private String mathType() {
+        return kind == GeneratePoint.Type.DOUBLE ? "double" : "float";
+    }
+
+    /**
+     * Writes the end of a method that sets each component to the matching expression from {@code each}: assignments
+     * and {@code return this} if mutable, or a new point if not. If {@code shadowed} is false, a component whose
+     * expression is just its own name is left alone, since it would be assigned to itself; if true, that name refers
+     * to a parameter, so it is assigned.
+     */
+    private void result(int indent, boolean shadowed, Function<String, String> each) {
+        if (mutable) {
+            for (String n : c) {
+                String value = each.apply(n);
+                if (shadowed || !value.equals(n)) line(indent, "this." + n + " = " + value + ";");
+            }
+            line(indent, "return this;");
+        } else {
+            line(indent, "return new " + name + "(" + join(", ", each) + ");");
+        }
+    }
+
+    /**
+     * Writes the body of a method that multiplies each component by the float or double in {@code scalar}.
+     */
+    private void scale(int indent, String scalar) {
+        result(indent, false, n -> fromFloat(n + " * " + scalar));
+    }
+
+    private void method(String signature) {
+        blank();
+        line(1, "@Override");
+        line(1, "public " + signature + " {");
+    }
+
+    private void end() {
+        line(1, "}");
+    }
+
+    /**
+     * Starts a new source file with the package declaration and an import for each of {@code imports} (given as
+     * qualified names) that isn't in the package being written to.
+     */
+    private void header(String... imports) {
+        sb = new StringBuilder(8192);
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+            blank();
+        }
+        boolean any = false;
+        for (String qualified : imports) {
+            if (qualified.substring(0, qualified.lastIndexOf('.')).equals(packageName)) continue;
+            line(0, "import " + qualified + ";");
+            any = true;
+        }
+        if (any) blank();
+    }
+
+    /**
+     * Writes the point class.
+     * @return Java source for the point class
+     */
+    String point() {
+        header(CRUX + iface, CRUX + "PointHasher", CRUX + "Precision");
+        doc(0, "A" + (mutable ? " mutable " : "n immutable ") + "{@link " + iface + "} with {@code " + type
+                + "} components, generated from a {@code @GeneratePoint} annotation on {@code " + origin
+                + "}. Every method of " + iface + " and PointN is implemented here, including the defaults, and this"
+                + " class is final, so code that only sees this type can have all of its calls inlined.");
+        line(0, "public final class " + name + " implements " + iface + "<" + name + "> {");
+        line(1, "public " + (mutable ? "" : "final ") + type + " " + join(", ", n -> n) + ";");
+        if (mutable) {
+            blank();
+            line(1, "public " + name + "() {");
+            line(1, "}");
+        }
+        blank();
+        line(1, "public " + name + "(" + params(type) + ") {");
+        for (String n : c) {
+            line(2, "this." + n + " = " + n + ";");
+        }
+        line(1, "}");
+        blank();
+        line(1, "public " + name + "(" + iface + "<?> point) {");
+        line(2, "this(" + join(", ", n -> "point." + n + (kind == GeneratePoint.Type.INT ? "i()" : "()")) + ");");
+        line(1, "}");
+
+        method("int rank()");
+        line(2, "return " + rank + ";");
+        end();
+        method("boolean floatingPoint()");
+        line(2, "return " + (kind != GeneratePoint.Type.INT) + ";");
+        end();
+        method("boolean mutable()");
+        line(2, "return " + mutable + ";");
+        end();
+        method(name + " cpy()");
+        line(2, mutable ? "return new " + name + "(" + join(", ", n -> n) + ");" : "return this;");
+        end();
+
+        for (String n : c) {
+            method("float " + n + "()");
+            line(2, "return " + toFloat(n) + ";");
+            end();
+            method(name + " " + n + "(float next)");
+            result(2, false, m -> m.equals(n) ? fromFloat("next") : m);
+            end();
+            method("int " + n + "i()");
+            line(2, "return " + toInt(n) + ";");
+            end();
+            method(name + " " + n + "i(int next)");
+            result(2, false, m -> m.equals(n) ? "next" : m);
+            end();
+        }
+
+        method(name + " set(" + params("float") + ")");
+        result(2, true, this::fromFloat);
+        end();
+        method(name + " seti(" + params("int") + ")");
+        result(2, true, n -> n);
+        end();
+        method(name + " set(" + name + " point)");
+        result(2, false, n -> "point." + n);
+        end();
+        method(name + " setZero()");
+        result(2, false, n -> "0");
+        end();
+
+        String bounds = "\"index must be between 0 and " + (rank - 1) + ": \" + index";
+        method("float get(int index)");
+        line(2, "switch (index) {");
+        for (int i = 0; i < rank; i++) {
+            line(3, "case " + i + ": return " + toFloat(c[i]) + ";");
+        }
+        line(3, "default: throw new IndexOutOfBoundsException(" + bounds + ");");
+        line(2, "}");
+        end();
+        method("int geti(int index)");
+        line(2, "switch (index) {");
+        for (int i = 0; i < rank; i++) {
+            line(3, "case " + i + ": return " + toInt(c[i]) + ";");
+        }
+        line(3, "default: throw new IndexOutOfBoundsException(" + bounds + ");");
+        line(2, "}");
+        end();
+        method(name + " setAt(int index, float next)");
+        line(2, "switch (index) {");
+        for (int i = 0; i < rank; i++) {
+            line(3, "case " + i + ": return " + c[i] + "(next);");
+        }
+        line(3, "default: throw new IndexOutOfBoundsException(" + bounds + ");");
+        line(2, "}");
+        end();
+        method(name + " setiAt(int index, int next)");
+        line(2, "switch (index) {");
+        for (int i = 0; i < rank; i++) {
+            line(3, "case " + i + ": return " + c[i] + "i(next);");
+        }
+        line(3, "default: throw new IndexOutOfBoundsException(" + bounds + ");");
+        line(2, "}");
+        end();
+
+        method("float[] toArray(float[] array, int offset)");
+        for (int i = 0; i < rank; i++) {
+            line(2, "array[offset" + (i == 0 ? "" : " + " + i) + "] = " + toFloat(c[i]) + ";");
+        }
+        line(2, "return array;");
+        end();
+        method("int[] toArray(int[] array, int offset)");
+        for (int i = 0; i < rank; i++) {
+            line(2, "array[offset" + (i == 0 ? "" : " + " + i) + "] = " + toInt(c[i]) + ";");
+        }
+        line(2, "return array;");
+        end();
+        StringBuilder reads = new StringBuilder();
+        for (int i = 0; i < rank; i++) {
+            reads.append(i == 0 ? "array[offset]" : ", array[offset + " + i + "]");
+        }
+        method(name + " fromArray(float[] array, int offset)");
+        line(2, "return set(" + reads + ");");
+        end();
+        method(name + " fromArray(int[] array, int offset)");
+        line(2, "return seti(" + reads + ");");
+        end();
+
+        method(name + " sub(" + name + " point)");
+        result(2, false, n -> n + " - point." + n);
+        end();
+        method(name + " add(" + name + " point)");
+        result(2, false, n -> n + " + point." + n);
+        end();
+        method(name + " scl(" + name + " point)");
+        result(2, false, n -> n + " * point." + n);
+        end();
+        method(name + " minus(float scalar)");
+        result(2, false, n -> fromFloat(n + " - scalar"));
+        end();
+        method(name + " plus(float scalar)");
+        result(2, false, n -> fromFloat(n + " + scalar"));
+        end();
+        method(name + " times(float scalar)");
+        scale(2, "scalar");
+        end();
+
+        boolean wide = kind == GeneratePoint.Type.DOUBLE;
+        method("float len2()");
+        line(2, "return " + (wide ? "(float) (" + sumOfSquares("") + ")" : sumOfSquares("")) + ";");
+        end();
+        method("float len()");
+        line(2, "return (float) Math.sqrt(" + sumOfSquares("") + ");");
+        end();
+        String differences = "final " + mathType() + " " + join(", ", n -> "d" + n + " = " + n + " - point." + n) + ";";
+        String squares = join(" + ", n -> "d" + n + " * d" + n);
+        method("float dst2(" + name + " point)");
+        line(2, differences);
+        line(2, "return " + (wide ? "(float) (" + squares + ")" : squares) + ";");
+        end();
+        method("float dst(" + name + " point)");
+        line(2, differences);
+        line(2, "return (float) Math.sqrt(" + squares + ");");
+        end();
+        method(name + " nor()");
+        if (wide) line(2, "final double inv = 1.0 / Math.sqrt(" + sumOfSquares("") + ");");
+        else line(2, "final float inv = 1f / (float) Math.sqrt(" + sumOfSquares("") + ");");
+        scale(2, "inv");
+        end();
+
+        method("float len(Precision precision)");
+        line(2, "return precision.sqrt(len2());");
+        end();
+        method("float dst(" + name + " point, Precision precision)");
+        line(2, "return precision.sqrt(dst2(point));");
+        end();
+        method(name + " nor(Precision precision)");
+        line(2, "final float len2 = len2();");
+        line(2, "final float inv = len2 == 0f ? 0f : precision.invSqrt(len2);");
+        scale(2, "inv");
+        end();
+        method("float lenFast()");
+        line(2, "return len(Precision.getDefault());");
+        end();
+        method("float dstFast(" + name + " point)");
+        line(2, "return dst(point, Precision.getDefault());");
+        end();
+        method(name + " norFast()");
+        line(2, "return nor(Precision.getDefault());");
+        end();
+        method("float lenApprox()");
+        line(2, "return len(Precision.APPROXIMATE);");
+        end();
+        method("float dstApprox(" + name + " point)");
+        line(2, "return dst(point, Precision.APPROXIMATE);");
+        end();
+        method(name + " norApprox()");
+        line(2, "return nor(Precision.APPROXIMATE);");
+        end();
+        method("boolean isUnit()");
+        line(2, "return Math.abs(1f - len2()) <= 0.000001f;");
+        end();
+        method("boolean isUnit(float tolerance)");
+        line(2, "return Math.abs(1f - len2()) <= tolerance;");
+        end();
+        method("boolean isZero()");
+        if (kind == GeneratePoint.Type.INT) line(2, "return " + join(" && ", n -> n + " == 0") + ";");
+        else line(2, "return Math.abs(len2()) <= 0.000001f;");
+        end();
+        method("boolean isZero(float tolerance)");
+        line(2, "return Math.abs(len2()) <= tolerance;");
+        end();
+
+        method("boolean equals(Object o)");
+        line(2, "if (this == o) return true;");
+        line(2, "if (!(o instanceof " + name + ")) return false;");
+        line(2, name + " point = (" + name + ") o;");
+        if (kind == GeneratePoint.Type.INT) line(2, "return " + join(" && ", n -> n + " == point." + n) + ";");
+        else {
+            String boxed = wide ? "Double" : "Float";
+            line(2, "return " + join("\n                && ", n -> boxed + ".compare(" + n + ", point." + n + ") == 0")
+                    + ";");
+        }
+        end();
+        method("int hashCode()");
+        line(2, "return PointHasher.hash(" + join(", ", n -> wide ? "(float) " + n : n) + ");");
+        end();
+        method("String toString()");
+        line(2, "return \"(\" + " + join(" + \", \" + ", n -> n) + " + \")\";");
+        end();
+        line(0, "}");
+        return sb.toString();
+    }
+
+    /**
+     * Writes the container class, which stores each component in its own array.
+     * @param container the simple name of the container class
+     * @return Java source for the container class
+     */
+    String container(String container) {
+        header("java.util.Arrays");
+        doc(0, "A growable container of {@link " + name + "} points that stores each component in its own {@code "
+                + type + "} array, generated from a {@code @GeneratePoint} annotation on {@code " + origin
+                + "}. The arrays are public so bulk code can work on them directly; their length is the"
+                + " {@link #capacity()}, and only indices below {@link #size()} hold points. Removal uses"
+                + " {@link #removeSwap(int)}, so indices are not stable across removals.");
+        line(0, "public final class " + container + " {");
+        line(1, "public " + type + "[] " + join(", ", n -> n) + ";");
+        line(1, "private int size;");
+        blank();
+        line(1, "public " + container + "() {");
+        line(2, "this(16);");
+        line(1, "}");
+        blank();
+        line(1, "public " + container + "(int capacity) {");
+        line(2, "if (capacity < 1) throw new IllegalArgumentException(\"capacity must be >= 1: \" + capacity);");
+        for (String n : c) {
+            line(2, n + " = new " + type + "[capacity];");
+        }
+        line(1, "}");
+        blank();
+        line(1, "public int size() {");
+        line(2, "return size;");
+        line(1, "}");
+        blank();
+        line(1, "public boolean isEmpty() {");
+        line(2, "return size == 0;");
+        line(1, "}");
+        blank();
+        line(1, "public void clear() {");
+        line(2, "size = 0;");
+        line(1, "}");
+        blank();
+        line(1, "public void truncate(int newSize) {");
+        line(2, "if (newSize < 0) throw new IllegalArgumentException(\"newSize must be >= 0: \" + newSize);");
+        line(2, "if (size > newSize) size = newSize;");
+        line(1, "}");
+        blank();
+        line(1, "public int capacity() {");
+        line(2, "return x.length;");
+        line(1, "}");
+        blank();
+        line(1, "private void resize(int newCapacity) {");
+        for (String n : c) {
+            line(2, n + " = Arrays.copyOf(" + n + ", newCapacity);");
+        }
+        line(1, "}");
+        blank();
+        line(1, "public void ensureCapacity(int additional) {");
+        line(2, "if (additional < 0) throw new IllegalArgumentException(\"additional must be >= 0: \" + additional);");
+        line(2, "int needed = size + additional;");
+        line(2, "if (needed > x.length) resize(Math.max(Math.max(8, needed), (int)(size * 1.75f)));");
+        line(1, "}");
+        blank();
+        line(1, "public void shrink() {");
+        line(2, "if (x.length != Math.max(1, size)) resize(Math.max(1, size));");
+        line(1, "}");
+        blank();
+        line(1, "private void check(int index) {");
+        line(2, "if (index < 0 || index >= size)");
+        line(3, "throw new IndexOutOfBoundsException(\"index can't be >= size: \" + index + \" >= \" + size);");
+        line(1, "}");
+        blank();
+        line(1, "public int add(" + params(type) + ") {");
+        line(2, "if (size == this.x.length) ensureCapacity(1);");
+        for (String n : c) {
+            line(2, "this." + n + "[size] = " + n + ";");
+        }
+        line(2, "return size++;");
+        line(1, "}");
+        blank();
+        line(1, "public int add(" + name + " point) {");
+        line(2, "return add(" + join(", ", n -> "point." + n) + ");");
+        line(1, "}");
+        blank();
+        line(1, "public " + name + " get(int index) {");
+        line(2, "check(index);");
+        line(2, "return new " + name + "(" + join(", ", n -> n + "[index]") + ");");
+        line(1, "}");
+        if (mutable) {
+            blank();
+            line(1, "public " + name + " get(int index, " + name + " into) {");
+            line(2, "check(index);");
+            for (String n : c) {
+                line(2, "into." + n + " = " + n + "[index];");
+            }
+            line(2, "return into;");
+            line(1, "}");
+        }
+        blank();
+        line(1, "public void set(int index, " + params(type) + ") {");
+        line(2, "check(index);");
+        for (String n : c) {
+            line(2, "this." + n + "[index] = " + n + ";");
+        }
+        line(1, "}");
+        blank();
+        line(1, "public void set(int index, " + name + " point) {");
+        line(2, "set(index, " + join(", ", n -> "point." + n) + ");");
+        line(1, "}");
+        blank();
+        line(1, "public void removeSwap(int index) {");
+        line(2, "check(index);");
+        line(2, "if (index != --size) {");
+        for (String n : c) {
+            line(3, n + "[index] = " + n + "[size];");
+        }
+        line(2, "}");
+        line(1, "}");
+        line(0, "}");
+        return sb.toString();
+    }
+}
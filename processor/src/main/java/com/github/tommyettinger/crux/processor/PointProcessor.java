@@ -0,0 +1,75 @@
+package com.github.tommyettinger.crux.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Generates point classes and their containers for each {@link GeneratePoint} annotation. This is registered as a
+ * service, so putting this module on the annotation processor path (with {@code annotationProcessor} in Gradle) is
+ * enough to run it. Problems with an annotation, such as a rank outside 2 to 6 or a name that isn't a valid
+ * identifier, are reported as compile errors on the annotated element.
+ */
+@SupportedAnnotationTypes({"com.github.tommyettinger.crux.processor.GeneratePoint",
+        "com.github.tommyettinger.crux.processor.GeneratePoint.List"})
+public class PointProcessor extends AbstractProcessor {
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Set<Element> elements = new LinkedHashSet<>(round.getElementsAnnotatedWith(GeneratePoint.class));
+        elements.addAll(round.getElementsAnnotatedWith(GeneratePoint.List.class));
+        for (Element element : elements) {
+            for (GeneratePoint spec : element.getAnnotationsByType(GeneratePoint.class)) {
+                generate(element, spec);
+            }
+        }
+        return true;
+    }
+
+    private void generate(Element element, GeneratePoint spec) {
+        Messager messager = processingEnv.getMessager();
+        if (spec.rank() < 2 || spec.rank() > 6) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "rank must be between 2 and 6: " + spec.rank(), element);
+            return;
+        }
+        String containerName = spec.container().isEmpty() ? spec.name() + "Array" : spec.container();
+        if (!isSimpleName(spec.name()) || (spec.generateContainer() && !isSimpleName(containerName))) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "name and container must be simple Java identifiers: "
+                    + spec.name() + ", " + containerName, element);
+            return;
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+        PointGenerator generator = new PointGenerator(packageName, spec.name(), spec.rank(), spec.type(),
+                spec.mutable(), element.toString());
+        write(element, packageName, spec.name(), generator.point());
+        if (spec.generateContainer())
+            write(element, packageName, containerName, generator.container(containerName));
+    }
+
+    private static boolean isSimpleName(String name) {
+        return SourceVersion.isName(name) && name.indexOf('.') < 0;
+    }
+
+    private void write(Element element, String packageName, String simpleName, String source) {
+        String qualified = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualified, element).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + qualified + ": " + e.getMessage(), element);
+        }
+    }
+}
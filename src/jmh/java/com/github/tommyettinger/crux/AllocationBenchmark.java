@@ -0,0 +1,74 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PointN#add(PointN)}, {@link PointN#sub(PointN)}, and {@link PointN#times(float)} on mutable and
+ * immutable types. Immutable types allocate a new point for every call, so the interesting numbers here come from the
+ * GC profiler ({@code gc.alloc.rate.norm} in particular), which the build attaches to every benchmark run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class AllocationBenchmark {
+    public static final int SIZE = 1024;
+
+    @Param({"MutableFloat2", "ImmutableFloat2", "MutableInt2", "ImmutableInt2", "MutableInt3", "ImmutableInt3"})
+    public String type;
+
+    public PointN[] points;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        points = Points.fill(type, SIZE, new Random(123456789L));
+    }
+
+    private static <P extends PointN<P>> P add(P[] points) {
+        P acc = points[0].cpy().setZero();
+        for (int i = 0; i < points.length; i++) {
+            acc = acc.add(points[i]);
+        }
+        return acc;
+    }
+
+    private static <P extends PointN<P>> P sub(P[] points) {
+        P acc = points[0].cpy().setZero();
+        for (int i = 0; i < points.length; i++) {
+            acc = acc.sub(points[i]);
+        }
+        return acc;
+    }
+
+    private static <P extends PointN<P>> P times(P[] points) {
+        P acc = points[0].cpy();
+        for (int i = 0; i < points.length; i++) {
+            acc = acc.times(-1f);
+        }
+        return acc;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public PointN add() {
+        return add(points);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public PointN sub() {
+        return sub(points);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public PointN times() {
+        return times(points);
+    }
+}
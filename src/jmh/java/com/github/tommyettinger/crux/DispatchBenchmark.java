@@ -0,0 +1,98 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures interface dispatch on {@link Point2} call sites that see one (monomorphic), two (bimorphic), or four
+ * (megamorphic) implementing types. HotSpot can inline through the first two cases using type profiles, but falls back
+ * to an itable call for the third, which also blocks inlining of the default methods being called. The points are
+ * interleaved in one array so every call site sees every type in use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("rawtypes")
+public class DispatchBenchmark {
+    public static final int SIZE = 1024;
+
+    @Param({"monomorphic", "bimorphic", "megamorphic"})
+    public String morphism;
+
+    public Point2[] points;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] types;
+        switch (morphism) {
+            case "monomorphic": types = new String[]{"MutableFloat2"};
+                break;
+            case "bimorphic": types = new String[]{"MutableFloat2", "MutableInt2"};
+                break;
+            default: types = new String[]{"MutableFloat2", "MutableInt2", "ImmutableInt2", "ImmutableFloat2"};
+        }
+        Random random = new Random(123456789L);
+        points = new Point2[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            points[i] = (Point2) Points.create(types[i % types.length], random);
+        }
+    }
+
+    /**
+     * An abstract method that every implementation overrides.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float len2() {
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += points[i].len2();
+        }
+        return sum;
+    }
+
+    /**
+     * A default method in PointN that calls an abstract method, {@link PointN#len2()}, on this.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float len() {
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += points[i].len();
+        }
+        return sum;
+    }
+
+    /**
+     * A default method in PointN that calls another default and an abstract method.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int isUnit() {
+        int count = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (points[i].isUnit()) ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Default methods in Point2 for float-based types, overridden for int-based types.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int xiYi() {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            Point2 p = points[i];
+            sum += p.xi() ^ p.yi();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.tommyettinger.crux;
+
+import com.github.tommyettinger.crux.processor.GeneratePoint;
+
+/**
+ * Holds the annotations that make the processor module generate point types for the benchmarks. Each one matches a
+ * hand-written type in this source set, such as {@code GeneratedFloat3} for {@link MutableFloat3}, but overrides every
+ * default method, so benchmarks can compare the two directly.
+ */
+@GeneratePoint(name = "GeneratedFloat2", rank = 2, generateContainer = false)
+@GeneratePoint(name = "GeneratedInt2", rank = 2, type = GeneratePoint.Type.INT, generateContainer = false)
+@GeneratePoint(name = "GeneratedImmutableInt2", rank = 2, type = GeneratePoint.Type.INT, mutable = false,
+        generateContainer = false)
+@GeneratePoint(name = "GeneratedFloat3", rank = 3, generateContainer = false)
+@GeneratePoint(name = "GeneratedInt3", rank = 3, type = GeneratePoint.Type.INT, generateContainer = false)
+@GeneratePoint(name = "GeneratedImmutableInt3", rank = 3, type = GeneratePoint.Type.INT, mutable = false,
+        generateContainer = false)
+final class GeneratedPoints {
+    private GeneratedPoints() {
+    }
+}
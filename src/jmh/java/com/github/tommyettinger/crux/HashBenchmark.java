@@ -0,0 +1,163 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HashMap} lookups keyed by 2D int points, comparing the usual {@code 31 * x + y} hash with
+ * {@link PointHasher#hash(int, int)}. Keys come from one of three patterns: a dense 256 by 256 grid, a band of short
+ * diagonal lines, and tight clusters scattered over a wide area. Each benchmark looks up every key once (hits) or a
+ * same-sized set of keys that aren't in the map (misses). Run {@link HashDistribution} to see how evenly each scheme
+ * spreads the same keys over buckets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+    public static final int SIZE = 1 << 16;
+
+    @Param({"DENSE", "DIAGONAL", "CLUSTERED"})
+    public String pattern;
+
+    @Param({"NAIVE", "MIXED"})
+    public String scheme;
+
+    public HashMap<Object, Integer> map;
+    public Object[] hits;
+    public Object[] misses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int[] xy = pattern(pattern, SIZE);
+        final boolean mixed = "MIXED".equals(scheme);
+        map = new HashMap<>();
+        hits = new Object[SIZE];
+        misses = new Object[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            final int x = xy[i << 1], y = xy[i << 1 | 1];
+            hits[i] = mixed ? new MixedKey(x, y) : new NaiveKey(x, y);
+            // pushed far along y, so no miss can equal a hit
+            misses[i] = mixed ? new MixedKey(x, y + 0x40000000) : new NaiveKey(x, y + 0x40000000);
+            map.put(hits[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int lookupHits() {
+        int sum = 0;
+        for (Object key : hits) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int lookupMisses() {
+        int sum = 0;
+        for (Object key : misses) {
+            if (map.get(key) != null) sum++;
+        }
+        return sum;
+    }
+
+    /**
+     * Makes {@code count} distinct 2D int points in the named pattern, packed as x then y for each point.
+     * @param pattern "DENSE", "DIAGONAL", or "CLUSTERED"
+     * @param count how many points to make; DENSE needs a perfect square
+     * @return a new array of {@code count * 2} ints
+     */
+    public static int[] pattern(String pattern, int count) {
+        final int[] xy = new int[count << 1];
+        switch (pattern) {
+            case "DENSE": {
+                final int side = (int) Math.sqrt(count);
+                for (int i = 0; i < count; i++) {
+                    xy[i << 1] = i % side;
+                    xy[i << 1 | 1] = i / side;
+                }
+                break;
+            }
+            case "DIAGONAL": {
+                // 16 parallel diagonal lines next to each other
+                for (int i = 0; i < count; i++) {
+                    final int t = i >>> 4;
+                    xy[i << 1] = t;
+                    xy[i << 1 | 1] = t + (i & 15);
+                }
+                break;
+            }
+            default: {
+                // clusters of 1024 points each, with centers spread over a million cells on each axis
+                final Random random = new Random(123456789L);
+                final HashSet<Long> seen = new HashSet<>();
+                int cx = 0, cy = 0;
+                for (int i = 0; i < count; ) {
+                    if ((i & 1023) == 0) {
+                        cx = random.nextInt(1 << 20) - (1 << 19);
+                        cy = random.nextInt(1 << 20) - (1 << 19);
+                    }
+                    int x, y;
+                    do {
+                        x = cx + (int) (random.nextGaussian() * 12.0);
+                        y = cy + (int) (random.nextGaussian() * 12.0);
+                    } while (!seen.add((long) x << 32 | (y & 0xFFFFFFFFL)));
+                    xy[i << 1] = x;
+                    xy[i++ << 1 | 1] = y;
+                }
+                break;
+            }
+        }
+        return xy;
+    }
+
+    public static final class NaiveKey {
+        public final int x, y;
+
+        public NaiveKey(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof NaiveKey)) return false;
+            final NaiveKey k = (NaiveKey) o;
+            return x == k.x && y == k.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * x + y;
+        }
+    }
+
+    public static final class MixedKey {
+        public final int x, y;
+
+        public MixedKey(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MixedKey)) return false;
+            final MixedKey k = (MixedKey) o;
+            return x == k.x && y == k.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return PointHasher.hash(x, y);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Prints a table of how evenly the usual {@code 31 * x + y} hash and {@link PointHasher#hash(int, int)} spread the
+ * point patterns from {@link HashBenchmark} over a power-of-two table, both through {@link java.util.HashMap}'s own
+ * bit spreading and using the low bits of the hash directly, as {@link PointSet2} does. This isn't a JMH benchmark;
+ * run it with {@code ./gradlew hashDistribution}. Pair its output with the timings from {@link HashBenchmark}.
+ * <br>
+ * The columns are how many distinct hash values there are, how many buckets are empty, the most keys in one bucket,
+ * and the average number of keys compared per successful lookup when each bucket is searched linearly. An ideal hash
+ * with 65536 keys in 131072 buckets has about 65536 distinct values, 60.7% empty buckets, a largest bucket of 7 or 8,
+ * and about 1.25 keys compared per lookup.
+ */
+public final class HashDistribution {
+    private HashDistribution() {
+    }
+
+    public static void main(String[] args) {
+        final int count = HashBenchmark.SIZE, buckets = count << 1, mask = buckets - 1;
+        System.out.println("| Pattern   | Scheme | Bucket bits | Distinct hashes | Empty buckets | Largest bucket "
+                + "| Keys compared per hit |");
+        System.out.println("|-----------|--------|-------------|-----------------|---------------|----------------"
+                + "|-----------------------|");
+        for (String pattern : new String[]{"DENSE", "DIAGONAL", "CLUSTERED"}) {
+            final int[] xy = HashBenchmark.pattern(pattern, count);
+            for (String scheme : new String[]{"NAIVE", "MIXED"}) {
+                final int[] hashes = new int[count];
+                for (int i = 0; i < count; i++) {
+                    final int x = xy[i << 1], y = xy[i << 1 | 1];
+                    hashes[i] = "MIXED".equals(scheme) ? PointHasher.hash(x, y) : 31 * x + y;
+                }
+                final int distinct = distinct(hashes);
+                for (boolean spread : new boolean[]{true, false}) {
+                    final int[] loads = new int[buckets];
+                    for (int h : hashes) {
+                        loads[(spread ? h ^ h >>> 16 : h) & mask]++;
+                    }
+                    int empty = 0, largest = 0;
+                    long compared = 0L;
+                    for (int load : loads) {
+                        if (load == 0) empty++;
+                        largest = Math.max(largest, load);
+                        compared += (long) load * (load + 1) / 2;
+                    }
+                    System.out.printf("| %-9s | %-6s | %-11s | %15d | %12.1f%% | %14d | %21.2f |%n", pattern,
+                            scheme, spread ? "HashMap" : "low bits", distinct, empty * 100.0 / buckets, largest,
+                            compared / (double) count);
+                }
+            }
+        }
+    }
+
+    private static int distinct(int[] hashes) {
+        final int[] sorted = hashes.clone();
+        java.util.Arrays.sort(sorted);
+        int distinct = sorted.length == 0 ? 0 : 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1]) distinct++;
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A minimal immutable {@link Point2} with float components. Every operation that would change a component allocates
+ * a new ImmutableFloat2. Only used by benchmarks, mostly to make call sites megamorphic.
+ */
+public final class ImmutableFloat2 implements Point2<ImmutableFloat2> {
+    public final float x, y;
+
+    public ImmutableFloat2(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    @Override
+    public ImmutableFloat2 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y;
+    }
+
+    @Override
+    public ImmutableFloat2 set(ImmutableFloat2 point) {
+        return new ImmutableFloat2(point.x, point.y);
+    }
+
+    @Override
+    public ImmutableFloat2 setZero() {
+        return new ImmutableFloat2(0f, 0f);
+    }
+
+    @Override
+    public ImmutableFloat2 sub(ImmutableFloat2 point) {
+        return new ImmutableFloat2(x - point.x, y - point.y);
+    }
+
+    @Override
+    public ImmutableFloat2 add(ImmutableFloat2 point) {
+        return new ImmutableFloat2(x + point.x, y + point.y);
+    }
+
+    @Override
+    public ImmutableFloat2 scl(ImmutableFloat2 point) {
+        return new ImmutableFloat2(x * point.x, y * point.y);
+    }
+
+    @Override
+    public ImmutableFloat2 minus(float scalar) {
+        return new ImmutableFloat2(x - scalar, y - scalar);
+    }
+
+    @Override
+    public ImmutableFloat2 plus(float scalar) {
+        return new ImmutableFloat2(x + scalar, y + scalar);
+    }
+
+    @Override
+    public ImmutableFloat2 times(float scalar) {
+        return new ImmutableFloat2(x * scalar, y * scalar);
+    }
+
+    @Override
+    public float dst2(ImmutableFloat2 point) {
+        float dx = x - point.x, dy = y - point.y;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutableFloat2 x(float next) {
+        return new ImmutableFloat2(next, y);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutableFloat2 y(float next) {
+        return new ImmutableFloat2(x, next);
+    }
+
+    @Override
+    public ImmutableFloat2 set(float x, float y) {
+        return new ImmutableFloat2(x, y);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
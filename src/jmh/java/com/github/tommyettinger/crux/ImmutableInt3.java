@@ -0,0 +1,156 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A minimal immutable {@link Point3} with int components. Every operation that would change a component allocates
+ * a new ImmutableInt3. Only used by benchmarks.
+ */
+public final class ImmutableInt3 implements Point3<ImmutableInt3> {
+    public final int x, y, z;
+
+    public ImmutableInt3(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return false;
+    }
+
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    @Override
+    public ImmutableInt3 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return (float)x * x + (float)y * y + (float)z * z;
+    }
+
+    @Override
+    public ImmutableInt3 set(ImmutableInt3 point) {
+        return new ImmutableInt3(point.x, point.y, point.z);
+    }
+
+    @Override
+    public ImmutableInt3 setZero() {
+        return new ImmutableInt3(0, 0, 0);
+    }
+
+    @Override
+    public ImmutableInt3 sub(ImmutableInt3 point) {
+        return new ImmutableInt3(x - point.x, y - point.y, z - point.z);
+    }
+
+    @Override
+    public ImmutableInt3 add(ImmutableInt3 point) {
+        return new ImmutableInt3(x + point.x, y + point.y, z + point.z);
+    }
+
+    @Override
+    public ImmutableInt3 scl(ImmutableInt3 point) {
+        return new ImmutableInt3(x * point.x, y * point.y, z * point.z);
+    }
+
+    @Override
+    public ImmutableInt3 minus(float scalar) {
+        return new ImmutableInt3((int)(x - scalar), (int)(y - scalar), (int)(z - scalar));
+    }
+
+    @Override
+    public ImmutableInt3 plus(float scalar) {
+        return new ImmutableInt3((int)(x + scalar), (int)(y + scalar), (int)(z + scalar));
+    }
+
+    @Override
+    public ImmutableInt3 times(float scalar) {
+        return new ImmutableInt3((int)(x * scalar), (int)(y * scalar), (int)(z * scalar));
+    }
+
+    @Override
+    public float dst2(ImmutableInt3 point) {
+        float dx = x - point.x, dy = y - point.y, dz = z - point.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutableInt3 x(float next) {
+        return new ImmutableInt3((int)next, y, z);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutableInt3 y(float next) {
+        return new ImmutableInt3(x, (int)next, z);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutableInt3 z(float next) {
+        return new ImmutableInt3(x, y, (int)next);
+    }
+
+    @Override
+    public ImmutableInt3 set(float x, float y, float z) {
+        return new ImmutableInt3((int)x, (int)y, (int)z);
+    }
+
+    @Override
+    public int xi() {
+        return x;
+    }
+
+    @Override
+    public ImmutableInt3 xi(int next) {
+        return new ImmutableInt3(next, y, z);
+    }
+
+    @Override
+    public int yi() {
+        return y;
+    }
+
+    @Override
+    public ImmutableInt3 yi(int next) {
+        return new ImmutableInt3(x, next, z);
+    }
+
+    @Override
+    public int zi() {
+        return z;
+    }
+
+    @Override
+    public ImmutableInt3 zi(int next) {
+        return new ImmutableInt3(x, y, next);
+    }
+
+    @Override
+    public ImmutableInt3 seti(int x, int y, int z) {
+        return new ImmutableInt3(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
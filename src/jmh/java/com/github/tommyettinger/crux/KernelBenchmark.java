@@ -0,0 +1,124 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar loops in {@link PointOps} with {@link PointKernels}, which uses the Vector API on Java 17+ when
+ * the {@code jdk.incubator.vector} module is added (the Gradle {@code jmh} task adds it). The {@code kernels} parameter
+ * chooses the path: {@code scalar} always calls PointOps, and {@code simd} calls PointKernels. The {@code simd} trials
+ * fail in setup if PointKernels is not vectorized, so they never quietly measure the scalar fallback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+    @Param({"1024", "65536"})
+    public int size;
+
+    @Param({"scalar", "simd"})
+    public String kernels;
+
+    public float[] xs, ys, zs, ws, oxs, oys, ozs, ows, out;
+    public boolean simd;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        simd = "simd".equals(kernels);
+        if (simd && !PointKernels.isVectorized())
+            throw new IllegalStateException("PointKernels is not vectorized; add the jdk.incubator.vector module on "
+                    + "Java 17+ to run the simd kernels");
+        Random random = new Random(123456789L);
+        xs = fill(random);
+        ys = fill(random);
+        zs = fill(random);
+        ws = fill(random);
+        oxs = fill(random);
+        oys = fill(random);
+        ozs = fill(random);
+        ows = fill(random);
+        out = new float[size];
+    }
+
+    private float[] fill(Random random) {
+        float[] a = new float[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = random.nextFloat() * 2f - 1f;
+        }
+        return a;
+    }
+
+    // Adding drifts the data over many invocations, but float addition takes the same time for any normal value.
+
+    @Benchmark
+    public float add2() {
+        if (simd) {
+            PointKernels.add(xs, ys, oxs, oys, 0, size);
+        } else {
+            PointOps.add(xs, ys, oxs, oys, 0, size);
+        }
+        return xs[0];
+    }
+
+    @Benchmark
+    public float add4() {
+        if (simd) {
+            PointKernels.add(xs, ys, zs, ws, oxs, oys, ozs, ows, 0, size);
+        } else {
+            PointOps.add(xs, ys, zs, ws, oxs, oys, ozs, ows, 0, size);
+        }
+        return xs[0];
+    }
+
+    @Benchmark
+    public float scl3() {
+        if (simd) {
+            PointKernels.scl(xs, ys, zs, -1f, 1f, -1f, 0, size);
+        } else {
+            PointOps.scl(xs, ys, zs, -1f, 1f, -1f, 0, size);
+        }
+        return xs[0];
+    }
+
+    @Benchmark
+    public float dst2_2() {
+        if (simd) PointKernels.dst2(0.25f, -0.25f, xs, ys, out, 0, size);
+        else PointOps.dst2(0.25f, -0.25f, xs, ys, out, 0, size);
+        return out[0];
+    }
+
+    @Benchmark
+    public float dst2_3() {
+        if (simd) PointKernels.dst2(0.25f, -0.25f, 0.5f, xs, ys, zs, out, 0, size);
+        else PointOps.dst2(0.25f, -0.25f, 0.5f, xs, ys, zs, out, 0, size);
+        return out[0];
+    }
+
+    @Benchmark
+    public float dst2_4() {
+        if (simd) PointKernels.dst2(0.25f, -0.25f, 0.5f, -0.5f, xs, ys, zs, ws, out, 0, size);
+        else PointOps.dst2(0.25f, -0.25f, 0.5f, -0.5f, xs, ys, zs, ws, out, 0, size);
+        return out[0];
+    }
+
+    // Normalizing twice is the same as normalizing once, so repeated invocations stay on unit-length data.
+
+    @Benchmark
+    public float nor2() {
+        if (simd) PointKernels.nor(xs, ys, 0, size);
+        else PointOps.nor(xs, ys, 0, size);
+        return xs[0];
+    }
+
+    @Benchmark
+    public float nor3() {
+        if (simd) PointKernels.nor(xs, ys, zs, 0, size);
+        else PointOps.nor(xs, ys, zs, 0, size);
+        return xs[0];
+    }
+}
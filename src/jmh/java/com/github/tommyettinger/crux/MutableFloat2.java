@@ -0,0 +1,128 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A minimal mutable {@link Point2} with float components, similar to libGDX's {@code Vector2}.
+ * Only used by benchmarks; it relies on the defaults in Point2 and PointN wherever possible.
+ */
+public final class MutableFloat2 implements Point2<MutableFloat2> {
+    public float x, y;
+
+    public MutableFloat2() {
+    }
+
+    public MutableFloat2(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    @Override
+    public MutableFloat2 cpy() {
+        return new MutableFloat2(x, y);
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y;
+    }
+
+    @Override
+    public MutableFloat2 set(MutableFloat2 point) {
+        x = point.x;
+        y = point.y;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 setZero() {
+        x = 0f;
+        y = 0f;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 sub(MutableFloat2 point) {
+        x = x - point.x;
+        y = y - point.y;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 add(MutableFloat2 point) {
+        x = x + point.x;
+        y = y + point.y;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 scl(MutableFloat2 point) {
+        x = x * point.x;
+        y = y * point.y;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 minus(float scalar) {
+        x = x - scalar;
+        y = y - scalar;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 plus(float scalar) {
+        x = x + scalar;
+        y = y + scalar;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 times(float scalar) {
+        x = x * scalar;
+        y = y * scalar;
+        return this;
+    }
+
+    @Override
+    public float dst2(MutableFloat2 point) {
+        float dx = x - point.x, dy = y - point.y;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public MutableFloat2 x(float next) {
+        x = next;
+        return this;
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public MutableFloat2 y(float next) {
+        y = next;
+        return this;
+    }
+
+    @Override
+    public MutableFloat2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A minimal mutable {@link Point3} with float components, similar to libGDX's {@code Vector3}.
+ * Only used by benchmarks; it relies on the defaults in Point3 and PointN wherever possible.
+ */
+public final class MutableFloat3 implements Point3<MutableFloat3> {
+    public float x, y, z;
+
+    public MutableFloat3() {
+    }
+
+    public MutableFloat3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    @Override
+    public MutableFloat3 cpy() {
+        return new MutableFloat3(x, y, z);
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y + z * z;
+    }
+
+    @Override
+    public MutableFloat3 set(MutableFloat3 point) {
+        x = point.x;
+        y = point.y;
+        z = point.z;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 setZero() {
+        x = 0f;
+        y = 0f;
+        z = 0f;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 sub(MutableFloat3 point) {
+        x = x - point.x;
+        y = y - point.y;
+        z = z - point.z;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 add(MutableFloat3 point) {
+        x = x + point.x;
+        y = y + point.y;
+        z = z + point.z;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 scl(MutableFloat3 point) {
+        x = x * point.x;
+        y = y * point.y;
+        z = z * point.z;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 minus(float scalar) {
+        x = x - scalar;
+        y = y - scalar;
+        z = z - scalar;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 plus(float scalar) {
+        x = x + scalar;
+        y = y + scalar;
+        z = z + scalar;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 times(float scalar) {
+        x = x * scalar;
+        y = y * scalar;
+        z = z * scalar;
+        return this;
+    }
+
+    @Override
+    public float dst2(MutableFloat3 point) {
+        float dx = x - point.x, dy = y - point.y, dz = z - point.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public MutableFloat3 x(float next) {
+        x = next;
+        return this;
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public MutableFloat3 y(float next) {
+        y = next;
+        return this;
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public MutableFloat3 z(float next) {
+        z = next;
+        return this;
+    }
+
+    @Override
+    public MutableFloat3 set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A minimal mutable {@link Point3} with int components, similar to libGDX's {@code GridPoint3}.
+ * Only used by benchmarks; it overrides the int accessors and {@link #seti(int, int, int)}.
+ */
+public final class MutableInt3 implements Point3<MutableInt3> {
+    public int x, y, z;
+
+    public MutableInt3() {
+    }
+
+    public MutableInt3(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return false;
+    }
+
+    @Override
+    public MutableInt3 cpy() {
+        return new MutableInt3(x, y, z);
+    }
+
+    @Override
+    public float len2() {
+        return (float)x * x + (float)y * y + (float)z * z;
+    }
+
+    @Override
+    public MutableInt3 set(MutableInt3 point) {
+        x = point.x;
+        y = point.y;
+        z = point.z;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 setZero() {
+        x = 0;
+        y = 0;
+        z = 0;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 sub(MutableInt3 point) {
+        x = x - point.x;
+        y = y - point.y;
+        z = z - point.z;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 add(MutableInt3 point) {
+        x = x + point.x;
+        y = y + point.y;
+        z = z + point.z;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 scl(MutableInt3 point) {
+        x = x * point.x;
+        y = y * point.y;
+        z = z * point.z;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 minus(float scalar) {
+        x = (int)(x - scalar);
+        y = (int)(y - scalar);
+        z = (int)(z - scalar);
+        return this;
+    }
+
+    @Override
+    public MutableInt3 plus(float scalar) {
+        x = (int)(x + scalar);
+        y = (int)(y + scalar);
+        z = (int)(z + scalar);
+        return this;
+    }
+
+    @Override
+    public MutableInt3 times(float scalar) {
+        x = (int)(x * scalar);
+        y = (int)(y * scalar);
+        z = (int)(z * scalar);
+        return this;
+    }
+
+    @Override
+    public float dst2(MutableInt3 point) {
+        float dx = x - point.x, dy = y - point.y, dz = z - point.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public MutableInt3 x(float next) {
+        x = (int)next;
+        return this;
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public MutableInt3 y(float next) {
+        y = (int)next;
+        return this;
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public MutableInt3 z(float next) {
+        z = (int)next;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 set(float x, float y, float z) {
+        this.x = (int)x;
+        this.y = (int)y;
+        this.z = (int)z;
+        return this;
+    }
+
+    @Override
+    public int xi() {
+        return x;
+    }
+
+    @Override
+    public MutableInt3 xi(int next) {
+        x = next;
+        return this;
+    }
+
+    @Override
+    public int yi() {
+        return y;
+    }
+
+    @Override
+    public MutableInt3 yi(int next) {
+        y = next;
+        return this;
+    }
+
+    @Override
+    public int zi() {
+        return z;
+    }
+
+    @Override
+    public MutableInt3 zi(int next) {
+        z = next;
+        return this;
+    }
+
+    @Override
+    public MutableInt3 seti(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
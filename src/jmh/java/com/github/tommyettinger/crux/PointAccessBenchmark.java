@@ -0,0 +1,100 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the int accessors {@code xi()}, {@code yi()}, and {@code zi()}, plus {@code seti()}, on {@link Point2}
+ * and {@link Point3}. Float-based types use the default methods, which cast from (or to) float, while int-based types
+ * override them, so this shows what the defaults cost relative to direct int access.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PointAccessBenchmark {
+    public static final int SIZE = 1024;
+
+    @Param({"MutableFloat", "MutableInt", "ImmutableInt"})
+    public String type;
+
+    public Point2[] points2;
+    public Point3[] points3;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        points2 = (Point2[]) Points.fill(type + "2", SIZE, new Random(123456789L));
+        points3 = (Point3[]) Points.fill(type + "3", SIZE, new Random(123456789L));
+    }
+
+    private static <P extends Point2<P>> int read2(P[] points) {
+        int sum = 0;
+        for (int i = 0; i < points.length; i++) {
+            P p = points[i];
+            sum += p.xi() ^ p.yi();
+        }
+        return sum;
+    }
+
+    private static <P extends Point3<P>> int read3(P[] points) {
+        int sum = 0;
+        for (int i = 0; i < points.length; i++) {
+            P p = points[i];
+            sum += p.xi() ^ p.yi() ^ p.zi();
+        }
+        return sum;
+    }
+
+    /**
+     * Swaps x and y in every point. Immutable types get a new point assigned into the array, like callers would
+     * have to do.
+     */
+    private static <P extends Point2<P>> void write2(P[] points) {
+        for (int i = 0; i < points.length; i++) {
+            P p = points[i];
+            points[i] = p.seti(p.yi(), p.xi());
+        }
+    }
+
+    /**
+     * Rotates the components of every point. Immutable types get a new point assigned into the array, like callers
+     * would have to do.
+     */
+    private static <P extends Point3<P>> void write3(P[] points) {
+        for (int i = 0; i < points.length; i++) {
+            P p = points[i];
+            points[i] = p.seti(p.yi(), p.zi(), p.xi());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int readPoint2() {
+        return read2(points2);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int readPoint3() {
+        return read3(points3);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public PointN[] writePoint2() {
+        write2(points2);
+        return points2;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public PointN[] writePoint3() {
+        write3(points3);
+        return points3;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the default methods in {@link PointN} ({@link PointN#len()}, {@link PointN#dst(PointN)},
+ * {@link PointN#nor()}, {@link PointN#isUnit()}, and {@link PointN#isZero()}) when called through a
+ * {@code P extends PointN<P>} bound, the way pathing code calls them. Each fork only ever sees one implementing type,
+ * so these call sites are monomorphic; see {@link DispatchBenchmark} for what happens when they aren't. The
+ * {@code Generated} types come from the processor module and override every default, for comparison with the
+ * hand-written types that inherit them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PointNDefaultsBenchmark {
+    public static final int SIZE = 1024;
+
+    @Param({"MutableFloat2", "MutableInt2", "ImmutableInt2", "MutableFloat3", "MutableInt3", "ImmutableInt3",
+            "GeneratedFloat2", "GeneratedInt2", "GeneratedImmutableInt2",
+            "GeneratedFloat3", "GeneratedInt3", "GeneratedImmutableInt3"})
+    public String type;
+
+    public PointN[] points;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        points = Points.fill(type, SIZE, new Random(123456789L));
+    }
+
+    private static <P extends PointN<P>> float len(P[] points) {
+        float sum = 0f;
+        for (int i = 0; i < points.length; i++) {
+            sum += points[i].len();
+        }
+        return sum;
+    }
+
+    private static <P extends PointN<P>> float dst(P[] points) {
+        float sum = 0f;
+        for (int i = 1; i < points.length; i++) {
+            sum += points[i].dst(points[i - 1]);
+        }
+        return sum;
+    }
+
+    private static <P extends PointN<P>> void nor(P[] points, Blackhole bh) {
+        for (int i = 0; i < points.length; i++) {
+            bh.consume(points[i].cpy().nor());
+        }
+    }
+
+    private static <P extends PointN<P>> int isUnit(P[] points) {
+        int count = 0;
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].isUnit()) ++count;
+        }
+        return count;
+    }
+
+    private static <P extends PointN<P>> int isZero(P[] points) {
+        int count = 0;
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].isZero()) ++count;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float len() {
+        return len(points);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float dst() {
+        return dst(points);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void nor(Blackhole bh) {
+        nor(points, bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int isUnit() {
+        return isUnit(points);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int isZero() {
+        return isZero(points);
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.tommyettinger.crux;
+
+import java.lang.reflect.Array;
+import java.util.Random;
+
+/**
+ * Shared setup code for the benchmarks; creates arrays of the benchmark-only point types by name.
+ */
+public final class Points {
+    private Points() {
+    }
+
+    /**
+     * Makes an array of {@code size} points of the named type, with components between -100 and 100.
+     * @param type the simple name of one of the point types in this source set, such as "MutableInt2"
+     * @param size how many points to create
+     * @param random used to generate components
+     * @return a new array of {@code size} points, all of the same type; the array's component type is that type
+     */
+    public static PointN<?>[] fill(String type, int size, Random random) {
+        PointN<?> first = create(type, random);
+        PointN<?>[] points = (PointN<?>[]) Array.newInstance(first.getClass(), size);
+        points[0] = first;
+        for (int i = 1; i < size; i++) {
+            points[i] = create(type, random);
+        }
+        return points;
+    }
+
+    /**
+     * Makes one point of the named type, with components between -100 and 100.
+     * @param type the simple name of one of the point types in this source set, such as "MutableInt2"
+     * @param random used to generate components
+     * @return a new point of the given type
+     */
+    public static PointN<?> create(String type, Random random) {
+        float x = random.nextFloat() * 200f - 100f, y = random.nextFloat() * 200f - 100f,
+                z = random.nextFloat() * 200f - 100f;
+        switch (type) {
+            case "MutableFloat2": return new MutableFloat2(x, y);
+            case "MutableInt2": return new MutableInt2((int)x, (int)y);
+            case "ImmutableInt2": return new ImmutableInt2((int)x, (int)y);
+            case "ImmutableFloat2": return new ImmutableFloat2(x, y);
+            case "MutableFloat3": return new MutableFloat3(x, y, z);
+            case "MutableInt3": return new MutableInt3((int)x, (int)y, (int)z);
+            case "ImmutableInt3": return new ImmutableInt3((int)x, (int)y, (int)z);
+            case "GeneratedFloat2": return new GeneratedFloat2(x, y);
+            case "GeneratedInt2": return new GeneratedInt2((int)x, (int)y);
+            case "GeneratedImmutableInt2": return new GeneratedImmutableInt2((int)x, (int)y);
+            case "GeneratedFloat3": return new GeneratedFloat3(x, y, z);
+            case "GeneratedInt3": return new GeneratedInt3((int)x, (int)y, (int)z);
+            case "GeneratedImmutableInt3": return new GeneratedImmutableInt3((int)x, (int)y, (int)z);
+            default: throw new IllegalArgumentException("Unknown point type: " + type);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Random;
+
+/**
+ * Prints a table of the error of each {@link Precision} tier, for {@link Precision#sqrt(float)} and
+ * {@link Precision#invSqrt(float)}, over inputs spread evenly on a log scale from 2 to the -40 to 2 to the 40. This
+ * isn't a JMH benchmark; run it with {@code ./gradlew precisionAccuracy}. Pair its output with the timings from
+ * {@link PrecisionBenchmark}.
+ */
+public final class PrecisionAccuracy {
+    private PrecisionAccuracy() {
+    }
+
+    public static void main(String[] args) {
+        final int samples = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.println("| Precision   | sqrt max rel. error | sqrt mean rel. error "
+                + "| invSqrt max rel. error | invSqrt mean rel. error |");
+        System.out.println("|-------------|---------------------|----------------------"
+                + "|------------------------|-------------------------|");
+        for (Precision.Tier p : Precision.Tier.values()) {
+            Random random = new Random(123456789L);
+            double sqrtMax = 0.0, sqrtSum = 0.0, invMax = 0.0, invSum = 0.0;
+            for (int i = 0; i < samples; i++) {
+                final float x = (float) Math.pow(2.0, random.nextDouble() * 80.0 - 40.0);
+                final double exact = Math.sqrt(x);
+                final double sqrtError = Math.abs(p.sqrt(x) - exact) / exact;
+                final double invError = Math.abs(p.invSqrt(x) * exact - 1.0);
+                sqrtMax = Math.max(sqrtMax, sqrtError);
+                sqrtSum += sqrtError;
+                invMax = Math.max(invMax, invError);
+                invSum += invError;
+            }
+            System.out.printf("| %-11s | %19.3e | %20.3e | %22.3e | %23.3e |%n", p, sqrtMax, sqrtSum / samples,
+                    invMax, invSum / samples);
+        }
+    }
+}
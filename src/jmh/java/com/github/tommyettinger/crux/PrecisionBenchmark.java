@@ -0,0 +1,103 @@
+package com.github.tommyettinger.crux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PointN#len(Precision)}, {@link PointN#dst(PointN, Precision)}, and {@link PointN#nor(Precision)} at
+ * each {@link Precision} tier, next to the untiered {@link PointN#len()}, {@link PointN#dst(PointN)}, and
+ * {@link PointN#nor()} as a baseline. Normalization works on a copy of the input, refreshed in place each call, so no
+ * allocation is measured. Run {@link PrecisionAccuracy} for the error of each tier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecisionBenchmark {
+    public static final int SIZE = 1024;
+
+    @Param({"EXACT", "FAST", "APPROXIMATE"})
+    public Precision.Tier precision;
+
+    public MutableFloat3[] points;
+    public MutableFloat3[] scratch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(123456789L);
+        points = new MutableFloat3[SIZE];
+        scratch = new MutableFloat3[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            points[i] = new MutableFloat3(random.nextFloat() * 200f - 100f, random.nextFloat() * 200f - 100f,
+                    random.nextFloat() * 200f - 100f);
+            scratch[i] = new MutableFloat3();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float lenBaseline() {
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += points[i].len();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float len() {
+        final Precision p = precision;
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += points[i].len(p);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float dstBaseline() {
+        float sum = 0f;
+        for (int i = 1; i < SIZE; i++) {
+            sum += points[i].dst(points[i - 1]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float dst() {
+        final Precision p = precision;
+        float sum = 0f;
+        for (int i = 1; i < SIZE; i++) {
+            sum += points[i].dst(points[i - 1], p);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float norBaseline() {
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += scratch[i].set(points[i]).nor().x;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float nor() {
+        final Precision p = precision;
+        float sum = 0f;
+        for (int i = 0; i < SIZE; i++) {
+            sum += scratch[i].set(points[i]).nor(p).x;
+        }
+        return sum;
+    }
+}
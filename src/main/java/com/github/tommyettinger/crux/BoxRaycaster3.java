@@ -0,0 +1,259 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * Casts many rays at once against a set of 3D axis-aligned boxes, using the slab method with precomputed inverse
+ * directions. A ray is described the way {@link PointPair} describes one: {@code a} is the start and {@code b} is
+ * the direction, so the point at distance {@code t} along the ray is {@code a + b * t}, and {@code t} is measured in
+ * multiples of the direction's length. Results can be written as a {@code PointPair} collision, with {@code a} as
+ * the collision point and {@code b} as the normal of the box face that was hit.
+ * <br>
+ * Boxes are stored in flat arrays of min and max corners, added with {@link #addBox} and removable all at once with
+ * {@link #clearBoxes()}. Casting is done box-by-box over the whole batch of rays, so the inner loop is a branch-light
+ * pass over packed ray arrays that HotSpot can unroll. For line-of-sight checks, use the vector from each viewer to
+ * its target as the direction and 1 as {@code maxT}; any ray that reports no hit has a clear line of sight.
+ * <br>
+ * A ray that starts inside a box hits it at {@code t = 0}, with a zero normal. Instances keep scratch arrays for
+ * the inverse directions of the current batch, so they aren't thread-safe; use one per thread.
+ */
+public class BoxRaycaster3 {
+    protected float[] minX, minY, minZ;
+    protected float[] maxX, maxY, maxZ;
+    protected int boxCount;
+
+    protected float[] invX, invY, invZ;
+    protected float[] ox, oy, oz;
+    protected float[] dx, dy, dz;
+
+    /**
+     * Creates a BoxRaycaster3 with no boxes.
+     */
+    public BoxRaycaster3() {
+        minX = new float[16];
+        maxX = new float[16];
+        minY = new float[16];
+        maxY = new float[16];
+        minZ = new float[16];
+        maxZ = new float[16];
+        invX = new float[16];
+        invY = new float[16];
+        invZ = new float[16];
+        ox = new float[16];
+        oy = new float[16];
+        oz = new float[16];
+        dx = new float[16];
+        dy = new float[16];
+        dz = new float[16];
+    }
+
+    /**
+     * Gets how many boxes this holds.
+     * @return how many boxes this holds
+     */
+    public int boxCount() {
+        return boxCount;
+    }
+
+    /**
+     * Removes all boxes.
+     */
+    public void clearBoxes() {
+        boxCount = 0;
+    }
+
+    /**
+     * Adds an axis-aligned box with the given corners. If a min is greater than the matching max, they are swapped.
+     * @param minX the lowest x in the box
+     * @param minY the lowest y in the box
+     * @param minZ the lowest z in the box
+     * @param maxX the highest x in the box
+     * @param maxY the highest y in the box
+     * @param maxZ the highest z in the box
+     * @return the index of the new box, used to identify it in cast results
+     */
+    public int addBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (boxCount == this.minX.length) {
+            int cap = boxCount + (boxCount >>> 1);
+            this.minX = Arrays.copyOf(this.minX, cap);
+            this.maxX = Arrays.copyOf(this.maxX, cap);
+            this.minY = Arrays.copyOf(this.minY, cap);
+            this.maxY = Arrays.copyOf(this.maxY, cap);
+            this.minZ = Arrays.copyOf(this.minZ, cap);
+            this.maxZ = Arrays.copyOf(this.maxZ, cap);
+        }
+        this.minX[boxCount] = Math.min(minX, maxX);
+        this.maxX[boxCount] = Math.max(minX, maxX);
+        this.minY[boxCount] = Math.min(minY, maxY);
+        this.maxY[boxCount] = Math.max(minY, maxY);
+        this.minZ[boxCount] = Math.min(minZ, maxZ);
+        this.maxZ[boxCount] = Math.max(minZ, maxZ);
+        return boxCount++;
+    }
+
+    /**
+     * Adds an axis-aligned box with corners {@code box.a} and {@code box.b}.
+     * @param box a PointPair holding the min corner in {@code a} and the max corner in {@code b}
+     * @return the index of the new box, used to identify it in cast results
+     */
+    public int addBox(PointPair<? extends Point3<?>> box) {
+        return addBox(box.a.x(), box.a.y(), box.a.z(), box.b.x(), box.b.y(), box.b.z());
+    }
+
+    private void ensureRays(int count) {
+        if (invX.length < count) {
+            int cap = Math.max(count, invX.length << 1);
+            invX = new float[cap];
+            invY = new float[cap];
+            invZ = new float[cap];
+            ox = new float[cap];
+            oy = new float[cap];
+            oz = new float[cap];
+            dx = new float[cap];
+            dy = new float[cap];
+            dz = new float[cap];
+        }
+    }
+
+    /**
+     * Casts every ray from index {@code from} (inclusive) to {@code to} (exclusive) in the given packed arrays against
+     * every box, and stores the distance and box index of each ray's closest hit. Rays that hit nothing closer than
+     * {@code maxT} get {@code maxT} as their distance and -1 as their box.
+     * <br>
+     * Results are stored starting at index 0 of the output arrays, not at {@code from}.
+     * @param oxs the x components of the ray starts
+     * @param oys the y components of the ray starts
+     * @param ozs the z components of the ray starts
+     * @param dxs the x components of the ray directions
+     * @param dys the y components of the ray directions
+     * @param dzs the z components of the ray directions
+     * @param from the first ray index to cast, inclusive
+     * @param to the last ray index to cast, exclusive
+     * @param maxT how far along each ray to look, in multiples of its direction's length
+     * @param outT receives the hit distance of each ray; must have length at least {@code to - from}
+     * @param outBox receives the hit box index of each ray, or -1; must have length at least {@code to - from}
+     * @return how many rays hit a box
+     */
+    public int cast(float[] oxs, float[] oys, float[] ozs, float[] dxs, float[] dys, float[] dzs, int from, int to,
+            float maxT, float[] outT, int[] outBox) {
+        int count = to - from;
+        ensureRays(count);
+        for (int i = 0, j = from; i < count; i++, j++) {
+            ox[i] = oxs[j];
+            oy[i] = oys[j];
+            oz[i] = ozs[j];
+            dx[i] = dxs[j];
+            dy[i] = dys[j];
+            dz[i] = dzs[j];
+        }
+        return castScratch(count, maxT, outT, outBox);
+    }
+
+    /**
+     * Casts every ray from index {@code from} (inclusive) to {@code to} (exclusive) in {@code rays} against every box,
+     * where {@code a} is each ray's start and {@code b} is its direction. The distance and box index of each ray's
+     * closest hit are stored, and if {@code outHits} is not null, the collision point and face normal are stored in its
+     * PointPairs as {@code a} and {@code b}. Rays that hit nothing closer than {@code maxT} get {@code maxT} as
+     * their distance, -1 as their box, and leave their PointPair in outHits unchanged.
+     * <br>
+     * Results are stored starting at index 0 of the output arrays, not at {@code from}.
+     * @param rays the rays to cast; will not be modified
+     * @param from the first ray index to cast, inclusive
+     * @param to the last ray index to cast, exclusive
+     * @param maxT how far along each ray to look, in multiples of its direction's length
+     * @param outT receives the hit distance of each ray; must have length at least {@code to - from}
+     * @param outBox receives the hit box index of each ray, or -1; must have length at least {@code to - from}
+     * @param outHits if not null, each PointPair here receives the collision point and normal of the matching ray
+     * @return how many rays hit a box
+     * @param <P> the type of point in each ray and hit
+     */
+    public <P extends Point3<P>> int cast(PointPair<P>[] rays, int from, int to, float maxT, float[] outT,
+            int[] outBox, PointPair<P>[] outHits) {
+        int count = to - from;
+        ensureRays(count);
+        for (int i = 0, j = from; i < count; i++, j++) {
+            P a = rays[j].a, b = rays[j].b;
+            ox[i] = a.x();
+            oy[i] = a.y();
+            oz[i] = a.z();
+            dx[i] = b.x();
+            dy[i] = b.y();
+            dz[i] = b.z();
+        }
+        int hits = castScratch(count, maxT, outT, outBox);
+        if (outHits != null && hits > 0) {
+            for (int i = 0; i < count; i++) {
+                int box = outBox[i];
+                if (box < 0) continue;
+                float t = outT[i];
+                PointPair<P> hit = outHits[i];
+                hit.a = hit.a.set(ox[i] + dx[i] * t, oy[i] + dy[i] * t, oz[i] + dz[i] * t);
+                if (t <= 0f) {
+                    hit.b = hit.b.setZero();
+                    continue;
+                }
+                // the entry face is on the axis whose near slab was crossed last
+                float nx = (invX[i] >= 0f ? minX[box] - ox[i] : maxX[box] - ox[i]) * invX[i];
+                float ny = (invY[i] >= 0f ? minY[box] - oy[i] : maxY[box] - oy[i]) * invY[i];
+                float nz = (invZ[i] >= 0f ? minZ[box] - oz[i] : maxZ[box] - oz[i]) * invZ[i];
+                // NaN means the ray doesn't move along that axis and starts on one of its planes, so never crosses it
+                if (nx != nx) nx = Float.NEGATIVE_INFINITY;
+                if (ny != ny) ny = Float.NEGATIVE_INFINITY;
+                if (nz != nz) nz = Float.NEGATIVE_INFINITY;
+                if (nx >= ny && nx >= nz) hit.b = hit.b.set(invX[i] >= 0f ? -1f : 1f, 0f, 0f);
+                else if (ny >= nx && ny >= nz) hit.b = hit.b.set(0f, invY[i] >= 0f ? -1f : 1f, 0f);
+                else hit.b = hit.b.set(0f, 0f, invZ[i] >= 0f ? -1f : 1f);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Casts the first {@code count} rays in the scratch arrays, which must already hold the starts and directions.
+     */
+    protected int castScratch(int count, float maxT, float[] outT, int[] outBox) {
+        for (int i = 0; i < count; i++) {
+            invX[i] = 1f / dx[i];
+            invY[i] = 1f / dy[i];
+            invZ[i] = 1f / dz[i];
+            outT[i] = maxT;
+            outBox[i] = -1;
+        }
+        for (int box = 0; box < boxCount; box++) {
+            float loX = minX[box], hiX = maxX[box];
+            float loY = minY[box], hiY = maxY[box];
+            float loZ = minZ[box], hiZ = maxZ[box];
+            for (int i = 0; i < count; i++) {
+                float ax = (loX - ox[i]) * invX[i], bx = (hiX - ox[i]) * invX[i];
+                float ay = (loY - oy[i]) * invY[i], by = (hiY - oy[i]) * invY[i];
+                float az = (loZ - oz[i]) * invZ[i], bz = (hiZ - oz[i]) * invZ[i];
+                // 0 * infinity is NaN only when a ray that doesn't move along an axis starts exactly on one of
+                // that axis' planes; the ray is then inside that closed slab for its whole length
+                if (ax != ax || bx != bx) {
+                    ax = Float.NEGATIVE_INFINITY;
+                    bx = Float.POSITIVE_INFINITY;
+                }
+                if (ay != ay || by != by) {
+                    ay = Float.NEGATIVE_INFINITY;
+                    by = Float.POSITIVE_INFINITY;
+                }
+                if (az != az || bz != bz) {
+                    az = Float.NEGATIVE_INFINITY;
+                    bz = Float.POSITIVE_INFINITY;
+                }
+                float near = Math.max(Math.max((ax < bx ? ax : bx), (ay < by ? ay : by)), (az < bz ? az : bz));
+                float far = Math.min(Math.min((ax < bx ? bx : ax), (ay < by ? by : ay)), (az < bz ? bz : az));
+                float t = Math.max(near, 0f);
+                if (t <= far && t < outT[i]) {
+                    outT[i] = t;
+                    outBox[i] = box;
+                }
+            }
+        }
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            if (outBox[i] >= 0) ++hits;
+        }
+        return hits;
+    }
+}
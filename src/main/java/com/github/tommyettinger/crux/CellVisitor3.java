@@ -0,0 +1,18 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A callback for walks over 3D grid cells, such as those in {@link LineWalker}, which receives each cell's int
+ * coordinates directly instead of as a point object. Walks call this once per cell, in order, and stop early if it
+ * returns false, which makes line-of-sight checks stop at the first blocked cell.
+ */
+@FunctionalInterface
+public interface CellVisitor3 {
+    /**
+     * Called for each cell in a walk.
+     * @param x the x coordinate of the cell
+     * @param y the y coordinate of the cell
+     * @param z the z coordinate of the cell
+     * @return true to keep walking, or false to stop the walk early
+     */
+    boolean visit(int x, int y, int z);
+}
@@ -0,0 +1,268 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Convex hulls of 2D points given as packed float coordinates, where point {@code i} has its x at array index
+ * {@code i * 2} and its y at {@code i * 2 + 1}. Every method writes the hull as indices of input points into an int
+ * array, instead of creating point objects, and returns how many vertices the hull has. Hull vertices are in
+ * counter-clockwise order (with y pointing up), starting at the vertex with the lowest x (and the lowest y among
+ * those), and points that lie exactly on a hull edge are not included. An input where every point is the same gives a
+ * one-vertex hull, and an input where every point is on one line gives a two-vertex hull.
+ * <br>
+ * There are three ways to get the same hull:
+ * <ul>
+ *     <li>{@link #monotoneChain(float[], int, int[])} is Andrew's monotone chain, which sorts the points and takes
+ *     {@code O(n log n)} time no matter how they are arranged.</li>
+ *     <li>{@link #quickHull(float[], int, int[])} is QuickHull, which discards points inside the hull as it goes and
+ *     is usually faster when most points are inside, such as for points spread evenly in a disc or square. Its worst
+ *     case is {@code O(n^2)}, when every point is on the hull.</li>
+ *     <li>{@link #parallelHull(float[], int, int[])} splits the points into chunks, finds each chunk's hull with
+ *     monotone chain on the common {@link ForkJoinPool}, and merges hulls pairwise by finding the hull of their
+ *     vertices. Since a chunk's hull is usually tiny, this scales well for millions of points.</li>
+ * </ul>
+ * Coordinates are compared with double math, so the results are exact for any float inputs that aren't NaN or
+ * infinite. Use {@link #pack(Point2[])} to get packed coordinates from points.
+ */
+public final class ConvexHull {
+    private ConvexHull() {
+    }
+
+    /**
+     * Chunks of at most this many points are handled on one thread by {@link #parallelHull(float[], int, int[])}.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * Copies the x and y of each point into a new packed array, in the layout the methods here use.
+     * @param points the points to copy; will not be modified
+     * @return a new float array with {@code points.length * 2} items
+     */
+    public static float[] pack(Point2<?>[] points) {
+        final float[] packed = new float[points.length << 1];
+        for (int i = 0; i < points.length; i++) {
+            packed[i << 1] = points[i].x();
+            packed[i << 1 | 1] = points[i].y();
+        }
+        return packed;
+    }
+
+    /**
+     * Finds the convex hull of the first {@code count} points in {@code packed} with Andrew's monotone chain.
+     * @param packed x and y for each point, one point after another; will not be modified
+     * @param count how many points to use
+     * @param out receives the indices of hull vertices in counter-clockwise order; must have at least
+     *            {@code count} items, or {@code count + 1} if count is 2 or less
+     * @return how many hull vertices were written to {@code out}
+     */
+    public static int monotoneChain(float[] packed, int count, int[] out) {
+        final int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = i;
+        }
+        return chain(packed, indices, count, out);
+    }
+
+    /**
+     * Finds the convex hull of the first {@code count} points in {@code packed} with QuickHull.
+     * @param packed x and y for each point, one point after another; will not be modified
+     * @param count how many points to use
+     * @param out receives the indices of hull vertices in counter-clockwise order; must have at least
+     *            {@code count} items
+     * @return how many hull vertices were written to {@code out}
+     */
+    public static int quickHull(float[] packed, int count, int[] out) {
+        if (count <= 0) return 0;
+        int a = 0, b = 0;
+        for (int i = 1; i < count; i++) {
+            if (before(packed, i, a)) a = i;
+            if (before(packed, b, i)) b = i;
+        }
+        out[0] = a;
+        if (!before(packed, a, b)) return 1;
+        final int[] indices = new int[count];
+        // points right of a to b (below the line) go first, then points right of b to a (above it)
+        int below = 0, above = count;
+        for (int i = 0; i < count; i++) {
+            final double c = cross(packed, a, b, i);
+            if (c < 0.0) indices[below++] = i;
+            else if (c > 0.0) indices[--above] = i;
+        }
+        int k = quickHull(packed, indices, 0, below, a, b, out, 1);
+        out[k++] = b;
+        return quickHull(packed, indices, above, count, b, a, out, k);
+    }
+
+    /**
+     * Adds the hull vertices strictly between {@code a} and {@code b} to {@code out}, in order from a to b, given
+     * that {@code indices[lo, hi)} holds every point to the right of the line from a to b.
+     */
+    private static int quickHull(float[] p, int[] indices, int lo, int hi, int a, int b, int[] out, int k) {
+        if (lo >= hi) return k;
+        // ties go to the point closest to a, so points between two tied points on the hull get discarded later
+        int c = indices[lo];
+        double farthest = cross(p, a, b, c), along = dot(p, a, b, c);
+        for (int i = lo + 1; i < hi; i++) {
+            final int n = indices[i];
+            final double d = cross(p, a, b, n);
+            if (d < farthest || (d == farthest && dot(p, a, b, n) < along)) {
+                farthest = d;
+                along = dot(p, a, b, n);
+                c = n;
+            }
+        }
+        // anything inside triangle a, c, b can't be on the hull; move the rest to the front in two groups
+        int m1 = lo;
+        for (int i = lo; i < hi; i++) {
+            final int n = indices[i];
+            if (cross(p, a, c, n) < 0.0) {
+                indices[i] = indices[m1];
+                indices[m1++] = n;
+            }
+        }
+        int m2 = m1;
+        for (int i = m1; i < hi; i++) {
+            final int n = indices[i];
+            if (cross(p, c, b, n) < 0.0) {
+                indices[i] = indices[m2];
+                indices[m2++] = n;
+            }
+        }
+        k = quickHull(p, indices, lo, m1, a, c, out, k);
+        out[k++] = c;
+        return quickHull(p, indices, m1, m2, c, b, out, k);
+    }
+
+    /**
+     * Finds the convex hull of the first {@code count} points in {@code packed} by splitting them into chunks of at
+     * most {@link #PARALLEL_THRESHOLD} points, finding each chunk's hull in parallel on the common
+     * {@link ForkJoinPool}, and merging hulls. For fewer points than the threshold, this is the same as
+     * {@link #monotoneChain(float[], int, int[])}.
+     * @param packed x and y for each point, one point after another; will not be modified
+     * @param count how many points to use
+     * @param out receives the indices of hull vertices in counter-clockwise order; must have at least
+     *            {@code count} items, or {@code count + 1} if count is 2 or less
+     * @return how many hull vertices were written to {@code out}
+     */
+    public static int parallelHull(float[] packed, int count, int[] out) {
+        if (count <= PARALLEL_THRESHOLD) return monotoneChain(packed, count, out);
+        final int[] hull = ForkJoinPool.commonPool().invoke(new HullTask(packed, 0, count));
+        System.arraycopy(hull, 0, out, 0, hull.length);
+        return hull.length;
+    }
+
+    private static final class HullTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+        private final float[] packed;
+        private final int lo, hi;
+
+        HullTask(float[] packed, int lo, int hi) {
+            this.packed = packed;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            final int[] indices;
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                indices = new int[hi - lo];
+                for (int i = lo; i < hi; i++) {
+                    indices[i - lo] = i;
+                }
+            } else {
+                final int mid = lo + hi >>> 1;
+                final HullTask left = new HullTask(packed, lo, mid);
+                left.fork();
+                final int[] right = new HullTask(packed, mid, hi).compute();
+                final int[] l = left.join();
+                indices = Arrays.copyOf(l, l.length + right.length);
+                System.arraycopy(right, 0, indices, l.length, right.length);
+            }
+            final int[] hull = new int[indices.length + 1];
+            return Arrays.copyOf(hull, chain(packed, indices, indices.length, hull));
+        }
+    }
+
+    /**
+     * Runs monotone chain over the points at the first {@code n} items of {@code indices}, which this sorts.
+     */
+    private static int chain(float[] p, int[] indices, int n, int[] out) {
+        if (n <= 0) return 0;
+        sort(p, indices, n);
+        if (n == 1 || !before(p, indices[0], indices[n - 1])) {
+            out[0] = indices[0];
+            return 1;
+        }
+        final int[] hull = new int[n + 1];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            final int next = indices[i];
+            while (k >= 2 && cross(p, hull[k - 2], hull[k - 1], next) <= 0.0) k--;
+            hull[k++] = next;
+        }
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            final int next = indices[i];
+            while (k >= lower && cross(p, hull[k - 2], hull[k - 1], next) <= 0.0) k--;
+            hull[k++] = next;
+        }
+        // the last vertex is the first one again
+        System.arraycopy(hull, 0, out, 0, --k);
+        return k;
+    }
+
+    /**
+     * Sorts the first {@code n} indices by x, then y, of the points they refer to. Sorting by x uses primitive long
+     * keys with x's bits on top, and runs with equal x are then sorted by y the same way.
+     */
+    private static void sort(float[] p, int[] indices, int n) {
+        final long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (long) PointInPolygon.sortable(p[indices[i] << 1]) << 32 | indices[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < n; i++) {
+            indices[i] = (int) keys[i];
+        }
+        for (int start = 0, end; start < n; start = end) {
+            final float x = p[indices[start] << 1];
+            end = start + 1;
+            while (end < n && p[indices[end] << 1] == x) end++;
+            if (end - start > 1) {
+                for (int i = start; i < end; i++) {
+                    keys[i] = (long) PointInPolygon.sortable(p[indices[i] << 1 | 1]) << 32 | indices[i];
+                }
+                Arrays.sort(keys, start, end);
+                for (int i = start; i < end; i++) {
+                    indices[i] = (int) keys[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * True if point i is before point j when sorting by x, then y.
+     */
+    private static boolean before(float[] p, int i, int j) {
+        final float xi = p[i << 1], xj = p[j << 1];
+        return xi < xj || (xi == xj && p[i << 1 | 1] < p[j << 1 | 1]);
+    }
+
+    /**
+     * How far c is from a in the direction from a to b, multiplied by the distance from a to b.
+     */
+    private static double dot(float[] p, int a, int b, int c) {
+        final double ax = p[a << 1], ay = p[a << 1 | 1];
+        return (p[b << 1] - ax) * (p[c << 1] - ax) + (p[b << 1 | 1] - ay) * (p[c << 1 | 1] - ay);
+    }
+
+    /**
+     * Twice the signed area of the triangle a, b, c; positive if c is to the left of the line from a to b.
+     */
+    private static double cross(float[] p, int a, int b, int c) {
+        final double ax = p[a << 1], ay = p[a << 1 | 1];
+        return (p[b << 1] - ax) * (p[c << 1 | 1] - ay) - (p[b << 1 | 1] - ay) * (p[c << 1] - ax);
+    }
+}
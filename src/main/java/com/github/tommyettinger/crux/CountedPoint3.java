@@ -0,0 +1,257 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Wraps any {@link Point3} and counts every call made through this wrapper with {@link Instrumentation}, by
+ * {@link Instrumentation.Op}, along with whether each call created a new point. Wrap the points that a piece of code
+ * uses, run it, and check {@link Instrumentation#snapshot()} to see which operations it calls and which of them
+ * create garbage.
+ * <br>
+ * Calls are passed on to the wrapped point. When that returns the same point, as a mutable point does, this returns
+ * itself; when it returns a different point, as an immutable point does, this counts an allocation and returns a new
+ * wrapper around the result. Methods that take another point unwrap it first. Default methods that aren't overridden
+ * here, such as {@code nor()}, are counted through the methods they call. Counting doesn't depend on
+ * {@link Instrumentation#ENABLED}, since using this wrapper is already opting in.
+ *
+ * @param <P> the type of the wrapped point
+ */
+public class CountedPoint3<P extends Point3<P>> implements Point3<CountedPoint3<P>> {
+    protected P delegate;
+
+    /**
+     * Wraps {@code delegate}, which is not copied.
+     * @param delegate the point to wrap and count calls to
+     */
+    public CountedPoint3(P delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the wrapped point, which is not copied
+     */
+    public P getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Counts a call that returned {@code result}, and returns this if result is the wrapped point or a new wrapper
+     * around result otherwise.
+     */
+    protected CountedPoint3<P> wrap(P result, Instrumentation.Op op) {
+        if (result == delegate) {
+            Instrumentation.count(op, false);
+            return this;
+        }
+        Instrumentation.count(op, true);
+        return new CountedPoint3<>(result);
+    }
+
+    @Override
+    public int rank() {
+        return delegate.rank();
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return delegate.floatingPoint();
+    }
+
+    @Override
+    public boolean mutable() {
+        return delegate.mutable();
+    }
+
+    @Override
+    public float x() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.x();
+    }
+
+    @Override
+    public int xi() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.xi();
+    }
+
+    @Override
+    public CountedPoint3<P> x(float next) {
+        return wrap(delegate.x(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public CountedPoint3<P> xi(int next) {
+        return wrap(delegate.xi(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public float y() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.y();
+    }
+
+    @Override
+    public int yi() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.yi();
+    }
+
+    @Override
+    public CountedPoint3<P> y(float next) {
+        return wrap(delegate.y(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public CountedPoint3<P> yi(int next) {
+        return wrap(delegate.yi(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public float z() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.z();
+    }
+
+    @Override
+    public int zi() {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.zi();
+    }
+
+    @Override
+    public CountedPoint3<P> z(float next) {
+        return wrap(delegate.z(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public CountedPoint3<P> zi(int next) {
+        return wrap(delegate.zi(next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public CountedPoint3<P> set(float x, float y, float z) {
+        return wrap(delegate.set(x, y, z), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public CountedPoint3<P> seti(int x, int y, int z) {
+        return wrap(delegate.seti(x, y, z), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public float get(int index) {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.get(index);
+    }
+
+    @Override
+    public int geti(int index) {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.geti(index);
+    }
+
+    @Override
+    public CountedPoint3<P> setAt(int index, float next) {
+        return wrap(delegate.setAt(index, next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public CountedPoint3<P> setiAt(int index, int next) {
+        return wrap(delegate.setiAt(index, next), Instrumentation.Op.SET_COMPONENT);
+    }
+
+    @Override
+    public float[] toArray(float[] array, int offset) {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.toArray(array, offset);
+    }
+
+    @Override
+    public int[] toArray(int[] array, int offset) {
+        Instrumentation.count(Instrumentation.Op.READ, false);
+        return delegate.toArray(array, offset);
+    }
+
+    @Override
+    public CountedPoint3<P> fromArray(float[] array, int offset) {
+        return wrap(delegate.fromArray(array, offset), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public CountedPoint3<P> fromArray(int[] array, int offset) {
+        return wrap(delegate.fromArray(array, offset), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public CountedPoint3<P> cpy() {
+        Instrumentation.count(Instrumentation.Op.CPY, true);
+        return new CountedPoint3<>(delegate.cpy());
+    }
+
+    @Override
+    public float len2() {
+        Instrumentation.count(Instrumentation.Op.MEASURE, false);
+        return delegate.len2();
+    }
+
+    @Override
+    public float dst2(CountedPoint3<P> point) {
+        Instrumentation.count(Instrumentation.Op.MEASURE, false);
+        return delegate.dst2(point.delegate);
+    }
+
+    @Override
+    public CountedPoint3<P> set(CountedPoint3<P> point) {
+        return wrap(delegate.set(point.delegate), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public CountedPoint3<P> setZero() {
+        return wrap(delegate.setZero(), Instrumentation.Op.SET);
+    }
+
+    @Override
+    public CountedPoint3<P> sub(CountedPoint3<P> point) {
+        return wrap(delegate.sub(point.delegate), Instrumentation.Op.SUB);
+    }
+
+    @Override
+    public CountedPoint3<P> add(CountedPoint3<P> point) {
+        return wrap(delegate.add(point.delegate), Instrumentation.Op.ADD);
+    }
+
+    @Override
+    public CountedPoint3<P> scl(CountedPoint3<P> point) {
+        return wrap(delegate.scl(point.delegate), Instrumentation.Op.SCL);
+    }
+
+    @Override
+    public CountedPoint3<P> minus(float scalar) {
+        return wrap(delegate.minus(scalar), Instrumentation.Op.MINUS);
+    }
+
+    @Override
+    public CountedPoint3<P> plus(float scalar) {
+        return wrap(delegate.plus(scalar), Instrumentation.Op.PLUS);
+    }
+
+    @Override
+    public CountedPoint3<P> times(float scalar) {
+        return wrap(delegate.times(scalar), Instrumentation.Op.TIMES);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CountedPoint3)) return false;
+        return delegate.equals(((CountedPoint3<?>) o).delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
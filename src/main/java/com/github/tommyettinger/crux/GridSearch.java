@@ -0,0 +1,501 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* and Dijkstra searches over a 2D grid of movement costs, working on packed int cell indices
+ * ({@code x + y * width}) instead of point objects. The open set is a primitive binary heap, and all per-search state
+ * lives in scratch arrays kept per thread and reused, so a search doesn't allocate once a thread's scratch arrays have
+ * grown to fit the grid. Points only appear at the edges: start and goal positions are read with
+ * {@link Point2#xi()} and {@link Point2#yi()}, and found paths are written into a caller's List of points.
+ * <br>
+ * Each cell has a cost to enter it, which must be positive; a cost of {@link Float#POSITIVE_INFINITY} (or NaN) makes
+ * a cell a wall. Diagonal moves, if allowed, cost {@code sqrt(2)} times the cost of the cell they enter, and by
+ * default can't cut between two walls or around the corner of one. For A* to find shortest paths, the
+ * {@link Heuristic} must not overestimate: use {@link Heuristic#MANHATTAN} or {@link Heuristic#EUCLIDEAN} for
+ * 4-way movement and {@link Heuristic#OCTILE} (or {@link Heuristic#CHEBYSHEV}, which is looser) for 8-way movement,
+ * when no passable cell costs less than 1, or scale them by the cheapest cost with {@link Heuristic#weighted(float)}.
+ * <br>
+ * A GridSearch can be searched from many threads at once, as long as its costs aren't changed during a search.
+ */
+public class GridSearch {
+    /**
+     * Estimates the remaining cost from a cell to a goal, given the absolute differences in x and y between them. The
+     * common grid heuristics are provided as constants, and any other estimate (such as one scaled by the cheapest
+     * cell cost) can be given as a lambda. Using {@link PointN#dst2(PointN)} here would be a mistake, since squared
+     * distance overestimates.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        /**
+         * {@code dx + dy}; exact for 4-way movement on a uniform grid.
+         */
+        Heuristic MANHATTAN = (dx, dy) -> dx + dy;
+        /**
+         * {@code max(dx, dy)}; admissible for 8-way movement, but octile is tighter when diagonals cost more.
+         */
+        Heuristic CHEBYSHEV = Math::max;
+        /**
+         * {@code max(dx, dy) + (sqrt(2) - 1) * min(dx, dy)}; exact for 8-way movement on a uniform grid.
+         */
+        Heuristic OCTILE = (dx, dy) -> dx < dy ? dy + dx * (SQRT2 - 1f) : dx + dy * (SQRT2 - 1f);
+        /**
+         * {@code sqrt(dx * dx + dy * dy)}; admissible for any movement, but looser than the others on a grid.
+         */
+        Heuristic EUCLIDEAN = (dx, dy) -> (float) Math.sqrt((double) dx * dx + (double) dy * dy);
+
+        /**
+         * Estimates the cost to move dx cells on one axis and dy on the other.
+         * @param dx the absolute difference in x; never negative
+         * @param dy the absolute difference in y; never negative
+         * @return an estimate of the remaining cost, which should not be more than the actual cost
+         */
+        float estimate(int dx, int dy);
+
+        /**
+         * Gets a Heuristic that multiplies this one's estimates by {@code weight}. Using the lowest cost of any
+         * passable cell as the weight keeps the constant heuristics admissible when that cost isn't 1; a larger weight
+         * makes A* expand fewer cells, but then the paths it finds may cost more than the cheapest path.
+         * @param weight what to multiply each estimate by; should be positive
+         * @return a new Heuristic that scales this one's estimates
+         */
+        default Heuristic weighted(float weight) {
+            return (dx, dy) -> estimate(dx, dy) * weight;
+        }
+    }
+
+    protected static final float SQRT2 = (float) Math.sqrt(2.0);
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    protected final int width, height;
+    protected final float[] costs;
+    protected boolean diagonal;
+    protected boolean cutCorners;
+
+    /**
+     * Per-thread search state, sized to fit this grid.
+     */
+    protected final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Creates a GridSearch of the given size where every cell costs 1 to enter, with 4-way movement.
+     * @param width how many cells wide the grid is
+     * @param height how many cells tall the grid is
+     */
+    public GridSearch(int width, int height) {
+        this(width, height, false);
+    }
+
+    /**
+     * Creates a GridSearch of the given size where every cell costs 1 to enter.
+     * @param width how many cells wide the grid is
+     * @param height how many cells tall the grid is
+     * @param diagonal true to allow 8-way movement, or false for 4-way movement
+     */
+    public GridSearch(int width, int height, boolean diagonal) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Invalid grid size: " + width + " by " + height);
+        this.width = width;
+        this.height = height;
+        this.diagonal = diagonal;
+        costs = new float[width * height];
+        Arrays.fill(costs, 1f);
+        final int size = costs.length;
+        scratch = new ThreadLocal<Scratch>() {
+            @Override
+            protected Scratch initialValue() {
+                return new Scratch(size);
+            }
+        };
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isDiagonal() {
+        return diagonal;
+    }
+
+    public void setDiagonal(boolean diagonal) {
+        this.diagonal = diagonal;
+    }
+
+    public boolean isCutCorners() {
+        return cutCorners;
+    }
+
+    /**
+     * If true, diagonal moves are allowed even when one or both of the cells they pass between are walls.
+     * @param cutCorners true to let diagonal moves pass walls at their corners
+     */
+    public void setCutCorners(boolean cutCorners) {
+        this.cutCorners = cutCorners;
+    }
+
+    /**
+     * Gets the cost array directly, indexed by {@link #index(int, int)}, so costs can be changed in bulk.
+     * @return the cost to enter each cell; not a copy
+     */
+    public float[] getCosts() {
+        return costs;
+    }
+
+    public float getCost(int x, int y) {
+        return costs[x + y * width];
+    }
+
+    /**
+     * Sets the cost to enter one cell.
+     * @param x the x of the cell
+     * @param y the y of the cell
+     * @param cost a positive cost, or {@link Float#POSITIVE_INFINITY} to make the cell a wall
+     */
+    public void setCost(int x, int y, float cost) {
+        costs[x + y * width] = cost;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    public int x(int index) {
+        return index % width;
+    }
+
+    public int y(int index) {
+        return index / width;
+    }
+
+    protected static boolean passable(float cost) {
+        return cost < Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds a lowest-cost path with A* from (startX, startY) to (goalX, goalY), and writes it into {@code path} from
+     * start to goal, inclusive. Points already in {@code path} are set in place with {@link Point2#seti(int, int)};
+     * if more are needed, they are made with {@code template.cpy().seti(x, y)}, and any extra points at the end are
+     * removed. The search stops as soon as the goal is reached.
+     * @param startX the x of the start cell
+     * @param startY the y of the start cell
+     * @param goalX the x of the goal cell
+     * @param goalY the y of the goal cell
+     * @param heuristic estimates the remaining cost; see {@link Heuristic}
+     * @param path receives the path; will be modified, and is emptied if there is no path
+     * @param template used only to create points if {@code path} is too short
+     * @return true if a path was found, or false if the goal can't be reached
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> boolean findPath(int startX, int startY, int goalX, int goalY, Heuristic heuristic,
+                                                  List<P> path, P template) {
+        if (!inBounds(startX, startY) || !inBounds(goalX, goalY)
+                || !passable(costs[index(startX, startY)]) || !passable(costs[index(goalX, goalY)])) {
+            path.clear();
+            return false;
+        }
+        final long time = Instrumentation.begin();
+        final Scratch s = scratch.get().begin();
+        final int start = index(startX, startY), goal = index(goalX, goalY);
+        s.open(start, 0f, heuristic.estimate(Math.abs(goalX - startX), Math.abs(goalY - startY)), -1);
+        final int dirs = diagonal ? 8 : 4;
+        int expanded = 0;
+        while (s.heapSize > 0) {
+            final int cur = s.pop();
+            expanded++;
+            if (cur == goal) {
+                writePath(s, goal, path, template);
+                if (Instrumentation.ENABLED)
+                    Instrumentation.end(Instrumentation.Bulk.SEARCH, "GridSearch.findPath", time, expanded);
+                return true;
+            }
+            final int cx = cur % width, cy = cur / width;
+            final float g = s.g[cur];
+            for (int d = 0; d < dirs; d++) {
+                final int nx = cx + DX[d], ny = cy + DY[d];
+                if (!canMove(cx, cy, nx, ny, d)) continue;
+                final int next = nx + ny * width;
+                final float ng = g + (d < 4 ? costs[next] : costs[next] * SQRT2);
+                if (s.stamp[next] != s.generation) {
+                    s.open(next, ng, ng + heuristic.estimate(Math.abs(goalX - nx), Math.abs(goalY - ny)), cur);
+                } else if (s.heapPos[next] >= 0 && ng < s.g[next]) {
+                    s.decrease(next, ng, ng + (s.f[next] - s.g[next]), cur);
+                }
+            }
+        }
+        path.clear();
+        if (Instrumentation.ENABLED)
+            Instrumentation.end(Instrumentation.Bulk.SEARCH, "GridSearch.findPath", time, expanded);
+        return false;
+    }
+
+    /**
+     * Finds a lowest-cost path with A* between the int positions of two points, and writes it into {@code path}. See
+     * {@link #findPath(int, int, int, int, Heuristic, List, Point2)}; {@code start} is used as the template.
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param heuristic estimates the remaining cost; see {@link Heuristic}
+     * @param path receives the path; will be modified, and is emptied if there is no path
+     * @return true if a path was found, or false if the goal can't be reached
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> boolean findPath(P start, Point2<?> goal, Heuristic heuristic, List<P> path) {
+        return findPath(start.xi(), start.yi(), goal.xi(), goal.yi(), heuristic, path, start);
+    }
+
+    /**
+     * Builds a Dijkstra map: the lowest cost to reach any of the given goal cells from every cell, written into
+     * {@code into}. Goals have a cost of 0, and cells that can't reach a goal within {@code maxCost} are set to
+     * {@link Float#POSITIVE_INFINITY}; a smaller maxCost makes this stop sooner. Costs are measured moving outward from
+     * the goals, which is the same as moving toward them when cell costs are uniform.
+     * @param goals packed cell indices, as given by {@link #index(int, int)}
+     * @param goalCount how many items of {@code goals} to use
+     * @param maxCost the highest cost to explore up to, or {@link Float#POSITIVE_INFINITY} to explore every cell
+     * @param into receives the cost of each cell; must have at least {@code width * height} items; will be modified
+     * @return {@code into}, after editing
+     */
+    public float[] dijkstraMap(int[] goals, int goalCount, float maxCost, float[] into) {
+        final Scratch s = scratch.get().begin();
+        for (int i = 0; i < goalCount; i++) {
+            final int goal = goals[i];
+            if (goal >= 0 && goal < costs.length && passable(costs[goal]) && s.stamp[goal] != s.generation)
+                s.open(goal, 0f, 0f, -1);
+        }
+        return dijkstra(s, maxCost, into);
+    }
+
+    /**
+     * Builds a Dijkstra map from the int positions of any number of goal points. See
+     * {@link #dijkstraMap(int[], int, float, float[])}.
+     * @param goals the goal cells; will not be modified
+     * @param maxCost the highest cost to explore up to, or {@link Float#POSITIVE_INFINITY} to explore every cell
+     * @param into receives the cost of each cell; must have at least {@code width * height} items; will be modified
+     * @return {@code into}, after editing
+     */
+    public float[] dijkstraMap(Iterable<? extends Point2<?>> goals, float maxCost, float[] into) {
+        final Scratch s = scratch.get().begin();
+        for (Point2<?> p : goals) {
+            final int x = p.xi(), y = p.yi();
+            if (!inBounds(x, y)) continue;
+            final int goal = index(x, y);
+            if (passable(costs[goal]) && s.stamp[goal] != s.generation)
+                s.open(goal, 0f, 0f, -1);
+        }
+        return dijkstra(s, maxCost, into);
+    }
+
+    protected float[] dijkstra(Scratch s, float maxCost, float[] into) {
+        final long time = Instrumentation.begin();
+        Arrays.fill(into, 0, costs.length, Float.POSITIVE_INFINITY);
+        final int dirs = diagonal ? 8 : 4;
+        int expanded = 0;
+        while (s.heapSize > 0) {
+            final int cur = s.pop();
+            final float g = s.g[cur];
+            if (g > maxCost) break;
+            into[cur] = g;
+            expanded++;
+            final int cx = cur % width, cy = cur / width;
+            for (int d = 0; d < dirs; d++) {
+                final int nx = cx + DX[d], ny = cy + DY[d];
+                if (!canMove(cx, cy, nx, ny, d)) continue;
+                final int next = nx + ny * width;
+                final float ng = g + (d < 4 ? costs[next] : costs[next] * SQRT2);
+                if (s.stamp[next] != s.generation) {
+                    s.open(next, ng, ng, cur);
+                } else if (s.heapPos[next] >= 0 && ng < s.g[next]) {
+                    s.decrease(next, ng, ng, cur);
+                }
+            }
+        }
+        if (Instrumentation.ENABLED)
+            Instrumentation.end(Instrumentation.Bulk.SEARCH, "GridSearch.dijkstraMap", time, expanded);
+        return into;
+    }
+
+    /**
+     * Follows a Dijkstra map made by {@link #dijkstraMap(int[], int, float, float[])} downhill from (startX, startY)
+     * to the nearest goal, and writes the path into {@code path} from start to goal, inclusive. Points in
+     * {@code path} are reused the same way as by {@link #findPath(int, int, int, int, Heuristic, List, Point2)}.
+     * Diagonal moves are only taken if this currently allows them.
+     * @param map a Dijkstra map for this grid; will not be modified
+     * @param startX the x of the start cell
+     * @param startY the y of the start cell
+     * @param path receives the path; will be modified, and is emptied if no goal can be reached
+     * @param template used only to create points if {@code path} is too short
+     * @return true if a path was found, or false if the start can't reach a goal
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> boolean followMap(float[] map, int startX, int startY, List<P> path, P template) {
+        if (!inBounds(startX, startY) || !(map[index(startX, startY)] < Float.POSITIVE_INFINITY)) {
+            path.clear();
+            return false;
+        }
+        final int dirs = diagonal ? 8 : 4;
+        int x = startX, y = startY, count = 0;
+        float value = map[index(x, y)];
+        while (true) {
+            count = put(path, count, x, y, template);
+            if (value <= 0f) break;
+            int bx = x, by = y;
+            float best = value;
+            for (int d = 0; d < dirs; d++) {
+                final int nx = x + DX[d], ny = y + DY[d];
+                if (!canMove(x, y, nx, ny, d)) continue;
+                final float v = map[nx + ny * width];
+                if (v < best) {
+                    best = v;
+                    bx = nx;
+                    by = ny;
+                }
+            }
+            if (bx == x && by == y) {
+                path.clear();
+                return false;
+            }
+            x = bx;
+            y = by;
+            value = best;
+        }
+        PathSmoother.truncate(path, count);
+        return true;
+    }
+
+    /**
+     * Checks whether a move from (x, y) to (nx, ny) in direction {@code d} stays in bounds, enters a passable cell,
+     * and, for a diagonal move, doesn't cut a corner unless that is allowed.
+     */
+    protected boolean canMove(int x, int y, int nx, int ny, int d) {
+        if (nx < 0 || ny < 0 || nx >= width || ny >= height || !passable(costs[nx + ny * width])) return false;
+        return d < 4 || cutCorners || (passable(costs[nx + y * width]) && passable(costs[x + ny * width]));
+    }
+
+    protected <P extends Point2<P>> void writePath(Scratch s, int goal, List<P> path, P template) {
+        int count = 0;
+        for (int n = goal; n >= 0; n = s.parent[n]) count++;
+        PathSmoother.truncate(path, count);
+        for (int i = path.size(); i < count; i++) {
+            path.add(template.cpy());
+        }
+        for (int n = goal, i = count - 1; n >= 0; n = s.parent[n], i--) {
+            put(path, i, n % width, n / width, template);
+        }
+    }
+
+    /**
+     * Sets the point at {@code index} in {@code path} to (x, y), or adds one if {@code path} is only {@code index}
+     * items long; either way, returns {@code index + 1}.
+     */
+    protected static <P extends Point2<P>> int put(List<P> path, int index, int x, int y, P template) {
+        if (index < path.size()) path.set(index, path.get(index).seti(x, y));
+        else path.add(template.cpy().seti(x, y));
+        return index + 1;
+    }
+
+    /**
+     * Reusable search state for one thread: costs so far, estimated totals, parents, and a binary min-heap of cell
+     * indices ordered by estimated total. A generation stamp marks which cells belong to the current search, so
+     * starting a new search doesn't need to clear anything.
+     */
+    protected static final class Scratch {
+        final float[] g, f;
+        final int[] parent, heap, heapPos, stamp;
+        int generation, heapSize;
+
+        Scratch(int size) {
+            g = new float[size];
+            f = new float[size];
+            parent = new int[size];
+            heap = new int[size];
+            heapPos = new int[size];
+            stamp = new int[size];
+        }
+
+        Scratch begin() {
+            if (++generation == 0) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+            heapSize = 0;
+            return this;
+        }
+
+        void open(int node, float cost, float total, int from) {
+            stamp[node] = generation;
+            g[node] = cost;
+            f[node] = total;
+            parent[node] = from;
+            heap[heapSize] = node;
+            heapPos[node] = heapSize;
+            up(heapSize++);
+        }
+
+        void decrease(int node, float cost, float total, int from) {
+            g[node] = cost;
+            f[node] = total;
+            parent[node] = from;
+            up(heapPos[node]);
+        }
+
+        /**
+         * Removes and returns the node with the lowest estimated total, marking it closed.
+         */
+        int pop() {
+            final int top = heap[0];
+            heapPos[top] = -1;
+            if (--heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                down(0);
+            }
+            return top;
+        }
+
+        /**
+         * Orders by estimated total, breaking ties in favor of the node with the higher cost so far, which is closer
+         * to the goal; on open grids this keeps A* from expanding every node with an equal estimate.
+         */
+        private boolean less(int a, int b) {
+            final float fa = f[a], fb = f[b];
+            return fa < fb || (fa == fb && g[a] > g[b]);
+        }
+
+        private void up(int i) {
+            final int node = heap[i];
+            while (i > 0) {
+                final int p = (i - 1) >>> 1, pn = heap[p];
+                if (!less(node, pn)) break;
+                heap[i] = pn;
+                heapPos[pn] = i;
+                i = p;
+            }
+            heap[i] = node;
+            heapPos[node] = i;
+        }
+
+        private void down(int i) {
+            final int node = heap[i];
+            final int half = heapSize >>> 1;
+            while (i < half) {
+                int c = (i << 1) + 1;
+                if (c + 1 < heapSize && less(heap[c + 1], heap[c])) c++;
+                final int cn = heap[c];
+                if (!less(cn, node)) break;
+                heap[i] = cn;
+                heapPos[cn] = i;
+                i = c;
+            }
+            heap[i] = node;
+            heapPos[node] = i;
+        }
+    }
+}
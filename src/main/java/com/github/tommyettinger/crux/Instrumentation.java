@@ -0,0 +1,246 @@
+package com.github.tommyettinger.crux;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters for finding where point code does work and creates garbage. There are two sources of counts:
+ * <ul>
+ *     <li>The counting wrappers {@link CountedPoint2} through {@link CountedPoint6}, which wrap any point and count
+ *     each call by {@link Op}, along with how many of those calls returned a new point instead of the same one. These
+ *     always count, since using them is already opting in.</li>
+ *     <li>Bulk engines such as {@link KdTree}, {@link PointReductions}, and {@link GridSearch}, which record how many
+ *     times each kind of {@link Bulk} operation ran, how many items it touched, and how long it took. These only
+ *     record when {@link #ENABLED} is true, and on Java 17 or newer they also commit a JDK Flight Recorder event,
+ *     {@code com.github.tommyettinger.crux.BulkOperation}, for each operation.</li>
+ * </ul>
+ * ENABLED is a constant read once from the system property {@code crux.instrument} (run with
+ * {@code -Dcrux.instrument=true} to turn it on), so when it is off, the JIT compiler removes the checks that bulk
+ * engines make entirely, and instrumentation can stay compiled into production builds.
+ * <br>
+ * Counters are {@link LongAdder}s, which are cheap to update from many threads at once. Call {@link #snapshot()} to
+ * read them all into an immutable {@link Snapshot}, and {@link Snapshot#minus(Snapshot)} to get the counts between
+ * two snapshots.
+ */
+public final class Instrumentation {
+    /**
+     * True if bulk engines should record operations, set by the system property {@code crux.instrument}.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("crux.instrument");
+
+    /**
+     * The kinds of call that {@link CountedPoint2} and the other counting wrappers count.
+     */
+    public enum Op {
+        /**
+         * {@code cpy()}, which always creates a new point.
+         */
+        CPY,
+        /**
+         * Setting every component at once, with {@code set()}, {@code seti()}, {@code setZero()}, or
+         * {@code fromArray()}.
+         */
+        SET,
+        /**
+         * Setting one component, with a setter like {@code x(float)} or {@code setAt()}.
+         */
+        SET_COMPONENT,
+        ADD,
+        SUB,
+        SCL,
+        PLUS,
+        MINUS,
+        TIMES,
+        /**
+         * Reading components, with a getter like {@code x()}, {@code get()}, or {@code toArray()}.
+         */
+        READ,
+        /**
+         * Getting a length or distance, with {@code len2()} or {@code dst2()}.
+         */
+        MEASURE
+    }
+
+    /**
+     * The kinds of operation that bulk engines record.
+     */
+    public enum Bulk {
+        /**
+         * Spatial queries, such as nearest-neighbor and radius queries.
+         */
+        QUERY,
+        /**
+         * Reductions over many points, such as centroids and bounds.
+         */
+        REDUCTION,
+        /**
+         * Pathfinding searches.
+         */
+        SEARCH
+    }
+
+    private static final Op[] OPS = Op.values();
+    private static final Bulk[] BULKS = Bulk.values();
+    private static final LongAdder[] CALLS = adders(OPS.length), ALLOCATIONS = adders(OPS.length),
+            BULK_CALLS = adders(BULKS.length), BULK_ITEMS = adders(BULKS.length), BULK_NANOS = adders(BULKS.length);
+
+    private Instrumentation() {
+    }
+
+    private static LongAdder[] adders(int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Counts one call of {@code op}, and whether it created a new point.
+     * @param op the kind of call
+     * @param allocated true if the call returned a new point
+     */
+    public static void count(Op op, boolean allocated) {
+        CALLS[op.ordinal()].increment();
+        if (allocated) ALLOCATIONS[op.ordinal()].increment();
+    }
+
+    /**
+     * Gets a start time for a bulk operation, to pass to {@link #end(Bulk, String, long, long)} later.
+     * @return {@link System#nanoTime()} if {@link #ENABLED} is true, or 0 otherwise
+     */
+    public static long begin() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a bulk operation that started at {@code start}, if {@link #ENABLED} is true. Callers should still check
+     * ENABLED themselves before building any arguments that cost something, such as a computed name.
+     * @param kind which kind of operation this was
+     * @param operation a short name for the operation, such as {@code "KdTree.knn"}
+     * @param start the value {@link #begin()} returned when the operation started
+     * @param items how many points or cells the operation touched, or -1 if unknown
+     */
+    public static void end(Bulk kind, String operation, long start, long items) {
+        if (!ENABLED) return;
+        final long elapsed = System.nanoTime() - start;
+        final int k = kind.ordinal();
+        BULK_CALLS[k].increment();
+        if (items > 0L) BULK_ITEMS[k].add(items);
+        BULK_NANOS[k].add(elapsed);
+        PointEvents.bulk(kind.name(), operation, elapsed, items);
+    }
+
+    /**
+     * Reads every counter at once. Counts that change while this runs may or may not be included.
+     * @return a new Snapshot of the current counts
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(sums(CALLS), sums(ALLOCATIONS), sums(BULK_CALLS), sums(BULK_ITEMS), sums(BULK_NANOS));
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        final long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    /**
+     * Sets every counter back to 0. This shouldn't be called while other threads are counting; to measure part of a
+     * run while other threads are busy, take two snapshots and subtract them instead.
+     */
+    public static void reset() {
+        for (LongAdder a : CALLS) a.reset();
+        for (LongAdder a : ALLOCATIONS) a.reset();
+        for (LongAdder a : BULK_CALLS) a.reset();
+        for (LongAdder a : BULK_ITEMS) a.reset();
+        for (LongAdder a : BULK_NANOS) a.reset();
+    }
+
+    /**
+     * An immutable copy of every counter in {@link Instrumentation} at one time.
+     */
+    public static final class Snapshot {
+        private final long[] calls, allocations, bulkCalls, bulkItems, bulkNanos;
+
+        private Snapshot(long[] calls, long[] allocations, long[] bulkCalls, long[] bulkItems, long[] bulkNanos) {
+            this.calls = calls;
+            this.allocations = allocations;
+            this.bulkCalls = bulkCalls;
+            this.bulkItems = bulkItems;
+            this.bulkNanos = bulkNanos;
+        }
+
+        public long calls(Op op) {
+            return calls[op.ordinal()];
+        }
+
+        public long allocations(Op op) {
+            return allocations[op.ordinal()];
+        }
+
+        public long totalCalls() {
+            long sum = 0L;
+            for (long c : calls) sum += c;
+            return sum;
+        }
+
+        public long totalAllocations() {
+            long sum = 0L;
+            for (long a : allocations) sum += a;
+            return sum;
+        }
+
+        public long calls(Bulk kind) {
+            return bulkCalls[kind.ordinal()];
+        }
+
+        public long items(Bulk kind) {
+            return bulkItems[kind.ordinal()];
+        }
+
+        public long nanos(Bulk kind) {
+            return bulkNanos[kind.ordinal()];
+        }
+
+        /**
+         * Gets the counts that changed between {@code earlier} and this snapshot.
+         * @param earlier a snapshot taken before this one
+         * @return a new Snapshot holding this snapshot's counts minus those in {@code earlier}
+         */
+        public Snapshot minus(Snapshot earlier) {
+            return new Snapshot(minus(calls, earlier.calls), minus(allocations, earlier.allocations),
+                    minus(bulkCalls, earlier.bulkCalls), minus(bulkItems, earlier.bulkItems),
+                    minus(bulkNanos, earlier.bulkNanos));
+        }
+
+        private static long[] minus(long[] a, long[] b) {
+            final long[] r = new long[a.length];
+            for (int i = 0; i < a.length; i++) {
+                r[i] = a[i] - b[i];
+            }
+            return r;
+        }
+
+        /**
+         * Lists every nonzero count, one per line.
+         * @return a readable summary of this snapshot
+         */
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Instrumentation snapshot");
+            for (int i = 0; i < OPS.length; i++) {
+                if (calls[i] == 0L) continue;
+                sb.append('\n').append(OPS[i].name()).append(": ").append(calls[i]).append(" calls, ")
+                        .append(allocations[i]).append(" allocations");
+            }
+            for (int i = 0; i < BULKS.length; i++) {
+                if (bulkCalls[i] == 0L) continue;
+                sb.append('\n').append(BULKS[i].name()).append(": ").append(bulkCalls[i]).append(" operations, ")
+                        .append(bulkItems[i]).append(" items, ").append(bulkNanos[i] / 1000L).append(" us");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.github.tommyettinger.crux;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A static k-d tree over {@link PointN} points of any rank, for k-nearest-neighbor and radius queries by squared
+ * Euclidean distance (the same metric as {@link PointN#dst2(PointN)}). The tree is built once from an array or list of
+ * points, and doesn't change afterwards; if the points change, build a new tree.
+ * <br>
+ * The tree is stored implicitly: the points' float components are copied into one flat array in tree order, where the
+ * median of each range of indices is the node that splits that range. This means there are no node objects, and every
+ * query reads components from one contiguous array instead of calling methods on point objects. Each node splits on
+ * the axis where its range of points is most spread out, which works better than cycling through axes when some
+ * components of 5D or 6D data vary much more than others.
+ * <br>
+ * Building with {@code parallel} set to true partitions independent subtrees on the common {@link ForkJoinPool}, which
+ * scales well for large inputs (hundreds of thousands of points or more). Queries don't modify the tree, so any number
+ * of threads can query one tree at once.
+ * <br>
+ * Query results identify points by their index in the array or list the tree was built from.
+ *
+ * @param <P> the type of point this holds
+ */
+public class KdTree<P extends PointN<P>> {
+    /**
+     * Ranges of at most this many points are partitioned on the calling thread during a parallel build.
+     */
+    protected static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    protected final int rank;
+    protected final int size;
+    protected final Object[] points;
+    /**
+     * Components in tree order; the point at tree position {@code t} has its components starting at
+     * {@code coords[t * rank]}.
+     */
+    protected final float[] coords;
+    /**
+     * The original index of the point at each tree position.
+     */
+    protected final int[] order;
+    /**
+     * The axis each tree position splits on.
+     */
+    protected final byte[] axes;
+
+    /**
+     * Builds a KdTree from the given points, serially.
+     * @param points a non-empty array of points that all have the same rank; will not be modified
+     */
+    public KdTree(P[] points) {
+        this(points, false);
+    }
+
+    /**
+     * Builds a KdTree from the given points, optionally in parallel.
+     * @param points a non-empty array of points that all have the same rank; will not be modified
+     * @param parallel if true, partition subtrees in parallel on the common ForkJoinPool
+     */
+    public KdTree(P[] points, boolean parallel) {
+        this(points.clone(), points.length, parallel);
+    }
+
+    /**
+     * Builds a KdTree from the given points, optionally in parallel.
+     * @param points a non-empty list of points that all have the same rank; will not be modified
+     * @param parallel if true, partition subtrees in parallel on the common ForkJoinPool
+     */
+    public KdTree(List<? extends P> points, boolean parallel) {
+        this(points.toArray(), points.size(), parallel);
+    }
+
+    private KdTree(Object[] points, int size, boolean parallel) {
+        if (size == 0) throw new IllegalArgumentException("A KdTree needs at least one point.");
+        this.points = points;
+        this.size = size;
+        this.rank = ((PointN<?>) points[0]).rank();
+        float[] byIndex = new float[size * rank];
+        for (int i = 0, c = 0; i < size; i++) {
+            PointN<?> p = (PointN<?>) points[i];
+            if (p.rank() != rank) throw new IllegalArgumentException("All points must have rank " + rank);
+            for (int d = 0; d < rank; d++) {
+                byIndex[c++] = p.get(d);
+            }
+        }
+        order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        axes = new byte[size];
+        if (parallel && size > PARALLEL_THRESHOLD)
+            ForkJoinPool.commonPool().invoke(new BuildTask(byIndex, 0, size));
+        else
+            build(byIndex, 0, size);
+        coords = new float[size * rank];
+        for (int t = 0; t < size; t++) {
+            System.arraycopy(byIndex, order[t] * rank, coords, t * rank, rank);
+        }
+    }
+
+    private final class BuildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final float[] byIndex;
+        private final int lo, hi;
+
+        BuildTask(float[] byIndex, int lo, int hi) {
+            this.byIndex = byIndex;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                build(byIndex, lo, hi);
+                return;
+            }
+            int mid = split(byIndex, lo, hi);
+            invokeAll(new BuildTask(byIndex, lo, mid), new BuildTask(byIndex, mid + 1, hi));
+        }
+    }
+
+    private void build(float[] byIndex, int lo, int hi) {
+        while (hi - lo > 1) {
+            int mid = split(byIndex, lo, hi);
+            // recurse into the smaller side, loop on the larger
+            if (mid - lo < hi - mid - 1) {
+                build(byIndex, lo, mid);
+                lo = mid + 1;
+            } else {
+                build(byIndex, mid + 1, hi);
+                hi = mid;
+            }
+        }
+    }
+
+    /**
+     * Picks the axis with the widest spread in {@code [lo, hi)}, moves the median along that axis to the middle index,
+     * and returns that index.
+     */
+    private int split(float[] byIndex, int lo, int hi) {
+        int axis = 0;
+        float widest = -1f;
+        for (int d = 0; d < rank; d++) {
+            float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                float v = byIndex[order[i] * rank + d];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                axis = d;
+            }
+        }
+        int mid = lo + hi >>> 1;
+        select(byIndex, axis, lo, hi - 1, mid);
+        axes[mid] = (byte) axis;
+        return mid;
+    }
+
+    /**
+     * Rearranges {@code order[left..right]} so the item at {@code nth} is the one that would be there if the range
+     * was sorted by the given axis, with smaller-or-equal items before it and greater-or-equal items after.
+     */
+    private void select(float[] byIndex, int axis, int left, int right, int nth) {
+        final int[] order = this.order;
+        while (right > left) {
+            int m = left + right >>> 1;
+            float pivot = byIndex[order[m] * rank + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (byIndex[order[i] * rank + axis] < pivot) i++;
+                while (byIndex[order[j] * rank + axis] > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (nth <= j) right = j;
+            else if (nth >= i) left = i;
+            else return;
+        }
+    }
+
+    /**
+     * Gets how many components each point in this has.
+     * @return the rank of the points in this
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * Gets how many points this holds.
+     * @return how many points this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the point at the given index in the array or list this was built from.
+     * @param index an index in the original points
+     * @return the point at that index
+     */
+    @SuppressWarnings("unchecked")
+    public P get(int index) {
+        return (P) points[index];
+    }
+
+    /**
+     * Finds the index of the point closest to {@code query}, which must have {@link #rank()} components.
+     * @param query the components of the query point; will not be modified
+     * @return the index of the closest point in the original points
+     */
+    public int nearest(float[] query) {
+        final long start = Instrumentation.begin();
+        final int found = (int) nearest(query, 0, size, 0x7F800000FFFFFFFFL);
+        if (Instrumentation.ENABLED) Instrumentation.end(Instrumentation.Bulk.QUERY, "KdTree.nearest", start, 1L);
+        return found;
+    }
+
+    /**
+     * Finds the index of the point closest to {@code query}. This copies the query point's components into a new
+     * small array; use {@link #nearest(float[])} with a reused array to avoid that.
+     * @param query the query point; will not be modified
+     * @return the index of the closest point in the original points
+     */
+    public int nearest(P query) {
+        return nearest(query.toArray(new float[rank], 0));
+    }
+
+    /**
+     * Searches {@code [lo, hi)} for a point closer than the current best, which is packed into one long with the
+     * squared distance's float bits in the upper 32 bits and the index in the lower 32 bits, so no object is needed
+     * to return both.
+     */
+    private long nearest(float[] q, int lo, int hi, long best) {
+        while (lo < hi) {
+            int mid = lo + hi >>> 1, base = mid * rank, axis = axes[mid];
+            float dist = 0f;
+            for (int d = 0; d < rank; d++) {
+                float diff = coords[base + d] - q[d];
+                dist += diff * diff;
+            }
+            if (dist < Float.intBitsToFloat((int) (best >>> 32)))
+                best = (long) Float.floatToIntBits(dist) << 32 | order[mid];
+            float diff = q[axis] - coords[base + axis];
+            if (diff < 0f) {
+                best = nearest(q, lo, mid, best);
+                if (diff * diff >= Float.intBitsToFloat((int) (best >>> 32))) return best;
+                lo = mid + 1;
+            } else {
+                best = nearest(q, mid + 1, hi, best);
+                if (diff * diff >= Float.intBitsToFloat((int) (best >>> 32))) return best;
+                hi = mid;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the {@code k} points closest to {@code query}, writing their original indices into {@code outIndices}
+     * and their squared distances into {@code outDistances}, both sorted from closest to farthest. Allocates nothing.
+     * @param query the components of the query point; will not be modified
+     * @param k how many points to find; must be at least 1
+     * @param outIndices receives the indices of the closest points; must have length at least k
+     * @param outDistances receives the squared distances of the closest points; must have length at least k
+     * @return how many points were found, which is {@code min(k, size())}
+     */
+    public int knn(float[] query, int k, int[] outIndices, float[] outDistances) {
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        final long start = Instrumentation.begin();
+        k = Math.min(k, size);
+        int found = knn(query, k, outIndices, outDistances, 0, 0, size);
+        // heap-sort the max-heap in place, which leaves items in ascending order
+        for (int end = found - 1; end > 0; end--) {
+            swap(outIndices, outDistances, 0, end);
+            siftDown(outIndices, outDistances, 0, end);
+        }
+        if (Instrumentation.ENABLED) Instrumentation.end(Instrumentation.Bulk.QUERY, "KdTree.knn", start, found);
+        return found;
+    }
+
+    /**
+     * Finds the {@code k} points closest to {@code query}. This copies the query point's components into a new small
+     * array; use {@link #knn(float[], int, int[], float[])} with a reused array to avoid that.
+     * @param query the query point; will not be modified
+     * @param k how many points to find; must be at least 1
+     * @param outIndices receives the indices of the closest points; must have length at least k
+     * @param outDistances receives the squared distances of the closest points; must have length at least k
+     * @return how many points were found, which is {@code min(k, size())}
+     */
+    public int knn(P query, int k, int[] outIndices, float[] outDistances) {
+        return knn(query.toArray(new float[rank], 0), k, outIndices, outDistances);
+    }
+
+    private int knn(float[] q, int k, int[] ids, float[] dists, int found, int lo, int hi) {
+        while (lo < hi) {
+            int mid = lo + hi >>> 1, base = mid * rank, axis = axes[mid];
+            float dist = 0f;
+            for (int d = 0; d < rank; d++) {
+                float diff = coords[base + d] - q[d];
+                dist += diff * diff;
+            }
+            if (found < k) {
+                ids[found] = order[mid];
+                dists[found] = dist;
+                siftUp(ids, dists, found++);
+            } else if (dist < dists[0]) {
+                ids[0] = order[mid];
+                dists[0] = dist;
+                siftDown(ids, dists, 0, k);
+            }
+            float diff = q[axis] - coords[base + axis];
+            int nearLo, nearHi, farLo, farHi;
+            if (diff < 0f) {
+                nearLo = lo; nearHi = mid; farLo = mid + 1; farHi = hi;
+            } else {
+                nearLo = mid + 1; nearHi = hi; farLo = lo; farHi = mid;
+            }
+            found = knn(q, k, ids, dists, found, nearLo, nearHi);
+            if (found == k && diff * diff >= dists[0]) return found;
+            lo = farLo;
+            hi = farHi;
+        }
+        return found;
+    }
+
+    private static void siftUp(int[] ids, float[] dists, int i) {
+        while (i > 0) {
+            int parent = i - 1 >>> 1;
+            if (dists[parent] >= dists[i]) return;
+            swap(ids, dists, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, float[] dists, int i, int n) {
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= n) return;
+            if (child + 1 < n && dists[child + 1] > dists[child]) child++;
+            if (dists[i] >= dists[child]) return;
+            swap(ids, dists, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] ids, float[] dists, int a, int b) {
+        int ti = ids[a];
+        ids[a] = ids[b];
+        ids[b] = ti;
+        float tf = dists[a];
+        dists[a] = dists[b];
+        dists[b] = tf;
+    }
+
+    /**
+     * Visits every point within {@code radius} of {@code query} (inclusive), passing each one's original index to the
+     * visitor. Allocates nothing.
+     * @param query the components of the query point; will not be modified
+     * @param radius the maximum Euclidean distance from the query point
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int radius(float[] query, float radius, PointVisitor<? super P> visitor) {
+        final long start = Instrumentation.begin();
+        int count = radius(query, radius * radius, visitor, 0, size, 0);
+        count = count < 0 ? ~count : count;
+        if (Instrumentation.ENABLED) Instrumentation.end(Instrumentation.Bulk.QUERY, "KdTree.radius", start, count);
+        return count;
+    }
+
+    /**
+     * Visits every point within {@code radius} of {@code query} (inclusive). This copies the query point's components
+     * into a new small array; use {@link #radius(float[], float, PointVisitor)} with a reused array to avoid that.
+     * @param query the query point; will not be modified
+     * @param radius the maximum Euclidean distance from the query point
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int radius(P query, float radius, PointVisitor<? super P> visitor) {
+        return radius(query.toArray(new float[rank], 0), radius, visitor);
+    }
+
+    /**
+     * Visits matches in {@code [lo, hi)} and returns the updated count, or the bitwise NOT of the count if the visitor
+     * stopped the query.
+     */
+    private int radius(float[] q, float r2, PointVisitor<? super P> visitor, int lo, int hi, int count) {
+        while (lo < hi) {
+            int mid = lo + hi >>> 1, base = mid * rank, axis = axes[mid];
+            float dist = 0f;
+            for (int d = 0; d < rank; d++) {
+                float diff = coords[base + d] - q[d];
+                dist += diff * diff;
+            }
+            if (dist <= r2) {
+                count++;
+                if (!visitor.visit(order[mid], get(order[mid]))) return ~count;
+            }
+            float diff = q[axis] - coords[base + axis];
+            if (diff * diff <= r2) {
+                count = radius(q, r2, visitor, lo, mid, count);
+                if (count < 0) return count;
+                lo = mid + 1;
+            } else if (diff < 0f) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A reusable, mutable iterator over the 2D grid cells along a line, for when a callback like in {@link LineWalker}
+ * doesn't fit, such as when a walk needs to pause between cells. One LineStepper2 can be reset to walk any number of
+ * lines with {@link #bresenham(int, int, int, int)}, {@link #supercover(int, int, int, int)}, or
+ * {@link #dda(float, float, float, float)}, and doesn't allocate after it is constructed. It produces the same cells in
+ * the same order as the matching methods in LineWalker.
+ * <br>
+ * A typical loop is {@code stepper.bresenham(a, b); while (stepper.next()) visit(stepper.x(), stepper.y());}. The first
+ * call to {@link #next()} moves to the start cell.
+ */
+public class LineStepper2 {
+    protected static final int BRESENHAM = 0, SUPERCOVER = 1, DDA = 2;
+
+    protected int mode;
+    protected int x, y, ex, ey, sx, sy;
+    protected boolean started, done = true;
+    /**
+     * Bresenham error terms, or supercover span and step counts.
+     */
+    protected long dx, dy, err, ix, iy;
+    /**
+     * DDA state: the t value of the next edge on each axis, and how far t moves per cell on each axis.
+     */
+    protected float tx, ty, tdx, tdy;
+    protected long steps;
+    /**
+     * Cells queued where a supercover line passes exactly through a corner.
+     */
+    protected final int[] pendingX = new int[2], pendingY = new int[2];
+    protected int pendingIndex, pendingCount;
+
+    /**
+     * Creates a LineStepper2 with no line; {@link #next()} returns false until it is reset with a line.
+     */
+    public LineStepper2() {
+    }
+
+    protected void start(int mode, int x0, int y0, int x1, int y1) {
+        this.mode = mode;
+        x = x0;
+        y = y0;
+        ex = x1;
+        ey = y1;
+        sx = x0 < x1 ? 1 : -1;
+        sy = y0 < y1 ? 1 : -1;
+        started = false;
+        done = false;
+        pendingIndex = pendingCount = 0;
+    }
+
+    /**
+     * Resets this to walk a Bresenham line from (x0, y0) to (x1, y1), inclusive on both ends.
+     * See {@link LineWalker#bresenham(int, int, int, int, CellVisitor2)}.
+     * @return this, for chaining
+     */
+    public LineStepper2 bresenham(int x0, int y0, int x1, int y1) {
+        start(BRESENHAM, x0, y0, x1, y1);
+        dx = Math.abs((long) x1 - x0);
+        dy = -Math.abs((long) y1 - y0);
+        err = dx + dy;
+        return this;
+    }
+
+    /**
+     * Resets this to walk a Bresenham line between the int positions of two points.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper2 bresenham(Point2<?> start, Point2<?> end) {
+        return bresenham(start.xi(), start.yi(), end.xi(), end.yi());
+    }
+
+    /**
+     * Resets this to walk a supercover line from (x0, y0) to (x1, y1), inclusive on both ends.
+     * See {@link LineWalker#supercover(int, int, int, int, CellVisitor2)}.
+     * @return this, for chaining
+     */
+    public LineStepper2 supercover(int x0, int y0, int x1, int y1) {
+        start(SUPERCOVER, x0, y0, x1, y1);
+        dx = Math.abs((long) x1 - x0);
+        dy = Math.abs((long) y1 - y0);
+        ix = iy = 0L;
+        return this;
+    }
+
+    /**
+     * Resets this to walk a supercover line between the int positions of two points.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper2 supercover(Point2<?> start, Point2<?> end) {
+        return supercover(start.xi(), start.yi(), end.xi(), end.yi());
+    }
+
+    /**
+     * Resets this to walk every cell that the segment from (x0, y0) to (x1, y1) passes through.
+     * See {@link LineWalker#dda(float, float, float, float, CellVisitor2)}.
+     * @return this, for chaining
+     */
+    public LineStepper2 dda(float x0, float y0, float x1, float y1) {
+        final int cx = (int) Math.floor(x0), cy = (int) Math.floor(y0);
+        final float fx = x1 - x0, fy = y1 - y0;
+        start(DDA, cx, cy, (int) Math.floor(x1), (int) Math.floor(y1));
+        sx = fx < 0f ? -1 : 1;
+        sy = fy < 0f ? -1 : 1;
+        tdx = 1f / Math.abs(fx);
+        tdy = 1f / Math.abs(fy);
+        tx = fx == 0f ? Float.POSITIVE_INFINITY : (sx > 0 ? cx + 1 - x0 : x0 - cx) * tdx;
+        ty = fy == 0f ? Float.POSITIVE_INFINITY : (sy > 0 ? cy + 1 - y0 : y0 - cy) * tdy;
+        steps = Math.abs((long) ex - cx) + Math.abs((long) ey - cy);
+        return this;
+    }
+
+    /**
+     * Resets this to walk every cell that the segment between two points passes through, using their float positions.
+     * @param start the start position; will not be modified
+     * @param end the end position; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper2 dda(Point2<?> start, Point2<?> end) {
+        return dda(start.x(), start.y(), end.x(), end.y());
+    }
+
+    /**
+     * Moves to the next cell on the line, which is the start cell the first time this is called after a reset.
+     * @return true if this moved to another cell, or false if the line has no more cells
+     */
+    public boolean next() {
+        if (!started) {
+            started = true;
+            return !done;
+        }
+        if (pendingIndex < pendingCount) {
+            x = pendingX[pendingIndex];
+            y = pendingY[pendingIndex++];
+            return true;
+        }
+        if (done) return false;
+        switch (mode) {
+            case BRESENHAM:
+                if (x == ex && y == ey) return done();
+                final long e2 = err << 1;
+                if (e2 >= dy) {
+                    err += dy;
+                    x += sx;
+                }
+                if (e2 <= dx) {
+                    err += dx;
+                    y += sy;
+                }
+                return true;
+            case SUPERCOVER:
+                if (ix >= dx && iy >= dy) return done();
+                final long c = ix >= dx ? 1L : iy >= dy ? -1L : (1 + 2 * ix) * dy - (1 + 2 * iy) * dx;
+                if (c < 0L) {
+                    x += sx;
+                    ix++;
+                } else if (c > 0L) {
+                    y += sy;
+                    iy++;
+                } else {
+                    // visits both side cells at a corner, then the diagonal cell
+                    pendingX[0] = x;
+                    pendingY[0] = y + sy;
+                    pendingX[1] = x + sx;
+                    pendingY[1] = y + sy;
+                    pendingIndex = 0;
+                    pendingCount = 2;
+                    x += sx;
+                    ix++;
+                    iy++;
+                }
+                return true;
+            default:
+                if (steps-- <= 0) return done();
+                if (y == ey || (x != ex && tx < ty)) {
+                    x += sx;
+                    tx += tdx;
+                } else {
+                    y += sy;
+                    ty += tdy;
+                }
+                return true;
+        }
+    }
+
+    private boolean done() {
+        done = true;
+        return false;
+    }
+
+    /**
+     * @return the x coordinate of the current cell
+     */
+    public int x() {
+        return x;
+    }
+
+    /**
+     * @return the y coordinate of the current cell
+     */
+    public int y() {
+        return y;
+    }
+
+    /**
+     * Sets {@code point} to the current cell, using {@link Point2#seti(int, int)}.
+     * @param point the point to set; will be modified if mutable
+     * @return {@code point} after editing, or a new point if {@code point} is immutable
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> P into(P point) {
+        return point.seti(x, y);
+    }
+}
@@ -0,0 +1,294 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A reusable, mutable iterator over the 3D grid cells along a line, for when a callback like in {@link LineWalker}
+ * doesn't fit, such as when a walk needs to pause between cells. One LineStepper3 can be reset to walk any number of
+ * lines with {@link #bresenham(int, int, int, int, int, int)}, {@link #supercover(int, int, int, int, int, int)}, or
+ * {@link #dda(float, float, float, float, float, float)}, and doesn't allocate after it is constructed. It produces the
+ * same cells in the same order as the matching methods in LineWalker.
+ * <br>
+ * A typical loop is {@code stepper.bresenham(a, b); while (stepper.next()) visit(stepper.x(), stepper.y(),
+ * stepper.z());}. The first call to {@link #next()} moves to the start cell.
+ */
+public class LineStepper3 {
+    protected static final int BRESENHAM = 0, SUPERCOVER = 1, DDA = 2;
+
+    protected int mode;
+    protected int x, y, z, ex, ey, ez, sx, sy, sz;
+    protected boolean started, done = true;
+    /**
+     * Spans on each axis, used by Bresenham and supercover lines.
+     */
+    protected long dx, dy, dz;
+    /**
+     * Bresenham error terms for the two axes other than the driving axis, or supercover step counts on each axis.
+     */
+    protected long p1, p2, ix, iy, iz;
+    /**
+     * The axis with the longest span in a Bresenham line: 0 for x, 1 for y, 2 for z.
+     */
+    protected int driving;
+    /**
+     * DDA state: the t value of the next face on each axis, and how far t moves per cell on each axis.
+     */
+    protected float tx, ty, tz, tdx, tdy, tdz;
+    protected long steps;
+    /**
+     * Cells queued where a supercover line passes exactly through an edge or corner.
+     */
+    protected final int[] pendingX = new int[7], pendingY = new int[7], pendingZ = new int[7];
+    protected int pendingIndex, pendingCount;
+
+    /**
+     * Creates a LineStepper3 with no line; {@link #next()} returns false until it is reset with a line.
+     */
+    public LineStepper3() {
+    }
+
+    protected void start(int mode, int x0, int y0, int z0, int x1, int y1, int z1) {
+        this.mode = mode;
+        x = x0;
+        y = y0;
+        z = z0;
+        ex = x1;
+        ey = y1;
+        ez = z1;
+        sx = x0 < x1 ? 1 : -1;
+        sy = y0 < y1 ? 1 : -1;
+        sz = z0 < z1 ? 1 : -1;
+        dx = Math.abs((long) x1 - x0);
+        dy = Math.abs((long) y1 - y0);
+        dz = Math.abs((long) z1 - z0);
+        started = false;
+        done = false;
+        pendingIndex = pendingCount = 0;
+    }
+
+    /**
+     * Resets this to walk a 3D Bresenham line from (x0, y0, z0) to (x1, y1, z1), inclusive on both ends.
+     * See {@link LineWalker#bresenham(int, int, int, int, int, int, CellVisitor3)}.
+     * @return this, for chaining
+     */
+    public LineStepper3 bresenham(int x0, int y0, int z0, int x1, int y1, int z1) {
+        start(BRESENHAM, x0, y0, z0, x1, y1, z1);
+        if (dx >= dy && dx >= dz) {
+            driving = 0;
+            p1 = 2 * dy - dx;
+            p2 = 2 * dz - dx;
+            steps = dx;
+        } else if (dy >= dz) {
+            driving = 1;
+            p1 = 2 * dx - dy;
+            p2 = 2 * dz - dy;
+            steps = dy;
+        } else {
+            driving = 2;
+            p1 = 2 * dy - dz;
+            p2 = 2 * dx - dz;
+            steps = dz;
+        }
+        return this;
+    }
+
+    /**
+     * Resets this to walk a 3D Bresenham line between the int positions of two points.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper3 bresenham(Point3<?> start, Point3<?> end) {
+        return bresenham(start.xi(), start.yi(), start.zi(), end.xi(), end.yi(), end.zi());
+    }
+
+    /**
+     * Resets this to walk a 3D supercover line from (x0, y0, z0) to (x1, y1, z1), inclusive on both ends.
+     * See {@link LineWalker#supercover(int, int, int, int, int, int, CellVisitor3)}.
+     * @return this, for chaining
+     */
+    public LineStepper3 supercover(int x0, int y0, int z0, int x1, int y1, int z1) {
+        start(SUPERCOVER, x0, y0, z0, x1, y1, z1);
+        ix = iy = iz = 0L;
+        return this;
+    }
+
+    /**
+     * Resets this to walk a 3D supercover line between the int positions of two points.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper3 supercover(Point3<?> start, Point3<?> end) {
+        return supercover(start.xi(), start.yi(), start.zi(), end.xi(), end.yi(), end.zi());
+    }
+
+    /**
+     * Resets this to walk every cell that the segment from (x0, y0, z0) to (x1, y1, z1) passes through.
+     * See {@link LineWalker#dda(float, float, float, float, float, float, CellVisitor3)}.
+     * @return this, for chaining
+     */
+    public LineStepper3 dda(float x0, float y0, float z0, float x1, float y1, float z1) {
+        final int cx = (int) Math.floor(x0), cy = (int) Math.floor(y0), cz = (int) Math.floor(z0);
+        final float fx = x1 - x0, fy = y1 - y0, fz = z1 - z0;
+        start(DDA, cx, cy, cz, (int) Math.floor(x1), (int) Math.floor(y1), (int) Math.floor(z1));
+        sx = fx < 0f ? -1 : 1;
+        sy = fy < 0f ? -1 : 1;
+        sz = fz < 0f ? -1 : 1;
+        tdx = 1f / Math.abs(fx);
+        tdy = 1f / Math.abs(fy);
+        tdz = 1f / Math.abs(fz);
+        tx = fx == 0f ? Float.POSITIVE_INFINITY : (sx > 0 ? cx + 1 - x0 : x0 - cx) * tdx;
+        ty = fy == 0f ? Float.POSITIVE_INFINITY : (sy > 0 ? cy + 1 - y0 : y0 - cy) * tdy;
+        tz = fz == 0f ? Float.POSITIVE_INFINITY : (sz > 0 ? cz + 1 - z0 : z0 - cz) * tdz;
+        steps = dx + dy + dz;
+        return this;
+    }
+
+    /**
+     * Resets this to walk every cell that the segment between two points passes through, using their float positions.
+     * @param start the start position; will not be modified
+     * @param end the end position; will not be modified
+     * @return this, for chaining
+     */
+    public LineStepper3 dda(Point3<?> start, Point3<?> end) {
+        return dda(start.x(), start.y(), start.z(), end.x(), end.y(), end.z());
+    }
+
+    /**
+     * Moves to the next cell on the line, which is the start cell the first time this is called after a reset.
+     * @return true if this moved to another cell, or false if the line has no more cells
+     */
+    public boolean next() {
+        if (!started) {
+            started = true;
+            return !done;
+        }
+        if (pendingIndex < pendingCount) {
+            x = pendingX[pendingIndex];
+            y = pendingY[pendingIndex];
+            z = pendingZ[pendingIndex++];
+            return true;
+        }
+        if (done) return false;
+        switch (mode) {
+            case BRESENHAM:
+                if (steps-- <= 0) return done();
+                if (driving == 0) {
+                    x += sx;
+                    if (p1 >= 0) {
+                        y += sy;
+                        p1 -= 2 * dx;
+                    }
+                    if (p2 >= 0) {
+                        z += sz;
+                        p2 -= 2 * dx;
+                    }
+                    p1 += 2 * dy;
+                    p2 += 2 * dz;
+                } else if (driving == 1) {
+                    y += sy;
+                    if (p1 >= 0) {
+                        x += sx;
+                        p1 -= 2 * dy;
+                    }
+                    if (p2 >= 0) {
+                        z += sz;
+                        p2 -= 2 * dy;
+                    }
+                    p1 += 2 * dx;
+                    p2 += 2 * dz;
+                } else {
+                    z += sz;
+                    if (p1 >= 0) {
+                        y += sy;
+                        p1 -= 2 * dz;
+                    }
+                    if (p2 >= 0) {
+                        x += sx;
+                        p2 -= 2 * dz;
+                    }
+                    p1 += 2 * dy;
+                    p2 += 2 * dx;
+                }
+                return true;
+            case SUPERCOVER:
+                if (ix >= dx && iy >= dy && iz >= dz) return done();
+                final int axes = LineWalker.nextAxes(ix, iy, iz, dx, dy, dz), count = Integer.bitCount(axes);
+                final int bx = x, by = y, bz = z;
+                if ((axes & 1) != 0) ix++;
+                if ((axes & 2) != 0) iy++;
+                if ((axes & 4) != 0) iz++;
+                if (count == 1) {
+                    x += (axes & 1) * sx;
+                    y += (axes >>> 1 & 1) * sy;
+                    z += (axes >>> 2) * sz;
+                    return true;
+                }
+                // queues every cell on a strict subset of the stepped axes, fewest axes first, then the full step
+                pendingIndex = pendingCount = 0;
+                for (int bits = 1; bits <= count; bits++) {
+                    for (int m = axes; m != 0; m = (m - 1) & axes) {
+                        if (Integer.bitCount(m) != bits) continue;
+                        pendingX[pendingCount] = (m & 1) == 0 ? bx : bx + sx;
+                        pendingY[pendingCount] = (m & 2) == 0 ? by : by + sy;
+                        pendingZ[pendingCount++] = (m & 4) == 0 ? bz : bz + sz;
+                    }
+                }
+                x = pendingX[0];
+                y = pendingY[0];
+                z = pendingZ[0];
+                pendingIndex = 1;
+                return true;
+            default:
+                if (steps-- <= 0) return done();
+                final float cx = x == ex ? Float.POSITIVE_INFINITY : tx, cy = y == ey ? Float.POSITIVE_INFINITY : ty,
+                        cz = z == ez ? Float.POSITIVE_INFINITY : tz;
+                if (cx <= cy && cx <= cz && x != ex) {
+                    x += sx;
+                    tx += tdx;
+                } else if (cy <= cz && y != ey) {
+                    y += sy;
+                    ty += tdy;
+                } else {
+                    z += sz;
+                    tz += tdz;
+                }
+                return true;
+        }
+    }
+
+    private boolean done() {
+        done = true;
+        return false;
+    }
+
+    /**
+     * @return the x coordinate of the current cell
+     */
+    public int x() {
+        return x;
+    }
+
+    /**
+     * @return the y coordinate of the current cell
+     */
+    public int y() {
+        return y;
+    }
+
+    /**
+     * @return the z coordinate of the current cell
+     */
+    public int z() {
+        return z;
+    }
+
+    /**
+     * Sets {@code point} to the current cell, using {@link Point3#seti(int, int, int)}.
+     * @param point the point to set; will be modified if mutable
+     * @return {@code point} after editing, or a new point if {@code point} is immutable
+     * @param <P> any Point3 type
+     */
+    public <P extends Point3<P>> P into(P point) {
+        return point.seti(x, y, z);
+    }
+}
@@ -0,0 +1,391 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Static methods that walk the grid cells along a line, in order from start to end, passing each cell's coordinates
+ * to a {@link CellVisitor2} or {@link CellVisitor3}. Nothing is allocated and no collection of cells is built, and the
+ * walk stops as soon as the visitor returns false. To step through a line one cell at a time instead of with a
+ * callback, use {@link LineStepper2} or {@link LineStepper3}, which produce the same cells in the same order.
+ * <br>
+ * There are three kinds of walk:
+ * <ul>
+ *     <li>Bresenham lines ({@code bresenham()}) visit exactly one cell per step along the longest axis, so diagonal
+ *     steps are allowed. These are the thinnest connected lines, and suit drawing and most line-of-sight checks.</li>
+ *     <li>Supercover lines ({@code supercover()}) visit every cell that the segment between the centers of the start
+ *     and end cells passes through, and only steps on one axis at a time, so they never slip diagonally between two
+ *     blocked cells. Where the segment passes exactly through a corner, every cell touching that corner is visited.
+ *     Each axis of a supercover line must span fewer than 2 to the 30 cells.</li>
+ *     <li>DDA lines ({@code dda()}) take float endpoints, and visit every cell (with integer corners, so the cell for
+ *     a position is its floor) that the segment between them passes through, stepping one axis at a time. These suit
+ *     ray-marching from positions that aren't at cell centers.</li>
+ * </ul>
+ * Every walk visits the start cell first and the end cell last, and returns true if it reached the end cell or false
+ * if the visitor stopped it.
+ */
+public final class LineWalker {
+    private LineWalker() {
+    }
+
+    // 2D
+
+    /**
+     * Walks a Bresenham line from (x0, y0) to (x1, y1), inclusive on both ends.
+     * @param x0 the x coordinate of the start cell
+     * @param y0 the y coordinate of the start cell
+     * @param x1 the x coordinate of the end cell
+     * @param y1 the y coordinate of the end cell
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean bresenham(int x0, int y0, int x1, int y1, CellVisitor2 visitor) {
+        final long dx = Math.abs((long) x1 - x0), dy = -Math.abs((long) y1 - y0);
+        final int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        long err = dx + dy;
+        int x = x0, y = y0;
+        while (true) {
+            if (!visitor.visit(x, y)) return false;
+            if (x == x1 && y == y1) return true;
+            final long e2 = err << 1;
+            if (e2 >= dy) {
+                err += dy;
+                x += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y += sy;
+            }
+        }
+    }
+
+    /**
+     * Walks a Bresenham line between the int positions of two points (using {@link Point2#xi()} and
+     * {@link Point2#yi()}), inclusive on both ends.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean bresenham(Point2<?> start, Point2<?> end, CellVisitor2 visitor) {
+        return bresenham(start.xi(), start.yi(), end.xi(), end.yi(), visitor);
+    }
+
+    /**
+     * Walks a supercover line from (x0, y0) to (x1, y1), inclusive on both ends, visiting every cell that the segment
+     * between the two cell centers touches.
+     * @param x0 the x coordinate of the start cell
+     * @param y0 the y coordinate of the start cell
+     * @param x1 the x coordinate of the end cell
+     * @param y1 the y coordinate of the end cell
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean supercover(int x0, int y0, int x1, int y1, CellVisitor2 visitor) {
+        final long nx = Math.abs((long) x1 - x0), ny = Math.abs((long) y1 - y0);
+        final int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        int x = x0, y = y0;
+        if (!visitor.visit(x, y)) return false;
+        for (long ix = 0, iy = 0; ix < nx || iy < ny; ) {
+            // compares when the segment crosses the next vertical and horizontal cell edges
+            final long c = ix >= nx ? 1L : iy >= ny ? -1L : (1 + 2 * ix) * ny - (1 + 2 * iy) * nx;
+            if (c < 0L) {
+                x += sx;
+                ix++;
+            } else if (c > 0L) {
+                y += sy;
+                iy++;
+            } else {
+                if (!visitor.visit(x + sx, y) || !visitor.visit(x, y + sy)) return false;
+                x += sx;
+                y += sy;
+                ix++;
+                iy++;
+            }
+            if (!visitor.visit(x, y)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Walks a supercover line between the int positions of two points (using {@link Point2#xi()} and
+     * {@link Point2#yi()}), inclusive on both ends.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean supercover(Point2<?> start, Point2<?> end, CellVisitor2 visitor) {
+        return supercover(start.xi(), start.yi(), end.xi(), end.yi(), visitor);
+    }
+
+    /**
+     * Walks every cell that the segment from (x0, y0) to (x1, y1) passes through, where the cell containing a position
+     * is its floor on each axis. This steps one axis at a time, always toward the nearer cell edge.
+     * @param x0 the x position of the start
+     * @param y0 the y position of the start
+     * @param x1 the x position of the end
+     * @param y1 the y position of the end
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean dda(float x0, float y0, float x1, float y1, CellVisitor2 visitor) {
+        int x = (int) Math.floor(x0), y = (int) Math.floor(y0);
+        final int ex = (int) Math.floor(x1), ey = (int) Math.floor(y1);
+        final float dx = x1 - x0, dy = y1 - y0;
+        final int sx = dx < 0f ? -1 : 1, sy = dy < 0f ? -1 : 1;
+        final float tdx = 1f / Math.abs(dx), tdy = 1f / Math.abs(dy);
+        float tx = dx == 0f ? Float.POSITIVE_INFINITY : (sx > 0 ? x + 1 - x0 : x0 - x) * tdx;
+        float ty = dy == 0f ? Float.POSITIVE_INFINITY : (sy > 0 ? y + 1 - y0 : y0 - y) * tdy;
+        if (!visitor.visit(x, y)) return false;
+        for (long steps = Math.abs((long) ex - x) + Math.abs((long) ey - y); steps > 0; steps--) {
+            if (y == ey || (x != ex && tx < ty)) {
+                x += sx;
+                tx += tdx;
+            } else {
+                y += sy;
+                ty += tdy;
+            }
+            if (!visitor.visit(x, y)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Walks every cell that the segment between two points (using {@link Point2#x()} and {@link Point2#y()}) passes
+     * through. See {@link #dda(float, float, float, float, CellVisitor2)}.
+     * @param start the start position; will not be modified
+     * @param end the end position; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean dda(Point2<?> start, Point2<?> end, CellVisitor2 visitor) {
+        return dda(start.x(), start.y(), end.x(), end.y(), visitor);
+    }
+
+    // 3D
+
+    /**
+     * Walks a 3D Bresenham line from (x0, y0, z0) to (x1, y1, z1), inclusive on both ends. This takes one step per
+     * cell along the axis with the longest span, and steps the other axes when their error terms cross over.
+     * @param x0 the x coordinate of the start cell
+     * @param y0 the y coordinate of the start cell
+     * @param z0 the z coordinate of the start cell
+     * @param x1 the x coordinate of the end cell
+     * @param y1 the y coordinate of the end cell
+     * @param z1 the z coordinate of the end cell
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean bresenham(int x0, int y0, int z0, int x1, int y1, int z1, CellVisitor3 visitor) {
+        final long dx = Math.abs((long) x1 - x0), dy = Math.abs((long) y1 - y0), dz = Math.abs((long) z1 - z0);
+        final int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1, sz = z0 < z1 ? 1 : -1;
+        int x = x0, y = y0, z = z0;
+        if (!visitor.visit(x, y, z)) return false;
+        if (dx >= dy && dx >= dz) {
+            long p1 = 2 * dy - dx, p2 = 2 * dz - dx;
+            for (long i = 0; i < dx; i++) {
+                x += sx;
+                if (p1 >= 0) {
+                    y += sy;
+                    p1 -= 2 * dx;
+                }
+                if (p2 >= 0) {
+                    z += sz;
+                    p2 -= 2 * dx;
+                }
+                p1 += 2 * dy;
+                p2 += 2 * dz;
+                if (!visitor.visit(x, y, z)) return false;
+            }
+        } else if (dy >= dz) {
+            long p1 = 2 * dx - dy, p2 = 2 * dz - dy;
+            for (long i = 0; i < dy; i++) {
+                y += sy;
+                if (p1 >= 0) {
+                    x += sx;
+                    p1 -= 2 * dy;
+                }
+                if (p2 >= 0) {
+                    z += sz;
+                    p2 -= 2 * dy;
+                }
+                p1 += 2 * dx;
+                p2 += 2 * dz;
+                if (!visitor.visit(x, y, z)) return false;
+            }
+        } else {
+            long p1 = 2 * dy - dz, p2 = 2 * dx - dz;
+            for (long i = 0; i < dz; i++) {
+                z += sz;
+                if (p1 >= 0) {
+                    y += sy;
+                    p1 -= 2 * dz;
+                }
+                if (p2 >= 0) {
+                    x += sx;
+                    p2 -= 2 * dz;
+                }
+                p1 += 2 * dy;
+                p2 += 2 * dx;
+                if (!visitor.visit(x, y, z)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks a 3D Bresenham line between the int positions of two points (using {@link Point3#xi()},
+     * {@link Point3#yi()}, and {@link Point3#zi()}), inclusive on both ends.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean bresenham(Point3<?> start, Point3<?> end, CellVisitor3 visitor) {
+        return bresenham(start.xi(), start.yi(), start.zi(), end.xi(), end.yi(), end.zi(), visitor);
+    }
+
+    /**
+     * Walks a 3D supercover line from (x0, y0, z0) to (x1, y1, z1), inclusive on both ends, visiting every cell that
+     * the segment between the two cell centers touches. Where the segment crosses an edge or corner exactly, every
+     * cell touching that edge or corner is visited, those that differ from the current cell on fewer axes first.
+     * @param x0 the x coordinate of the start cell
+     * @param y0 the y coordinate of the start cell
+     * @param z0 the z coordinate of the start cell
+     * @param x1 the x coordinate of the end cell
+     * @param y1 the y coordinate of the end cell
+     * @param z1 the z coordinate of the end cell
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean supercover(int x0, int y0, int z0, int x1, int y1, int z1, CellVisitor3 visitor) {
+        final long nx = Math.abs((long) x1 - x0), ny = Math.abs((long) y1 - y0), nz = Math.abs((long) z1 - z0);
+        final int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1, sz = z0 < z1 ? 1 : -1;
+        int x = x0, y = y0, z = z0;
+        if (!visitor.visit(x, y, z)) return false;
+        for (long ix = 0, iy = 0, iz = 0; ix < nx || iy < ny || iz < nz; ) {
+            final int axes = nextAxes(ix, iy, iz, nx, ny, nz);
+            // every cell that differs from this one on a strict subset of the stepped axes, fewest axes first
+            if (Integer.bitCount(axes) > 1) {
+                for (int bits = 1; bits < Integer.bitCount(axes); bits++) {
+                    for (int m = axes; m != 0; m = (m - 1) & axes) {
+                        if (Integer.bitCount(m) == bits && !visitor.visit(
+                                (m & 1) == 0 ? x : x + sx, (m & 2) == 0 ? y : y + sy, (m & 4) == 0 ? z : z + sz))
+                            return false;
+                    }
+                }
+            }
+            if ((axes & 1) != 0) {
+                x += sx;
+                ix++;
+            }
+            if ((axes & 2) != 0) {
+                y += sy;
+                iy++;
+            }
+            if ((axes & 4) != 0) {
+                z += sz;
+                iz++;
+            }
+            if (!visitor.visit(x, y, z)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds which axes a 3D supercover line crosses a cell edge on next, given how many steps it has taken on each
+     * axis and how many it takes in total. The result has bit 0 set for x, bit 1 for y, and bit 2 for z; more than
+     * one bit is set when the segment crosses several edges at once.
+     */
+    static int nextAxes(long ix, long iy, long iz, long nx, long ny, long nz) {
+        // the segment crosses the next edge on an axis at t = (1 + 2 * i) / (2 * n), compared by cross-multiplying
+        int best = -1;
+        long bn = 1L, bi = 0L;
+        int axes = 0;
+        for (int a = 0; a < 3; a++) {
+            final long i = a == 0 ? ix : a == 1 ? iy : iz, n = a == 0 ? nx : a == 1 ? ny : nz;
+            if (i >= n) continue;
+            if (best < 0) {
+                best = a;
+                bi = i;
+                bn = n;
+                axes = 1 << a;
+                continue;
+            }
+            final long c = (1 + 2 * i) * bn - (1 + 2 * bi) * n;
+            if (c < 0L) {
+                best = a;
+                bi = i;
+                bn = n;
+                axes = 1 << a;
+            } else if (c == 0L) {
+                axes |= 1 << a;
+            }
+        }
+        return axes;
+    }
+
+    /**
+     * Walks a 3D supercover line between the int positions of two points (using {@link Point3#xi()},
+     * {@link Point3#yi()}, and {@link Point3#zi()}), inclusive on both ends.
+     * @param start the start cell; will not be modified
+     * @param end the end cell; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean supercover(Point3<?> start, Point3<?> end, CellVisitor3 visitor) {
+        return supercover(start.xi(), start.yi(), start.zi(), end.xi(), end.yi(), end.zi(), visitor);
+    }
+
+    /**
+     * Walks every cell that the segment from (x0, y0, z0) to (x1, y1, z1) passes through, where the cell containing a
+     * position is its floor on each axis. This steps one axis at a time, always toward the nearest cell face.
+     * @param x0 the x position of the start
+     * @param y0 the y position of the start
+     * @param z0 the z position of the start
+     * @param x1 the x position of the end
+     * @param y1 the y position of the end
+     * @param z1 the z position of the end
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean dda(float x0, float y0, float z0, float x1, float y1, float z1, CellVisitor3 visitor) {
+        int x = (int) Math.floor(x0), y = (int) Math.floor(y0), z = (int) Math.floor(z0);
+        final int ex = (int) Math.floor(x1), ey = (int) Math.floor(y1), ez = (int) Math.floor(z1);
+        final float dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        final int sx = dx < 0f ? -1 : 1, sy = dy < 0f ? -1 : 1, sz = dz < 0f ? -1 : 1;
+        final float tdx = 1f / Math.abs(dx), tdy = 1f / Math.abs(dy), tdz = 1f / Math.abs(dz);
+        float tx = dx == 0f ? Float.POSITIVE_INFINITY : (sx > 0 ? x + 1 - x0 : x0 - x) * tdx;
+        float ty = dy == 0f ? Float.POSITIVE_INFINITY : (sy > 0 ? y + 1 - y0 : y0 - y) * tdy;
+        float tz = dz == 0f ? Float.POSITIVE_INFINITY : (sz > 0 ? z + 1 - z0 : z0 - z) * tdz;
+        if (!visitor.visit(x, y, z)) return false;
+        for (long steps = Math.abs((long) ex - x) + Math.abs((long) ey - y) + Math.abs((long) ez - z);
+             steps > 0; steps--) {
+            // axes that already reached the end cell never step again, which keeps rounding error from overshooting
+            final float cx = x == ex ? Float.POSITIVE_INFINITY : tx, cy = y == ey ? Float.POSITIVE_INFINITY : ty,
+                    cz = z == ez ? Float.POSITIVE_INFINITY : tz;
+            if (cx <= cy && cx <= cz && x != ex) {
+                x += sx;
+                tx += tdx;
+            } else if (cy <= cz && y != ey) {
+                y += sy;
+                ty += tdy;
+            } else {
+                z += sz;
+                tz += tdz;
+            }
+            if (!visitor.visit(x, y, z)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Walks every cell that the segment between two points (using {@link Point3#x()}, {@link Point3#y()}, and
+     * {@link Point3#z()}) passes through. See {@link #dda(float, float, float, float, float, float, CellVisitor3)}.
+     * @param start the start position; will not be modified
+     * @param end the end position; will not be modified
+     * @param visitor called with each cell in order; returning false stops the walk
+     * @return true if the walk reached the end cell, or false if the visitor stopped it
+     */
+    public static boolean dda(Point3<?> start, Point3<?> end, CellVisitor3 visitor) {
+        return dda(start.x(), start.y(), start.z(), end.x(), end.y(), end.z(), visitor);
+    }
+}
@@ -0,0 +1,626 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * A dynamic loose octree over {@link Point3} points, for range and k-nearest-neighbor queries on points that move
+ * every frame. Each node covers a cube, and its eight children cover its octants, but a point is allowed to stay in a
+ * node as long as it is inside that node's loose bounds, which are the node's cube scaled up by
+ * {@link #getLooseness()} around the same center. Most points that move a little per frame stay inside their node's
+ * loose bounds, so {@link #update(int)} only writes the new position, and the few that leave only move up to the
+ * nearest node whose loose bounds hold them and back down from there.
+ * <br>
+ * Nodes are stored in flat arrays instead of as objects, and the eight children of a node are always one block of eight
+ * consecutive indices. A leaf splits as soon as it holds more than {@code nodeCapacity} points, but merging is lazy:
+ * a node's children are only merged back into it by {@link #maintain()} (which {@link #updateAll()} calls), and only
+ * once the whole subtree holds no more than half of {@code nodeCapacity} points, so a node with about as many points as
+ * the threshold doesn't split and merge over and over. Blocks from merged nodes are pooled and reused by later splits.
+ * <br>
+ * The root covers the bounds given to the constructor, and its loose bounds are infinite; points outside the root's
+ * cube are still found by every query, but they are all kept in the root, so they make queries slower.
+ * <br>
+ * Each inserted point gets an int id, which stays the same until that point is removed (ids of removed points are
+ * reused). The position of each point is copied in when it is inserted or updated, so if a mutable point moves, call
+ * {@link #update(int)} (or {@link #updateAll()}) to move it in the tree. Queries don't modify the tree, but points
+ * must not be inserted, updated, or removed from inside a {@link PointVisitor} during a query on this.
+ *
+ * @param <P> the type of point this holds
+ */
+public class LooseOctree<P extends Point3<P>> {
+    /**
+     * Nodes at this depth never split; the root has depth 0.
+     */
+    protected static final int MAX_DEPTH = 20;
+
+    protected final float looseness;
+    protected final int splitThreshold, mergeThreshold;
+
+    protected float[] nodeX, nodeY, nodeZ, nodeHalf;
+    /**
+     * The index of each node's first child, or -1 for a leaf; the other children follow it in order, with x increasing
+     * first, then y, then z.
+     */
+    protected int[] firstChild;
+    protected int[] parent, depth;
+    /**
+     * The id of the first point in each node, or -1 if empty, and how many points each node holds itself.
+     */
+    protected int[] heads, counts;
+    /**
+     * One more than the highest node index ever used; the root is node 0.
+     */
+    protected int nodeLimit;
+    /**
+     * First indices of blocks of eight nodes that were merged away and can be reused, as a stack.
+     */
+    protected int[] freeBlocks;
+    protected int freeBlockCount;
+
+    protected Object[] points;
+    protected float[] px, py, pz;
+    /**
+     * The node that holds each point, and the next and previous points in that node.
+     */
+    protected int[] owner, next, prev;
+    /**
+     * Ids that were removed and can be reused, as a stack.
+     */
+    protected int[] freeIds;
+    protected int freeCount;
+    /**
+     * One more than the highest id ever handed out.
+     */
+    protected int limit;
+    protected int size;
+
+    /**
+     * Creates an empty LooseOctree with its root covering the given bounds, splitting nodes with more than 16
+     * points, and with loose bounds twice the size of each node.
+     * @param minX the lowest x the root should cover
+     * @param minY the lowest y the root should cover
+     * @param minZ the lowest z the root should cover
+     * @param maxX the highest x the root should cover
+     * @param maxY the highest y the root should cover
+     * @param maxZ the highest z the root should cover
+     */
+    public LooseOctree(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        this(minX, minY, minZ, maxX, maxY, maxZ, 16, 2f);
+    }
+
+    /**
+     * Creates an empty LooseOctree with its root covering the given bounds. The root is a cube, so if the bounds
+     * aren't a cube, it is as wide as the largest side.
+     * @param minX the lowest x the root should cover
+     * @param minY the lowest y the root should cover
+     * @param minZ the lowest z the root should cover
+     * @param maxX the highest x the root should cover
+     * @param maxY the highest y the root should cover
+     * @param maxZ the highest z the root should cover
+     * @param nodeCapacity how many points a leaf can hold before it splits; must be at least 1
+     * @param looseness how much larger each node's loose bounds are than its cube; must be at least 1, and is
+     *                  usually 2
+     */
+    public LooseOctree(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int nodeCapacity,
+                       float looseness) {
+        if (nodeCapacity < 1) throw new IllegalArgumentException("nodeCapacity must be >= 1: " + nodeCapacity);
+        if (!(looseness >= 1f) || looseness == Float.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("looseness must be at least 1 and finite: " + looseness);
+        this.looseness = looseness;
+        this.splitThreshold = nodeCapacity;
+        this.mergeThreshold = nodeCapacity >>> 1;
+        int nodes = 1 + 64;
+        nodeX = new float[nodes];
+        nodeY = new float[nodes];
+        nodeZ = new float[nodes];
+        nodeHalf = new float[nodes];
+        firstChild = new int[nodes];
+        parent = new int[nodes];
+        depth = new int[nodes];
+        heads = new int[nodes];
+        counts = new int[nodes];
+        freeBlocks = new int[nodes >>> 3];
+        nodeX[0] = (minX + maxX) * 0.5f;
+        nodeY[0] = (minY + maxY) * 0.5f;
+        nodeZ[0] = (minZ + maxZ) * 0.5f;
+        nodeHalf[0] = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ) * 0.5f;
+        int capacity = 64;
+        points = new Object[capacity];
+        px = new float[capacity];
+        py = new float[capacity];
+        pz = new float[capacity];
+        owner = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        freeIds = new int[capacity];
+        resetRoot();
+    }
+
+    private void resetRoot() {
+        firstChild[0] = -1;
+        parent[0] = -1;
+        depth[0] = 0;
+        heads[0] = -1;
+        counts[0] = 0;
+        nodeLimit = 1;
+        freeBlockCount = 0;
+    }
+
+    /**
+     * Gets how much larger each node's loose bounds are than its cube.
+     * @return the looseness factor this was created with
+     */
+    public float getLooseness() {
+        return looseness;
+    }
+
+    /**
+     * Gets how many points this holds.
+     * @return how many points this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets how many nodes are in the tree, including the root; mostly useful to see how the tree splits and merges.
+     * @return how many nodes are currently in use
+     */
+    public int nodeCount() {
+        return nodeLimit - (freeBlockCount << 3);
+    }
+
+    /**
+     * Gets the point with the given id.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @return the point with that id, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public P get(int id) {
+        return (P) points[id];
+    }
+
+    /**
+     * Removes every point and every node except the root from this.
+     */
+    public void clear() {
+        Arrays.fill(points, 0, limit, null);
+        size = 0;
+        limit = 0;
+        freeCount = 0;
+        resetRoot();
+    }
+
+    private void growPoints() {
+        int cap = points.length + (points.length >>> 1);
+        points = Arrays.copyOf(points, cap);
+        px = Arrays.copyOf(px, cap);
+        py = Arrays.copyOf(py, cap);
+        pz = Arrays.copyOf(pz, cap);
+        owner = Arrays.copyOf(owner, cap);
+        next = Arrays.copyOf(next, cap);
+        prev = Arrays.copyOf(prev, cap);
+        freeIds = Arrays.copyOf(freeIds, cap);
+    }
+
+    private void growNodes() {
+        int cap = nodeX.length + (nodeX.length >>> 1 & -8) + 8;
+        nodeX = Arrays.copyOf(nodeX, cap);
+        nodeY = Arrays.copyOf(nodeY, cap);
+        nodeZ = Arrays.copyOf(nodeZ, cap);
+        nodeHalf = Arrays.copyOf(nodeHalf, cap);
+        firstChild = Arrays.copyOf(firstChild, cap);
+        parent = Arrays.copyOf(parent, cap);
+        depth = Arrays.copyOf(depth, cap);
+        heads = Arrays.copyOf(heads, cap);
+        counts = Arrays.copyOf(counts, cap);
+        freeBlocks = Arrays.copyOf(freeBlocks, cap >>> 3);
+    }
+
+    private void link(int id, int node) {
+        int head = heads[node];
+        next[id] = head;
+        prev[id] = -1;
+        if (head >= 0) prev[head] = id;
+        heads[node] = id;
+        owner[id] = node;
+        counts[node]++;
+    }
+
+    private void unlink(int id) {
+        int n = next[id], p = prev[id], node = owner[id];
+        if (p >= 0) next[p] = n;
+        else heads[node] = n;
+        if (n >= 0) prev[n] = p;
+        counts[node]--;
+    }
+
+    /**
+     * True if (x, y, z) is inside the loose bounds of the given node; always true for the root.
+     */
+    private boolean inside(int node, float x, float y, float z) {
+        if (node == 0) return true;
+        float h = nodeHalf[node] * looseness;
+        return Math.abs(x - nodeX[node]) <= h && Math.abs(y - nodeY[node]) <= h && Math.abs(z - nodeZ[node]) <= h;
+    }
+
+    /**
+     * Gets the child of {@code node} whose octant holds (x, y, z), or would hold it if it were in node's cube.
+     */
+    private int child(int node, float x, float y, float z) {
+        return firstChild[node] + (x >= nodeX[node] ? 1 : 0) + (y >= nodeY[node] ? 2 : 0)
+                + (z >= nodeZ[node] ? 4 : 0);
+    }
+
+    /**
+     * Links the point with the given id into the deepest node at or below {@code node} whose loose bounds hold it,
+     * splitting that node if it becomes too full.
+     */
+    private void insertDown(int node, int id) {
+        final float x = px[id], y = py[id], z = pz[id];
+        while (firstChild[node] >= 0) {
+            int c = child(node, x, y, z);
+            if (!inside(c, x, y, z)) break;
+            node = c;
+        }
+        link(id, node);
+        if (firstChild[node] < 0 && counts[node] > splitThreshold && depth[node] < MAX_DEPTH) split(node);
+    }
+
+    private void split(int node) {
+        int block;
+        if (freeBlockCount > 0) block = freeBlocks[--freeBlockCount];
+        else {
+            if (nodeLimit + 8 > nodeX.length) growNodes();
+            block = nodeLimit;
+            nodeLimit += 8;
+        }
+        final float h = nodeHalf[node] * 0.5f;
+        for (int i = 0; i < 8; i++) {
+            int c = block + i;
+            nodeX[c] = nodeX[node] + ((i & 1) == 0 ? -h : h);
+            nodeY[c] = nodeY[node] + ((i & 2) == 0 ? -h : h);
+            nodeZ[c] = nodeZ[node] + ((i & 4) == 0 ? -h : h);
+            nodeHalf[c] = h;
+            firstChild[c] = -1;
+            parent[c] = node;
+            depth[c] = depth[node] + 1;
+            heads[c] = -1;
+            counts[c] = 0;
+        }
+        firstChild[node] = block;
+        for (int id = heads[node], following; id >= 0; id = following) {
+            following = next[id];
+            int c = child(node, px[id], py[id], pz[id]);
+            if (inside(c, px[id], py[id], pz[id])) {
+                unlink(id);
+                link(id, c);
+            }
+        }
+        for (int c = block; c < block + 8; c++) {
+            if (counts[c] > splitThreshold && depth[c] < MAX_DEPTH) split(c);
+        }
+    }
+
+    /**
+     * Moves every point in the children of {@code node}, which must all be leaves, into node, and pools the children.
+     */
+    private void merge(int node) {
+        final int block = firstChild[node];
+        for (int c = block; c < block + 8; c++) {
+            for (int id = heads[c], following; id >= 0; id = following) {
+                following = next[id];
+                link(id, node);
+            }
+            heads[c] = -1;
+            counts[c] = 0;
+        }
+        firstChild[node] = -1;
+        freeBlocks[freeBlockCount++] = block;
+    }
+
+    /**
+     * Merges every node whose subtree holds no more than half of {@code nodeCapacity} points back into one leaf,
+     * returning their child blocks to the pool. This is called by {@link #updateAll()}; call it yourself after
+     * removing or moving many points with other methods.
+     */
+    public void maintain() {
+        collapse(0);
+    }
+
+    /**
+     * Merges what it can in the subtree at {@code node}, from the bottom up, and returns how many points it holds.
+     */
+    private int collapse(int node) {
+        final int block = firstChild[node];
+        if (block < 0) return counts[node];
+        int total = counts[node];
+        boolean leaves = true;
+        for (int c = block; c < block + 8; c++) {
+            total += collapse(c);
+            leaves &= firstChild[c] < 0;
+        }
+        if (leaves && total <= mergeThreshold) merge(node);
+        return total;
+    }
+
+    /**
+     * Adds {@code point} to this, storing its current position.
+     * @param point a non-null point to add; it will be stored by reference, not copied
+     * @return the id of the added point, which can be used to update or remove it
+     */
+    public int insert(P point) {
+        int id;
+        if (freeCount > 0) id = freeIds[--freeCount];
+        else {
+            if (limit == points.length) growPoints();
+            id = limit++;
+        }
+        points[id] = point;
+        px[id] = point.x();
+        py[id] = point.y();
+        pz[id] = point.z();
+        insertDown(0, id);
+        ++size;
+        return id;
+    }
+
+    /**
+     * Reads the current position of the point with the given id, and moves it to a different node if needed.
+     * Call this after changing a mutable point that was inserted into this.
+     * @param id an id returned by {@link #insert(Point3)}
+     */
+    public void update(int id) {
+        P point = get(id);
+        if (point == null) throw new IllegalArgumentException("No point has id " + id);
+        move(id, point.x(), point.y(), point.z());
+    }
+
+    /**
+     * Calls {@link #update(int)} on every point in this, then {@link #maintain()}.
+     */
+    public void updateAll() {
+        for (int id = 0; id < limit; id++) {
+            P point = get(id);
+            if (point != null) move(id, point.x(), point.y(), point.z());
+        }
+        maintain();
+    }
+
+    /**
+     * Stores the given position for the point with the given id, without reading the point itself. This is useful
+     * for immutable points, where the stored point can be replaced with {@link #replace(int, Point3)}. If the position
+     * is still inside the loose bounds of the leaf that holds the point, this only stores the position.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @param x the new x position
+     * @param y the new y position
+     * @param z the new z position
+     */
+    public void move(int id, float x, float y, float z) {
+        px[id] = x;
+        py[id] = y;
+        pz[id] = z;
+        int node = owner[id];
+        if (inside(node, x, y, z)) {
+            if (firstChild[node] < 0) return;
+        } else {
+            do node = parent[node];
+            while (!inside(node, x, y, z));
+        }
+        unlink(id);
+        insertDown(node, id);
+    }
+
+    /**
+     * Replaces the point with the given id by {@code point}, and updates its position. This is the way to move
+     * immutable points, since they can't change in-place.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @param point the point to store in place of the current one
+     */
+    public void replace(int id, P point) {
+        if (points[id] == null) throw new IllegalArgumentException("No point has id " + id);
+        points[id] = point;
+        move(id, point.x(), point.y(), point.z());
+    }
+
+    /**
+     * Removes the point with the given id. The id may be reused by a later insert. Nodes that become empty are merged
+     * by the next call to {@link #maintain()}.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @return the removed point
+     */
+    public P remove(int id) {
+        P point = get(id);
+        if (point == null) throw new IllegalArgumentException("No point has id " + id);
+        unlink(id);
+        points[id] = null;
+        freeIds[freeCount++] = id;
+        --size;
+        return point;
+    }
+
+    /**
+     * Visits every point inside the given box (inclusive), using the positions stored by the last insert or
+     * update.
+     * @param minX the lowest x of the box
+     * @param minY the lowest y of the box
+     * @param minZ the lowest z of the box
+     * @param maxX the highest x of the box
+     * @param maxY the highest y of the box
+     * @param maxZ the highest z of the box
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                     PointVisitor<? super P> visitor) {
+        int count = query(0, minX, minY, minZ, maxX, maxY, maxZ, visitor, 0);
+        return count < 0 ? ~count : count;
+    }
+
+    /**
+     * Visits matches in the subtree at {@code node} and returns the updated count, or the bitwise NOT of the count if
+     * the visitor stopped the query.
+     */
+    private int query(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                      PointVisitor<? super P> visitor, int count) {
+        for (int id = heads[node]; id >= 0; id = next[id]) {
+            float x = px[id], y = py[id], z = pz[id];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                ++count;
+                if (!visitor.visit(id, get(id))) return ~count;
+            }
+        }
+        final int block = firstChild[node];
+        if (block < 0) return count;
+        for (int c = block; c < block + 8; c++) {
+            float h = nodeHalf[c] * looseness;
+            if (nodeX[c] + h < minX || nodeX[c] - h > maxX || nodeY[c] + h < minY || nodeY[c] - h > maxY
+                    || nodeZ[c] + h < minZ || nodeZ[c] - h > maxZ) continue;
+            count = query(c, minX, minY, minZ, maxX, maxY, maxZ, visitor, count);
+            if (count < 0) return count;
+        }
+        return count;
+    }
+
+    /**
+     * Visits every point within {@code radius} of the given position (inclusive), using the positions stored by the
+     * last insert or update.
+     * @param x the x position to search around
+     * @param y the y position to search around
+     * @param z the z position to search around
+     * @param radius the maximum Euclidean distance from the search position
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int query(float x, float y, float z, float radius, PointVisitor<? super P> visitor) {
+        int count = query(0, x, y, z, radius * radius, visitor, 0);
+        return count < 0 ? ~count : count;
+    }
+
+    /**
+     * Visits every point within {@code radius} of {@code center} (inclusive).
+     * @param center the position to search around; will not be modified
+     * @param radius the maximum Euclidean distance from center
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int query(Point3<?> center, float radius, PointVisitor<? super P> visitor) {
+        return query(center.x(), center.y(), center.z(), radius, visitor);
+    }
+
+    private int query(int node, float x, float y, float z, float r2, PointVisitor<? super P> visitor, int count) {
+        for (int id = heads[node]; id >= 0; id = next[id]) {
+            float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+            if (dx * dx + dy * dy + dz * dz <= r2) {
+                ++count;
+                if (!visitor.visit(id, get(id))) return ~count;
+            }
+        }
+        final int block = firstChild[node];
+        if (block < 0) return count;
+        for (int c = block; c < block + 8; c++) {
+            if (boxDistance(c, x, y, z) > r2) continue;
+            count = query(c, x, y, z, r2, visitor, count);
+            if (count < 0) return count;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the squared distance from (x, y, z) to the loose bounds of a node other than the root.
+     */
+    private float boxDistance(int node, float x, float y, float z) {
+        float h = nodeHalf[node] * looseness;
+        float dx = Math.max(Math.abs(x - nodeX[node]) - h, 0f), dy = Math.max(Math.abs(y - nodeY[node]) - h, 0f),
+                dz = Math.max(Math.abs(z - nodeZ[node]) - h, 0f);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Finds the id of the point closest to the given position.
+     * @param x the x position to search around
+     * @param y the y position to search around
+     * @param z the z position to search around
+     * @return the id of the closest point, or -1 if this is empty
+     */
+    public int nearest(float x, float y, float z) {
+        return (int) nearest(0, x, y, z, (long) Float.floatToIntBits(Float.POSITIVE_INFINITY) << 32 | 0xFFFFFFFFL);
+    }
+
+    /**
+     * Searches the subtree at {@code node} for a point closer than the current best, which is packed into one long
+     * with the squared distance's float bits in the upper 32 bits and the id in the lower 32 bits.
+     */
+    private long nearest(int node, float x, float y, float z, long best) {
+        for (int id = heads[node]; id >= 0; id = next[id]) {
+            float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z, dist = dx * dx + dy * dy + dz * dz;
+            if (dist < Float.intBitsToFloat((int) (best >>> 32)))
+                best = (long) Float.floatToIntBits(dist) << 32 | id;
+        }
+        final int block = firstChild[node];
+        if (block < 0) return best;
+        // the child whose octant holds the query is searched first, since it most likely has the closest point
+        final int near = child(node, x, y, z);
+        best = nearest(near, x, y, z, best);
+        for (int c = block; c < block + 8; c++) {
+            if (c == near || boxDistance(c, x, y, z) >= Float.intBitsToFloat((int) (best >>> 32))) continue;
+            best = nearest(c, x, y, z, best);
+        }
+        return best;
+    }
+
+    /**
+     * Finds the id of the point closest to {@code query}.
+     * @param query the position to search around; will not be modified
+     * @return the id of the closest point, or -1 if this is empty
+     */
+    public int nearest(Point3<?> query) {
+        return nearest(query.x(), query.y(), query.z());
+    }
+
+    /**
+     * Finds the {@code k} points closest to the given position, writing their ids into {@code outIds} and their
+     * squared distances into {@code outDistances}, both sorted from closest to farthest. Allocates nothing.
+     * @param x the x position to search around
+     * @param y the y position to search around
+     * @param z the z position to search around
+     * @param k how many points to find; must be at least 1
+     * @param outIds receives the ids of the closest points; must have length at least k
+     * @param outDistances receives the squared distances of the closest points; must have length at least k
+     * @return how many points were found, which is {@code min(k, size())}
+     */
+    public int knn(float x, float y, float z, int k, int[] outIds, float[] outDistances) {
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1: " + k);
+        k = Math.min(k, size);
+        int found = knn(0, x, y, z, k, outIds, outDistances, 0);
+        LooseQuadTree.sortHeap(outIds, outDistances, found);
+        return found;
+    }
+
+    /**
+     * Finds the {@code k} points closest to {@code query}.
+     * @param query the position to search around; will not be modified
+     * @param k how many points to find; must be at least 1
+     * @param outIds receives the ids of the closest points; must have length at least k
+     * @param outDistances receives the squared distances of the closest points; must have length at least k
+     * @return how many points were found, which is {@code min(k, size())}
+     */
+    public int knn(Point3<?> query, int k, int[] outIds, float[] outDistances) {
+        return knn(query.x(), query.y(), query.z(), k, outIds, outDistances);
+    }
+
+    private int knn(int node, float x, float y, float z, int k, int[] ids, float[] dists, int found) {
+        for (int id = heads[node]; id >= 0; id = next[id]) {
+            float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+            found = LooseQuadTree.offer(ids, dists, found, k, id, dx * dx + dy * dy + dz * dz);
+        }
+        final int block = firstChild[node];
+        if (block < 0) return found;
+        final int near = child(node, x, y, z);
+        found = knn(near, x, y, z, k, ids, dists, found);
+        for (int c = block; c < block + 8; c++) {
+            if (c == near || (found == k && boxDistance(c, x, y, z) >= dists[0])) continue;
+            found = knn(c, x, y, z, k, ids, dists, found);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,1189 @@
+package com.github.tommyettinger.crux;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores 2, 3, or 4 component points outside the Java heap, either in direct {@link ByteBuffer}s or in a file mapped
+ * into memory with {@link FileChannel#map(FileChannel.MapMode, long, long)}. Each point takes 4 bytes per component,
+ * stored as little-endian floats or ints depending on {@link #floatingPoint()}, one point after another. Points are
+ * read and written in place through reusable cursors ({@link Cursor2}, {@link Cursor3}, and {@link Cursor4}), which
+ * implement the matching point interface, so code written for {@link Point3} can work directly on a store.
+ * <br>
+ * A file-backed store starts with a small header ({@link #HEADER_BYTES} long) that records the rank, component type,
+ * size, and capacity, so {@link #open(Path, boolean)} can reopen it later. Opening maps the file but doesn't read it;
+ * the operating system pages data in as points are accessed (and writes changed pages back), so opening a
+ * multi-gigabyte file takes about as long as opening a tiny one. Call {@link #force()} to make sure changes have
+ * reached the file.
+ * <br>
+ * Because one {@link ByteBuffer} can hold at most 2GB, the points are split into segments. Each segment holds a
+ * power-of-two number of points and at most 1GB, so finding a point is a shift and a mask, and no point ever
+ * straddles two segments. Indices are longs, so a store can hold more than {@link Integer#MAX_VALUE} points.
+ * <br>
+ * Cursors remember the segment they are in, so if {@link #ensureCapacity(long)} grows the store, move existing
+ * cursors with {@link Cursor#at(long)} before using them again. This isn't thread-safe for writing, but many threads
+ * can read at once with their own cursors. Java 8 offers no way to unmap a mapped file early, so after
+ * {@link #close()}, the mapping stays until the buffers are garbage-collected.
+ */
+public class MappedPointStore implements Closeable {
+    /**
+     * How many bytes the header of a file-backed store takes, before the first point.
+     */
+    public static final int HEADER_BYTES = 32;
+    /**
+     * The first 4 bytes of a file-backed store, which spell "CRXP" in ASCII.
+     */
+    public static final int MAGIC = 0x50585243;
+    /**
+     * The version of the file layout, stored after the magic number.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The most bytes any one segment holds.
+     */
+    public static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private static final int SIZE_OFFSET = 16, CAPACITY_OFFSET = 24;
+
+    protected final int rank;
+    protected final boolean floatingPoint;
+    /**
+     * How many bytes each point takes.
+     */
+    protected final int stride;
+    /**
+     * Point indices are shifted right by this to get their segment.
+     */
+    protected final int segmentShift;
+    /**
+     * Point indices are masked with this to get their position within their segment.
+     */
+    protected final int segmentMask;
+    protected ByteBuffer[] segments;
+    /**
+     * Holds the header of a file-backed store, or is null if this isn't backed by a file.
+     */
+    protected ByteBuffer header;
+    /**
+     * The open file of a file-backed store, or null if this isn't backed by a file.
+     */
+    protected FileChannel channel;
+    protected final boolean writable;
+    /**
+     * True if a store that isn't backed by a file uses direct buffers, or false if it uses heap buffers.
+     */
+    protected boolean direct;
+    protected long size, capacity;
+
+    /**
+     * Creates a store that isn't backed by a file, with room for {@code capacity} points.
+     */
+    protected MappedPointStore(int rank, boolean floatingPoint, long capacity, boolean direct) {
+        this(rank, floatingPoint, true);
+        this.direct = direct;
+        growBuffers(capacity);
+    }
+
+    private MappedPointStore(int rank, boolean floatingPoint, boolean writable) {
+        if (rank < 2 || rank > 4) throw new IllegalArgumentException("rank must be 2, 3, or 4: " + rank);
+        this.rank = rank;
+        this.floatingPoint = floatingPoint;
+        this.writable = writable;
+        stride = rank << 2;
+        segmentShift = 31 - Integer.numberOfLeadingZeros(MAX_SEGMENT_BYTES / stride);
+        segmentMask = (1 << segmentShift) - 1;
+        segments = new ByteBuffer[0];
+    }
+
+    /**
+     * Allocates a store in direct (off-heap) memory, not backed by a file, with room for {@code capacity} points and
+     * a size of 0.
+     * @param rank how many components each point has; must be 2, 3, or 4
+     * @param floatingPoint true to store float components, or false to store int components
+     * @param capacity how many points this can hold before it needs to grow
+     * @return a new, empty MappedPointStore
+     */
+    public static MappedPointStore allocate(int rank, boolean floatingPoint, long capacity) {
+        return new MappedPointStore(rank, floatingPoint, capacity, true);
+    }
+
+    /**
+     * Creates (or replaces) the file at {@code file} and maps it as a store with room for {@code capacity} points and
+     * a size of 0. The file is extended to its full length right away, but most file systems don't use disk space
+     * until pages are written.
+     * @param file where to create the file
+     * @param rank how many components each point has; must be 2, 3, or 4
+     * @param floatingPoint true to store float components, or false to store int components
+     * @param capacity how many points this can hold before it needs to grow
+     * @return a new, empty, writable MappedPointStore backed by the file
+     * @throws IOException if the file can't be created or mapped
+     */
+    public static MappedPointStore create(Path file, int rank, boolean floatingPoint, long capacity)
+            throws IOException {
+        MappedPointStore store = new MappedPointStore(rank, floatingPoint, true);
+        store.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            store.mapHeader();
+            store.header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, rank).putInt(12, floatingPoint ? 1 : 0);
+            store.growMapped(capacity);
+            store.size(0L);
+        } catch (IOException | RuntimeException e) {
+            store.channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Maps an existing file created by {@link #create(Path, int, boolean, long)}. This reads only the header; points
+     * are paged in by the operating system as they are accessed.
+     * @param file the file to open
+     * @param writable true to allow changes (which are written back to the file), or false to open it read-only
+     * @return a MappedPointStore backed by the file
+     * @throws IOException if the file can't be read or mapped, or doesn't have a valid header
+     */
+    public static MappedPointStore open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_BYTES) throw new IOException("File is too short to be a point store: " + file);
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining()) {
+                if (channel.read(head, head.position()) < 0) throw new IOException("Unexpected end of file: " + file);
+            }
+            if (head.getInt(0) != MAGIC) throw new IOException("Not a point store: " + file);
+            if (head.getInt(4) != VERSION) throw new IOException("Unsupported point store version: " + head.getInt(4));
+            int rank = head.getInt(8);
+            if (rank < 2 || rank > 4) throw new IOException("Corrupt point store header (rank " + rank + "): " + file);
+            MappedPointStore store = new MappedPointStore(rank, (head.getInt(12) & 1) != 0, writable);
+            long capacity = head.getLong(CAPACITY_OFFSET), size = head.getLong(SIZE_OFFSET);
+            // dividing instead of multiplying, so a huge stored capacity can't overflow past this check
+            if (capacity < 0L || size < 0L || size > capacity
+                    || capacity > (channel.size() - HEADER_BYTES) / store.stride)
+                throw new IOException("Corrupt point store header: " + file);
+            store.channel = channel;
+            store.mapHeader();
+            store.growMapped(capacity);
+            store.size = size;
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void mapHeader() throws IOException {
+        header = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0L,
+                HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Extends the segments of a file-backed store so they hold {@code newCapacity} points, remapping the last
+     * segment if it was partly full and mapping any new ones.
+     */
+    private void growMapped(long newCapacity) throws IOException {
+        final FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        final long perSegment = 1L << segmentShift;
+        final int count = (int) ((newCapacity + perSegment - 1L) >>> segmentShift);
+        ByteBuffer[] next = new ByteBuffer[count];
+        int keep = (int) (capacity >>> segmentShift);
+        System.arraycopy(segments, 0, next, 0, Math.min(keep, count));
+        for (int s = keep; s < count; s++) {
+            long points = Math.min(perSegment, newCapacity - ((long) s << segmentShift));
+            next[s] = channel.map(mode, HEADER_BYTES + ((long) s << segmentShift) * stride, points * stride)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        segments = next;
+        capacity = newCapacity;
+        if (writable) header.putLong(CAPACITY_OFFSET, newCapacity);
+    }
+
+    /**
+     * Extends the segments of a store that isn't backed by a file so they hold {@code newCapacity} points, copying
+     * the last segment if it was partly full and allocating any new ones.
+     */
+    private void growBuffers(long newCapacity) {
+        final long perSegment = 1L << segmentShift;
+        final int count = (int) ((newCapacity + perSegment - 1L) >>> segmentShift);
+        ByteBuffer[] next = new ByteBuffer[count];
+        int keep = (int) (capacity >>> segmentShift);
+        System.arraycopy(segments, 0, next, 0, Math.min(keep, count));
+        for (int s = keep; s < count; s++) {
+            int bytes = (int) (Math.min(perSegment, newCapacity - ((long) s << segmentShift)) * stride);
+            ByteBuffer b = direct ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+            if (s < segments.length) {
+                ByteBuffer old = segments[s].duplicate();
+                old.clear();
+                b.put(old);
+                b.clear();
+            }
+            next[s] = b;
+        }
+        segments = next;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Makes sure this can hold at least {@code minCapacity} points, growing by at least half its current capacity if
+     * it needs to grow at all. A file-backed store extends its file. Cursors must be moved with
+     * {@link Cursor#at(long)} after this grows.
+     * @param minCapacity how many points this must be able to hold
+     * @throws IOException if a file-backed store can't be extended or remapped
+     */
+    public void ensureCapacity(long minCapacity) throws IOException {
+        if (minCapacity <= capacity) return;
+        checkWritable();
+        long newCapacity = Math.max(minCapacity, capacity + (capacity >>> 1));
+        if (channel == null) growBuffers(newCapacity);
+        else growMapped(newCapacity);
+    }
+
+    /**
+     * @return how many components each point has: 2, 3, or 4
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * @return true if components are stored as floats, or false if they are stored as ints
+     */
+    public boolean floatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * @return how many points are in use; always at most {@link #capacity()}
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Sets how many points are in use. Points between the old size and a larger new size keep whatever the store
+     * held there, which is 0 for a newly created store.
+     * @param newSize how many points should be in use; must be between 0 and {@link #capacity()}, inclusive
+     */
+    public void size(long newSize) {
+        if (newSize < 0L || newSize > capacity)
+            throw new IndexOutOfBoundsException("Size must be between 0 and " + capacity + ": " + newSize);
+        checkWritable();
+        size = newSize;
+        if (header != null) header.putLong(SIZE_OFFSET, newSize);
+    }
+
+    /**
+     * @return how many points this can hold before it needs to grow
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return true if this can be written to
+     */
+    public boolean writable() {
+        return writable;
+    }
+
+    /**
+     * Appends {@code point} to the end of this store, growing it if needed. Only the first {@link #rank()}
+     * components of point are used, read with {@link PointN#get(int)} or {@link PointN#geti(int)}.
+     * @param point a point with at least {@link #rank()} components; will not be modified
+     * @return the index of the added point
+     * @throws IOException if a file-backed store needs to grow and can't
+     */
+    public long add(PointN<?> point) throws IOException {
+        final long index = size;
+        ensureCapacity(index + 1L);
+        size(index + 1L);
+        final ByteBuffer b = segments[(int) (index >>> segmentShift)];
+        final int off = ((int) index & segmentMask) * stride;
+        for (int i = 0; i < rank; i++) {
+            if (floatingPoint) b.putFloat(off + (i << 2), point.get(i));
+            else b.putInt(off + (i << 2), point.geti(i));
+        }
+        return index;
+    }
+
+    /**
+     * Gets one component of one point as a float.
+     * @param index which point to read, from 0 to {@link #capacity()}, exclusive
+     * @param axis which component to read, from 0 to {@link #rank()}, exclusive
+     * @return the component, converted to float if this stores ints
+     */
+    public float get(long index, int axis) {
+        final ByteBuffer b = segments[(int) (index >>> segmentShift)];
+        final int off = ((int) index & segmentMask) * stride + (axis << 2);
+        return floatingPoint ? b.getFloat(off) : b.getInt(off);
+    }
+
+    /**
+     * Gets one component of one point as an int.
+     * @param index which point to read, from 0 to {@link #capacity()}, exclusive
+     * @param axis which component to read, from 0 to {@link #rank()}, exclusive
+     * @return the component, cast to int if this stores floats
+     */
+    public int geti(long index, int axis) {
+        final ByteBuffer b = segments[(int) (index >>> segmentShift)];
+        final int off = ((int) index & segmentMask) * stride + (axis << 2);
+        return floatingPoint ? (int) b.getFloat(off) : b.getInt(off);
+    }
+
+    /**
+     * Sets one component of one point from a float.
+     * @param index which point to write, from 0 to {@link #capacity()}, exclusive
+     * @param axis which component to write, from 0 to {@link #rank()}, exclusive
+     * @param value the new value, cast to int if this stores ints
+     */
+    public void set(long index, int axis, float value) {
+        final ByteBuffer b = segments[(int) (index >>> segmentShift)];
+        final int off = ((int) index & segmentMask) * stride + (axis << 2);
+        if (floatingPoint) b.putFloat(off, value);
+        else b.putInt(off, (int) value);
+    }
+
+    /**
+     * Sets one component of one point from an int.
+     * @param index which point to write, from 0 to {@link #capacity()}, exclusive
+     * @param axis which component to write, from 0 to {@link #rank()}, exclusive
+     * @param value the new value, converted to float if this stores floats
+     */
+    public void seti(long index, int axis, int value) {
+        final ByteBuffer b = segments[(int) (index >>> segmentShift)];
+        final int off = ((int) index & segmentMask) * stride + (axis << 2);
+        if (floatingPoint) b.putFloat(off, value);
+        else b.putInt(off, value);
+    }
+
+    /**
+     * Gets a new cursor over this store, which must have rank 2, pointing at index 0.
+     * @return a new Cursor2 at index 0
+     */
+    public Cursor2 cursor2() {
+        checkRank(2);
+        Cursor2 cursor = new Cursor2();
+        return capacity == 0L ? cursor : cursor.at(0L);
+    }
+
+    /**
+     * Gets a new cursor over this store, which must have rank 3, pointing at index 0.
+     * @return a new Cursor3 at index 0
+     */
+    public Cursor3 cursor3() {
+        checkRank(3);
+        Cursor3 cursor = new Cursor3();
+        return capacity == 0L ? cursor : cursor.at(0L);
+    }
+
+    /**
+     * Gets a new cursor over this store, which must have rank 4, pointing at index 0.
+     * @return a new Cursor4 at index 0
+     */
+    public Cursor4 cursor4() {
+        checkRank(4);
+        Cursor4 cursor = new Cursor4();
+        return capacity == 0L ? cursor : cursor.at(0L);
+    }
+
+    private void checkRank(int expected) {
+        if (rank != expected)
+            throw new IllegalStateException("This store has rank " + rank + ", not " + expected);
+    }
+
+    private void checkWritable() {
+        if (!writable) throw new IllegalStateException("This store was opened read-only");
+    }
+
+    /**
+     * If this is backed by a file, makes sure every change has been written to the file. Otherwise, does nothing.
+     */
+    public void force() {
+        if (channel == null || !writable) return;
+        ((MappedByteBuffer) header).force();
+        for (ByteBuffer b : segments) {
+            ((MappedByteBuffer) b).force();
+        }
+    }
+
+    /**
+     * Writes any changes to the file and closes it, if this is backed by a file. The mapped memory is released when
+     * the buffers are garbage-collected; this must not be used after closing.
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        force();
+        channel.close();
+        channel = null;
+        header = null;
+        segments = new ByteBuffer[0];
+    }
+
+    /**
+     * The shared part of {@link Cursor2}, {@link Cursor3}, and {@link Cursor4}: a position in the store, and raw
+     * component access at that position.
+     */
+    public abstract class Cursor {
+        /**
+         * The segment that holds the current point.
+         */
+        protected ByteBuffer segment;
+        /**
+         * The byte offset of the current point in {@link #segment}.
+         */
+        protected int offset;
+        protected long index;
+
+        Cursor() {
+        }
+
+        /**
+         * Moves this cursor to view the given index. This doesn't check the index against {@link #size()}. A cursor
+         * from an empty store must be moved with this after the store grows.
+         * @param index the index in the store to view, from 0 to {@link #capacity()}, exclusive
+         * @return this cursor, for chaining
+         */
+        public abstract Cursor at(long index);
+
+        protected final void moveTo(long index) {
+            this.index = index;
+            segment = segments[(int) (index >>> segmentShift)];
+            offset = ((int) index & segmentMask) * stride;
+        }
+
+        /**
+         * @return the index in the store this views
+         */
+        public long index() {
+            return index;
+        }
+
+        /**
+         * Gets the store this views.
+         * @return the MappedPointStore this views
+         */
+        public MappedPointStore store() {
+            return MappedPointStore.this;
+        }
+
+        public boolean floatingPoint() {
+            return floatingPoint;
+        }
+
+        protected final float f(int axis) {
+            return floatingPoint ? segment.getFloat(offset + (axis << 2)) : segment.getInt(offset + (axis << 2));
+        }
+
+        protected final void f(int axis, float value) {
+            if (floatingPoint) segment.putFloat(offset + (axis << 2), value);
+            else segment.putInt(offset + (axis << 2), (int) value);
+        }
+
+        protected final int i(int axis) {
+            return floatingPoint ? (int) segment.getFloat(offset + (axis << 2)) : segment.getInt(offset + (axis << 2));
+        }
+
+        protected final void i(int axis, int value) {
+            if (floatingPoint) segment.putFloat(offset + (axis << 2), value);
+            else segment.putInt(offset + (axis << 2), value);
+        }
+    }
+
+    /**
+     * A mutable Point2 that reads and writes one point of a 2-component store in place. Move it between points with
+     * {@link #at(long)}; one cursor can be reused for every point, so iterating over a store allocates nothing.
+     */
+    public final class Cursor2 extends Cursor implements Point2<Cursor2> {
+        Cursor2() {
+        }
+
+        @Override
+        public Cursor2 at(long index) {
+            moveTo(index);
+            return this;
+        }
+
+        @Override
+        public Cursor2 cpy() {
+            MappedPointStore single = new MappedPointStore(2, floatingPoint, 1L, false);
+            single.size(1L);
+            return single.cursor2().set(this);
+        }
+
+        @Override
+        public float len2() {
+            float xv = f(0), yv = f(1);
+            return xv * xv + yv * yv;
+        }
+
+        @Override
+        public Cursor2 set(Cursor2 point) {
+            if (floatingPoint) {
+                f(0, point.x());
+                f(1, point.y());
+            } else {
+                i(0, point.xi());
+                i(1, point.yi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 sub(Cursor2 point) {
+            if (floatingPoint) {
+                f(0, f(0) - point.x());
+                f(1, f(1) - point.y());
+            } else {
+                i(0, i(0) - point.xi());
+                i(1, i(1) - point.yi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 add(Cursor2 point) {
+            if (floatingPoint) {
+                f(0, f(0) + point.x());
+                f(1, f(1) + point.y());
+            } else {
+                i(0, i(0) + point.xi());
+                i(1, i(1) + point.yi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 scl(Cursor2 point) {
+            if (floatingPoint) {
+                f(0, f(0) * point.x());
+                f(1, f(1) * point.y());
+            } else {
+                i(0, i(0) * point.xi());
+                i(1, i(1) * point.yi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 setZero() {
+            i(0, 0);
+            i(1, 0);
+            return this;
+        }
+
+        @Override
+        public Cursor2 minus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) - scalar);
+                f(1, f(1) - scalar);
+            } else {
+                i(0, (int) (i(0) - scalar));
+                i(1, (int) (i(1) - scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 plus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) + scalar);
+                f(1, f(1) + scalar);
+            } else {
+                i(0, (int) (i(0) + scalar));
+                i(1, (int) (i(1) + scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor2 times(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) * scalar);
+                f(1, f(1) * scalar);
+            } else {
+                i(0, (int) (i(0) * scalar));
+                i(1, (int) (i(1) * scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public float dst2(Cursor2 point) {
+            float dx = f(0) - point.x(), dy = f(1) - point.y();
+            return dx * dx + dy * dy;
+        }
+
+        @Override
+        public float x() {
+            return f(0);
+        }
+
+        @Override
+        public Cursor2 x(float next) {
+            f(0, next);
+            return this;
+        }
+
+        @Override
+        public int xi() {
+            return i(0);
+        }
+
+        @Override
+        public Cursor2 xi(int next) {
+            i(0, next);
+            return this;
+        }
+
+        @Override
+        public float y() {
+            return f(1);
+        }
+
+        @Override
+        public Cursor2 y(float next) {
+            f(1, next);
+            return this;
+        }
+
+        @Override
+        public int yi() {
+            return i(1);
+        }
+
+        @Override
+        public Cursor2 yi(int next) {
+            i(1, next);
+            return this;
+        }
+
+        @Override
+        public Cursor2 set(float x, float y) {
+            f(0, x);
+            f(1, y);
+            return this;
+        }
+
+        @Override
+        public Cursor2 seti(int x, int y) {
+            i(0, x);
+            i(1, y);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return floatingPoint
+                    ? "(" + f(0) + ", " + f(1) + ")"
+                    : "(" + i(0) + ", " + i(1) + ")";
+        }
+    }
+
+    /**
+     * A mutable Point3 that reads and writes one point of a 3-component store in place. Move it between points with
+     * {@link #at(long)}; one cursor can be reused for every point, so iterating over a store allocates nothing.
+     */
+    public final class Cursor3 extends Cursor implements Point3<Cursor3> {
+        Cursor3() {
+        }
+
+        @Override
+        public Cursor3 at(long index) {
+            moveTo(index);
+            return this;
+        }
+
+        @Override
+        public Cursor3 cpy() {
+            MappedPointStore single = new MappedPointStore(3, floatingPoint, 1L, false);
+            single.size(1L);
+            return single.cursor3().set(this);
+        }
+
+        @Override
+        public float len2() {
+            float xv = f(0), yv = f(1), zv = f(2);
+            return xv * xv + yv * yv + zv * zv;
+        }
+
+        @Override
+        public Cursor3 set(Cursor3 point) {
+            if (floatingPoint) {
+                f(0, point.x());
+                f(1, point.y());
+                f(2, point.z());
+            } else {
+                i(0, point.xi());
+                i(1, point.yi());
+                i(2, point.zi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 sub(Cursor3 point) {
+            if (floatingPoint) {
+                f(0, f(0) - point.x());
+                f(1, f(1) - point.y());
+                f(2, f(2) - point.z());
+            } else {
+                i(0, i(0) - point.xi());
+                i(1, i(1) - point.yi());
+                i(2, i(2) - point.zi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 add(Cursor3 point) {
+            if (floatingPoint) {
+                f(0, f(0) + point.x());
+                f(1, f(1) + point.y());
+                f(2, f(2) + point.z());
+            } else {
+                i(0, i(0) + point.xi());
+                i(1, i(1) + point.yi());
+                i(2, i(2) + point.zi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 scl(Cursor3 point) {
+            if (floatingPoint) {
+                f(0, f(0) * point.x());
+                f(1, f(1) * point.y());
+                f(2, f(2) * point.z());
+            } else {
+                i(0, i(0) * point.xi());
+                i(1, i(1) * point.yi());
+                i(2, i(2) * point.zi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 setZero() {
+            i(0, 0);
+            i(1, 0);
+            i(2, 0);
+            return this;
+        }
+
+        @Override
+        public Cursor3 minus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) - scalar);
+                f(1, f(1) - scalar);
+                f(2, f(2) - scalar);
+            } else {
+                i(0, (int) (i(0) - scalar));
+                i(1, (int) (i(1) - scalar));
+                i(2, (int) (i(2) - scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 plus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) + scalar);
+                f(1, f(1) + scalar);
+                f(2, f(2) + scalar);
+            } else {
+                i(0, (int) (i(0) + scalar));
+                i(1, (int) (i(1) + scalar));
+                i(2, (int) (i(2) + scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor3 times(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) * scalar);
+                f(1, f(1) * scalar);
+                f(2, f(2) * scalar);
+            } else {
+                i(0, (int) (i(0) * scalar));
+                i(1, (int) (i(1) * scalar));
+                i(2, (int) (i(2) * scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public float dst2(Cursor3 point) {
+            float dx = f(0) - point.x(), dy = f(1) - point.y(), dz = f(2) - point.z();
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        @Override
+        public float x() {
+            return f(0);
+        }
+
+        @Override
+        public Cursor3 x(float next) {
+            f(0, next);
+            return this;
+        }
+
+        @Override
+        public int xi() {
+            return i(0);
+        }
+
+        @Override
+        public Cursor3 xi(int next) {
+            i(0, next);
+            return this;
+        }
+
+        @Override
+        public float y() {
+            return f(1);
+        }
+
+        @Override
+        public Cursor3 y(float next) {
+            f(1, next);
+            return this;
+        }
+
+        @Override
+        public int yi() {
+            return i(1);
+        }
+
+        @Override
+        public Cursor3 yi(int next) {
+            i(1, next);
+            return this;
+        }
+
+        @Override
+        public float z() {
+            return f(2);
+        }
+
+        @Override
+        public Cursor3 z(float next) {
+            f(2, next);
+            return this;
+        }
+
+        @Override
+        public int zi() {
+            return i(2);
+        }
+
+        @Override
+        public Cursor3 zi(int next) {
+            i(2, next);
+            return this;
+        }
+
+        @Override
+        public Cursor3 set(float x, float y, float z) {
+            f(0, x);
+            f(1, y);
+            f(2, z);
+            return this;
+        }
+
+        @Override
+        public Cursor3 seti(int x, int y, int z) {
+            i(0, x);
+            i(1, y);
+            i(2, z);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return floatingPoint
+                    ? "(" + f(0) + ", " + f(1) + ", " + f(2) + ")"
+                    : "(" + i(0) + ", " + i(1) + ", " + i(2) + ")";
+        }
+    }
+
+    /**
+     * A mutable Point4 that reads and writes one point of a 4-component store in place. Move it between points with
+     * {@link #at(long)}; one cursor can be reused for every point, so iterating over a store allocates nothing.
+     */
+    public final class Cursor4 extends Cursor implements Point4<Cursor4> {
+        Cursor4() {
+        }
+
+        @Override
+        public Cursor4 at(long index) {
+            moveTo(index);
+            return this;
+        }
+
+        @Override
+        public Cursor4 cpy() {
+            MappedPointStore single = new MappedPointStore(4, floatingPoint, 1L, false);
+            single.size(1L);
+            return single.cursor4().set(this);
+        }
+
+        @Override
+        public float len2() {
+            float xv = f(0), yv = f(1), zv = f(2), wv = f(3);
+            return xv * xv + yv * yv + zv * zv + wv * wv;
+        }
+
+        @Override
+        public Cursor4 set(Cursor4 point) {
+            if (floatingPoint) {
+                f(0, point.x());
+                f(1, point.y());
+                f(2, point.z());
+                f(3, point.w());
+            } else {
+                i(0, point.xi());
+                i(1, point.yi());
+                i(2, point.zi());
+                i(3, point.wi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 sub(Cursor4 point) {
+            if (floatingPoint) {
+                f(0, f(0) - point.x());
+                f(1, f(1) - point.y());
+                f(2, f(2) - point.z());
+                f(3, f(3) - point.w());
+            } else {
+                i(0, i(0) - point.xi());
+                i(1, i(1) - point.yi());
+                i(2, i(2) - point.zi());
+                i(3, i(3) - point.wi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 add(Cursor4 point) {
+            if (floatingPoint) {
+                f(0, f(0) + point.x());
+                f(1, f(1) + point.y());
+                f(2, f(2) + point.z());
+                f(3, f(3) + point.w());
+            } else {
+                i(0, i(0) + point.xi());
+                i(1, i(1) + point.yi());
+                i(2, i(2) + point.zi());
+                i(3, i(3) + point.wi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 scl(Cursor4 point) {
+            if (floatingPoint) {
+                f(0, f(0) * point.x());
+                f(1, f(1) * point.y());
+                f(2, f(2) * point.z());
+                f(3, f(3) * point.w());
+            } else {
+                i(0, i(0) * point.xi());
+                i(1, i(1) * point.yi());
+                i(2, i(2) * point.zi());
+                i(3, i(3) * point.wi());
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 setZero() {
+            i(0, 0);
+            i(1, 0);
+            i(2, 0);
+            i(3, 0);
+            return this;
+        }
+
+        @Override
+        public Cursor4 minus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) - scalar);
+                f(1, f(1) - scalar);
+                f(2, f(2) - scalar);
+                f(3, f(3) - scalar);
+            } else {
+                i(0, (int) (i(0) - scalar));
+                i(1, (int) (i(1) - scalar));
+                i(2, (int) (i(2) - scalar));
+                i(3, (int) (i(3) - scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 plus(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) + scalar);
+                f(1, f(1) + scalar);
+                f(2, f(2) + scalar);
+                f(3, f(3) + scalar);
+            } else {
+                i(0, (int) (i(0) + scalar));
+                i(1, (int) (i(1) + scalar));
+                i(2, (int) (i(2) + scalar));
+                i(3, (int) (i(3) + scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor4 times(float scalar) {
+            if (floatingPoint) {
+                f(0, f(0) * scalar);
+                f(1, f(1) * scalar);
+                f(2, f(2) * scalar);
+                f(3, f(3) * scalar);
+            } else {
+                i(0, (int) (i(0) * scalar));
+                i(1, (int) (i(1) * scalar));
+                i(2, (int) (i(2) * scalar));
+                i(3, (int) (i(3) * scalar));
+            }
+            return this;
+        }
+
+        @Override
+        public float dst2(Cursor4 point) {
+            float dx = f(0) - point.x(), dy = f(1) - point.y(), dz = f(2) - point.z(), dw = f(3) - point.w();
+            return dx * dx + dy * dy + dz * dz + dw * dw;
+        }
+
+        @Override
+        public float x() {
+            return f(0);
+        }
+
+        @Override
+        public Cursor4 x(float next) {
+            f(0, next);
+            return this;
+        }
+
+        @Override
+        public int xi() {
+            return i(0);
+        }
+
+        @Override
+        public Cursor4 xi(int next) {
+            i(0, next);
+            return this;
+        }
+
+        @Override
+        public float y() {
+            return f(1);
+        }
+
+        @Override
+        public Cursor4 y(float next) {
+            f(1, next);
+            return this;
+        }
+
+        @Override
+        public int yi() {
+            return i(1);
+        }
+
+        @Override
+        public Cursor4 yi(int next) {
+            i(1, next);
+            return this;
+        }
+
+        @Override
+        public float z() {
+            return f(2);
+        }
+
+        @Override
+        public Cursor4 z(float next) {
+            f(2, next);
+            return this;
+        }
+
+        @Override
+        public int zi() {
+            return i(2);
+        }
+
+        @Override
+        public Cursor4 zi(int next) {
+            i(2, next);
+            return this;
+        }
+
+        @Override
+        public float w() {
+            return f(3);
+        }
+
+        @Override
+        public Cursor4 w(float next) {
+            f(3, next);
+            return this;
+        }
+
+        @Override
+        public int wi() {
+            return i(3);
+        }
+
+        @Override
+        public Cursor4 wi(int next) {
+            i(3, next);
+            return this;
+        }
+
+        @Override
+        public Cursor4 set(float x, float y, float z, float w) {
+            f(0, x);
+            f(1, y);
+            f(2, z);
+            f(3, w);
+            return this;
+        }
+
+        @Override
+        public Cursor4 seti(int x, int y, int z, int w) {
+            i(0, x);
+            i(1, y);
+            i(2, z);
+            i(3, w);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return floatingPoint
+                    ? "(" + f(0) + ", " + f(1) + ", " + f(2) + ", " + f(3) + ")"
+                    : "(" + i(0) + ", " + i(1) + ", " + i(2) + ", " + i(3) + ")";
+        }
+    }
+}
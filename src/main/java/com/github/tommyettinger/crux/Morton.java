@@ -0,0 +1,362 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Encodes int {@link Point2} and {@link Point3} components as Morton codes (also called Z-order codes), which interleave
+ * the bits of each component into one {@code long}. Sorting points by their Morton code groups points that are close in
+ * space close together in the sorted order, and storing a code instead of a point object removes all per-point object
+ * overhead. Interleaving and de-interleaving use the "magic number" bit-spreading method, with a fixed handful of shifts
+ * and masks rather than a loop over bits.
+ * <br>
+ * 2D codes hold two full 32-bit components. 3D codes hold three 21-bit components, so each component must be between
+ * -1048576 and 1048575, inclusive; other bits are ignored. Components are offset so that negative values sort before
+ * positive ones, which means 2D codes use all 64 bits and must be compared as unsigned (with
+ * {@link Long#compareUnsigned(long, long)}), while 3D codes are never negative and can be compared normally.
+ * <br>
+ * For range queries, {@link #bigMin2(long, long, long)} and {@link #litMax2(long, long, long)} (and their 3D
+ * counterparts) implement the BIGMIN and LITMAX calculations from Tropf and Herzog. When scanning a sorted array of
+ * codes for those inside a box, a code that is between the box's corner codes but outside the box can be used to jump
+ * straight to the next code that could be inside the box, instead of decoding every code in between.
+ */
+public final class Morton {
+    private Morton() {
+    }
+
+    /**
+     * Added to each 3D component before encoding so -1048576 becomes 0.
+     */
+    private static final int OFFSET_3 = 1 << 20;
+
+    /**
+     * The bits of a 2D code that belong to x.
+     */
+    public static final long MASK_2_X = 0x5555555555555555L;
+    /**
+     * The bits of a 2D code that belong to y.
+     */
+    public static final long MASK_2_Y = 0xAAAAAAAAAAAAAAAAL;
+    /**
+     * The bits of a 3D code that belong to x.
+     */
+    public static final long MASK_3_X = 0x1249249249249249L;
+    /**
+     * The bits of a 3D code that belong to y.
+     */
+    public static final long MASK_3_Y = 0x2492492492492492L;
+    /**
+     * The bits of a 3D code that belong to z.
+     */
+    public static final long MASK_3_Z = 0x4924924924924924L;
+
+    /**
+     * Spreads the low 32 bits of {@code v} so there is a zero bit between each pair of them.
+     */
+    private static long spread2(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        return (v | v << 1) & 0x5555555555555555L;
+    }
+
+    /**
+     * The inverse of {@link #spread2(long)}; gathers every other bit, starting at bit 0, into the low 32 bits.
+     */
+    private static int compact2(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | v >>> 1) & 0x3333333333333333L;
+        v = (v | v >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v >>> 4) & 0x00FF00FF00FF00FFL;
+        v = (v | v >>> 8) & 0x0000FFFF0000FFFFL;
+        return (int) (v | v >>> 16);
+    }
+
+    /**
+     * Spreads the low 21 bits of {@code v} so there are two zero bits between each pair of them.
+     */
+    private static long spread3(long v) {
+        v &= 0x1FFFFFL;
+        v = (v | v << 32) & 0x001F00000000FFFFL;
+        v = (v | v << 16) & 0x001F0000FF0000FFL;
+        v = (v | v << 8) & 0x100F00F00F00F00FL;
+        v = (v | v << 4) & 0x10C30C30C30C30C3L;
+        return (v | v << 2) & 0x1249249249249249L;
+    }
+
+    /**
+     * The inverse of {@link #spread3(long)}; gathers every third bit, starting at bit 0, into the low 21 bits.
+     */
+    private static int compact3(long v) {
+        v &= 0x1249249249249249L;
+        v = (v | v >>> 2) & 0x10C30C30C30C30C3L;
+        v = (v | v >>> 4) & 0x100F00F00F00F00FL;
+        v = (v | v >>> 8) & 0x001F0000FF0000FFL;
+        v = (v | v >>> 16) & 0x001F00000000FFFFL;
+        return (int) ((v | v >>> 32) & 0x1FFFFFL);
+    }
+
+    /**
+     * Encodes two int components as a 2D Morton code. Compare these codes with {@link Long#compareUnsigned(long, long)}.
+     * @param x the first (x) component; any int
+     * @param y the second (y) component; any int
+     * @return a 2D Morton code
+     */
+    public static long encode2(int x, int y) {
+        return spread2(x ^ 0x80000000) | spread2(y ^ 0x80000000) << 1;
+    }
+
+    /**
+     * Encodes the int components of {@code point} (using {@link Point2#xi()} and {@link Point2#yi()}).
+     * @param point any Point2; will not be modified
+     * @return a 2D Morton code
+     */
+    public static long encode2(Point2<?> point) {
+        return encode2(point.xi(), point.yi());
+    }
+
+    /**
+     * Gets the x component from a 2D Morton code.
+     * @param code a code from {@link #encode2(int, int)}
+     * @return the x component
+     */
+    public static int decode2x(long code) {
+        return compact2(code) ^ 0x80000000;
+    }
+
+    /**
+     * Gets the y component from a 2D Morton code.
+     * @param code a code from {@link #encode2(int, int)}
+     * @return the y component
+     */
+    public static int decode2y(long code) {
+        return compact2(code >>> 1) ^ 0x80000000;
+    }
+
+    /**
+     * Sets {@code into} to the components in a 2D Morton code, using {@link Point2#seti(int, int)}.
+     * @param code a code from {@link #encode2(int, int)}
+     * @param into the point to set; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any Point2 type
+     */
+    public static <P extends Point2<P>> P decode2(long code, P into) {
+        return into.seti(decode2x(code), decode2y(code));
+    }
+
+    /**
+     * Encodes three int components as a 3D Morton code. Each component must be between -1048576 and 1048575, inclusive.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @param z the third (z) component
+     * @return a non-negative 3D Morton code
+     */
+    public static long encode3(int x, int y, int z) {
+        return spread3(x + OFFSET_3) | spread3(y + OFFSET_3) << 1 | spread3(z + OFFSET_3) << 2;
+    }
+
+    /**
+     * Encodes the int components of {@code point} (using {@link Point3#xi()}, {@link Point3#yi()}, and
+     * {@link Point3#zi()}). Each component must be between -1048576 and 1048575, inclusive.
+     * @param point any Point3; will not be modified
+     * @return a non-negative 3D Morton code
+     */
+    public static long encode3(Point3<?> point) {
+        return encode3(point.xi(), point.yi(), point.zi());
+    }
+
+    /**
+     * Gets the x component from a 3D Morton code.
+     * @param code a code from {@link #encode3(int, int, int)}
+     * @return the x component
+     */
+    public static int decode3x(long code) {
+        return compact3(code) - OFFSET_3;
+    }
+
+    /**
+     * Gets the y component from a 3D Morton code.
+     * @param code a code from {@link #encode3(int, int, int)}
+     * @return the y component
+     */
+    public static int decode3y(long code) {
+        return compact3(code >>> 1) - OFFSET_3;
+    }
+
+    /**
+     * Gets the z component from a 3D Morton code.
+     * @param code a code from {@link #encode3(int, int, int)}
+     * @return the z component
+     */
+    public static int decode3z(long code) {
+        return compact3(code >>> 2) - OFFSET_3;
+    }
+
+    /**
+     * Sets {@code into} to the components in a 3D Morton code, using {@link Point3#seti(int, int, int)}.
+     * @param code a code from {@link #encode3(int, int, int)}
+     * @param into the point to set; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any Point3 type
+     */
+    public static <P extends Point3<P>> P decode3(long code, P into) {
+        return into.seti(decode3x(code), decode3y(code), decode3z(code));
+    }
+
+    /**
+     * Returns true if the point encoded by {@code code} is inside the box with corners encoded by {@code min} and
+     * {@code max}, inclusive. This doesn't decode anything; it compares the bits of each component in place.
+     * @param code a 2D Morton code to check
+     * @param min the 2D Morton code of the box's lowest corner
+     * @param max the 2D Morton code of the box's highest corner
+     * @return true if code is inside the box on both axes
+     */
+    public static boolean inBox2(long code, long min, long max) {
+        return Long.compareUnsigned(code & MASK_2_X, min & MASK_2_X) >= 0
+                && Long.compareUnsigned(code & MASK_2_X, max & MASK_2_X) <= 0
+                && Long.compareUnsigned(code & MASK_2_Y, min & MASK_2_Y) >= 0
+                && Long.compareUnsigned(code & MASK_2_Y, max & MASK_2_Y) <= 0;
+    }
+
+    /**
+     * Returns true if the point encoded by {@code code} is inside the box with corners encoded by {@code min} and
+     * {@code max}, inclusive. This doesn't decode anything; it compares the bits of each component in place.
+     * @param code a 3D Morton code to check
+     * @param min the 3D Morton code of the box's lowest corner
+     * @param max the 3D Morton code of the box's highest corner
+     * @return true if code is inside the box on all three axes
+     */
+    public static boolean inBox3(long code, long min, long max) {
+        long c = code & MASK_3_X;
+        if (c < (min & MASK_3_X) || c > (max & MASK_3_X)) return false;
+        c = code & MASK_3_Y;
+        if (c < (min & MASK_3_Y) || c > (max & MASK_3_Y)) return false;
+        c = code & MASK_3_Z;
+        return c >= (min & MASK_3_Z) && c <= (max & MASK_3_Z);
+    }
+
+    /**
+     * Computes BIGMIN: the smallest code greater than {@code code} that is inside the box with corners {@code min} and
+     * {@code max}. This is meant to be called when scanning sorted codes and finding one that is between min and max
+     * but outside the box; the scan can skip ahead to the result. Codes are compared as unsigned.
+     * @param code a 2D Morton code that is between min and max (unsigned) but outside the box
+     * @param min the 2D Morton code of the box's lowest corner
+     * @param max the 2D Morton code of the box's highest corner
+     * @return the smallest code greater than {@code code} that is inside the box
+     */
+    public static long bigMin2(long code, long min, long max) {
+        return bigMin(code, min, max, 2, MASK_2_X);
+    }
+
+    /**
+     * Computes LITMAX: the largest code less than {@code code} that is inside the box with corners {@code min} and
+     * {@code max}. This is the counterpart to {@link #bigMin2(long, long, long)}, for scanning downward. Codes are
+     * compared as unsigned.
+     * @param code a 2D Morton code that is between min and max (unsigned) but outside the box
+     * @param min the 2D Morton code of the box's lowest corner
+     * @param max the 2D Morton code of the box's highest corner
+     * @return the largest code less than {@code code} that is inside the box
+     */
+    public static long litMax2(long code, long min, long max) {
+        return litMax(code, min, max, 2, MASK_2_X);
+    }
+
+    /**
+     * Computes BIGMIN: the smallest code greater than {@code code} that is inside the box with corners {@code min} and
+     * {@code max}. This is meant to be called when scanning sorted codes and finding one that is between min and max
+     * but outside the box; the scan can skip ahead to the result.
+     * @param code a 3D Morton code that is between min and max but outside the box
+     * @param min the 3D Morton code of the box's lowest corner
+     * @param max the 3D Morton code of the box's highest corner
+     * @return the smallest code greater than {@code code} that is inside the box
+     */
+    public static long bigMin3(long code, long min, long max) {
+        return bigMin(code, min, max, 3, MASK_3_X);
+    }
+
+    /**
+     * Computes LITMAX: the largest code less than {@code code} that is inside the box with corners {@code min} and
+     * {@code max}. This is the counterpart to {@link #bigMin3(long, long, long)}, for scanning downward.
+     * @param code a 3D Morton code that is between min and max but outside the box
+     * @param min the 3D Morton code of the box's lowest corner
+     * @param max the 3D Morton code of the box's highest corner
+     * @return the largest code less than {@code code} that is inside the box
+     */
+    public static long litMax3(long code, long min, long max) {
+        return litMax(code, min, max, 3, MASK_3_X);
+    }
+
+    /**
+     * Tropf and Herzog's BIGMIN, working from the highest bit down. {@code xMask} is the mask of bits belonging to the
+     * lowest dimension; shifting it left by the bit's dimension gives that dimension's mask.
+     */
+    private static long bigMin(long code, long min, long max, int dims, long xMask) {
+        long bigMin = max;
+        for (int bit = 63; bit >= 0; bit--) {
+            long b = 1L << bit;
+            int cBit = (code & b) != 0 ? 4 : 0, lo = (min & b) != 0 ? 2 : 0, hi = (max & b) != 0 ? 1 : 0;
+            long dimMask = xMask << (bit % dims);
+            switch (cBit | lo | hi) {
+                case 1: // 0 0 1
+                    bigMin = load(min, b, dimMask, true);
+                    max = load(max, b, dimMask, false);
+                    break;
+                case 3: // 0 1 1
+                    return min;
+                case 4: // 1 0 0
+                    return bigMin;
+                case 5: // 1 0 1
+                    min = load(min, b, dimMask, true);
+                    break;
+                case 2: // 0 1 0
+                case 6: // 1 1 0
+                    // min > max on this bit, which can't happen for a valid box
+                    throw new IllegalArgumentException("min must not be greater than max on any axis");
+                default: // 0 0 0 and 1 1 1: keep going
+                    break;
+            }
+        }
+        return bigMin;
+    }
+
+    /**
+     * Tropf and Herzog's LITMAX, the mirror image of {@link #bigMin(long, long, long, int, long)}.
+     */
+    private static long litMax(long code, long min, long max, int dims, long xMask) {
+        long litMax = min;
+        for (int bit = 63; bit >= 0; bit--) {
+            long b = 1L << bit;
+            int cBit = (code & b) != 0 ? 4 : 0, lo = (min & b) != 0 ? 2 : 0, hi = (max & b) != 0 ? 1 : 0;
+            long dimMask = xMask << (bit % dims);
+            switch (cBit | lo | hi) {
+                case 1: // 0 0 1
+                    max = load(max, b, dimMask, false);
+                    break;
+                case 3: // 0 1 1
+                    return litMax;
+                case 4: // 1 0 0
+                    return max;
+                case 5: // 1 0 1
+                    litMax = load(max, b, dimMask, false);
+                    min = load(min, b, dimMask, true);
+                    break;
+                case 2: // 0 1 0
+                case 6: // 1 1 0
+                    throw new IllegalArgumentException("min must not be greater than max on any axis");
+                default: // 0 0 0 and 1 1 1: keep going
+                    break;
+            }
+        }
+        return litMax;
+    }
+
+    /**
+     * Tropf and Herzog's LOAD operations. For the dimension in {@code dimMask}, if {@code ones} is true this sets the
+     * bit {@code b} and clears all lower bits of that dimension ("load 1000..."); otherwise it clears bit {@code b} and
+     * sets all lower bits of that dimension ("load 0111..."). Bits of other dimensions are unchanged.
+     */
+    private static long load(long value, long b, long dimMask, boolean ones) {
+        long lower = (b - 1L) & dimMask;
+        if (ones) return (value & ~lower) | b;
+        return (value | lower) & ~b;
+    }
+}
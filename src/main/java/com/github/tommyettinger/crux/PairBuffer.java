@@ -0,0 +1,90 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of int pairs, stored in one primitive array, for reporting pairs of ids (such as overlapping boxes)
+ * without allocating an object per pair. A PairBuffer is meant to be cleared and refilled many times; clearing keeps
+ * the backing array, so once it has grown to fit the usual number of pairs, filling it doesn't allocate.
+ */
+public class PairBuffer {
+    /**
+     * The first and second item of pair {@code i} are at {@code i * 2} and {@code i * 2 + 1}.
+     */
+    protected int[] items;
+    /**
+     * How many pairs this currently holds.
+     */
+    protected int size;
+
+    /**
+     * Creates an empty PairBuffer with room for 16 pairs before resizing.
+     */
+    public PairBuffer() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty PairBuffer with room for {@code capacity} pairs before resizing.
+     * @param capacity how many pairs this can hold before resizing
+     */
+    public PairBuffer(int capacity) {
+        items = new int[Math.max(capacity, 1) << 1];
+    }
+
+    /**
+     * Gets how many pairs this holds.
+     * @return how many pairs this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this holds no pairs.
+     * @return true if {@link #size()} is 0
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all pairs from this, without shrinking the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds the pair ({@code a}, {@code b}) to the end of this.
+     * @param a the first item of the pair
+     * @param b the second item of the pair
+     */
+    public void add(int a, int b) {
+        if (size << 1 == items.length) items = Arrays.copyOf(items, size + (size >>> 1) + 1 << 1);
+        items[size << 1] = a;
+        items[size++ << 1 | 1] = b;
+    }
+
+    /**
+     * Gets the first item of the pair at {@code index}.
+     * @param index the index of a pair, from 0 (inclusive) to {@link #size()} (exclusive)
+     * @return the first item of that pair
+     */
+    public int a(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for size " + size);
+        return items[index << 1];
+    }
+
+    /**
+     * Gets the second item of the pair at {@code index}.
+     * @param index the index of a pair, from 0 (inclusive) to {@link #size()} (exclusive)
+     * @return the second item of that pair
+     */
+    public int b(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for size " + size);
+        return items[index << 1 | 1];
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.tommyettinger.crux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Smooths paths made of any {@link PointN} type, by string-pulling (removing every node that a straight segment can
+ * skip over without colliding) and optionally refining the result into a curve. Collisions are tested by a
+ * {@link RaycastCollisionDetector}, given one scratch {@link PointPair} that this reuses for every test, so smoothing
+ * doesn't call {@code cpy()} per step; the only points this creates are that scratch pair (once, from the first path
+ * it sees) and any output points that the caller's lists don't already have.
+ * <br>
+ * Paths are given as Lists, which should be {@link java.util.RandomAccess} (such as ArrayList), and are edited in
+ * place: nodes that are skipped over are removed, and the remaining nodes keep their order. When only part of a path
+ * changes, such as the first few nodes after an agent moves or the last few after its goal moves, use
+ * {@link #smoothRange(List, int, int)} to smooth only that part, leaving the nodes outside it alone. One PathSmoother
+ * can smooth any number of paths, one at a time; it isn't thread-safe, so use one per thread.
+ *
+ * @param <P> the type of point in the paths being smoothed
+ */
+public class PathSmoother<P extends PointN<P>> {
+    protected RaycastCollisionDetector<P> detector;
+    protected PointPair<P> segment;
+    /**
+     * Holds intermediate results when {@link #chaikin(List, int, List)} runs more than one iteration.
+     */
+    protected final ArrayList<P> scratch = new ArrayList<>();
+
+    /**
+     * Creates a PathSmoother that tests segments with the given detector.
+     * @param detector checks whether a segment between two path nodes is blocked
+     */
+    public PathSmoother(RaycastCollisionDetector<P> detector) {
+        this.detector = detector;
+    }
+
+    public RaycastCollisionDetector<P> getDetector() {
+        return detector;
+    }
+
+    public void setDetector(RaycastCollisionDetector<P> detector) {
+        this.detector = detector;
+    }
+
+    /**
+     * Smooths an entire path in place, keeping its first and last nodes. This is the same as
+     * {@code smoothRange(path, 0, path.size())}.
+     * @param path the path to smooth; will be modified
+     * @return how many nodes were removed
+     */
+    public int smoothPath(List<P> path) {
+        return smoothRange(path, 0, path.size());
+    }
+
+    /**
+     * Smooths only the nodes from index {@code from} (inclusive) to {@code to} (exclusive) of a path, in place. The
+     * nodes at {@code from} and {@code to - 1} are always kept, as are all nodes outside the range; a node inside the
+     * range is removed if the segment from the last kept node to the node after it doesn't collide. This tests at most
+     * {@code to - from - 2} segments.
+     * <br>
+     * To re-smooth a path after replacing its first {@code n} nodes, use {@code smoothRange(path, 0, n + 1)}; after
+     * replacing everything from index {@code i} on, use {@code smoothRange(path, i - 1, path.size())}.
+     * @param path the path to smooth; will be modified
+     * @param from the first index in the range, which is always kept
+     * @param to one more than the last index in the range, which is always kept
+     * @return how many nodes were removed
+     */
+    public int smoothRange(List<P> path, int from, int to) {
+        if (from < 0 || to > path.size() || from > to)
+            throw new IndexOutOfBoundsException("Invalid range " + from + " to " + to + " for size " + path.size());
+        if (to - from <= 2) return 0;
+        if (segment == null) {
+            final P first = path.get(from);
+            segment = new PointPair<>(first.cpy(), first.cpy());
+        }
+        int output = from + 1;
+        for (int input = from + 2; input < to; input++) {
+            segment.a = segment.a.set(path.get(output - 1));
+            segment.b = segment.b.set(path.get(input));
+            if (detector.collides(segment)) {
+                swap(path, output, input - 1);
+                output++;
+            }
+        }
+        swap(path, output, to - 1);
+        final int removed = to - output - 1;
+        if (removed > 0) {
+            final int size = path.size();
+            // moves the nodes after the range down over the removed ones, so the removed ones can be cut from the end
+            for (int i = to; i < size; i++) {
+                swap(path, i - removed, i);
+            }
+            for (int i = size - 1; i >= size - removed; i--) {
+                path.remove(i);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Refines a path with Chaikin's corner-cutting, which replaces each segment with points a quarter and three
+     * quarters of the way along it, and keeps the first and last nodes. Each iteration doubles the number of points
+     * and rounds off the corners more. Points already in {@code out} are reused, new points are only created if
+     * {@code out} is too short, and any extra points at the end of {@code out} are removed.
+     * @param path the path to refine; will not be modified
+     * @param iterations how many times to cut corners; usually 1 to 3
+     * @param out receives the refined path; must not be the same List as {@code path}; will be modified
+     * @return {@code out}, after editing
+     */
+    public List<P> chaikin(List<P> path, int iterations, List<P> out) {
+        if (path == out) throw new IllegalArgumentException("path and out must be different Lists");
+        int n = path.size();
+        if (n < 3 || iterations <= 0) {
+            for (int i = 0; i < n; i++) {
+                out.set(i, write(out, i, path.get(i)).set(path.get(i)));
+            }
+            return truncate(out, n);
+        }
+        List<P> src = path;
+        for (int it = iterations; it > 0; it--) {
+            // alternates between out and scratch so the last iteration writes into out
+            final List<P> dst = (it & 1) == 1 ? out : scratch;
+            final P template = src.get(0);
+            final int rank = template.rank();
+            int o = 0;
+            P p = write(dst, o, template).set(src.get(0));
+            dst.set(o++, p);
+            for (int i = 0; i < n - 1; i++) {
+                final P a = src.get(i), b = src.get(i + 1);
+                P q = write(dst, o, template), r = write(dst, o + 1, template);
+                for (int k = 0; k < rank; k++) {
+                    final float ak = a.get(k), bk = b.get(k);
+                    q = q.setAt(k, ak * 0.75f + bk * 0.25f);
+                    r = r.setAt(k, ak * 0.25f + bk * 0.75f);
+                }
+                dst.set(o++, q);
+                dst.set(o++, r);
+            }
+            p = write(dst, o, template).set(src.get(n - 1));
+            dst.set(o++, p);
+            src = dst;
+            n = o;
+        }
+        return truncate(out, n);
+    }
+
+    /**
+     * Refines a path into a uniform Catmull-Rom spline that passes through every node, sampling each segment
+     * {@code samples} times. The first and last nodes are repeated to get tangents at the ends. Points already in
+     * {@code out} are reused, new points are only created if {@code out} is too short, and any extra points at the end
+     * of {@code out} are removed.
+     * @param path the path to refine; will not be modified
+     * @param samples how many points to produce per segment, including the segment's start; at least 1
+     * @param out receives the refined path, which has {@code (path.size() - 1) * samples + 1} points; must not be the
+     *            same List as {@code path}; will be modified
+     * @return {@code out}, after editing
+     */
+    public List<P> catmullRom(List<P> path, int samples, List<P> out) {
+        if (path == out) throw new IllegalArgumentException("path and out must be different Lists");
+        final int n = path.size();
+        if (n == 0) return truncate(out, 0);
+        if (samples < 1) samples = 1;
+        final P template = path.get(0);
+        final int rank = template.rank();
+        final float inv = 1f / samples;
+        int o = 0;
+        for (int i = 0; i < n - 1; i++) {
+            final P p0 = path.get(Math.max(i - 1, 0)), p1 = path.get(i), p2 = path.get(i + 1),
+                    p3 = path.get(Math.min(i + 2, n - 1));
+            for (int s = 0; s < samples; s++) {
+                final float t = s * inv, t2 = t * t, t3 = t2 * t;
+                P p = write(out, o, template);
+                for (int k = 0; k < rank; k++) {
+                    final float a = p0.get(k), b = p1.get(k), c = p2.get(k), d = p3.get(k);
+                    p = p.setAt(k, 0.5f * (2f * b + (c - a) * t + (2f * a - 5f * b + 4f * c - d) * t2
+                            + (3f * b - a - 3f * c + d) * t3));
+                }
+                out.set(o++, p);
+            }
+        }
+        final P p = write(out, o, template).set(path.get(n - 1));
+        out.set(o++, p);
+        return truncate(out, o);
+    }
+
+    /**
+     * Gets the point at {@code index} in {@code list} to overwrite, adding a copy of {@code template} if the list is
+     * only {@code index} items long.
+     */
+    protected P write(List<P> list, int index, P template) {
+        if (index < list.size()) return list.get(index);
+        final P p = template.cpy();
+        list.add(p);
+        return p;
+    }
+
+    protected static <P> List<P> truncate(List<P> list, int size) {
+        for (int i = list.size() - 1; i >= size; i--) {
+            list.remove(i);
+        }
+        return list;
+    }
+
+    protected static <P> void swap(List<P> list, int i, int j) {
+        if (i != j) list.set(i, list.set(j, list.get(i)));
+    }
+}
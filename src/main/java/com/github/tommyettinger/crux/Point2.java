@@ -97,6 +97,92 @@ public interface Point2<P extends Point2<P>> extends PointN<P> {
         return set(x, y);
     }
 
+    /**
+     * Gets the component at {@code index}, as a float, where 0 is x, 1 is y.
+     * @param index which component to get, from 0 to 1 inclusive
+     * @return the component at {@code index}, as a float
+     * @throws IndexOutOfBoundsException if index is not between 0 and 1 inclusive
+     */
+    default float get(int index) {
+        switch (index) {
+            case 0: return x();
+            case 1: return y();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 1: " + index);
+        }
+    }
+
+    /**
+     * Gets the component at {@code index}, as an int, where 0 is x, 1 is y.
+     * This calls the int accessors, such as {@link #xi()}, so it uses an implementation's actual int data if present.
+     * @param index which component to get, from 0 to 1 inclusive
+     * @return the component at {@code index}, as an int
+     * @throws IndexOutOfBoundsException if index is not between 0 and 1 inclusive
+     */
+    default int geti(int index) {
+        switch (index) {
+            case 0: return xi();
+            case 1: return yi();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 1: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 1 inclusive
+     * @param next the new value for the component at {@code index}
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 1 inclusive
+     */
+    default P setAt(int index, float next) {
+        switch (index) {
+            case 0: return x(next);
+            case 1: return y(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 1: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y.
+     * This calls the int setters, such as {@link #xi(int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 1 inclusive
+     * @param next the new value for the component at {@code index}, as an int
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 1 inclusive
+     */
+    default P setiAt(int index, int next) {
+        switch (index) {
+            case 0: return xi(next);
+            case 1: return yi(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 1: " + index);
+        }
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 2 floats starting at {@code offset}, using
+     * {@link #set(float, float)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(float[] array, int offset) {
+        return set(array[offset], array[offset + 1]);
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 2 ints starting at {@code offset}, using
+     * {@link #seti(int, int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(int[] array, int offset) {
+        return seti(array[offset], array[offset + 1]);
+    }
+
     /**
      * Gets how many components this type of point has; 2 here. This could also be called the dimensionality.
      *
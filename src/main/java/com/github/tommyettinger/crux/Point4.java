@@ -175,6 +175,100 @@ public interface Point4<P extends Point4<P>> extends PointN<P> {
         return set(x, y, z, w);
     }
 
+    /**
+     * Gets the component at {@code index}, as a float, where 0 is x, 1 is y, 2 is z, 3 is w.
+     * @param index which component to get, from 0 to 3 inclusive
+     * @return the component at {@code index}, as a float
+     * @throws IndexOutOfBoundsException if index is not between 0 and 3 inclusive
+     */
+    default float get(int index) {
+        switch (index) {
+            case 0: return x();
+            case 1: return y();
+            case 2: return z();
+            case 3: return w();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 3: " + index);
+        }
+    }
+
+    /**
+     * Gets the component at {@code index}, as an int, where 0 is x, 1 is y, 2 is z, 3 is w.
+     * This calls the int accessors, such as {@link #xi()}, so it uses an implementation's actual int data if present.
+     * @param index which component to get, from 0 to 3 inclusive
+     * @return the component at {@code index}, as an int
+     * @throws IndexOutOfBoundsException if index is not between 0 and 3 inclusive
+     */
+    default int geti(int index) {
+        switch (index) {
+            case 0: return xi();
+            case 1: return yi();
+            case 2: return zi();
+            case 3: return wi();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 3: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y, 2 is z, 3 is w.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 3 inclusive
+     * @param next the new value for the component at {@code index}
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 3 inclusive
+     */
+    default P setAt(int index, float next) {
+        switch (index) {
+            case 0: return x(next);
+            case 1: return y(next);
+            case 2: return z(next);
+            case 3: return w(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 3: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y, 2 is z, 3 is w.
+     * This calls the int setters, such as {@link #xi(int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 3 inclusive
+     * @param next the new value for the component at {@code index}, as an int
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 3 inclusive
+     */
+    default P setiAt(int index, int next) {
+        switch (index) {
+            case 0: return xi(next);
+            case 1: return yi(next);
+            case 2: return zi(next);
+            case 3: return wi(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 3: " + index);
+        }
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 4 floats starting at {@code offset}, using
+     * {@link #set(float, float, float, float)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(float[] array, int offset) {
+        return set(array[offset], array[offset + 1], array[offset + 2], array[offset + 3]);
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 4 ints starting at {@code offset}, using
+     * {@link #seti(int, int, int, int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(int[] array, int offset) {
+        return seti(array[offset], array[offset + 1], array[offset + 2], array[offset + 3]);
+    }
+
     /**
      * Gets how many components this type of point has; 4 here. This could also be called the dimensionality.
      *
@@ -253,6 +253,110 @@ public interface Point6<P extends Point6<P>> extends PointN<P> {
         return set(x, y, z, w, u, v);
     }
 
+    /**
+     * Gets the component at {@code index}, as a float, where 0 is x, 1 is y, 2 is z, 3 is w, 4 is u, 5 is v.
+     * @param index which component to get, from 0 to 5 inclusive
+     * @return the component at {@code index}, as a float
+     * @throws IndexOutOfBoundsException if index is not between 0 and 5 inclusive
+     */
+    default float get(int index) {
+        switch (index) {
+            case 0: return x();
+            case 1: return y();
+            case 2: return z();
+            case 3: return w();
+            case 4: return u();
+            case 5: return v();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 5: " + index);
+        }
+    }
+
+    /**
+     * Gets the component at {@code index}, as an int, where 0 is x, 1 is y, 2 is z, 3 is w, 4 is u, 5 is v.
+     * This calls the int accessors, such as {@link #xi()}, so it uses an implementation's actual int data if present.
+     * @param index which component to get, from 0 to 5 inclusive
+     * @return the component at {@code index}, as an int
+     * @throws IndexOutOfBoundsException if index is not between 0 and 5 inclusive
+     */
+    default int geti(int index) {
+        switch (index) {
+            case 0: return xi();
+            case 1: return yi();
+            case 2: return zi();
+            case 3: return wi();
+            case 4: return ui();
+            case 5: return vi();
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 5: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y, 2 is z, 3 is w, 4 is u, 5 is v.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 5 inclusive
+     * @param next the new value for the component at {@code index}
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 5 inclusive
+     */
+    default P setAt(int index, float next) {
+        switch (index) {
+            case 0: return x(next);
+            case 1: return y(next);
+            case 2: return z(next);
+            case 3: return w(next);
+            case 4: return u(next);
+            case 5: return v(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 5: " + index);
+        }
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is x, 1 is y, 2 is z, 3 is w, 4 is u, 5 is v.
+     * This calls the int setters, such as {@link #xi(int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 to 5 inclusive
+     * @param next the new value for the component at {@code index}, as an int
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is not between 0 and 5 inclusive
+     */
+    default P setiAt(int index, int next) {
+        switch (index) {
+            case 0: return xi(next);
+            case 1: return yi(next);
+            case 2: return zi(next);
+            case 3: return wi(next);
+            case 4: return ui(next);
+            case 5: return vi(next);
+            default: throw new IndexOutOfBoundsException("index must be between 0 and 5: " + index);
+        }
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 6 floats starting at {@code offset}, using
+     * {@link #set(float, float, float, float, float, float)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(float[] array, int offset) {
+        return set(array[offset], array[offset + 1], array[offset + 2], array[offset + 3], array[offset + 4],
+                array[offset + 5]);
+    }
+
+    /**
+     * Sets all coordinates from {@code array}, reading 6 ints starting at {@code offset}, using
+     * {@link #seti(int, int, int, int, int, int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the index in array to read the first (x) coordinate from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    default P fromArray(int[] array, int offset) {
+        return seti(array[offset], array[offset + 1], array[offset + 2], array[offset + 3], array[offset + 4],
+                array[offset + 5]);
+    }
+
     /**
      * Gets how many components this type of point has; 6 here. This could also be called the dimensionality.
      *
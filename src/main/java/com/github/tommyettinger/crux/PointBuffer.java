@@ -0,0 +1,139 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A growable structure-of-arrays container for points, storing each component in its own primitive array instead of
+ * storing each point as an object. Subclasses use {@code float[]} arrays when {@link #floatingPoint()} is true, or
+ * {@code int[]} arrays when it is false, and provide a reusable {@link #cursor() cursor} that implements the matching
+ * point interface, so generic code written for {@link PointN} types can read and write points in the buffer without
+ * allocating anything.
+ * <br>
+ * Points are identified by their index, from 0 (inclusive) to {@link #size()} (exclusive). Removal uses
+ * {@link #removeSwap(int)}, which moves the last point into the removed index, so indices are not stable across
+ * removals.
+ *
+ * @param <C> the type of cursor this uses; a flyweight point that views one index in this buffer
+ */
+public abstract class PointBuffer<C extends PointN<C>> {
+    /**
+     * True if this stores float components, or false if it stores int components.
+     */
+    protected final boolean floatingPoint;
+
+    /**
+     * How many points this currently holds.
+     */
+    protected int size;
+
+    protected PointBuffer(boolean floatingPoint) {
+        this.floatingPoint = floatingPoint;
+    }
+
+    /**
+     * Gets how many components each point in this has; the same as {@link PointN#rank()} for the cursor type.
+     * @return how many components each point in this has
+     */
+    public abstract int rank();
+
+    /**
+     * Returns true if this stores {@code float} components, or false if it stores {@code int} components.
+     * @return true if this stores {@code float} components
+     */
+    public boolean floatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * Gets how many points this holds.
+     * @return how many points this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this holds no points.
+     * @return true if {@link #size()} is 0
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all points from this, without shrinking the backing arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Reduces the size of this to {@code newSize}, if it is currently larger. Does not shrink the backing arrays.
+     * @param newSize the size to truncate to; if this is greater than or equal to {@link #size()}, nothing changes
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0) throw new IllegalArgumentException("newSize must be >= 0: " + newSize);
+        if (size > newSize) size = newSize;
+    }
+
+    /**
+     * Gets how many points this can hold before its backing arrays need to be resized.
+     * @return the length of each backing array
+     */
+    public abstract int capacity();
+
+    /**
+     * Sets the length of every backing array to {@code newCapacity}, which must be at least {@link #size()}.
+     * @param newCapacity the new length for each backing array
+     */
+    protected abstract void resize(int newCapacity);
+
+    /**
+     * Grows the backing arrays, if needed, so that {@code additional} more points can be added without resizing.
+     * @param additional how many points should be able to be added without resizing
+     */
+    public void ensureCapacity(int additional) {
+        if (additional < 0) throw new IllegalArgumentException("additional must be >= 0: " + additional);
+        int needed = size + additional;
+        if (needed > capacity()) resize(Math.max(Math.max(8, needed), (int)(size * 1.75f)));
+    }
+
+    /**
+     * Shrinks the backing arrays so their length is equal to {@link #size()} (or 1, if this is empty).
+     */
+    public void shrink() {
+        if (capacity() != Math.max(1, size)) resize(Math.max(1, size));
+    }
+
+    /**
+     * Copies the point at index {@code from} over the point at index {@code to}; does not change the size.
+     * @param from the index to read from
+     * @param to the index to overwrite
+     */
+    protected abstract void move(int from, int to);
+
+    /**
+     * Throws an IndexOutOfBoundsException unless {@code index} is at least 0 and less than {@link #size()}.
+     * @param index the index to check
+     */
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for size " + size);
+    }
+
+    /**
+     * Removes the point at {@code index} by moving the last point into its place. This takes constant time, but
+     * changes the order of points; the point that was last is now at {@code index}.
+     * @param index the index of the point to remove
+     */
+    public void removeSwap(int index) {
+        checkIndex(index);
+        --size;
+        if (index != size) move(size, index);
+    }
+
+    /**
+     * Creates a new cursor that views index 0 of this buffer. Cursors can be moved with their {@code at(int)} method,
+     * and should usually be reused rather than created for each point.
+     * @return a new cursor that views this buffer
+     */
+    public abstract C cursor();
+}
@@ -0,0 +1,574 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A {@link PointBuffer} of 2D points, storing each component in its own primitive array. If
+ * {@link #floatingPoint()} is true, the components are in the float arrays {@link #x}, {@link #y}, and
+ * the int arrays are null; otherwise, the components are in the int arrays {@link #xi}, {@link #yi}, and the
+ * float arrays are null. The arrays are public so bulk code can work on them directly; their length is the
+ * {@link #capacity()}, and only indices below {@link #size()} hold points.
+ * <br>
+ * To use points in this with code that expects a {@link Point2}, get a {@link Cursor} with {@link #cursor()} and move
+ * it with {@link Cursor#at(int)}. A Cursor is mutable, and reading or writing its components reads or writes this
+ * buffer directly.
+ */
+public class PointBuffer2 extends PointBuffer<PointBuffer2.Cursor> {
+    /**
+     * The first (x) components, if this uses float components; null otherwise.
+     */
+    public float[] x;
+
+    /**
+     * The second (y) components, if this uses float components; null otherwise.
+     */
+    public float[] y;
+
+    /**
+     * The first (x) components, if this uses int components; null otherwise.
+     */
+    public int[] xi;
+
+    /**
+     * The second (y) components, if this uses int components; null otherwise.
+     */
+    public int[] yi;
+
+    /**
+     * Creates an empty PointBuffer2 with room for 16 points.
+     * @param floatingPoint true to store float components, or false to store int components
+     */
+    public PointBuffer2(boolean floatingPoint) {
+        this(floatingPoint, 16);
+    }
+
+    /**
+     * Creates an empty PointBuffer2 with room for {@code capacity} points before it needs to resize.
+     * @param floatingPoint true to store float components, or false to store int components
+     * @param capacity how many points this can hold before resizing; must be at least 1
+     */
+    public PointBuffer2(boolean floatingPoint, int capacity) {
+        super(floatingPoint);
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        if (floatingPoint) {
+            x = new float[capacity];
+            y = new float[capacity];
+        } else {
+            xi = new int[capacity];
+            yi = new int[capacity];
+        }
+    }
+
+    /**
+     * Creates a PointBuffer2 that holds copies of the first {@code size} points in {@code other}.
+     * @param other another PointBuffer2 to copy
+     */
+    public PointBuffer2(PointBuffer2 other) {
+        this(other.floatingPoint, Math.max(1, other.size));
+        addAll(other, 0, other.size);
+    }
+
+    @Override
+    public int rank() {
+        return 2;
+    }
+
+    @Override
+    public int capacity() {
+        return floatingPoint ? x.length : xi.length;
+    }
+
+    @Override
+    protected void resize(int newCapacity) {
+        if (newCapacity < size) throw new IllegalArgumentException("newCapacity must be >= size: " + newCapacity + " < " + size);
+        if (floatingPoint) {
+            float[] nx = new float[newCapacity];
+            float[] ny = new float[newCapacity];
+            System.arraycopy(x, 0, nx, 0, size);
+            System.arraycopy(y, 0, ny, 0, size);
+            x = nx; y = ny;
+        } else {
+            int[] nx = new int[newCapacity];
+            int[] ny = new int[newCapacity];
+            System.arraycopy(xi, 0, nx, 0, size);
+            System.arraycopy(yi, 0, ny, 0, size);
+            xi = nx; yi = ny;
+        }
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        if (floatingPoint) {
+            x[to] = x[from];
+            y[to] = y[from];
+        } else {
+            xi[to] = xi[from];
+            yi[to] = yi[from];
+        }
+    }
+
+    /**
+     * Appends a point with the given components, which are cast to int if this uses int components.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return the index of the added point
+     */
+    public int add(float x, float y) {
+        ensureCapacity(1);
+        if (floatingPoint) {
+            this.x[size] = x;
+            this.y[size] = y;
+        } else {
+            this.xi[size] = (int)x;
+            this.yi[size] = (int)y;
+        }
+        return size++;
+    }
+
+    /**
+     * Appends a point with the given int components, which are cast to float if this uses float components.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return the index of the added point
+     */
+    public int addi(int x, int y) {
+        ensureCapacity(1);
+        if (floatingPoint) {
+            this.x[size] = x;
+            this.y[size] = y;
+        } else {
+            this.xi[size] = x;
+            this.yi[size] = y;
+        }
+        return size++;
+    }
+
+    /**
+     * Appends a point with the same components as {@code point}, using its float accessors if this uses float
+     * components, or its int accessors otherwise.
+     * @param point any Point2; will not be modified
+     * @return the index of the added point
+     */
+    public int add(Point2<?> point) {
+        return floatingPoint
+                ? add(point.x(), point.y())
+                : addi(point.xi(), point.yi());
+    }
+
+    /**
+     * Appends {@code count} points from {@code other}, starting at index {@code from} in other. If both buffers use
+     * the same component type, this copies whole array ranges at once.
+     * @param other another PointBuffer2, which may use a different component type; may be this
+     * @param from the first index in other to copy
+     * @param count how many points to copy
+     */
+    public void addAll(PointBuffer2 other, int from, int count) {
+        if (from < 0 || count < 0 || from + count > other.size)
+            throw new IndexOutOfBoundsException("from " + from + " and count " + count + " are out of bounds for size " + other.size);
+        ensureCapacity(count);
+        if (floatingPoint == other.floatingPoint) {
+            if (floatingPoint) {
+                System.arraycopy(other.x, from, x, size, count);
+                System.arraycopy(other.y, from, y, size, count);
+            } else {
+                System.arraycopy(other.xi, from, xi, size, count);
+                System.arraycopy(other.yi, from, yi, size, count);
+            }
+        } else if (floatingPoint) {
+            for (int i = 0, o = from; i < count; i++, o++) {
+                x[size + i] = other.xi[o];
+                y[size + i] = other.yi[o];
+            }
+        } else {
+            for (int i = 0, o = from; i < count; i++, o++) {
+                xi[size + i] = (int)other.x[o];
+                yi[size + i] = (int)other.y[o];
+            }
+        }
+        size += count;
+    }
+
+    /**
+     * Appends {@code count} points whose components are taken from the given arrays, starting at {@code offset} in
+     * each array. Components are cast to int if this uses int components.
+     * @param xs the first (x) components to read from
+     * @param ys the second (y) components to read from
+     * @param offset the first index to read in each array
+     * @param count how many points to append
+     */
+    public void addAll(float[] xs, float[] ys, int offset, int count) {
+        ensureCapacity(count);
+        if (floatingPoint) {
+            System.arraycopy(xs, offset, x, size, count);
+            System.arraycopy(ys, offset, y, size, count);
+        } else {
+            for (int i = 0, o = offset; i < count; i++, o++) {
+                xi[size + i] = (int)xs[o];
+                yi[size + i] = (int)ys[o];
+            }
+        }
+        size += count;
+    }
+
+    /**
+     * Sets the point at {@code index} to the given components, which are cast to int if this uses int components.
+     * @param index the index of the point to change; must be at least 0 and less than {@link #size()}
+     * @param x the first (x) component
+     * @param y the second (y) component
+     */
+    public void set(int index, float x, float y) {
+        checkIndex(index);
+        if (floatingPoint) {
+            this.x[index] = x;
+            this.y[index] = y;
+        } else {
+            this.xi[index] = (int)x;
+            this.yi[index] = (int)y;
+        }
+    }
+
+    /**
+     * Sets the point at {@code index} to the given int components.
+     * @param index the index of the point to change; must be at least 0 and less than {@link #size()}
+     * @param x the first (x) component
+     * @param y the second (y) component
+     */
+    public void seti(int index, int x, int y) {
+        checkIndex(index);
+        if (floatingPoint) {
+            this.x[index] = x;
+            this.y[index] = y;
+        } else {
+            this.xi[index] = x;
+            this.yi[index] = y;
+        }
+    }
+
+    /**
+     * Copies the point at {@code index} into {@code into}, using float components if this uses float components, or
+     * int components otherwise. If {@code into} is immutable, this returns a different point.
+     * @param index the index of the point to read; must be at least 0 and less than {@link #size()}
+     * @param into a point that will be set to the components at {@code index}, if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> P get(int index, P into) {
+        checkIndex(index);
+        return floatingPoint
+                ? into.set(x[index], y[index])
+                : into.seti(xi[index], yi[index]);
+    }
+
+    /**
+     * Gets the first (x) component of the point at {@code index}, as a float. Does not check bounds past the
+     * array length.
+     * @param index the index of the point to read
+     * @return the first (x) component of the point at {@code index}
+     */
+    public float x(int index) {
+        return floatingPoint ? x[index] : xi[index];
+    }
+
+    /**
+     * Gets the first (x) component of the point at {@code index}, as an int. Does not check bounds past the
+     * array length.
+     * @param index the index of the point to read
+     * @return the first (x) component of the point at {@code index}
+     */
+    public int xi(int index) {
+        return floatingPoint ? (int)x[index] : xi[index];
+    }
+
+    /**
+     * Gets the second (y) component of the point at {@code index}, as a float. Does not check bounds past the
+     * array length.
+     * @param index the index of the point to read
+     * @return the second (y) component of the point at {@code index}
+     */
+    public float y(int index) {
+        return floatingPoint ? y[index] : yi[index];
+    }
+
+    /**
+     * Gets the second (y) component of the point at {@code index}, as an int. Does not check bounds past the
+     * array length.
+     * @param index the index of the point to read
+     * @return the second (y) component of the point at {@code index}
+     */
+    public int yi(int index) {
+        return floatingPoint ? (int)y[index] : yi[index];
+    }
+
+    /**
+     * Swaps the points at indices {@code a} and {@code b}.
+     * @param a the index of one point
+     * @param b the index of another point
+     */
+    public void swap(int a, int b) {
+        checkIndex(a);
+        checkIndex(b);
+        if (floatingPoint) {
+            float t;
+            t = x[a]; x[a] = x[b]; x[b] = t;
+            t = y[a]; y[a] = y[b]; y[b] = t;
+        } else {
+            int t;
+            t = xi[a]; xi[a] = xi[b]; xi[b] = t;
+            t = yi[a]; yi[a] = yi[b]; yi[b] = t;
+        }
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Creates a new cursor that views the given index of this buffer.
+     * @param index the index the new cursor should view
+     * @return a new cursor that views {@code index} in this buffer
+     */
+    public Cursor cursor(int index) {
+        return new Cursor().at(index);
+    }
+
+    /**
+     * A mutable flyweight {@link Point2} that views one index in a {@link PointBuffer2}. Reading a component reads the
+     * buffer's arrays, and setting a component writes to them, so a single Cursor can walk a whole buffer without any
+     * allocation by calling {@link #at(int)}. Operations that take another Cursor, such as {@link #add(Cursor)},
+     * can take Cursors on other buffers, including buffers with a different component type.
+     * <br>
+     * {@link #cpy()} is the exception: it returns a new Cursor on a new one-point buffer, so the copy is independent
+     * of this buffer.
+     */
+    public class Cursor implements Point2<Cursor> {
+        /**
+         * The index this views in its buffer. This isn't checked against the buffer's size until a component is read
+         * or written, and even then it is only checked against the array length.
+         */
+        public int index;
+
+        protected Cursor() {
+        }
+
+        /**
+         * Moves this cursor to view the given index.
+         * @param index the index in the buffer to view
+         * @return this cursor, for chaining
+         */
+        public Cursor at(int index) {
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Gets the buffer this views.
+         * @return the PointBuffer2 this views
+         */
+        public PointBuffer2 buffer() {
+            return PointBuffer2.this;
+        }
+
+        @Override
+        public boolean floatingPoint() {
+            return floatingPoint;
+        }
+
+        @Override
+        public Cursor cpy() {
+            PointBuffer2 single = new PointBuffer2(floatingPoint, 1);
+            if (floatingPoint) single.add(x[index], y[index]);
+            else single.addi(xi[index], yi[index]);
+            return single.cursor();
+        }
+
+        @Override
+        public float len2() {
+            if (floatingPoint) {
+                float xv = x[index], yv = y[index];
+                return xv * xv + yv * yv;
+            }
+            float xv = xi[index], yv = yi[index];
+            return xv * xv + yv * yv;
+        }
+
+        @Override
+        public Cursor set(Cursor point) {
+            if (floatingPoint) {
+                x[index] = point.x();
+                y[index] = point.y();
+            } else {
+                xi[index] = point.xi();
+                yi[index] = point.yi();
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor setZero() {
+            if (floatingPoint) {
+                x[index] = 0f;
+                y[index] = 0f;
+            } else {
+                xi[index] = 0;
+                yi[index] = 0;
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor sub(Cursor point) {
+            if (floatingPoint) {
+                x[index] -= point.x();
+                y[index] -= point.y();
+            } else {
+                xi[index] -= point.xi();
+                yi[index] -= point.yi();
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor add(Cursor point) {
+            if (floatingPoint) {
+                x[index] += point.x();
+                y[index] += point.y();
+            } else {
+                xi[index] += point.xi();
+                yi[index] += point.yi();
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor scl(Cursor point) {
+            if (floatingPoint) {
+                x[index] *= point.x();
+                y[index] *= point.y();
+            } else {
+                xi[index] *= point.xi();
+                yi[index] *= point.yi();
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor minus(float scalar) {
+            if (floatingPoint) {
+                x[index] -= scalar;
+                y[index] -= scalar;
+            } else {
+                xi[index] = (int)(xi[index] - scalar);
+                yi[index] = (int)(yi[index] - scalar);
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor plus(float scalar) {
+            if (floatingPoint) {
+                x[index] += scalar;
+                y[index] += scalar;
+            } else {
+                xi[index] = (int)(xi[index] + scalar);
+                yi[index] = (int)(yi[index] + scalar);
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor times(float scalar) {
+            if (floatingPoint) {
+                x[index] *= scalar;
+                y[index] *= scalar;
+            } else {
+                xi[index] = (int)(xi[index] * scalar);
+                yi[index] = (int)(yi[index] * scalar);
+            }
+            return this;
+        }
+
+        @Override
+        public float dst2(Cursor point) {
+            float dx = x() - point.x(), dy = y() - point.y();
+            return dx * dx + dy * dy;
+        }
+
+        @Override
+        public float x() {
+            return floatingPoint ? x[index] : xi[index];
+        }
+
+        @Override
+        public Cursor x(float next) {
+            if (floatingPoint) x[index] = next;
+            else xi[index] = (int)next;
+            return this;
+        }
+
+        @Override
+        public int xi() {
+            return floatingPoint ? (int)x[index] : xi[index];
+        }
+
+        @Override
+        public Cursor xi(int next) {
+            if (floatingPoint) x[index] = next;
+            else xi[index] = next;
+            return this;
+        }
+
+        @Override
+        public float y() {
+            return floatingPoint ? y[index] : yi[index];
+        }
+
+        @Override
+        public Cursor y(float next) {
+            if (floatingPoint) y[index] = next;
+            else yi[index] = (int)next;
+            return this;
+        }
+
+        @Override
+        public int yi() {
+            return floatingPoint ? (int)y[index] : yi[index];
+        }
+
+        @Override
+        public Cursor yi(int next) {
+            if (floatingPoint) y[index] = next;
+            else yi[index] = next;
+            return this;
+        }
+
+        @Override
+        public Cursor set(float x, float y) {
+            if (floatingPoint) {
+                PointBuffer2.this.x[index] = x;
+                PointBuffer2.this.y[index] = y;
+            } else {
+                PointBuffer2.this.xi[index] = (int)x;
+                PointBuffer2.this.yi[index] = (int)y;
+            }
+            return this;
+        }
+
+        @Override
+        public Cursor seti(int x, int y) {
+            if (floatingPoint) {
+                PointBuffer2.this.x[index] = x;
+                PointBuffer2.this.y[index] = y;
+            } else {
+                PointBuffer2.this.xi[index] = x;
+                PointBuffer2.this.yi[index] = y;
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return floatingPoint
+                    ? "(" + x[index] + ", " + y[index] + ")"
+                    : "(" + xi[index] + ", " + yi[index] + ")";
+        }
+    }
+}
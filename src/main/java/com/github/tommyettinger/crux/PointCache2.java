@@ -0,0 +1,143 @@
+package com.github.tommyettinger.crux;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe cache of canonical immutable {@link Point2} instances with int components, similar to how SquidSquad's
+ * {@code Coord} caches its instances. An immutable Point2 type can use this to implement {@link Point2#seti(int, int)}
+ * and friends by calling {@link #get(int, int)} instead of allocating a new point each time.
+ * <br>
+ * Points with x from {@link #minX} (inclusive) to {@link #maxX} (exclusive) and y from {@link #minY} (inclusive) to
+ * {@link #maxY} (exclusive) are all created when this is constructed, and getting one of them is a bounds check and
+ * one array load. Points outside that region go in a fixed-size, open-addressed overflow table that is filled lazily
+ * with compare-and-set, so reads never block and threads never wait on each other. If the overflow table is full
+ * around a point's slot, {@link #get(int, int)} just creates a new point without caching it, so memory use stays
+ * bounded; this means identity ({@code ==}) is only guaranteed for points in the dense region, while equality is
+ * unaffected.
+ *
+ * @param <P> the immutable point type this caches
+ */
+public class PointCache2<P extends Point2<P>> {
+    /**
+     * Creates points from int components; usually a constructor reference for an immutable point type.
+     * @param <P> the type of point created
+     */
+    public interface Factory<P> {
+        /**
+         * Creates a new point with the given components.
+         * @param x the first (x) component
+         * @param y the second (y) component
+         * @return a new point
+         */
+        P create(int x, int y);
+    }
+
+    /**
+     * How many slots in the overflow table {@link #get(int, int)} checks before giving up and allocating.
+     */
+    protected static final int MAX_PROBES = 8;
+
+    public final int minX, minY, maxX, maxY;
+    protected final Factory<P> factory;
+    protected final int width;
+    protected final Object[] dense;
+    protected final AtomicReferenceArray<P> overflow;
+    protected final int mask;
+
+    /**
+     * Creates a PointCache2 with a dense region from -16 to 255 on both axes and 4096 overflow slots.
+     * @param factory creates points that aren't already cached
+     */
+    public PointCache2(Factory<P> factory) {
+        this(factory, -16, -16, 256, 256, 4096);
+    }
+
+    /**
+     * Creates a PointCache2 with the given dense region and overflow capacity. Every point in the dense region is
+     * created immediately, so keep its area reasonable.
+     * @param factory creates points that aren't already cached
+     * @param minX the lowest x in the dense region, inclusive
+     * @param minY the lowest y in the dense region, inclusive
+     * @param maxX the highest x in the dense region, exclusive
+     * @param maxY the highest y in the dense region, exclusive
+     * @param overflowCapacity how many points outside the dense region can be cached; rounded up to a power of two
+     */
+    public PointCache2(Factory<P> factory, int minX, int minY, int maxX, int maxY, int overflowCapacity) {
+        if (maxX < minX || maxY < minY) throw new IllegalArgumentException("max must be >= min on each axis");
+        // each extent is found in long math, and checked before multiplying, so wide ranges can't wrap around
+        final long limit = Integer.MAX_VALUE - 8, w = (long) maxX - minX, h = (long) maxY - minY;
+        if (w > limit || h > limit || w * h > limit)
+            throw new IllegalArgumentException("dense region is too large: " + w + " by " + h);
+        final long area = w * h;
+        this.factory = factory;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.width = (int) w;
+        this.dense = new Object[(int) area];
+        for (int y = minY, i = 0; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                dense[i++] = factory.create(x, y);
+            }
+        }
+        int cap = Integer.highestOneBit(Math.max(2, overflowCapacity) - 1) << 1;
+        this.overflow = new AtomicReferenceArray<>(cap);
+        this.mask = cap - 1;
+    }
+
+    /**
+     * Gets the canonical point with the given components, creating it if it isn't cached yet.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return a point with the given components; the same instance each time if it is in the dense region
+     */
+    @SuppressWarnings("unchecked")
+    public P get(int x, int y) {
+        if (x >= minX && y >= minY && x < maxX && y < maxY) {
+            return (P) dense[(y - minY) * width + x - minX];
+        }
+        int slot = hash(x, y) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = slot + 1 & mask) {
+            P p = overflow.get(slot);
+            if (p == null) {
+                P made = factory.create(x, y);
+                if (overflow.compareAndSet(slot, null, made)) return made;
+                p = overflow.get(slot);
+            }
+            if (p.xi() == x && p.yi() == y) return p;
+        }
+        return factory.create(x, y);
+    }
+
+    /**
+     * Gets the canonical point with the same int components as {@code point}.
+     * @param point any Point2; will not be modified
+     * @return a point with the same int components as {@code point}
+     */
+    public P get(Point2<?> point) {
+        return get(point.xi(), point.yi());
+    }
+
+    /**
+     * Returns true if {@code x} and {@code y} are in the dense region, meaning {@link #get(int, int)} always returns
+     * the same instance for them.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return true if the given point is in the dense region
+     */
+    public boolean isDense(int x, int y) {
+        return x >= minX && y >= minY && x < maxX && y < maxY;
+    }
+
+    /**
+     * Mixes two ints into a hash with all bits well-distributed, for use as an overflow table slot.
+     * This is {@link PointHasher#hash(int, int)}.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return a mixed hash of x and y
+     */
+    protected static int hash(int x, int y) {
+        return PointHasher.hash(x, y);
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.tommyettinger.crux;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe cache of canonical immutable {@link Point3} instances with int components, similar to how SquidSquad's
+ * {@code Coord} caches its instances. An immutable Point3 type can use this to implement
+ * {@link Point3#seti(int, int, int)} and friends by calling {@link #get(int, int, int)} instead of allocating a new
+ * point each time.
+ * <br>
+ * Points with x from {@link #minX} (inclusive) to {@link #maxX} (exclusive), y from {@link #minY} (inclusive) to
+ * {@link #maxY} (exclusive), and z from {@link #minZ} (inclusive) to {@link #maxZ} (exclusive) are all created when
+ * this is constructed, and getting one of them is a bounds check and one array load. Points outside that region go in
+ * a fixed-size, open-addressed overflow table that is filled lazily with compare-and-set, so reads never block and
+ * threads never wait on each other. If the overflow table is full around a point's slot, {@link #get(int, int, int)}
+ * just creates a new point without caching it, so memory use stays bounded; this means identity ({@code ==}) is only
+ * guaranteed for points in the dense region, while equality is unaffected.
+ *
+ * @param <P> the immutable point type this caches
+ */
+public class PointCache3<P extends Point3<P>> {
+    /**
+     * Creates points from int components; usually a constructor reference for an immutable point type.
+     * @param <P> the type of point created
+     */
+    public interface Factory<P> {
+        /**
+         * Creates a new point with the given components.
+         * @param x the first (x) component
+         * @param y the second (y) component
+         * @param z the third (z) component
+         * @return a new point
+         */
+        P create(int x, int y, int z);
+    }
+
+    /**
+     * How many slots in the overflow table {@link #get(int, int, int)} checks before giving up and allocating.
+     */
+    protected static final int MAX_PROBES = 8;
+
+    public final int minX, minY, minZ, maxX, maxY, maxZ;
+    protected final Factory<P> factory;
+    protected final int width, height;
+    protected final Object[] dense;
+    protected final AtomicReferenceArray<P> overflow;
+    protected final int mask;
+
+    /**
+     * Creates a PointCache3 with a dense region from -8 to 63 on all three axes and 4096 overflow slots.
+     * @param factory creates points that aren't already cached
+     */
+    public PointCache3(Factory<P> factory) {
+        this(factory, -8, -8, -8, 64, 64, 64, 4096);
+    }
+
+    /**
+     * Creates a PointCache3 with the given dense region and overflow capacity. Every point in the dense region is
+     * created immediately, so keep its area reasonable.
+     * @param factory creates points that aren't already cached
+     * @param minX the lowest x in the dense region, inclusive
+     * @param minY the lowest y in the dense region, inclusive
+     * @param minZ the lowest z in the dense region, inclusive
+     * @param maxX the highest x in the dense region, exclusive
+     * @param maxY the highest y in the dense region, exclusive
+     * @param maxZ the highest z in the dense region, exclusive
+     * @param overflowCapacity how many points outside the dense region can be cached; rounded up to a power of two
+     */
+    public PointCache3(Factory<P> factory, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            int overflowCapacity) {
+        if (maxX < minX || maxY < minY || maxZ < minZ)
+            throw new IllegalArgumentException("max must be >= min on each axis");
+        // each extent is found in long math, and checked before multiplying, so wide ranges can't wrap around
+        final long limit = Integer.MAX_VALUE - 8, w = (long) maxX - minX, h = (long) maxY - minY,
+                d = (long) maxZ - minZ;
+        if (w > limit || h > limit || d > limit || w * h > limit || w * h * d > limit)
+            throw new IllegalArgumentException("dense region is too large: " + w + " by " + h + " by " + d);
+        final long area = w * h * d;
+        this.factory = factory;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+        this.width = (int) w;
+        this.height = (int) h;
+        this.dense = new Object[(int) area];
+        for (int z = minZ, i = 0; z < maxZ; z++) {
+            for (int y = minY; y < maxY; y++) {
+                for (int x = minX; x < maxX; x++) {
+                    dense[i++] = factory.create(x, y, z);
+                }
+            }
+        }
+        int cap = Integer.highestOneBit(Math.max(2, overflowCapacity) - 1) << 1;
+        this.overflow = new AtomicReferenceArray<>(cap);
+        this.mask = cap - 1;
+    }
+
+    /**
+     * Gets the canonical point with the given components, creating it if it isn't cached yet.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @param z the third (z) component
+     * @return a point with the given components; the same instance each time if it is in the dense region
+     */
+    @SuppressWarnings("unchecked")
+    public P get(int x, int y, int z) {
+        if (x >= minX && y >= minY && z >= minZ && x < maxX && y < maxY && z < maxZ) {
+            return (P) dense[((z - minZ) * height + y - minY) * width + x - minX];
+        }
+        int slot = hash(x, y, z) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = slot + 1 & mask) {
+            P p = overflow.get(slot);
+            if (p == null) {
+                P made = factory.create(x, y, z);
+                if (overflow.compareAndSet(slot, null, made)) return made;
+                p = overflow.get(slot);
+            }
+            if (p.xi() == x && p.yi() == y && p.zi() == z) return p;
+        }
+        return factory.create(x, y, z);
+    }
+
+    /**
+     * Gets the canonical point with the same int components as {@code point}.
+     * @param point any Point3; will not be modified
+     * @return a point with the same int components as {@code point}
+     */
+    public P get(Point3<?> point) {
+        return get(point.xi(), point.yi(), point.zi());
+    }
+
+    /**
+     * Returns true if {@code x}, {@code y}, and {@code z} are in the dense region, meaning
+     * {@link #get(int, int, int)} always returns the same instance for them.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @param z the third (z) component
+     * @return true if the given point is in the dense region
+     */
+    public boolean isDense(int x, int y, int z) {
+        return x >= minX && y >= minY && z >= minZ && x < maxX && y < maxY && z < maxZ;
+    }
+
+    /**
+     * Mixes three ints into a hash with all bits well-distributed, for use as an overflow table slot.
+     * This is {@link PointHasher#hash(int, int, int)}.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @param z the third (z) component
+     * @return a mixed hash of x, y, and z
+     */
+    protected static int hash(int x, int y, int z) {
+        return PointHasher.hash(x, y, z);
+    }
+}
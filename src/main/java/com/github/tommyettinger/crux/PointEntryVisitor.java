@@ -0,0 +1,20 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A callback for iterating over maps keyed by points, which receives each key along with its value. Iteration stops
+ * early if this returns false. Like {@link PointVisitor}, implementations are typically reused, so iterating doesn't
+ * need to allocate anything.
+ *
+ * @param <P> the type of point used as a key
+ * @param <V> the type of value
+ */
+@FunctionalInterface
+public interface PointEntryVisitor<P, V> {
+    /**
+     * Called for each entry in a map.
+     * @param key the key of the entry; may be reused for other entries, so copy it if it needs to be kept
+     * @param value the value of the entry; may be null
+     * @return true to keep visiting entries, or false to stop early
+     */
+    boolean visit(P key, V value);
+}
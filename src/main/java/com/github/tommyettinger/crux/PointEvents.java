@@ -0,0 +1,21 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Passes bulk operations recorded by {@link Instrumentation} on to a profiler. This version does nothing, since JDK
+ * Flight Recorder isn't available everywhere Java 8 is; on Java 17 and newer, the multi-release jar replaces this
+ * class with one that commits a Flight Recorder event for each operation.
+ */
+final class PointEvents {
+    private PointEvents() {
+    }
+
+    /**
+     * Reports one bulk operation.
+     * @param kind the name of the operation's {@link Instrumentation.Bulk} kind
+     * @param operation a short name for the operation
+     * @param elapsed how long the operation took, in nanoseconds
+     * @param items how many points or cells the operation touched, or -1 if unknown
+     */
+    static void bulk(String kind, String operation, long elapsed, long items) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Fast, well-mixed hashes of point components, for ranks 2 through 6 and for {@link PointPair}. Each hash depends only
+ * on the components and whether they are ints or floats, never on which class holds them, so two implementations of
+ * {@link Point2} with the same int components hash the same way. Implementing types can return one of these from
+ * {@code hashCode()}, and the hashed collections in this library ({@link PointSet2}, {@link PointMap2},
+ * {@link PointCache2}, {@link SpatialHash2}, and their 3D versions) use them for their slots.
+ * <br>
+ * The commonly-used {@code 31 * x + y} is a linear function, so points along a line or in a dense grid get hashes
+ * that differ only in their low bits, or that collide outright; (0, 31) and (1, 0) share a hash, for example. These
+ * hashes multiply each component by a different odd constant, combine the products with XOR, and then run the result
+ * through a finalizer that lets every input bit affect every output bit, so neighboring points land in unrelated
+ * buckets even in tables that use only the low bits of a hash.
+ * <br>
+ * Float components are hashed by their bits, with {@code -0f} treated as {@code 0f} and every NaN treated as the same
+ * NaN, so components that compare equal with {@code ==} hash the same. Int and float components with the same values
+ * don't hash the same, since points that store ints are usually not equal to points that store floats.
+ */
+public final class PointHasher {
+    private PointHasher() {
+    }
+
+    private static final int C0 = 0x9E3779B9, C1 = 0x85EBCA6B, C2 = 0xC2B2AE35, C3 = 0x27D4EB2F, C4 = 0x165667B1,
+            C5 = 0xDB4F0B91;
+
+    /**
+     * Mixes the bits of {@code h} so that each input bit affects every output bit with probability close to one half.
+     * This is the "lowbias32" finalizer found by Chris Wellons' hash-prospector.
+     * @param h any int
+     * @return a well-mixed int; this is a bijection, so different inputs always give different outputs
+     */
+    public static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        h ^= h >>> 15;
+        h *= 0x846CA68B;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Gets the bits of a float component to hash, treating {@code -0f} as {@code 0f} and every NaN as the same NaN.
+     * @param f any float
+     * @return the bits of f, normalized
+     */
+    public static int bits(float f) {
+        // adding 0f turns -0f into 0f, and floatToIntBits() collapses every NaN to one value
+        return Float.floatToIntBits(f + 0f);
+    }
+
+    /**
+     * Hashes two int components by multiplying each by its own odd constant, XORing the products, and passing the
+     * result to {@link #mix(int)}. Because each step is a bijection when the other component is fixed, two points
+     * that differ in only one component never share a hash. Each component has its own constant, so swapping them
+     * usually changes the hash. The result only depends on the arguments, so it is the same on every platform and run.
+     * @param x the x component
+     * @param y the y component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(int x, int y) {
+        return mix(x * C0 ^ y * C1);
+    }
+
+    /**
+     * Hashes 3 int components the same way as {@link #hash(int, int)}, with a different odd constant for each
+     * component, so points that differ in only one component never share a hash.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(int x, int y, int z) {
+        return mix(x * C0 ^ y * C1 ^ z * C2);
+    }
+
+    /**
+     * Hashes 4 int components the same way as {@link #hash(int, int)}, with a different odd constant for each
+     * component, so points that differ in only one component never share a hash.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(int x, int y, int z, int w) {
+        return mix(x * C0 ^ y * C1 ^ z * C2 ^ w * C3);
+    }
+
+    /**
+     * Hashes 5 int components the same way as {@link #hash(int, int)}, with a different odd constant for each
+     * component, so points that differ in only one component never share a hash.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @param u the u component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(int x, int y, int z, int w, int u) {
+        return mix(x * C0 ^ y * C1 ^ z * C2 ^ w * C3 ^ u * C4);
+    }
+
+    /**
+     * Hashes 6 int components the same way as {@link #hash(int, int)}, with a different odd constant for each
+     * component, so points that differ in only one component never share a hash.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @param u the u component
+     * @param v the v component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(int x, int y, int z, int w, int u, int v) {
+        return mix(x * C0 ^ y * C1 ^ z * C2 ^ w * C3 ^ u * C4 ^ v * C5);
+    }
+
+    /**
+     * Hashes two float components by passing each one through {@link #bits(float)} and hashing those bits like the
+     * int overload with as many components, so components that are equal by {@code ==} (including {@code -0f} and
+     * {@code 0f}) hash the same, and so do any two NaN components.
+     * @param x the x component
+     * @param y the y component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(float x, float y) {
+        return hash(bits(x), bits(y));
+    }
+
+    /**
+     * Hashes 3 float components by passing each one through {@link #bits(float)} and hashing those bits like the
+     * int overload with as many components, so components that are equal by {@code ==} (including {@code -0f} and
+     * {@code 0f}) hash the same, and so do any two NaN components.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(float x, float y, float z) {
+        return hash(bits(x), bits(y), bits(z));
+    }
+
+    /**
+     * Hashes 4 float components by passing each one through {@link #bits(float)} and hashing those bits like the
+     * int overload with as many components, so components that are equal by {@code ==} (including {@code -0f} and
+     * {@code 0f}) hash the same, and so do any two NaN components.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(float x, float y, float z, float w) {
+        return hash(bits(x), bits(y), bits(z), bits(w));
+    }
+
+    /**
+     * Hashes 5 float components by passing each one through {@link #bits(float)} and hashing those bits like the
+     * int overload with as many components, so components that are equal by {@code ==} (including {@code -0f} and
+     * {@code 0f}) hash the same, and so do any two NaN components.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @param u the u component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(float x, float y, float z, float w, float u) {
+        return hash(bits(x), bits(y), bits(z), bits(w), bits(u));
+    }
+
+    /**
+     * Hashes 6 float components by passing each one through {@link #bits(float)} and hashing those bits like the
+     * int overload with as many components, so components that are equal by {@code ==} (including {@code -0f} and
+     * {@code 0f}) hash the same, and so do any two NaN components.
+     * @param x the x component
+     * @param y the y component
+     * @param z the z component
+     * @param w the w component
+     * @param u the u component
+     * @param v the v component
+     * @return a well-mixed hash of the components
+     */
+    public static int hash(float x, float y, float z, float w, float u, float v) {
+        return hash(bits(x), bits(y), bits(z), bits(w), bits(u), bits(v));
+    }
+
+    /**
+     * Hashes any point by its components, using {@link PointN#geti(int)} if {@link PointN#floatingPoint()} is false or
+     * {@link PointN#get(int)} if it is true. For ranks 2 through 6, this gives the same result as the
+     * {@code hash()} overload with that many components of that type. Other ranks are hashed one component at a time.
+     * @param point any point; will not be modified
+     * @return a well-mixed hash of the point's components
+     */
+    public static int hash(PointN<?> point) {
+        final boolean fp = point.floatingPoint();
+        switch (point.rank()) {
+            case 2:
+                return hash(component(point, 0, fp), component(point, 1, fp));
+            case 3:
+                return hash(component(point, 0, fp), component(point, 1, fp), component(point, 2, fp));
+            case 4:
+                return hash(component(point, 0, fp), component(point, 1, fp), component(point, 2, fp),
+                        component(point, 3, fp));
+            case 5:
+                return hash(component(point, 0, fp), component(point, 1, fp), component(point, 2, fp),
+                        component(point, 3, fp), component(point, 4, fp));
+            case 6:
+                return hash(component(point, 0, fp), component(point, 1, fp), component(point, 2, fp),
+                        component(point, 3, fp), component(point, 4, fp), component(point, 5, fp));
+            default:
+                int h = point.rank();
+                for (int i = 0; i < point.rank(); i++) {
+                    h = mix(h ^ component(point, i, fp) * C0);
+                }
+                return h;
+        }
+    }
+
+    private static int component(PointN<?> point, int index, boolean floatingPoint) {
+        return floatingPoint ? bits(point.get(index)) : point.geti(index);
+    }
+
+    /**
+     * Hashes a PointPair by the components of both its points, in order, so swapping {@code a} and {@code b} changes
+     * the hash.
+     * @param pair any PointPair; will not be modified
+     * @return a well-mixed hash of both points' components
+     */
+    public static int hash(PointPair<?> pair) {
+        return mix(hash(pair.a) * C0 ^ hash(pair.b) * C1);
+    }
+}
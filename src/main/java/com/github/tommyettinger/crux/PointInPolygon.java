@@ -0,0 +1,120 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * Tests whether 2D points are inside a polygon, using the even-odd rule, so self-intersecting polygons have holes
+ * where they overlap themselves. The polygon is given as packed float coordinates, where vertex {@code i} has its x at
+ * array index {@code i * 2} and its y at {@code i * 2 + 1}, and its last vertex connects back to the first; vertices
+ * can be in either winding order. Query points use the same packed layout, which {@link ConvexHull#pack(Point2[])}
+ * can produce.
+ * <br>
+ * A point exactly on a polygon edge may be counted as inside or outside, but the same point is always classified the
+ * same way by every method here, and a point on an edge shared by two polygons that don't overlap is inside exactly
+ * one of them.
+ */
+public final class PointInPolygon {
+    private PointInPolygon() {
+    }
+
+    /**
+     * Checks if the point (x, y) is inside the polygon. This casts a ray from the point toward positive x and counts
+     * how many polygon edges it crosses.
+     * @param polygon x and y for each vertex, one vertex after another; will not be modified
+     * @param vertexCount how many vertices the polygon has
+     * @param x x of the point to check
+     * @param y y of the point to check
+     * @return true if the point is inside the polygon
+     */
+    public static boolean contains(float[] polygon, int vertexCount, float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = vertexCount - 1; i < vertexCount; j = i++) {
+            final float xi = polygon[i << 1], yi = polygon[i << 1 | 1], xj = polygon[j << 1], yj = polygon[j << 1 | 1];
+            if ((yi > y) != (yj > y) && x < crossing(xi, yi, xj, yj, y)) inside = !inside;
+        }
+        return inside;
+    }
+
+    /**
+     * Checks if a point is inside the polygon.
+     * @param polygon x and y for each vertex, one vertex after another; will not be modified
+     * @param vertexCount how many vertices the polygon has
+     * @param point the point to check; will not be modified
+     * @return true if the point is inside the polygon
+     */
+    public static boolean contains(float[] polygon, int vertexCount, Point2<?> point) {
+        return contains(polygon, vertexCount, point.x(), point.y());
+    }
+
+    /**
+     * Finds which of many query points are inside the polygon, giving the same results as calling
+     * {@link #contains(float[], int, float, float)} on each one. Instead of checking every edge for every point, this
+     * sorts the query points by y once, and then each edge only visits the points whose y is in its range, found by
+     * binary search. That makes this much faster than separate checks when there are many points and the polygon has
+     * many vertices.
+     * @param polygon x and y for each vertex, one vertex after another; will not be modified
+     * @param vertexCount how many vertices the polygon has
+     * @param queries x and y for each query point, one point after another; will not be modified
+     * @param queryCount how many query points to check
+     * @param out receives the indices of query points inside the polygon, in ascending order; must have at least
+     *            {@code queryCount} items, or as many as there are points inside
+     * @return how many indices were written to {@code out}
+     */
+    public static int classify(float[] polygon, int vertexCount, float[] queries, int queryCount, int[] out) {
+        final long[] keys = new long[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            keys[i] = (long) sortable(queries[i << 1 | 1]) << 32 | i;
+        }
+        Arrays.sort(keys);
+        final float[] ys = new float[queryCount];
+        final int[] order = new int[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            order[i] = (int) keys[i];
+            ys[i] = queries[order[i] << 1 | 1];
+        }
+        final boolean[] inside = new boolean[queryCount];
+        for (int i = 0, j = vertexCount - 1; i < vertexCount; j = i++) {
+            final float xi = polygon[i << 1], yi = polygon[i << 1 | 1], xj = polygon[j << 1], yj = polygon[j << 1 | 1];
+            // an edge counts for a point when its lower end is at or below the point and its upper end is above it
+            final int end = lowerBound(ys, queryCount, Math.max(yi, yj));
+            for (int s = lowerBound(ys, queryCount, Math.min(yi, yj)); s < end; s++) {
+                final int q = order[s];
+                if (queries[q << 1] < crossing(xi, yi, xj, yj, ys[s])) inside[q] = !inside[q];
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < queryCount; i++) {
+            if (inside[i]) out[count++] = i;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the x where the edge from (xi, yi) to (xj, yj) crosses the horizontal line at y; yi and yj must differ.
+     */
+    private static float crossing(float xi, float yi, float xj, float yj, float y) {
+        return (xj - xi) * (y - yi) / (yj - yi) + xi;
+    }
+
+    /**
+     * Gets an int that sorts the same way as {@code f} when compared as a signed int, with -0f the same as 0f. This
+     * is also used by {@link ConvexHull} and {@link SweepAndPrune2} to sort by a float key.
+     */
+    static int sortable(float f) {
+        final int bits = Float.floatToIntBits(f + 0f);
+        return bits ^ (bits >> 31 & 0x7FFFFFFF);
+    }
+
+    /**
+     * Gets the first index in the sorted {@code ys} with an item that is not less than {@code y}.
+     */
+    private static int lowerBound(float[] ys, int size, float y) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            final int mid = lo + hi >>> 1;
+            if (ys[mid] < y) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Bulk point arithmetic over structure-of-arrays float components, for ranks 2 through 4, which uses SIMD
+ * instructions where the platform allows it. Every method here has the same meaning as the {@link PointOps} method
+ * with the same name and parameters, and produces the same results, bit for bit.
+ * <br>
+ * This class is in a multi-release JAR. On Java 8 through 16, and on GWT, it simply calls {@link PointOps}. On Java
+ * 17 and newer, a different version of this class is loaded, which uses the incubating Vector API
+ * ({@code jdk.incubator.vector}) if that module was added to the JVM with {@code --add-modules jdk.incubator.vector},
+ * and calls PointOps otherwise. Use {@link #isVectorized()} to check which is in use.
+ */
+public final class PointKernels {
+    private PointKernels() {
+    }
+
+    /**
+     * Returns true if the methods here use the Vector API, or false if they use the scalar loops in {@link PointOps}.
+     * @return true if SIMD kernels are in use
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    // 2D
+
+    /**
+     * Adds the given offset to every point.
+     * See {@link PointOps#add(float[], float[], float, float, int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float dx, float dy, int from, int to) {
+        PointOps.add(xs, ys, dx, dy, from, to);
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group.
+     * See {@link PointOps#add(float[], float[], float[], float[], int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float[] oxs, float[] oys, int from, int to) {
+        PointOps.add(xs, ys, oxs, oys, from, to);
+    }
+
+    /**
+     * Multiplies every point by the given factors.
+     * See {@link PointOps#scl(float[], float[], float, float, int, int)}.
+     */
+    public static void scl(float[] xs, float[] ys, float sx, float sy, int from, int to) {
+        PointOps.scl(xs, ys, sx, sy, from, to);
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}.
+     * See {@link PointOps#times(float[], float[], float, int, int)}.
+     */
+    public static void times(float[] xs, float[] ys, float scalar, int from, int to) {
+        PointOps.times(xs, ys, scalar, from, to);
+    }
+
+    /**
+     * Normalizes every point, leaving points with length 0 unchanged.
+     * See {@link PointOps#nor(float[], float[], int, int)}.
+     */
+    public static void nor(float[] xs, float[] ys, int from, int to) {
+        PointOps.nor(xs, ys, from, to);
+    }
+
+    /**
+     * Stores the squared length of every point in {@code out}.
+     * See {@link PointOps#len2(float[], float[], float[], int, int)}.
+     */
+    public static void len2(float[] xs, float[] ys, float[] out, int from, int to) {
+        PointOps.len2(xs, ys, out, from, to);
+    }
+
+    /**
+     * Stores the squared distance from the query point to every point in {@code out}.
+     * See {@link PointOps#dst2(float, float, float[], float[], float[], int, int)}.
+     */
+    public static void dst2(float qx, float qy, float[] xs, float[] ys, float[] out, int from, int to) {
+        PointOps.dst2(qx, qy, xs, ys, out, from, to);
+    }
+
+    // 3D
+
+    /**
+     * Adds the given offset to every point.
+     * See {@link PointOps#add(float[], float[], float[], float, float, float, int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float dx, float dy, float dz, int from, int to) {
+        PointOps.add(xs, ys, zs, dx, dy, dz, from, to);
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group.
+     * See {@link PointOps#add(float[], float[], float[], float[], float[], float[], int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] oxs, float[] oys, float[] ozs, int from,
+            int to) {
+        PointOps.add(xs, ys, zs, oxs, oys, ozs, from, to);
+    }
+
+    /**
+     * Multiplies every point by the given factors.
+     * See {@link PointOps#scl(float[], float[], float[], float, float, float, int, int)}.
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float sx, float sy, float sz, int from, int to) {
+        PointOps.scl(xs, ys, zs, sx, sy, sz, from, to);
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}.
+     * See {@link PointOps#times(float[], float[], float[], float, int, int)}.
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float scalar, int from, int to) {
+        PointOps.times(xs, ys, zs, scalar, from, to);
+    }
+
+    /**
+     * Normalizes every point, leaving points with length 0 unchanged.
+     * See {@link PointOps#nor(float[], float[], float[], int, int)}.
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, int from, int to) {
+        PointOps.nor(xs, ys, zs, from, to);
+    }
+
+    /**
+     * Stores the squared length of every point in {@code out}.
+     * See {@link PointOps#len2(float[], float[], float[], float[], int, int)}.
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] out, int from, int to) {
+        PointOps.len2(xs, ys, zs, out, from, to);
+    }
+
+    /**
+     * Stores the squared distance from the query point to every point in {@code out}.
+     * See {@link PointOps#dst2(float, float, float, float[], float[], float[], float[], int, int)}.
+     */
+    public static void dst2(float qx, float qy, float qz, float[] xs, float[] ys, float[] zs, float[] out, int from,
+            int to) {
+        PointOps.dst2(qx, qy, qz, xs, ys, zs, out, from, to);
+    }
+
+    // 4D
+
+    /**
+     * Adds the given offset to every point.
+     * See {@link PointOps#add(float[], float[], float[], float[], float, float, float, float, int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float dx, float dy, float dz, float dw,
+            int from, int to) {
+        PointOps.add(xs, ys, zs, ws, dx, dy, dz, dw, from, to);
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group.
+     * See {@link PointOps#add(float[], float[], float[], float[], float[], float[], float[], float[], int, int)}.
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] oxs, float[] oys, float[] ozs,
+            float[] ows, int from, int to) {
+        PointOps.add(xs, ys, zs, ws, oxs, oys, ozs, ows, from, to);
+    }
+
+    /**
+     * Multiplies every point by the given factors.
+     * See {@link PointOps#scl(float[], float[], float[], float[], float, float, float, float, int, int)}.
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float sx, float sy, float sz, float sw,
+            int from, int to) {
+        PointOps.scl(xs, ys, zs, ws, sx, sy, sz, sw, from, to);
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}.
+     * See {@link PointOps#times(float[], float[], float[], float[], float, int, int)}.
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float[] ws, float scalar, int from, int to) {
+        PointOps.times(xs, ys, zs, ws, scalar, from, to);
+    }
+
+    /**
+     * Normalizes every point, leaving points with length 0 unchanged.
+     * See {@link PointOps#nor(float[], float[], float[], float[], int, int)}.
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, float[] ws, int from, int to) {
+        PointOps.nor(xs, ys, zs, ws, from, to);
+    }
+
+    /**
+     * Stores the squared length of every point in {@code out}.
+     * See {@link PointOps#len2(float[], float[], float[], float[], float[], int, int)}.
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] ws, float[] out, int from, int to) {
+        PointOps.len2(xs, ys, zs, ws, out, from, to);
+    }
+
+    /**
+     * Stores the squared distance from the query point to every point in {@code out}.
+     * See {@link PointOps#dst2(float, float, float, float, float[], float[], float[], float[], float[], int, int)}.
+     */
+    public static void dst2(float qx, float qy, float qz, float qw, float[] xs, float[] ys, float[] zs, float[] ws,
+            float[] out, int from, int to) {
+        PointOps.dst2(qx, qy, qz, qw, xs, ys, zs, ws, out, from, to);
+    }
+}
@@ -32,6 +32,102 @@ public interface PointN<P extends PointN<P>> {
         return true;
     }
 
+    /**
+     * Gets the component at {@code index}, as a float, where 0 is the first component (x), 1 is the second (y), and so
+     * on up to {@code rank() - 1}. Always gets a float, even if {@link #floatingPoint()} is false. This lets code that
+     * only knows it has some PointN read components in a loop.
+     * @param index which component to get, from 0 (inclusive) to {@link #rank()} (exclusive)
+     * @return the component at {@code index}, as a float
+     * @throws IndexOutOfBoundsException if index is negative or is not less than {@link #rank()}
+     */
+    float get(int index);
+
+    /**
+     * Gets the component at {@code index}, as an int, where 0 is the first component (x), 1 is the second (y), and so
+     * on up to {@code rank() - 1}. If {@link #floatingPoint()} is true, this defaults to casting {@link #get(int)} to
+     * an int. The rank-specific subinterfaces override this to call their int accessors, such as {@code xi()}.
+     * @param index which component to get, from 0 (inclusive) to {@link #rank()} (exclusive)
+     * @return the component at {@code index}, as an int
+     * @throws IndexOutOfBoundsException if index is negative or is not less than {@link #rank()}
+     */
+    default int geti(int index) {
+        return (int)get(index);
+    }
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is the first component (x), 1 is the second (y), and
+     * so on up to {@code rank() - 1}. Always takes a float, even if {@link #floatingPoint()} is false.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * <br>
+     * This isn't named {@code set()} because an overload taking an int and a float would be chosen over
+     * {@code set(float, float)} in 2D types when the first argument is an int.
+     * @param index which component to set, from 0 (inclusive) to {@link #rank()} (exclusive)
+     * @param next the new value for the component at {@code index}
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is negative or is not less than {@link #rank()}
+     */
+    P setAt(int index, float next);
+
+    /**
+     * Sets the component at {@code index} to {@code next}, where 0 is the first component (x), 1 is the second (y), and
+     * so on up to {@code rank() - 1}. Always takes an int, and the rank-specific subinterfaces implement this by
+     * calling their int setters, such as {@code xi(int)}.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param index which component to set, from 0 (inclusive) to {@link #rank()} (exclusive)
+     * @param next the new value for the component at {@code index}, as an int
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     * @throws IndexOutOfBoundsException if index is negative or is not less than {@link #rank()}
+     */
+    P setiAt(int index, int next);
+
+    /**
+     * Copies every component of this point, as floats, into {@code array} starting at {@code offset}. This writes
+     * {@link #rank()} items.
+     * @param array the array to write into; will be modified
+     * @param offset the first index in array to write to
+     * @return {@code array}, after modifications
+     */
+    default float[] toArray(float[] array, int offset) {
+        for (int i = 0, n = rank(); i < n; i++) {
+            array[offset + i] = get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Copies every component of this point, as ints, into {@code array} starting at {@code offset}. This writes
+     * {@link #rank()} items.
+     * @param array the array to write into; will be modified
+     * @param offset the first index in array to write to
+     * @return {@code array}, after modifications
+     */
+    default int[] toArray(int[] array, int offset) {
+        for (int i = 0, n = rank(); i < n; i++) {
+            array[offset + i] = geti(i);
+        }
+        return array;
+    }
+
+    /**
+     * Sets every component of this point from {@code array}, as floats, starting at {@code offset}. This reads
+     * {@link #rank()} items.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the first index in array to read from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    P fromArray(float[] array, int offset);
+
+    /**
+     * Sets every component of this point from {@code array}, as ints, starting at {@code offset}. This reads
+     * {@link #rank()} items.
+     * For mutable types, this should edit this value in-place. For immutable types, it must return a new value.
+     * @param array the array to read from; will not be modified
+     * @param offset the first index in array to read from
+     * @return if this is mutable, then this value after editing; if this is immutable, then a different edited point
+     */
+    P fromArray(int[] array, int offset);
+
     /**
      * Returns a copy of this point, or if this type is immutable, this same point.
      * @return a copy of this point, if it is mutable, or this point as-is, if it is immutable
@@ -143,6 +239,94 @@ public interface PointN<P extends PointN<P>> {
         return times(1f/len());
     }
 
+    /**
+     * Gets the length of this point, as a float, calculating the square root with the given {@link Precision}.
+     * @param precision how accurately to calculate the square root
+     * @return the length of this point, with the given precision
+     */
+    default float len(Precision precision) {
+        return precision.sqrt(len2());
+    }
+
+    /**
+     * Gets the distance from this point to the parameter {@code point}, using Euclidean distance, calculating the
+     * square root with the given {@link Precision}.
+     * @param point another point of the same type; will not be modified
+     * @param precision how accurately to calculate the square root
+     * @return the distance from this point to the parameter, with the given precision
+     */
+    default float dst(P point, Precision precision) {
+        return precision.sqrt(dst2(point));
+    }
+
+    /**
+     * Normalizes this point in-place, calculating the inverse square root with the given {@link Precision}. Unlike
+     * {@link #nor()}, this leaves a point with length 0 at 0 instead of filling it with NaN.
+     * This only really makes sense for float components (where {@link #floatingPoint()} is true).
+     *
+     * @param precision how accurately to calculate the inverse square root
+     * @return this point after modifications, if possible, or a new edited point if this is immutable
+     */
+    default P nor(Precision precision) {
+        final float len2 = len2();
+        return times(len2 == 0f ? 0f : precision.invSqrt(len2));
+    }
+
+    /**
+     * Gets the length of this point using the {@link Precision#getDefault() default Precision}, which is
+     * {@link Precision#FAST} unless changed.
+     * @return the length of this point, with the default precision
+     */
+    default float lenFast() {
+        return len(Precision.getDefault());
+    }
+
+    /**
+     * Gets the distance from this point to the parameter {@code point} using the
+     * {@link Precision#getDefault() default Precision}, which is {@link Precision#FAST} unless changed.
+     * @param point another point of the same type; will not be modified
+     * @return the distance from this point to the parameter, with the default precision
+     */
+    default float dstFast(P point) {
+        return dst(point, Precision.getDefault());
+    }
+
+    /**
+     * Normalizes this point in-place using the {@link Precision#getDefault() default Precision}, which is
+     * {@link Precision#FAST} unless changed. See {@link #nor(Precision)}.
+     * @return this point after modifications, if possible, or a new edited point if this is immutable
+     */
+    default P norFast() {
+        return nor(Precision.getDefault());
+    }
+
+    /**
+     * Gets the length of this point using {@link Precision#APPROXIMATE}, which is within 0.2% of the exact length.
+     * @return the approximate length of this point
+     */
+    default float lenApprox() {
+        return len(Precision.APPROXIMATE);
+    }
+
+    /**
+     * Gets the distance from this point to the parameter {@code point} using {@link Precision#APPROXIMATE}, which is
+     * within 0.2% of the exact distance.
+     * @param point another point of the same type; will not be modified
+     * @return the approximate distance from this point to the parameter
+     */
+    default float dstApprox(P point) {
+        return dst(point, Precision.APPROXIMATE);
+    }
+
+    /**
+     * Normalizes this point in-place using {@link Precision#APPROXIMATE}, so its length will be within 0.2% of 1.
+     * See {@link #nor(Precision)}.
+     * @return this point after modifications, if possible, or a new edited point if this is immutable
+     */
+    default P norApprox() {
+        return nor(Precision.APPROXIMATE);
+    }
+
     /**
      * Returns true if the squared distance from the origin to this point is 1 (within floating-point error of
      * 0.000001f).
@@ -0,0 +1,1462 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Static bulk versions of the arithmetic in {@link PointN}, working on packed primitive arrays of components instead of
+ * on point objects. Each component of a group of points is stored in its own array (structure-of-arrays layout, the
+ * same as {@link PointBuffer2} and {@link PointBuffer3} use for float components), and every method works on the
+ * indices from {@code from} (inclusive) to {@code to} (exclusive) in each array. There are overloads for ranks 2
+ * through 6, chosen by how many component arrays are passed.
+ * <br>
+ * The loops here are simple counted loops with no calls and no dependencies between iterations, which HotSpot can
+ * unroll and, in many cases, auto-vectorize. When working with many points at once, these avoid the one-interface-call
+ * per-point cost of calling {@link PointN#add(PointN)} and friends in a loop.
+ */
+public final class PointOps {
+    private PointOps() {
+    }
+
+    // 2D
+
+    /**
+     * Adds the given offset to every point, like {@link PointN#add(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param dx the amount to add on the x axis
+     * @param dy the amount to add on the y axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float dx, float dy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group,
+     * like {@link PointN#add(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] oxs, float[] oys, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+        }
+    }
+
+    /**
+     * Subtracts the given offset from every point, like {@link PointN#sub(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param dx the amount to subtract on the x axis
+     * @param dy the amount to subtract on the y axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float dx, float dy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= dx;
+            ys[i] -= dy;
+        }
+    }
+
+    /**
+     * Subtracts each point in the second group of arrays from the point at the same index in the first group,
+     * like {@link PointN#sub(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] oxs, float[] oys, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= oxs[i];
+            ys[i] -= oys[i];
+        }
+    }
+
+    /**
+     * Multiplies every point component-wise by the given scale, like {@link PointN#scl(PointN)} with the same point
+     * each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param sx the amount to multiply by on the x axis
+     * @param sy the amount to multiply by on the y axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float sx, float sy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+        }
+    }
+
+    /**
+     * Multiplies each point in the first group of arrays component-wise by the point at the same index in the second
+     * group, like {@link PointN#scl(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] oxs, float[] oys, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= oxs[i];
+            ys[i] *= oys[i];
+        }
+    }
+
+    /**
+     * Adds {@code scalar} to every component of every point, like {@link PointN#plus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param scalar the amount to add to each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void plus(float[] xs, float[] ys, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += scalar;
+            ys[i] += scalar;
+        }
+    }
+
+    /**
+     * Subtracts {@code scalar} from every component of every point, like {@link PointN#minus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param scalar the amount to subtract from each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void minus(float[] xs, float[] ys, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= scalar;
+            ys[i] -= scalar;
+        }
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}, like {@link PointN#times(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param scalar the amount to multiply each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void times(float[] xs, float[] ys, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+        }
+    }
+
+    /**
+     * Normalizes every point so its length is as close to 1 as this can get, like {@link PointN#nor()}. Unlike
+     * {@code nor()}, points with length 0 are left unchanged instead of becoming NaN.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void nor(float[] xs, float[] ys, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+        }
+    }
+
+    /**
+     * Stores the squared length of every point, like {@link PointN#len2()}, in {@code out} at the same index.
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param out receives the squared lengths; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void len2(float[] xs, float[] ys, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i];
+        }
+    }
+
+    /**
+     * Gets the squared Euclidean distance from one query point to every point in the arrays, like
+     * {@link PointN#dst2(PointN)}, and stores it in {@code out} at the same index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param out receives the squared distances; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void dst2(float qx, float qy, float[] xs, float[] ys, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy;
+            out[i] = dx * dx + dy * dy;
+        }
+    }
+
+    /**
+     * Finds the index of the point nearest the query point by squared Euclidean distance; ties go to the lowest index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param from the first index to check, inclusive
+     * @param to the last index to check, exclusive
+     * @return the index of the closest point, or -1 if {@code from >= to}
+     */
+    public static int nearest(float qx, float qy, float[] xs, float[] ys, int from, int to) {
+        int best = -1;
+        float bestDist = Float.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy;
+            float dist = dx * dx + dy * dy;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // 3D
+
+    /**
+     * Adds the given offset to every point, like {@link PointN#add(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param dx the amount to add on the x axis
+     * @param dy the amount to add on the y axis
+     * @param dz the amount to add on the z axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float dx, float dy, float dz, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+        }
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group,
+     * like {@link PointN#add(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] oxs, float[] oys, float[] ozs, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+        }
+    }
+
+    /**
+     * Subtracts the given offset from every point, like {@link PointN#sub(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param dx the amount to subtract on the x axis
+     * @param dy the amount to subtract on the y axis
+     * @param dz the amount to subtract on the z axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float dx, float dy, float dz, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= dx;
+            ys[i] -= dy;
+            zs[i] -= dz;
+        }
+    }
+
+    /**
+     * Subtracts each point in the second group of arrays from the point at the same index in the first group,
+     * like {@link PointN#sub(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] oxs, float[] oys, float[] ozs, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= oxs[i];
+            ys[i] -= oys[i];
+            zs[i] -= ozs[i];
+        }
+    }
+
+    /**
+     * Multiplies every point component-wise by the given scale, like {@link PointN#scl(PointN)} with the same point
+     * each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param sx the amount to multiply by on the x axis
+     * @param sy the amount to multiply by on the y axis
+     * @param sz the amount to multiply by on the z axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float sx, float sy, float sz, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+        }
+    }
+
+    /**
+     * Multiplies each point in the first group of arrays component-wise by the point at the same index in the second
+     * group, like {@link PointN#scl(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] oxs, float[] oys, float[] ozs, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= oxs[i];
+            ys[i] *= oys[i];
+            zs[i] *= ozs[i];
+        }
+    }
+
+    /**
+     * Adds {@code scalar} to every component of every point, like {@link PointN#plus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param scalar the amount to add to each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void plus(float[] xs, float[] ys, float[] zs, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += scalar;
+            ys[i] += scalar;
+            zs[i] += scalar;
+        }
+    }
+
+    /**
+     * Subtracts {@code scalar} from every component of every point, like {@link PointN#minus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param scalar the amount to subtract from each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void minus(float[] xs, float[] ys, float[] zs, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= scalar;
+            ys[i] -= scalar;
+            zs[i] -= scalar;
+        }
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}, like {@link PointN#times(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param scalar the amount to multiply each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+        }
+    }
+
+    /**
+     * Normalizes every point so its length is as close to 1 as this can get, like {@link PointN#nor()}. Unlike
+     * {@code nor()}, points with length 0 are left unchanged instead of becoming NaN.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+        }
+    }
+
+    /**
+     * Stores the squared length of every point, like {@link PointN#len2()}, in {@code out} at the same index.
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param out receives the squared lengths; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i];
+        }
+    }
+
+    /**
+     * Gets the squared Euclidean distance from one query point to every point in the arrays, like
+     * {@link PointN#dst2(PointN)}, and stores it in {@code out} at the same index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param out receives the squared distances; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void dst2(float qx, float qy, float qz, float[] xs, float[] ys, float[] zs, float[] out, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz;
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * Finds the index of the point nearest the query point by squared Euclidean distance; ties go to the lowest index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param from the first index to check, inclusive
+     * @param to the last index to check, exclusive
+     * @return the index of the closest point, or -1 if {@code from >= to}
+     */
+    public static int nearest(float qx, float qy, float qz, float[] xs, float[] ys, float[] zs, int from, int to) {
+        int best = -1;
+        float bestDist = Float.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz;
+            float dist = dx * dx + dy * dy + dz * dz;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // 4D
+
+    /**
+     * Adds the given offset to every point, like {@link PointN#add(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param dx the amount to add on the x axis
+     * @param dy the amount to add on the y axis
+     * @param dz the amount to add on the z axis
+     * @param dw the amount to add on the w axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float dx, float dy, float dz, float dw,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+            ws[i] += dw;
+        }
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group,
+     * like {@link PointN#add(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] oxs, float[] oys, float[] ozs,
+            float[] ows, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+            ws[i] += ows[i];
+        }
+    }
+
+    /**
+     * Subtracts the given offset from every point, like {@link PointN#sub(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param dx the amount to subtract on the x axis
+     * @param dy the amount to subtract on the y axis
+     * @param dz the amount to subtract on the z axis
+     * @param dw the amount to subtract on the w axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float dx, float dy, float dz, float dw,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= dx;
+            ys[i] -= dy;
+            zs[i] -= dz;
+            ws[i] -= dw;
+        }
+    }
+
+    /**
+     * Subtracts each point in the second group of arrays from the point at the same index in the first group,
+     * like {@link PointN#sub(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float[] oxs, float[] oys, float[] ozs,
+            float[] ows, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= oxs[i];
+            ys[i] -= oys[i];
+            zs[i] -= ozs[i];
+            ws[i] -= ows[i];
+        }
+    }
+
+    /**
+     * Multiplies every point component-wise by the given scale, like {@link PointN#scl(PointN)} with the same point
+     * each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param sx the amount to multiply by on the x axis
+     * @param sy the amount to multiply by on the y axis
+     * @param sz the amount to multiply by on the z axis
+     * @param sw the amount to multiply by on the w axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float sx, float sy, float sz, float sw,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+            ws[i] *= sw;
+        }
+    }
+
+    /**
+     * Multiplies each point in the first group of arrays component-wise by the point at the same index in the second
+     * group, like {@link PointN#scl(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float[] oxs, float[] oys, float[] ozs,
+            float[] ows, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= oxs[i];
+            ys[i] *= oys[i];
+            zs[i] *= ozs[i];
+            ws[i] *= ows[i];
+        }
+    }
+
+    /**
+     * Adds {@code scalar} to every component of every point, like {@link PointN#plus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param scalar the amount to add to each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void plus(float[] xs, float[] ys, float[] zs, float[] ws, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += scalar;
+            ys[i] += scalar;
+            zs[i] += scalar;
+            ws[i] += scalar;
+        }
+    }
+
+    /**
+     * Subtracts {@code scalar} from every component of every point, like {@link PointN#minus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param scalar the amount to subtract from each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void minus(float[] xs, float[] ys, float[] zs, float[] ws, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= scalar;
+            ys[i] -= scalar;
+            zs[i] -= scalar;
+            ws[i] -= scalar;
+        }
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}, like {@link PointN#times(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param scalar the amount to multiply each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float[] ws, float scalar, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+            ws[i] *= scalar;
+        }
+    }
+
+    /**
+     * Normalizes every point so its length is as close to 1 as this can get, like {@link PointN#nor()}. Unlike
+     * {@code nor()}, points with length 0 are left unchanged instead of becoming NaN.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, float[] ws, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+            ws[i] *= inv;
+        }
+    }
+
+    /**
+     * Stores the squared length of every point, like {@link PointN#len2()}, in {@code out} at the same index.
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param out receives the squared lengths; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] ws, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i];
+        }
+    }
+
+    /**
+     * Gets the squared Euclidean distance from one query point to every point in the arrays, like
+     * {@link PointN#dst2(PointN)}, and stores it in {@code out} at the same index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param out receives the squared distances; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void dst2(float qx, float qy, float qz, float qw, float[] xs, float[] ys, float[] zs, float[] ws,
+            float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw;
+            out[i] = dx * dx + dy * dy + dz * dz + dw * dw;
+        }
+    }
+
+    /**
+     * Finds the index of the point nearest the query point by squared Euclidean distance; ties go to the lowest index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param from the first index to check, inclusive
+     * @param to the last index to check, exclusive
+     * @return the index of the closest point, or -1 if {@code from >= to}
+     */
+    public static int nearest(float qx, float qy, float qz, float qw, float[] xs, float[] ys, float[] zs, float[] ws,
+            int from, int to) {
+        int best = -1;
+        float bestDist = Float.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw;
+            float dist = dx * dx + dy * dy + dz * dz + dw * dw;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // 5D
+
+    /**
+     * Adds the given offset to every point, like {@link PointN#add(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param dx the amount to add on the x axis
+     * @param dy the amount to add on the y axis
+     * @param dz the amount to add on the z axis
+     * @param dw the amount to add on the w axis
+     * @param du the amount to add on the u axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float dx, float dy, float dz,
+            float dw, float du, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+            ws[i] += dw;
+            us[i] += du;
+        }
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group,
+     * like {@link PointN#add(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] oxs, float[] oys,
+            float[] ozs, float[] ows, float[] ous, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+            ws[i] += ows[i];
+            us[i] += ous[i];
+        }
+    }
+
+    /**
+     * Subtracts the given offset from every point, like {@link PointN#sub(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param dx the amount to subtract on the x axis
+     * @param dy the amount to subtract on the y axis
+     * @param dz the amount to subtract on the z axis
+     * @param dw the amount to subtract on the w axis
+     * @param du the amount to subtract on the u axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float dx, float dy, float dz,
+            float dw, float du, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= dx;
+            ys[i] -= dy;
+            zs[i] -= dz;
+            ws[i] -= dw;
+            us[i] -= du;
+        }
+    }
+
+    /**
+     * Subtracts each point in the second group of arrays from the point at the same index in the first group,
+     * like {@link PointN#sub(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] oxs, float[] oys,
+            float[] ozs, float[] ows, float[] ous, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= oxs[i];
+            ys[i] -= oys[i];
+            zs[i] -= ozs[i];
+            ws[i] -= ows[i];
+            us[i] -= ous[i];
+        }
+    }
+
+    /**
+     * Multiplies every point component-wise by the given scale, like {@link PointN#scl(PointN)} with the same point
+     * each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param sx the amount to multiply by on the x axis
+     * @param sy the amount to multiply by on the y axis
+     * @param sz the amount to multiply by on the z axis
+     * @param sw the amount to multiply by on the w axis
+     * @param su the amount to multiply by on the u axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float sx, float sy, float sz,
+            float sw, float su, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+            ws[i] *= sw;
+            us[i] *= su;
+        }
+    }
+
+    /**
+     * Multiplies each point in the first group of arrays component-wise by the point at the same index in the second
+     * group, like {@link PointN#scl(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] oxs, float[] oys,
+            float[] ozs, float[] ows, float[] ous, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= oxs[i];
+            ys[i] *= oys[i];
+            zs[i] *= ozs[i];
+            ws[i] *= ows[i];
+            us[i] *= ous[i];
+        }
+    }
+
+    /**
+     * Adds {@code scalar} to every component of every point, like {@link PointN#plus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param scalar the amount to add to each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void plus(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float scalar, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += scalar;
+            ys[i] += scalar;
+            zs[i] += scalar;
+            ws[i] += scalar;
+            us[i] += scalar;
+        }
+    }
+
+    /**
+     * Subtracts {@code scalar} from every component of every point, like {@link PointN#minus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param scalar the amount to subtract from each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void minus(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float scalar, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= scalar;
+            ys[i] -= scalar;
+            zs[i] -= scalar;
+            ws[i] -= scalar;
+            us[i] -= scalar;
+        }
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}, like {@link PointN#times(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param scalar the amount to multiply each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float scalar, int from,
+            int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+            ws[i] *= scalar;
+            us[i] *= scalar;
+        }
+    }
+
+    /**
+     * Normalizes every point so its length is as close to 1 as this can get, like {@link PointN#nor()}. Unlike
+     * {@code nor()}, points with length 0 are left unchanged instead of becoming NaN.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i] + us[i] * us[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+            ws[i] *= inv;
+            us[i] *= inv;
+        }
+    }
+
+    /**
+     * Stores the squared length of every point, like {@link PointN#len2()}, in {@code out} at the same index.
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param out receives the squared lengths; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i] + us[i] * us[i];
+        }
+    }
+
+    /**
+     * Gets the squared Euclidean distance from one query point to every point in the arrays, like
+     * {@link PointN#dst2(PointN)}, and stores it in {@code out} at the same index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param qu the u component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param out receives the squared distances; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void dst2(float qx, float qy, float qz, float qw, float qu, float[] xs, float[] ys, float[] zs,
+            float[] ws, float[] us, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw, du = us[i] - qu;
+            out[i] = dx * dx + dy * dy + dz * dz + dw * dw + du * du;
+        }
+    }
+
+    /**
+     * Finds the index of the point nearest the query point by squared Euclidean distance; ties go to the lowest index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param qu the u component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param from the first index to check, inclusive
+     * @param to the last index to check, exclusive
+     * @return the index of the closest point, or -1 if {@code from >= to}
+     */
+    public static int nearest(float qx, float qy, float qz, float qw, float qu, float[] xs, float[] ys, float[] zs,
+            float[] ws, float[] us, int from, int to) {
+        int best = -1;
+        float bestDist = Float.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw, du = us[i] - qu;
+            float dist = dx * dx + dy * dy + dz * dz + dw * dw + du * du;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // 6D
+
+    /**
+     * Adds the given offset to every point, like {@link PointN#add(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param dx the amount to add on the x axis
+     * @param dy the amount to add on the y axis
+     * @param dz the amount to add on the z axis
+     * @param dw the amount to add on the w axis
+     * @param du the amount to add on the u axis
+     * @param dv the amount to add on the v axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float dx, float dy,
+            float dz, float dw, float du, float dv, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+            ws[i] += dw;
+            us[i] += du;
+            vs[i] += dv;
+        }
+    }
+
+    /**
+     * Adds each point in the second group of arrays to the point at the same index in the first group,
+     * like {@link PointN#add(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param ovs the v components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float[] oxs,
+            float[] oys, float[] ozs, float[] ows, float[] ous, float[] ovs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+            ws[i] += ows[i];
+            us[i] += ous[i];
+            vs[i] += ovs[i];
+        }
+    }
+
+    /**
+     * Subtracts the given offset from every point, like {@link PointN#sub(PointN)} with the same point each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param dx the amount to subtract on the x axis
+     * @param dy the amount to subtract on the y axis
+     * @param dz the amount to subtract on the z axis
+     * @param dw the amount to subtract on the w axis
+     * @param du the amount to subtract on the u axis
+     * @param dv the amount to subtract on the v axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float dx, float dy,
+            float dz, float dw, float du, float dv, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= dx;
+            ys[i] -= dy;
+            zs[i] -= dz;
+            ws[i] -= dw;
+            us[i] -= du;
+            vs[i] -= dv;
+        }
+    }
+
+    /**
+     * Subtracts each point in the second group of arrays from the point at the same index in the first group,
+     * like {@link PointN#sub(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param ovs the v components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void sub(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float[] oxs,
+            float[] oys, float[] ozs, float[] ows, float[] ous, float[] ovs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= oxs[i];
+            ys[i] -= oys[i];
+            zs[i] -= ozs[i];
+            ws[i] -= ows[i];
+            us[i] -= ous[i];
+            vs[i] -= ovs[i];
+        }
+    }
+
+    /**
+     * Multiplies every point component-wise by the given scale, like {@link PointN#scl(PointN)} with the same point
+     * each time.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param sx the amount to multiply by on the x axis
+     * @param sy the amount to multiply by on the y axis
+     * @param sz the amount to multiply by on the z axis
+     * @param sw the amount to multiply by on the w axis
+     * @param su the amount to multiply by on the u axis
+     * @param sv the amount to multiply by on the v axis
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float sx, float sy,
+            float sz, float sw, float su, float sv, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+            ws[i] *= sw;
+            us[i] *= su;
+            vs[i] *= sv;
+        }
+    }
+
+    /**
+     * Multiplies each point in the first group of arrays component-wise by the point at the same index in the second
+     * group, like {@link PointN#scl(PointN)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param oxs the x components of the other points; will not be modified
+     * @param oys the y components of the other points; will not be modified
+     * @param ozs the z components of the other points; will not be modified
+     * @param ows the w components of the other points; will not be modified
+     * @param ous the u components of the other points; will not be modified
+     * @param ovs the v components of the other points; will not be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float[] oxs,
+            float[] oys, float[] ozs, float[] ows, float[] ous, float[] ovs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= oxs[i];
+            ys[i] *= oys[i];
+            zs[i] *= ozs[i];
+            ws[i] *= ows[i];
+            us[i] *= ous[i];
+            vs[i] *= ovs[i];
+        }
+    }
+
+    /**
+     * Adds {@code scalar} to every component of every point, like {@link PointN#plus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param scalar the amount to add to each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void plus(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float scalar,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] += scalar;
+            ys[i] += scalar;
+            zs[i] += scalar;
+            ws[i] += scalar;
+            us[i] += scalar;
+            vs[i] += scalar;
+        }
+    }
+
+    /**
+     * Subtracts {@code scalar} from every component of every point, like {@link PointN#minus(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param scalar the amount to subtract from each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void minus(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float scalar,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] -= scalar;
+            ys[i] -= scalar;
+            zs[i] -= scalar;
+            ws[i] -= scalar;
+            us[i] -= scalar;
+            vs[i] -= scalar;
+        }
+    }
+
+    /**
+     * Multiplies every component of every point by {@code scalar}, like {@link PointN#times(float)}.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param scalar the amount to multiply each component
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void times(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float scalar,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+            ws[i] *= scalar;
+            us[i] *= scalar;
+            vs[i] *= scalar;
+        }
+    }
+
+    /**
+     * Normalizes every point so its length is as close to 1 as this can get, like {@link PointN#nor()}. Unlike
+     * {@code nor()}, points with length 0 are left unchanged instead of becoming NaN.
+     * @param xs the x components; will be modified
+     * @param ys the y components; will be modified
+     * @param zs the z components; will be modified
+     * @param ws the w components; will be modified
+     * @param us the u components; will be modified
+     * @param vs the v components; will be modified
+     * @param from the first index to modify, inclusive
+     * @param to the last index to modify, exclusive
+     */
+    public static void nor(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i] + us[i] * us[i] + vs[i] * vs[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+            ws[i] *= inv;
+            us[i] *= inv;
+            vs[i] *= inv;
+        }
+    }
+
+    /**
+     * Stores the squared length of every point, like {@link PointN#len2()}, in {@code out} at the same index.
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param vs the v components; will not be modified
+     * @param out receives the squared lengths; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void len2(float[] xs, float[] ys, float[] zs, float[] ws, float[] us, float[] vs, float[] out,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i] + us[i] * us[i] + vs[i] * vs[i];
+        }
+    }
+
+    /**
+     * Gets the squared Euclidean distance from one query point to every point in the arrays, like
+     * {@link PointN#dst2(PointN)}, and stores it in {@code out} at the same index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param qu the u component of the query point
+     * @param qv the v component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param vs the v components; will not be modified
+     * @param out receives the squared distances; will be modified
+     * @param from the first index to read and write, inclusive
+     * @param to the last index to read and write, exclusive
+     */
+    public static void dst2(float qx, float qy, float qz, float qw, float qu, float qv, float[] xs, float[] ys,
+            float[] zs, float[] ws, float[] us, float[] vs, float[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw, du = us[i] - qu, dv = vs[i] - qv;
+            out[i] = dx * dx + dy * dy + dz * dz + dw * dw + du * du + dv * dv;
+        }
+    }
+
+    /**
+     * Finds the index of the point nearest the query point by squared Euclidean distance; ties go to the lowest index.
+     * @param qx the x component of the query point
+     * @param qy the y component of the query point
+     * @param qz the z component of the query point
+     * @param qw the w component of the query point
+     * @param qu the u component of the query point
+     * @param qv the v component of the query point
+     * @param xs the x components; will not be modified
+     * @param ys the y components; will not be modified
+     * @param zs the z components; will not be modified
+     * @param ws the w components; will not be modified
+     * @param us the u components; will not be modified
+     * @param vs the v components; will not be modified
+     * @param from the first index to check, inclusive
+     * @param to the last index to check, exclusive
+     * @return the index of the closest point, or -1 if {@code from >= to}
+     */
+    public static int nearest(float qx, float qy, float qz, float qw, float qu, float qv, float[] xs, float[] ys,
+            float[] zs, float[] ws, float[] us, float[] vs, int from, int to) {
+        int best = -1;
+        float bestDist = Float.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw, du = us[i] - qu, dv = vs[i] - qv;
+            float dist = dx * dx + dy * dy + dz * dz + dw * dw + du * du + dv * dv;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
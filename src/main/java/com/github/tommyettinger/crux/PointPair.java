@@ -70,11 +70,12 @@ public class PointPair<P extends PointN<P>> {
 		return b.equals(pointPair.b);
 	}
 
+	/** Hashes both points by their components with {@link PointHasher#hash(PointPair)}, so the result doesn't depend
+	 * on how well the point type implements {@code hashCode()}.
+	 * @return a well-mixed hash of both points' components */
 	@Override
 	public int hashCode() {
-		int result = a.hashCode();
-		result = 31 * result + b.hashCode();
-		return result;
+		return PointHasher.hash(this);
 	}
 
 	@Override
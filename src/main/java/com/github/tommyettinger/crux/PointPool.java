@@ -0,0 +1,211 @@
+package com.github.tommyettinger.crux;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable mutable points, meant for temporary points that would otherwise be created with
+ * {@link PointN#cpy()} and thrown away. Each thread gets its own free list, so obtaining and freeing never
+ * synchronizes, and each free list holds at most {@link #capacity()} points; points freed past that are left for the
+ * garbage collector. Points from a pool have unspecified contents when obtained, so set them before reading them.
+ * <br>
+ * There are two ways to use a pool. You can call {@link #obtain()} and later {@link #free(PointN)} on the same
+ * thread, or you can borrow points inside a {@link Scope}, which frees everything borrowed through it when it closes:
+ * <pre>{@code
+ * try (PointPool.Scope<Vector2> scope = pool.scope()) {
+ *     Vector2 direction = scope.obtain().set(ray.b).sub(ray.a);
+ *     // ... use direction; it is returned to the pool when the try block ends
+ * }
+ * }</pre>
+ * Scopes can be nested, and obtaining a Scope doesn't allocate, because each thread reuses one Scope object.
+ * <br>
+ * Only mutable point types can be pooled, since immutable types can't be reused for different values; the
+ * constructor checks {@link PointN#mutable()} on a point from the factory and throws if it is false.
+ * <br>
+ * The {@link #hits()} and {@link #misses()} counters are shared by all threads, and can be used to check that code is
+ * allocation-free once it warms up (misses should stop growing).
+ *
+ * @param <P> the type of point this pools; must be mutable
+ */
+public class PointPool<P extends PointN<P>> {
+    protected final Supplier<P> factory;
+    protected final int capacity;
+    protected final LongAdder hits = new LongAdder();
+    protected final LongAdder misses = new LongAdder();
+    protected final ThreadLocal<Scope<P>> locals;
+
+    /**
+     * Creates a PointPool that holds at most 64 free points per thread.
+     * @param factory creates new points when a thread's free list is empty; must create mutable points
+     */
+    public PointPool(Supplier<P> factory) {
+        this(factory, 64);
+    }
+
+    /**
+     * Creates a PointPool that holds at most {@code capacity} free points per thread.
+     * @param factory creates new points when a thread's free list is empty; must create mutable points
+     * @param capacity the most free points each thread will keep; must be at least 1
+     * @throws IllegalArgumentException if capacity is less than 1, or the factory creates immutable points
+     */
+    public PointPool(Supplier<P> factory, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        if (!factory.get().mutable()) throw new IllegalArgumentException("Only mutable point types can be pooled.");
+        this.factory = factory;
+        this.capacity = capacity;
+        this.locals = ThreadLocal.withInitial(() -> new Scope<>(this));
+    }
+
+    /**
+     * Gets the most free points each thread will keep.
+     * @return the per-thread capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets a point from the current thread's free list, or creates a new one if the free list is empty.
+     * The point's contents are unspecified. Call {@link #free(PointN)} on the same thread when done with it.
+     * @return a mutable point with unspecified contents
+     */
+    public P obtain() {
+        return locals.get().take();
+    }
+
+    /**
+     * Returns {@code point} to the current thread's free list, unless that list is full. The point must not be used
+     * after this, because the next {@link #obtain()} may return it.
+     * @param point a point that is no longer needed; if null, this does nothing
+     */
+    public void free(P point) {
+        if (point != null) locals.get().give(point);
+    }
+
+    /**
+     * Gets the current thread's {@link Scope}, after starting a new nested scope in it. Close the returned Scope
+     * (usually with try-with-resources) to free every point obtained through it since this call.
+     * @return the current thread's Scope, which must be closed on this thread
+     */
+    public Scope<P> scope() {
+        return locals.get().open();
+    }
+
+    /**
+     * Gets how many points are in the current thread's free list.
+     * @return how many points the current thread could obtain without creating any
+     */
+    public int available() {
+        return locals.get().freeSize;
+    }
+
+    /**
+     * Gets how many times, across all threads, {@link #obtain()} or {@link Scope#obtain()} returned a pooled point.
+     * @return the total number of obtains that didn't allocate
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets how many times, across all threads, {@link #obtain()} or {@link Scope#obtain()} had to create a point.
+     * @return the total number of obtains that allocated
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Sets the {@link #hits()} and {@link #misses()} counters back to 0.
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * One thread's free list and scope stack for a {@link PointPool}. Each thread has exactly one of these per pool,
+     * returned by {@link PointPool#scope()}; it should only be used on that thread.
+     * @param <P> the type of point in the pool
+     */
+    public static final class Scope<P extends PointN<P>> implements AutoCloseable {
+        private final PointPool<P> pool;
+        private Object[] free;
+        private int freeSize;
+        private Object[] borrowed = new Object[16];
+        private int borrowedSize;
+        private int[] marks = new int[8];
+        private int markSize;
+
+        private Scope(PointPool<P> pool) {
+            this.pool = pool;
+            this.free = new Object[Math.min(pool.capacity, 16)];
+        }
+
+        @SuppressWarnings("unchecked")
+        private P take() {
+            if (freeSize > 0) {
+                pool.hits.increment();
+                P p = (P) free[--freeSize];
+                free[freeSize] = null;
+                return p;
+            }
+            pool.misses.increment();
+            return pool.factory.get();
+        }
+
+        private void give(P point) {
+            if (freeSize < pool.capacity) {
+                if (freeSize == free.length) {
+                    Object[] next = new Object[Math.min(pool.capacity, freeSize << 1)];
+                    System.arraycopy(free, 0, next, 0, freeSize);
+                    free = next;
+                }
+                free[freeSize++] = point;
+            }
+        }
+
+        private Scope<P> open() {
+            if (markSize == marks.length) {
+                int[] next = new int[markSize << 1];
+                System.arraycopy(marks, 0, next, 0, markSize);
+                marks = next;
+            }
+            marks[markSize++] = borrowedSize;
+            return this;
+        }
+
+        /**
+         * Gets a point from the pool that will be freed automatically when the innermost open scope is closed.
+         * The point's contents are unspecified.
+         * @return a mutable point with unspecified contents
+         * @throws IllegalStateException if no scope is open
+         */
+        public P obtain() {
+            if (markSize == 0) throw new IllegalStateException("No scope is open; use PointPool.scope() first.");
+            P p = take();
+            if (borrowedSize == borrowed.length) {
+                Object[] next = new Object[borrowedSize << 1];
+                System.arraycopy(borrowed, 0, next, 0, borrowedSize);
+                borrowed = next;
+            }
+            borrowed[borrowedSize++] = p;
+            return p;
+        }
+
+        /**
+         * Frees every point obtained through this since the innermost open scope started, and ends that scope.
+         * @throws IllegalStateException if no scope is open
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void close() {
+            if (markSize == 0) throw new IllegalStateException("No scope is open to close.");
+            int mark = marks[--markSize];
+            while (borrowedSize > mark) {
+                give((P) borrowed[--borrowedSize]);
+                borrowed[borrowedSize] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.github.tommyettinger.crux;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a sequence of points written by {@link PointWriter}, from an {@link InputStream} or a {@link ByteBuffer}.
+ * Points are decoded one chunk at a time, straight into mutable points given by the caller or into packed primitive
+ * arrays, so reading a sequence of any length doesn't need to hold it all in memory or allocate per point.
+ * <br>
+ * The header is read when this is created, so {@link #rank()} and {@link #floatingPoint()} can be checked before
+ * reading any points. A typical loop is {@code while (reader.hasNext()) point = reader.read(point);}.
+ */
+public class PointReader implements Closeable {
+    protected final InputStream stream;
+    protected final ByteBuffer buffer;
+    /**
+     * Holds bytes read ahead from {@link #stream}, so the stream isn't asked for one byte at a time.
+     */
+    protected final byte[] bytes;
+    protected int position, limit;
+
+    protected final int rank;
+    protected final boolean floatingPoint;
+    /**
+     * Quantized float components are divided by this after reading, or this is 0 if floats are stored raw.
+     */
+    protected final float scale;
+    /**
+     * How many points are left in the current chunk.
+     */
+    protected int remaining;
+    /**
+     * The components of the previous point in this chunk, for delta decoding.
+     */
+    protected final int[] previous;
+    protected final float[] floatScratch;
+    protected final int[] intScratch;
+    protected boolean ended;
+
+    /**
+     * Creates a PointReader that reads from {@code in}, and reads the header immediately.
+     * @param in where to read from; this buffers reads itself, so in doesn't need to be buffered
+     * @throws IOException if the header can't be read or isn't valid
+     */
+    public PointReader(InputStream in) throws IOException {
+        this(in, null);
+    }
+
+    /**
+     * Creates a PointReader that reads from {@code in}, starting at its position, and reads the header immediately.
+     * @param in where to read from
+     * @throws IOException if the header isn't valid or {@code in} doesn't have enough bytes for it
+     */
+    public PointReader(ByteBuffer in) throws IOException {
+        this(null, in);
+    }
+
+    private PointReader(InputStream stream, ByteBuffer buffer) throws IOException {
+        this.stream = stream;
+        this.buffer = buffer;
+        bytes = stream == null ? null : new byte[8192];
+        for (int i = 0; i < 4; i++) {
+            if (readByte() != PointWriter.MAGIC[i]) throw new IOException("Not a point sequence");
+        }
+        final int version = readByte();
+        if (version != PointWriter.VERSION) throw new IOException("Unsupported point sequence version: " + version);
+        rank = readByte();
+        if (rank == 0) throw new IOException("Point sequence has rank 0");
+        final int flags = readByte();
+        floatingPoint = (flags & PointWriter.FLAG_FLOAT) != 0;
+        if ((flags & PointWriter.FLAG_QUANTIZED) != 0) {
+            scale = Float.intBitsToFloat(readRawInt());
+            if (!(scale > 0f) || scale == Float.POSITIVE_INFINITY)
+                throw new IOException("Invalid quantization scale: " + scale);
+        } else {
+            scale = 0f;
+        }
+        previous = new int[rank];
+        floatScratch = new float[rank];
+        intScratch = new int[rank];
+    }
+
+    /**
+     * @return how many components each point has
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * @return true if the sequence stores float components (raw or quantized), or false if it stores int components
+     */
+    public boolean floatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * @return how much float components were multiplied by before rounding, or 0 if they are stored raw
+     */
+    public float scale() {
+        return scale;
+    }
+
+    /**
+     * Checks if there is another point to read, reading the next chunk's header if the current chunk is used up.
+     * @return true if {@link #read(PointN)} can read another point
+     * @throws IOException if the input ends before the end of the sequence, or is malformed
+     */
+    public boolean hasNext() throws IOException {
+        if (remaining > 0) return true;
+        if (ended) return false;
+        remaining = readVarint();
+        if (remaining < 0) throw new IOException("Invalid chunk size: " + remaining);
+        Arrays.fill(previous, 0);
+        if (remaining == 0) ended = true;
+        return remaining > 0;
+    }
+
+    /**
+     * Reads the next point into {@code into}, using {@link PointN#fromArray(float[], int)} if the sequence stores
+     * floats or {@link PointN#fromArray(int[], int)} if it stores ints. The point should have the same rank as the
+     * sequence.
+     * @param into the point to read into; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IOException if the input ends before the end of the sequence, or is malformed
+     * @throws NoSuchElementException if there are no more points in the sequence
+     */
+    public <P extends PointN<P>> P read(P into) throws IOException {
+        if (!hasNext()) throw new NoSuchElementException("No more points in this sequence");
+        remaining--;
+        if (!floatingPoint) {
+            for (int i = 0; i < rank; i++) intScratch[i] = readInt(i);
+            return into.fromArray(intScratch, 0);
+        }
+        if (scale == 0f) {
+            for (int i = 0; i < rank; i++) floatScratch[i] = Float.intBitsToFloat(readRawInt());
+        } else {
+            for (int i = 0; i < rank; i++) floatScratch[i] = readInt(i) / scale;
+        }
+        return into.fromArray(floatScratch, 0);
+    }
+
+    /**
+     * Reads up to {@code maxPoints} points into {@code packed}, {@link #rank()} components per point, starting at
+     * array index {@code offset}. Int components are converted to float.
+     * @param packed receives the components of each point, one point after another; will be modified
+     * @param offset the first array index to write to
+     * @param maxPoints the most points to read
+     * @return how many points were read, which is less than maxPoints only if the sequence ended
+     * @throws IOException if the input ends before the end of the sequence, or is malformed
+     */
+    public int read(float[] packed, int offset, int maxPoints) throws IOException {
+        int n = 0;
+        for (; n < maxPoints && hasNext(); n++, remaining--) {
+            if (!floatingPoint) {
+                for (int i = 0; i < rank; i++) packed[offset++] = readInt(i);
+            } else if (scale == 0f) {
+                for (int i = 0; i < rank; i++) packed[offset++] = Float.intBitsToFloat(readRawInt());
+            } else {
+                for (int i = 0; i < rank; i++) packed[offset++] = readInt(i) / scale;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Reads up to {@code maxPoints} points into {@code packed}, {@link #rank()} components per point, starting at
+     * array index {@code offset}. Float components are cast to int.
+     * @param packed receives the components of each point, one point after another; will be modified
+     * @param offset the first array index to write to
+     * @param maxPoints the most points to read
+     * @return how many points were read, which is less than maxPoints only if the sequence ended
+     * @throws IOException if the input ends before the end of the sequence, or is malformed
+     */
+    public int read(int[] packed, int offset, int maxPoints) throws IOException {
+        int n = 0;
+        for (; n < maxPoints && hasNext(); n++, remaining--) {
+            if (!floatingPoint) {
+                for (int i = 0; i < rank; i++) packed[offset++] = readInt(i);
+            } else if (scale == 0f) {
+                for (int i = 0; i < rank; i++) packed[offset++] = (int) Float.intBitsToFloat(readRawInt());
+            } else {
+                for (int i = 0; i < rank; i++) packed[offset++] = (int) (readInt(i) / scale);
+            }
+        }
+        return n;
+    }
+
+    private int readInt(int axis) throws IOException {
+        final int z = readVarint();
+        return previous[axis] += z >>> 1 ^ -(z & 1);
+    }
+
+    private int readVarint() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b < 0x80) return result;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private int readRawInt() throws IOException {
+        return readByte() | readByte() << 8 | readByte() << 16 | readByte() << 24;
+    }
+
+    /**
+     * Reads one byte as an unsigned value from 0 to 255.
+     */
+    private int readByte() throws IOException {
+        if (stream == null) {
+            if (!buffer.hasRemaining()) throw new EOFException("Point sequence ended early");
+            return buffer.get() & 0xFF;
+        }
+        if (position == limit) {
+            limit = stream.read(bytes, 0, bytes.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException("Point sequence ended early");
+            }
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Closes the InputStream if this reads from one. Because this reads ahead, an InputStream should not be read from
+     * by anything else after this starts reading it.
+     * @throws IOException if the stream can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (stream != null) stream.close();
+    }
+}
@@ -0,0 +1,562 @@
+package com.github.tommyettinger.crux;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
+/**
+ * Static reductions over large groups of points: the centroid (average position), the axis-aligned bounds, and the
+ * point farthest from a query point. These work on any rank of {@link PointN}, reading components with
+ * {@link PointN#toArray(float[], int)} and writing results with {@link PointN#fromArray(float[], int)}, so the same
+ * code serves ranks 2 through 6. Points can come from an array, a {@link List}, any {@link Iterable}, or a packed
+ * primitive array that holds {@code rank} components per point, one point after another.
+ * <br>
+ * Groups with at least {@link #PARALLEL_THRESHOLD} points are reduced in parallel on the common fork/join pool.
+ * Indexed sources (arrays, packed arrays, and random-access Lists) are split into balanced chunks of at least
+ * {@link #MIN_CHUNK} points; other Iterables are split however their {@link Spliterator} splits. Each chunk
+ * accumulates into a few primitive arrays owned by that chunk, so nothing is allocated per point, and the chunks are
+ * combined as they finish. Sums are accumulated in doubles, so centroids of millions of float points stay accurate.
+ * <br>
+ * Results are written into points supplied by the caller. If those points are immutable, the returned point is a new
+ * point holding the result, so always use the returned value.
+ * <br>
+ * Points must not be modified by other threads while a reduction reads them.
+ */
+public final class PointReductions {
+    private PointReductions() {
+    }
+
+    /**
+     * Groups with fewer points than this are reduced on the calling thread only.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * The smallest number of points a parallel reduction will give to one task.
+     */
+    public static final int MIN_CHUNK = 1 << 11;
+
+    // Centroid
+
+    /**
+     * Gets the average position of the points in {@code points} from index {@code from} (inclusive) to {@code to}
+     * (exclusive), and writes it into {@code into}.
+     * @param points the points to average; will not be modified
+     * @param from the first index to read, inclusive
+     * @param to the last index to read, exclusive
+     * @param into receives the centroid; must have the same rank as the points; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> P centroid(P[] points, int from, int to, P into) {
+        return centroid(reduce(new ArraySource(points), from, to, centroids(into.rank())), into);
+    }
+
+    /**
+     * Gets the average position of every point in {@code points}, and writes it into {@code into}.
+     * @param points the points to average; will not be modified
+     * @param into receives the centroid; must have the same rank as the points; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code points} is empty
+     */
+    public static <P extends PointN<P>> P centroid(Iterable<? extends P> points, P into) {
+        return centroid(reduce(points, centroids(into.rank())), into);
+    }
+
+    /**
+     * Gets the average position of the points packed into {@code packed}, which holds {@code into.rank()} components
+     * per point, and writes it into {@code into}. Points are counted by point, not by array element, so the point at
+     * index {@code i} starts at array index {@code i * into.rank()}.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param into receives the centroid; its rank determines how many components each point has; will be modified
+     *             if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> P centroid(float[] packed, int from, int to, P into) {
+        return centroid(reduce(new FloatSource(packed, into.rank()), from, to, centroids(into.rank())), into);
+    }
+
+    /**
+     * Gets the average position of the points packed into {@code packed}, which holds {@code into.rank()} int
+     * components per point, and writes it into {@code into}. This is otherwise the same as
+     * {@link #centroid(float[], int, int, PointN)}.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param into receives the centroid; its rank determines how many components each point has; will be modified
+     *             if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> P centroid(int[] packed, int from, int to, P into) {
+        return centroid(reduce(new IntSource(packed, into.rank()), from, to, centroids(into.rank())), into);
+    }
+
+    private static <P extends PointN<P>> P centroid(Centroid c, P into) {
+        if (c.count == 0) throw new IllegalArgumentException("Cannot get the centroid of no points");
+        final float[] result = c.scratch;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (float) (c.sum[i] / c.count);
+        }
+        return into.fromArray(result, 0);
+    }
+
+    // Bounds
+
+    /**
+     * Gets the smallest axis-aligned box that contains the points in {@code points} from index {@code from}
+     * (inclusive) to {@code to} (exclusive). The lowest value on each axis is written into {@code into.a} and the
+     * highest into {@code into.b}.
+     * @param points the points to check; will not be modified
+     * @param from the first index to read, inclusive
+     * @param to the last index to read, exclusive
+     * @param into receives the minimum corner in {@code a} and the maximum corner in {@code b}
+     * @return {@code into}, after assigning its {@code a} and {@code b}
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> PointPair<P> bounds(P[] points, int from, int to, PointPair<P> into) {
+        return bounds(reduce(new ArraySource(points), from, to, bounds(into.a.rank())), into);
+    }
+
+    /**
+     * Gets the smallest axis-aligned box that contains every point in {@code points}. The lowest value on each axis
+     * is written into {@code into.a} and the highest into {@code into.b}.
+     * @param points the points to check; will not be modified
+     * @param into receives the minimum corner in {@code a} and the maximum corner in {@code b}
+     * @return {@code into}, after assigning its {@code a} and {@code b}
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code points} is empty
+     */
+    public static <P extends PointN<P>> PointPair<P> bounds(Iterable<? extends P> points, PointPair<P> into) {
+        return bounds(reduce(points, bounds(into.a.rank())), into);
+    }
+
+    /**
+     * Gets the smallest axis-aligned box that contains the points packed into {@code packed}, which holds
+     * {@code into.a.rank()} components per point. The lowest value on each axis is written into {@code into.a} and
+     * the highest into {@code into.b}.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param into receives the minimum corner in {@code a} and the maximum corner in {@code b}
+     * @return {@code into}, after assigning its {@code a} and {@code b}
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> PointPair<P> bounds(float[] packed, int from, int to, PointPair<P> into) {
+        return bounds(reduce(new FloatSource(packed, into.a.rank()), from, to, bounds(into.a.rank())), into);
+    }
+
+    /**
+     * Gets the smallest axis-aligned box that contains the points packed into {@code packed}, which holds
+     * {@code into.a.rank()} int components per point. This is otherwise the same as
+     * {@link #bounds(float[], int, int, PointPair)}.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param into receives the minimum corner in {@code a} and the maximum corner in {@code b}
+     * @return {@code into}, after assigning its {@code a} and {@code b}
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code from >= to}
+     */
+    public static <P extends PointN<P>> PointPair<P> bounds(int[] packed, int from, int to, PointPair<P> into) {
+        return bounds(reduce(new IntSource(packed, into.a.rank()), from, to, bounds(into.a.rank())), into);
+    }
+
+    private static <P extends PointN<P>> PointPair<P> bounds(Bounds b, PointPair<P> into) {
+        if (b.count == 0) throw new IllegalArgumentException("Cannot get the bounds of no points");
+        into.a = into.a.fromArray(b.min, 0);
+        into.b = into.b.fromArray(b.max, 0);
+        return into;
+    }
+
+    // Farthest
+
+    /**
+     * Finds the point in {@code points}, from index {@code from} (inclusive) to {@code to} (exclusive), that is
+     * farthest from {@code query} by Euclidean distance. Ties go to the lowest index.
+     * @param points the points to check; will not be modified
+     * @param from the first index to read, inclusive
+     * @param to the last index to read, exclusive
+     * @param query the point to measure distance from; must have the same rank as the points; will not be modified
+     * @return the index of the farthest point, or -1 if {@code from >= to}
+     * @param <P> any PointN type
+     */
+    public static <P extends PointN<P>> int farthest(P[] points, int from, int to, P query) {
+        return reduce(new ArraySource(points), from, to, farthest(query)).index;
+    }
+
+    /**
+     * Finds the point in {@code points} that is farthest from {@code query} by Euclidean distance, and writes its
+     * position into {@code into}. If there is a tie, the point that comes first is used.
+     * @param points the points to check; will not be modified
+     * @param query the point to measure distance from; must have the same rank as the points; will not be modified
+     * @param into receives the position of the farthest point; will be modified if mutable
+     * @return {@code into} after editing, or a new point if {@code into} is immutable
+     * @param <P> any PointN type
+     * @throws IllegalArgumentException if {@code points} is empty
+     */
+    public static <P extends PointN<P>> P farthest(Iterable<? extends P> points, P query, P into) {
+        Farthest f = reduce(points, farthest(query));
+        if (f.distance < 0.0) throw new IllegalArgumentException("Cannot get the farthest of no points");
+        return into.fromArray(f.best, 0);
+    }
+
+    /**
+     * Finds the point packed into {@code packed}, which holds {@code query.rank()} components per point, that is
+     * farthest from {@code query} by Euclidean distance. Ties go to the lowest index.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param query the point to measure distance from; its rank determines how many components each point has
+     * @return the index of the farthest point (counted by point, not by array element), or -1 if {@code from >= to}
+     * @param <P> any PointN type
+     */
+    public static <P extends PointN<P>> int farthest(float[] packed, int from, int to, P query) {
+        return reduce(new FloatSource(packed, query.rank()), from, to, farthest(query)).index;
+    }
+
+    /**
+     * Finds the point packed into {@code packed}, which holds {@code query.rank()} int components per point, that is
+     * farthest from {@code query} by Euclidean distance. This is otherwise the same as
+     * {@link #farthest(float[], int, int, PointN)}.
+     * @param packed the components of each point, one point after another; will not be modified
+     * @param from the first point to read, inclusive
+     * @param to the last point to read, exclusive
+     * @param query the point to measure distance from; its rank determines how many components each point has
+     * @return the index of the farthest point (counted by point, not by array element), or -1 if {@code from >= to}
+     * @param <P> any PointN type
+     */
+    public static <P extends PointN<P>> int farthest(int[] packed, int from, int to, P query) {
+        return reduce(new IntSource(packed, query.rank()), from, to, farthest(query)).index;
+    }
+
+    // Reduction machinery
+
+    /**
+     * Reads one point's components, by index, into a caller-owned array.
+     */
+    private interface Source {
+        void read(int index, float[] into);
+    }
+
+    private static final class ArraySource implements Source {
+        private final PointN<?>[] points;
+
+        ArraySource(PointN<?>[] points) {
+            this.points = points;
+        }
+
+        @Override
+        public void read(int index, float[] into) {
+            points[index].toArray(into, 0);
+        }
+    }
+
+    private static final class ListSource implements Source {
+        private final List<? extends PointN<?>> points;
+
+        ListSource(List<? extends PointN<?>> points) {
+            this.points = points;
+        }
+
+        @Override
+        public void read(int index, float[] into) {
+            points.get(index).toArray(into, 0);
+        }
+    }
+
+    private static final class FloatSource implements Source {
+        private final float[] packed;
+        private final int rank;
+
+        FloatSource(float[] packed, int rank) {
+            this.packed = packed;
+            this.rank = rank;
+        }
+
+        @Override
+        public void read(int index, float[] into) {
+            System.arraycopy(packed, index * rank, into, 0, rank);
+        }
+    }
+
+    private static final class IntSource implements Source {
+        private final int[] packed;
+        private final int rank;
+
+        IntSource(int[] packed, int rank) {
+            this.packed = packed;
+            this.rank = rank;
+        }
+
+        @Override
+        public void read(int index, float[] into) {
+            for (int i = 0, p = index * rank; i < rank; i++) {
+                into[i] = packed[p + i];
+            }
+        }
+    }
+
+    /**
+     * The per-task state of a reduction. Each task gets its own, so no synchronization is needed until two tasks'
+     * states are combined, which fork/join does after both finish.
+     */
+    private abstract static class Reducer<R extends Reducer<R>> {
+        /**
+         * Holds the components of the point being accumulated.
+         */
+        final float[] scratch;
+
+        Reducer(int rank) {
+            scratch = new float[rank];
+        }
+
+        /**
+         * Accumulates the point currently in {@link #scratch}, which came from the given index (or -1 if unknown).
+         */
+        abstract void accept(int index);
+
+        /**
+         * Merges the state of {@code later}, which covers points after the ones this covers, into this.
+         */
+        abstract void combine(R later);
+
+        /**
+         * The name {@link Instrumentation} records this reduction under.
+         */
+        abstract String name();
+    }
+
+    private static final class Centroid extends Reducer<Centroid> {
+        final double[] sum;
+        long count;
+
+        Centroid(int rank) {
+            super(rank);
+            sum = new double[rank];
+        }
+
+        @Override
+        void accept(int index) {
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += scratch[i];
+            }
+            count++;
+        }
+
+        @Override
+        void combine(Centroid later) {
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += later.sum[i];
+            }
+            count += later.count;
+        }
+
+        @Override
+        String name() {
+            return "PointReductions.centroid";
+        }
+    }
+
+    private static Supplier<Centroid> centroids(final int rank) {
+        return () -> new Centroid(rank);
+    }
+
+    private static final class Bounds extends Reducer<Bounds> {
+        final float[] min, max;
+        long count;
+
+        Bounds(int rank) {
+            super(rank);
+            min = new float[rank];
+            max = new float[rank];
+            for (int i = 0; i < rank; i++) {
+                min[i] = Float.POSITIVE_INFINITY;
+                max[i] = Float.NEGATIVE_INFINITY;
+            }
+        }
+
+        @Override
+        void accept(int index) {
+            for (int i = 0; i < min.length; i++) {
+                final float c = scratch[i];
+                if (c < min[i]) min[i] = c;
+                if (c > max[i]) max[i] = c;
+            }
+            count++;
+        }
+
+        @Override
+        void combine(Bounds later) {
+            for (int i = 0; i < min.length; i++) {
+                min[i] = Math.min(min[i], later.min[i]);
+                max[i] = Math.max(max[i], later.max[i]);
+            }
+            count += later.count;
+        }
+
+        @Override
+        String name() {
+            return "PointReductions.bounds";
+        }
+    }
+
+    private static Supplier<Bounds> bounds(final int rank) {
+        return () -> new Bounds(rank);
+    }
+
+    private static final class Farthest extends Reducer<Farthest> {
+        final float[] query, best;
+        /**
+         * The squared distance to {@link #best}, or -1 if no points have been seen.
+         */
+        double distance = -1.0;
+        int index = -1;
+
+        Farthest(float[] query) {
+            super(query.length);
+            this.query = query;
+            best = new float[query.length];
+        }
+
+        @Override
+        void accept(int index) {
+            double d = 0.0;
+            for (int i = 0; i < query.length; i++) {
+                final double diff = scratch[i] - query[i];
+                d += diff * diff;
+            }
+            if (d > distance) {
+                distance = d;
+                this.index = index;
+                System.arraycopy(scratch, 0, best, 0, best.length);
+            }
+        }
+
+        @Override
+        void combine(Farthest later) {
+            if (later.distance > distance) {
+                distance = later.distance;
+                index = later.index;
+                System.arraycopy(later.best, 0, best, 0, best.length);
+            }
+        }
+
+        @Override
+        String name() {
+            return "PointReductions.farthest";
+        }
+    }
+
+    private static Supplier<Farthest> farthest(PointN<?> query) {
+        final float[] q = query.toArray(new float[query.rank()], 0);
+        return () -> new Farthest(q);
+    }
+
+    private static <R extends Reducer<R>> R reduce(final Source source, int from, int to, Supplier<R> supplier) {
+        final long start = Instrumentation.begin();
+        final R result;
+        if (to - from < PARALLEL_THRESHOLD) {
+            result = supplier.get();
+            for (int i = from; i < to; i++) {
+                source.read(i, result.scratch);
+                result.accept(i);
+            }
+        } else {
+            final ObjIntConsumer<R> accumulator = (r, i) -> {
+                source.read(i, r.scratch);
+                r.accept(i);
+            };
+            final BiConsumer<R, R> combiner = Reducer::combine;
+            result = StreamSupport.intStream(new IndexSpliterator(from, to), true)
+                    .collect(supplier, accumulator, combiner);
+        }
+        if (Instrumentation.ENABLED)
+            Instrumentation.end(Instrumentation.Bulk.REDUCTION, result.name(), start, Math.max(to - from, 0));
+        return result;
+    }
+
+    private static <P extends PointN<P>, R extends Reducer<R>> R reduce(Iterable<? extends P> points,
+                                                                         Supplier<R> supplier) {
+        if (points instanceof List && points instanceof RandomAccess) {
+            List<? extends P> list = (List<? extends P>) points;
+            return reduce(new ListSource(list), 0, list.size(), supplier);
+        }
+        final long start = Instrumentation.begin();
+        final Spliterator<? extends P> spliterator = points.spliterator();
+        final long size = spliterator.getExactSizeIfKnown();
+        final BiConsumer<R, P> accumulator = (r, p) -> {
+            p.toArray(r.scratch, 0);
+            r.accept(-1);
+        };
+        final BiConsumer<R, R> combiner = Reducer::combine;
+        final R result = StreamSupport.stream(spliterator, spliterator.estimateSize() >= PARALLEL_THRESHOLD)
+                .collect(supplier, accumulator, combiner);
+        if (Instrumentation.ENABLED)
+            Instrumentation.end(Instrumentation.Bulk.REDUCTION, result.name(), start, size);
+        return result;
+    }
+
+    /**
+     * Covers a range of indices, and splits it exactly in half until pieces would be smaller than {@link #MIN_CHUNK}.
+     * Because every piece knows its exact size, fork/join can balance the work evenly across threads.
+     */
+    private static final class IndexSpliterator implements Spliterator.OfInt {
+        private int index;
+        private final int fence;
+
+        IndexSpliterator(int from, int to) {
+            index = from;
+            fence = to;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            final int lo = index, mid = lo + (fence - lo >>> 1);
+            if (mid - lo < MIN_CHUNK) return null;
+            index = mid;
+            return new IndexSpliterator(lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) return false;
+            action.accept(index++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            final int hi = fence;
+            int i = index;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(i);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+        }
+    }
+}
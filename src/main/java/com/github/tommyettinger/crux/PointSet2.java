@@ -0,0 +1,311 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of int Point2 positions, which stores each position as 2 primitive ints instead of as a point object.
+ * Lookups accept any {@link Point2} (using {@link Point2#xi()}, {@link Point2#yi()}), so a mutable point or a
+ * {@link PointBuffer2.Cursor} can be used as a query key without allocating, and the key type doesn't need a good
+ * {@link Object#hashCode()}.
+ * <br>
+ * This uses open addressing with linear probing; removal shifts later entries back instead of leaving tombstones, so
+ * probe lengths don't grow from repeated adds and removes. Keys are hashed with a strong integer mixer, so clustered
+ * coordinates (such as every cell in a rectangle) spread evenly over the table. The mixed hash of each key is stored
+ * with it, which makes most failed comparisons and all resizes cheap. Use {@link #probeHistogram(int[])} or
+ * {@link #averageProbeLength()} to check how well keys are spread for a particular data set.
+ * <br>
+ * Entries are stored in a table, not as objects, so they must be read with {@link #forEach(Point2, PointVisitor)},
+ * which reuses one point for every entry.
+ */
+public class PointSet2 {
+    /**
+     * The mixed hash of the key in each slot with its highest bit set, or 0 if the slot is empty.
+     */
+    protected int[] hashes;
+    protected int[] keyX, keyY;
+    protected int mask;
+    protected int size;
+    /**
+     * When size reaches this, the table doubles in size.
+     */
+    protected int threshold;
+    protected final float loadFactor;
+
+    /**
+     * Creates an empty PointSet2 with room for 16 entries before resizing, and a load factor of 0.5.
+     */
+    public PointSet2() {
+        this(16, 0.5f);
+    }
+
+    /**
+     * Creates an empty PointSet2 with room for {@code expected} entries before resizing, and a load factor of 0.5.
+     * @param expected how many entries this can hold before resizing
+     */
+    public PointSet2(int expected) {
+        this(expected, 0.5f);
+    }
+
+    /**
+     * Creates an empty PointSet2 with room for {@code expected} entries before resizing. Lower load factors use more
+     * memory but keep probe lengths shorter; linear probing works best with a load factor of 0.75 or less.
+     * @param expected how many entries this can hold before resizing
+     * @param loadFactor how full the table can get before it resizes; must be greater than 0 and less than 1
+     */
+    public PointSet2(int expected, float loadFactor) {
+        if (!(loadFactor > 0f && loadFactor < 1f))
+            throw new IllegalArgumentException("loadFactor must be greater than 0 and less than 1: " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(tableSize(Math.max(expected, 4), loadFactor));
+    }
+
+    private static int tableSize(int expected, float loadFactor) {
+        long needed = (long) Math.ceil(expected / (double) loadFactor);
+        if (needed > 1 << 30) throw new IllegalArgumentException("Too many entries: " + expected);
+        return Math.max(8, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private void allocate(int tableSize) {
+        hashes = new int[tableSize];
+        keyX = new int[tableSize];
+        keyY = new int[tableSize];
+        mask = tableSize - 1;
+        threshold = Math.min((int) (tableSize * loadFactor), tableSize - 1);
+    }
+
+    /**
+     * @return how many entries this contains
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if this contains no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the current table size.
+     */
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(hashes, 0);
+        size = 0;
+    }
+
+    /**
+     * Finds the slot holding the given key.
+     * @return the slot index, or -1 if the key is not present
+     */
+    protected int locate(int x, int y) {
+        final int h = hash(x, y) | 0x80000000;
+        for (int i = h & mask; ; i = i + 1 & mask) {
+            final int s = hashes[i];
+            if (s == 0) return -1;
+            if (s == h && keyX[i] == x && keyY[i] == y) return i;
+        }
+    }
+
+    /**
+     * Finds the slot holding the given key, or claims an empty slot for it.
+     * @return the slot index if the key was already present, or {@code ~slot} if it was just added
+     */
+    protected int insert(int x, int y) {
+        if (size >= threshold) resize(hashes.length << 1);
+        final int h = hash(x, y) | 0x80000000;
+        for (int i = h & mask; ; i = i + 1 & mask) {
+            final int s = hashes[i];
+            if (s == 0) {
+                hashes[i] = h;
+                keyX[i] = x;
+                keyY[i] = y;
+                size++;
+                return ~i;
+            }
+            if (s == h && keyX[i] == x && keyY[i] == y) return i;
+        }
+    }
+
+    private void resize(int tableSize) {
+        if (tableSize > 1 << 30) throw new IllegalStateException("Too many entries: " + size);
+        final int[] oldHashes = hashes;
+        final int[] oldX = keyX;
+        final int[] oldY = keyY;
+        allocate(tableSize);
+        for (int j = 0; j < oldHashes.length; j++) {
+            final int h = oldHashes[j];
+            if (h == 0) continue;
+            int i = h & mask;
+            while (hashes[i] != 0) i = i + 1 & mask;
+            hashes[i] = h;
+            keyX[i] = oldX[j];
+            keyY[i] = oldY[j];
+        }
+    }
+
+    /**
+     * Empties the given occupied slot, then shifts back any later entries in the same run that would no longer be
+     * reachable from their home slot, so no tombstones are needed.
+     */
+    protected void delete(int slot) {
+        int gap = slot;
+        for (int i = gap + 1 & mask; ; i = i + 1 & mask) {
+            final int h = hashes[i];
+            if (h == 0) break;
+            // the entry at i can fill the gap if its home slot is not in (gap, i], cyclically
+            if ((i - (h & mask) & mask) >= (i - gap & mask)) {
+                hashes[gap] = h;
+                keyX[gap] = keyX[i];
+                keyY[gap] = keyY[i];
+                gap = i;
+            }
+        }
+        hashes[gap] = 0;
+        size--;
+    }
+
+    /**
+     * Adds the given position to this set, if it isn't already present.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return true if the position was added, or false if it was already present
+     */
+    public boolean add(int x, int y) {
+        return insert(x, y) < 0;
+    }
+
+    /**
+     * Adds the int position of {@code point} (using {@link Point2#xi()}, {@link Point2#yi()}) to this set, if it isn't
+     * already present. The point itself is not stored.
+     * @param point any Point2; will not be modified
+     * @return true if the position was added, or false if it was already present
+     */
+    public boolean add(Point2<?> point) {
+        return insert(point.xi(), point.yi()) < 0;
+    }
+
+    /**
+     * Checks if this set contains the given position.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return true if the position is present
+     */
+    public boolean contains(int x, int y) {
+        return locate(x, y) >= 0;
+    }
+
+    /**
+     * Checks if this set contains the int position of {@code point} (using {@link Point2#xi()}, {@link Point2#yi()}).
+     * @param point any Point2; will not be modified
+     * @return true if the position is present
+     */
+    public boolean contains(Point2<?> point) {
+        return locate(point.xi(), point.yi()) >= 0;
+    }
+
+    /**
+     * Removes the given position from this set, if present.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return true if the position was removed, or false if it was not present
+     */
+    public boolean remove(int x, int y) {
+        final int slot = locate(x, y);
+        if (slot < 0) return false;
+        delete(slot);
+        return true;
+    }
+
+    /**
+     * Removes the int position of {@code point} (using {@link Point2#xi()}, {@link Point2#yi()}) from this set, if
+     * present.
+     * @param point any Point2; will not be modified
+     * @return true if the position was removed, or false if it was not present
+     */
+    public boolean remove(Point2<?> point) {
+        return remove(point.xi(), point.yi());
+    }
+
+    /**
+     * Calls {@code visitor} with each position in this set, in table order, stopping early if it returns false. Each
+     * position is written into {@code scratch} with {@link Point2#seti(int, int)}, so no points are allocated if
+     * scratch is mutable. The same point is passed for every entry, so it should be copied if it needs to be kept. This
+     * must not be modified from inside the visitor.
+     * @param scratch a Point2 that will be set to each position; will be modified if mutable
+     * @param visitor called with each position; the id it receives is the table slot
+     * @return how many entries were visited
+     * @param <P> any Point2 type
+     */
+    public <P extends Point2<P>> int forEach(P scratch, PointVisitor<? super P> visitor) {
+        int count = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == 0) continue;
+            scratch = scratch.seti(keyX[i], keyY[i]);
+            count++;
+            if (!visitor.visit(i, scratch)) break;
+        }
+        return count;
+    }
+
+    /**
+     * Counts how far each entry is from its home slot (the slot its hash points to), which is how many extra slots a
+     * successful lookup of that entry has to check. {@code histogram[d]} is incremented for each entry that is
+     * {@code d} slots from home; entries farther than the histogram's length are counted in its last element.
+     * @param histogram if non-null and non-empty, receives the count of entries at each probe distance
+     * @return the longest probe distance of any entry
+     */
+    public int probeHistogram(int[] histogram) {
+        final int last = histogram == null ? -1 : histogram.length - 1;
+        int max = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            final int h = hashes[i];
+            if (h == 0) continue;
+            final int d = i - (h & mask) & mask;
+            if (d > max) max = d;
+            if (last >= 0) histogram[Math.min(d, last)]++;
+        }
+        return max;
+    }
+
+    /**
+     * @return the longest distance any entry is from its home slot
+     */
+    public int maxProbeLength() {
+        return probeHistogram(null);
+    }
+
+    /**
+     * Gets the average distance of entries from their home slots; 0 means every entry is found on its first check.
+     * @return the average probe distance, or 0 if this is empty
+     */
+    public double averageProbeLength() {
+        if (size == 0) return 0.0;
+        long total = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            final int h = hashes[i];
+            if (h != 0) total += i - (h & mask) & mask;
+        }
+        return total / (double) size;
+    }
+
+    /**
+     * @return how many slots the table has, including empty ones
+     */
+    public int tableSize() {
+        return hashes.length;
+    }
+
+    /**
+     * Mixes two ints into a hash with all bits well-distributed, so that nearby positions land in unrelated slots.
+     * This is {@link PointHasher#hash(int, int)}.
+     * @param x the first (x) component
+     * @param y the second (y) component
+     * @return a mixed hash of x and y
+     */
+    protected static int hash(int x, int y) {
+        return PointHasher.hash(x, y);
+    }
+}
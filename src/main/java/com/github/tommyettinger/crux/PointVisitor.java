@@ -0,0 +1,19 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * A callback for spatial queries, which receives each matching point along with its id in whatever structure is being
+ * queried. Queries call this once per match, in no particular order, and stop early if it returns false. Implementations
+ * are typically reused across many queries, so a query doesn't need to allocate anything to report its results.
+ *
+ * @param <P> the type of point being visited
+ */
+@FunctionalInterface
+public interface PointVisitor<P> {
+    /**
+     * Called for each point that matches a query.
+     * @param id the id or index of the point in the structure being queried
+     * @param point the point that matched; should not be modified during the query
+     * @return true to keep visiting matches, or false to stop the query early
+     */
+    boolean visit(int id, P point);
+}
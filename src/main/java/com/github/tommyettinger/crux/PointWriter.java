@@ -0,0 +1,368 @@
+package com.github.tommyettinger.crux;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes a sequence of points in a compact binary format, to an {@link OutputStream} or a {@link ByteBuffer}. Read it
+ * back with {@link PointReader}. Every point in one sequence has the same rank, given when this is created.
+ * <br>
+ * The format starts with a short header: the 4 ASCII bytes "CRXS", a version byte, a rank byte, and a flags byte,
+ * followed by a little-endian float scale if floats are quantized. Points follow in chunks of up to
+ * {@link #chunkSize()} points; each chunk is a varint point count and then the points. A count of 0 ends the
+ * sequence, which {@link #finish()} or {@link #close()} writes. Only one chunk is held in memory at a time, so
+ * sequences of any length can be written.
+ * <br>
+ * Int components are stored as the difference from the same component of the previous point in the chunk, zig-zag
+ * encoded so small negative differences stay small, and written as a varint (7 bits per byte). Paths and grid
+ * regions, where neighboring points are close together, usually take 1 or 2 bytes per component. Float components
+ * are either written raw, as 4 little-endian bytes each, or quantized: multiplied by a scale, rounded to an int, and
+ * written like int components. Quantizing with a scale of 100, for instance, keeps two decimal places.
+ */
+public class PointWriter implements Closeable, Flushable {
+    /**
+     * The first 4 bytes of every sequence, "CRXS" in ASCII.
+     */
+    static final byte[] MAGIC = {'C', 'R', 'X', 'S'};
+    /**
+     * The version of the format this writes.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Set in the flags byte if components are floats.
+     */
+    public static final int FLAG_FLOAT = 1;
+    /**
+     * Set in the flags byte if float components are quantized to ints.
+     */
+    public static final int FLAG_QUANTIZED = 2;
+    /**
+     * How many points go in each chunk unless changed with {@link #chunkSize(int)}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    protected final OutputStream stream;
+    protected final ByteBuffer buffer;
+    protected final int rank;
+    protected final boolean floatingPoint;
+    /**
+     * Float components are multiplied by this and rounded before being written, or this is 0 if they are written raw.
+     */
+    protected final float scale;
+    protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Holds the encoded points of the current chunk.
+     */
+    protected byte[] bytes = new byte[256];
+    protected int position;
+    /**
+     * How many points are in the current chunk.
+     */
+    protected int count;
+    /**
+     * The components of the previous point in this chunk, for delta encoding.
+     */
+    protected final int[] previous;
+    protected boolean finished;
+
+    /**
+     * Creates a PointWriter that writes to {@code out}, and writes the header immediately. Float components, if
+     * any, are written raw.
+     * @param out where to write; this doesn't buffer writes beyond one chunk, so out doesn't need to be buffered
+     * @param rank how many components each point has; from 1 to 255
+     * @param floatingPoint true to write float components, or false to write int components
+     * @throws IOException if the header can't be written
+     */
+    public PointWriter(OutputStream out, int rank, boolean floatingPoint) throws IOException {
+        this(out, null, rank, floatingPoint, 0f);
+        out.write(header());
+    }
+
+    /**
+     * Creates a PointWriter that writes float components to {@code out}, quantized with the given scale, and writes
+     * the header immediately. Each component is stored as {@code Math.round(component * scale)}, so a scale of 100
+     * keeps two decimal places; components must be small enough that this fits in an int.
+     * @param out where to write; this doesn't buffer writes beyond one chunk, so out doesn't need to be buffered
+     * @param rank how many components each point has; from 1 to 255
+     * @param scale how much to multiply components by before rounding; must be positive and finite
+     * @throws IOException if the header can't be written
+     */
+    public PointWriter(OutputStream out, int rank, float scale) throws IOException {
+        this(out, null, rank, true, checkScale(scale));
+        out.write(header());
+    }
+
+    /**
+     * Creates a PointWriter that writes to {@code out}, and writes the header immediately. Float components, if
+     * any, are written raw. If out runs out of room, a {@link java.nio.BufferOverflowException} is thrown.
+     * @param out where to write, starting at its position
+     * @param rank how many components each point has; from 1 to 255
+     * @param floatingPoint true to write float components, or false to write int components
+     */
+    public PointWriter(ByteBuffer out, int rank, boolean floatingPoint) {
+        this(null, out, rank, floatingPoint, 0f);
+        out.put(header());
+    }
+
+    /**
+     * Creates a PointWriter that writes float components to {@code out}, quantized with the given scale, and writes
+     * the header immediately. See {@link #PointWriter(OutputStream, int, float)}.
+     * @param out where to write, starting at its position
+     * @param rank how many components each point has; from 1 to 255
+     * @param scale how much to multiply components by before rounding; must be positive and finite
+     */
+    public PointWriter(ByteBuffer out, int rank, float scale) {
+        this(null, out, rank, true, checkScale(scale));
+        out.put(header());
+    }
+
+    private PointWriter(OutputStream stream, ByteBuffer buffer, int rank, boolean floatingPoint, float scale) {
+        if (rank < 1 || rank > 255) throw new IllegalArgumentException("rank must be between 1 and 255: " + rank);
+        this.stream = stream;
+        this.buffer = buffer;
+        this.rank = rank;
+        this.floatingPoint = floatingPoint;
+        this.scale = scale;
+        previous = new int[rank];
+    }
+
+    private byte[] header() {
+        byte[] header = new byte[scale == 0f ? 7 : 11];
+        System.arraycopy(MAGIC, 0, header, 0, 4);
+        header[4] = VERSION;
+        header[5] = (byte) rank;
+        header[6] = (byte) ((floatingPoint ? FLAG_FLOAT : 0) | (scale == 0f ? 0 : FLAG_QUANTIZED));
+        if (scale != 0f) {
+            int bits = Float.floatToIntBits(scale);
+            for (int i = 7; i < 11; i++, bits >>>= 8) {
+                header[i] = (byte) bits;
+            }
+        }
+        return header;
+    }
+
+    private static float checkScale(float scale) {
+        if (!(scale > 0f) || scale == Float.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("scale must be positive and finite: " + scale);
+        return scale;
+    }
+
+    /**
+     * @return how many components each point has
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * @return true if this writes float components (raw or quantized), or false if it writes int components
+     */
+    public boolean floatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * @return how much float components are multiplied by before rounding, or 0 if they are written raw
+     */
+    public float scale() {
+        return scale;
+    }
+
+    /**
+     * @return how many points go in each chunk
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets how many points go in each chunk. Larger chunks have slightly less overhead; smaller chunks hold less in
+     * memory and reach the output sooner. This takes effect starting with the next chunk.
+     * @param chunkSize how many points each chunk can hold; must be positive
+     * @return this, for chaining
+     */
+    public PointWriter chunkSize(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Writes one point. Only the first {@link #rank()} components are used, read with {@link PointN#get(int)} (for
+     * float components) or {@link PointN#geti(int)} (for int components).
+     * @param point any point with at least {@link #rank()} components; will not be modified
+     * @return this, for chaining
+     * @throws IOException if a finished chunk can't be written
+     */
+    public PointWriter write(PointN<?> point) throws IOException {
+        startPoint();
+        if (!floatingPoint) {
+            for (int i = 0; i < rank; i++) putInt(i, point.geti(i));
+        } else if (scale == 0f) {
+            for (int i = 0; i < rank; i++) putFloat(point.get(i));
+        } else {
+            for (int i = 0; i < rank; i++) putInt(i, Math.round(point.get(i) * scale));
+        }
+        return endPoint();
+    }
+
+    /**
+     * Writes every point in {@code points}, in iteration order.
+     * @param points any points with at least {@link #rank()} components each; will not be modified
+     * @return this, for chaining
+     * @throws IOException if a finished chunk can't be written
+     */
+    public PointWriter writeAll(Iterable<? extends PointN<?>> points) throws IOException {
+        for (PointN<?> point : points) {
+            write(point);
+        }
+        return this;
+    }
+
+    /**
+     * Writes points packed into {@code packed}, {@link #rank()} components per point, one point after another. Points
+     * are counted by point, not by array element, so the point at index {@code i} starts at array index
+     * {@code i * rank()}. If this writes int components, each float is cast to int.
+     * @param packed the components of each point; will not be modified
+     * @param from the first point to write, inclusive
+     * @param to the last point to write, exclusive
+     * @return this, for chaining
+     * @throws IOException if a finished chunk can't be written
+     */
+    public PointWriter write(float[] packed, int from, int to) throws IOException {
+        for (int p = from * rank, end = to * rank; p < end; p += rank) {
+            startPoint();
+            if (!floatingPoint) {
+                for (int i = 0; i < rank; i++) putInt(i, (int) packed[p + i]);
+            } else if (scale == 0f) {
+                for (int i = 0; i < rank; i++) putFloat(packed[p + i]);
+            } else {
+                for (int i = 0; i < rank; i++) putInt(i, Math.round(packed[p + i] * scale));
+            }
+            endPoint();
+        }
+        return this;
+    }
+
+    /**
+     * Writes points packed into {@code packed}, {@link #rank()} components per point, one point after another. This is
+     * otherwise the same as {@link #write(float[], int, int)}.
+     * @param packed the components of each point; will not be modified
+     * @param from the first point to write, inclusive
+     * @param to the last point to write, exclusive
+     * @return this, for chaining
+     * @throws IOException if a finished chunk can't be written
+     */
+    public PointWriter write(int[] packed, int from, int to) throws IOException {
+        for (int p = from * rank, end = to * rank; p < end; p += rank) {
+            startPoint();
+            if (!floatingPoint) {
+                for (int i = 0; i < rank; i++) putInt(i, packed[p + i]);
+            } else if (scale == 0f) {
+                for (int i = 0; i < rank; i++) putFloat(packed[p + i]);
+            } else {
+                for (int i = 0; i < rank; i++) putInt(i, Math.round(packed[p + i] * scale));
+            }
+            endPoint();
+        }
+        return this;
+    }
+
+    private void startPoint() {
+        if (finished) throw new IllegalStateException("This PointWriter has already finished its sequence");
+        // 5 bytes is the longest varint; raw floats take 4
+        final int needed = position + rank * 5;
+        if (needed > bytes.length) {
+            byte[] next = new byte[Math.max(needed, bytes.length << 1)];
+            System.arraycopy(bytes, 0, next, 0, position);
+            bytes = next;
+        }
+    }
+
+    private PointWriter endPoint() throws IOException {
+        if (++count >= chunkSize) endChunk();
+        return this;
+    }
+
+    private void putInt(int axis, int value) {
+        final int delta = value - previous[axis];
+        previous[axis] = value;
+        int z = delta << 1 ^ delta >> 31;
+        while ((z & ~0x7F) != 0) {
+            bytes[position++] = (byte) (z | 0x80);
+            z >>>= 7;
+        }
+        bytes[position++] = (byte) z;
+    }
+
+    private void putFloat(float value) {
+        final int bits = Float.floatToIntBits(value);
+        bytes[position++] = (byte) bits;
+        bytes[position++] = (byte) (bits >>> 8);
+        bytes[position++] = (byte) (bits >>> 16);
+        bytes[position++] = (byte) (bits >>> 24);
+    }
+
+    /**
+     * Writes the current chunk, if it has any points, and starts a new one.
+     */
+    private void endChunk() throws IOException {
+        if (count == 0) return;
+        final byte[] head = new byte[5];
+        int n = 0, c = count;
+        while ((c & ~0x7F) != 0) {
+            head[n++] = (byte) (c | 0x80);
+            c >>>= 7;
+        }
+        head[n++] = (byte) c;
+        emit(head, n);
+        emit(bytes, position);
+        position = 0;
+        count = 0;
+        Arrays.fill(previous, 0);
+    }
+
+    private void emit(byte[] data, int length) throws IOException {
+        if (stream != null) stream.write(data, 0, length);
+        else buffer.put(data, 0, length);
+    }
+
+    /**
+     * Writes the current chunk, even if it isn't full, and flushes the OutputStream if this writes to one. The
+     * sequence can continue after this.
+     * @throws IOException if the chunk can't be written or the stream can't be flushed
+     */
+    @Override
+    public void flush() throws IOException {
+        endChunk();
+        if (stream != null) stream.flush();
+    }
+
+    /**
+     * Writes the current chunk and the end of the sequence, and flushes the OutputStream if this writes to one, but
+     * doesn't close it. Nothing more can be written after this. Calling this more than once does nothing.
+     * @throws IOException if the chunk or the end marker can't be written
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        endChunk();
+        emit(new byte[1], 1);
+        finished = true;
+        if (stream != null) stream.flush();
+    }
+
+    /**
+     * Calls {@link #finish()}, then closes the OutputStream if this writes to one.
+     * @throws IOException if the end of the sequence can't be written or the stream can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+        if (stream != null) stream.close();
+    }
+}
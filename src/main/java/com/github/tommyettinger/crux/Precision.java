@@ -0,0 +1,138 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Chooses how accurately square roots (and inverse square roots) are calculated by the tiered methods in
+ * {@link PointN}, such as {@link PointN#len(Precision)}, {@link PointN#dst(PointN, Precision)}, and
+ * {@link PointN#nor(Precision)}. The untiered {@link PointN#len()}, {@link PointN#dst(PointN)}, and
+ * {@link PointN#nor()} always use {@link Math#sqrt(double)} and are not affected by this.
+ * <br>
+ * {@link #EXACT} uses {@link Math#sqrt(double)}, rounded to float. {@link #FAST} starts from the well-known bit-level
+ * estimate of the inverse square root and refines it with two Newton-Raphson steps, which has a relative error below
+ * 0.0005%. {@link #APPROXIMATE} uses one Newton-Raphson step, which has a relative error below 0.2%; that
+ * is plenty when a length only needs to be compared, drawn, or used as a heuristic. If only the order of distances
+ * matters, {@link PointN#dst2(PointN)} needs no square root at all and should be preferred over any of these.
+ * <br>
+ * How much faster FAST and APPROXIMATE are than EXACT depends heavily on the platform. Desktop JVMs compile
+ * {@link Math#sqrt(double)} to a single instruction, so there the gains come mostly from avoiding the division in
+ * normalization; the {@code PrecisionBenchmark} and {@code PrecisionAccuracy} classes in the benchmark sources measure
+ * both speed and error for each tier.
+ * <br>
+ * The methods named with {@code Fast} in PointN, such as {@link PointN#lenFast()}, use the tier returned by
+ * {@link #getDefault()}, which is FAST unless changed with {@link #setDefault(Precision)}. The methods named with
+ * {@code Approx}, such as {@link PointN#lenApprox()}, always use APPROXIMATE.
+ * <br>
+ * For negative inputs, EXACT returns NaN, but FAST and APPROXIMATE return meaningless finite results. For 0, every tier
+ * returns 0 from {@link #sqrt(float)}.
+ * <br>
+ * The built-in tiers are the constants of {@link Tier}, which are also available as {@link #EXACT}, {@link #FAST},
+ * and {@link #APPROXIMATE}. Any other square root kernel, such as a lookup table or a platform intrinsic, can be used
+ * by implementing this interface and passing it to the tiered methods or to {@link #setDefault(Precision)}.
+ */
+public interface Precision {
+    /**
+     * Uses {@link Math#sqrt(double)}; square roots are correctly rounded. This is {@link Tier#EXACT}.
+     */
+    Precision EXACT = Tier.EXACT;
+    /**
+     * Uses a bit-level estimate and two Newton-Raphson steps; the relative error is under 0.0005%. This is
+     * {@link Tier#FAST}.
+     */
+    Precision FAST = Tier.FAST;
+    /**
+     * Uses a bit-level estimate and one Newton-Raphson step; the relative error is under 0.2%. This is
+     * {@link Tier#APPROXIMATE}.
+     */
+    Precision APPROXIMATE = Tier.APPROXIMATE;
+
+    /**
+     * Gets the square root of {@code x} with this tier's accuracy.
+     * @param x a non-negative float
+     * @return the square root of x
+     */
+    float sqrt(float x);
+
+    /**
+     * Gets {@code 1 / sqrt(x)} with this tier's accuracy.
+     * @param x a positive float
+     * @return the inverse square root of x
+     */
+    float invSqrt(float x);
+
+    /**
+     * Gets the tier used by the {@code Fast} methods in {@link PointN}, such as {@link PointN#lenFast()}.
+     * This is {@link #FAST} unless it has been changed.
+     * @return the current default Precision
+     */
+    static Precision getDefault() {
+        return Tier.defaultPrecision;
+    }
+
+    /**
+     * Sets the tier used by the {@code Fast} methods in {@link PointN}, such as {@link PointN#lenFast()}. This affects
+     * every thread, so it is meant to be set once, such as when an application starts; the change is visible to
+     * other threads as soon as this returns.
+     * @param precision the Precision to use by default; must not be null
+     */
+    static void setDefault(Precision precision) {
+        if (precision == null) throw new NullPointerException("precision must not be null");
+        Tier.defaultPrecision = precision;
+    }
+
+    /**
+     * The built-in tiers, as an enum so they can be listed, switched on, and named in benchmark parameters.
+     */
+    enum Tier implements Precision {
+        /**
+         * Uses {@link Math#sqrt(double)}; square roots are correctly rounded.
+         */
+        EXACT {
+            @Override
+            public float sqrt(float x) {
+                return (float) Math.sqrt(x);
+            }
+
+            @Override
+            public float invSqrt(float x) {
+                return (float) (1.0 / Math.sqrt(x));
+            }
+        },
+        /**
+         * Uses a bit-level estimate and two Newton-Raphson steps; the relative error is under 0.0005%.
+         */
+        FAST {
+            @Override
+            public float sqrt(float x) {
+                return x * invSqrt(x);
+            }
+
+            @Override
+            public float invSqrt(float x) {
+                final float half = 0.5f * x;
+                float y = Float.intBitsToFloat(0x5F375A86 - (Float.floatToIntBits(x) >> 1));
+                y *= 1.5f - half * y * y;
+                return y * (1.5f - half * y * y);
+            }
+        },
+        /**
+         * Uses a bit-level estimate and one Newton-Raphson step; the relative error is under 0.2%.
+         */
+        APPROXIMATE {
+            @Override
+            public float sqrt(float x) {
+                return x * invSqrt(x);
+            }
+
+            @Override
+            public float invSqrt(float x) {
+                final float y = Float.intBitsToFloat(0x5F375A86 - (Float.floatToIntBits(x) >> 1));
+                return y * (1.5f - 0.5f * x * y * y);
+            }
+        };
+
+        /**
+         * Backs {@link Precision#getDefault()}; interfaces can't have fields that change, so it lives here. It is
+         * volatile so a change made on one thread is seen by every other thread.
+         */
+        static volatile Precision defaultPrecision = FAST;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.tommyettinger.crux;
+
+/**
+ * Tests whether a straight segment between two points is blocked, for use by {@link PathSmoother}. The segment is
+ * given as a {@link PointPair} where {@code a} is the start and {@code b} is the end (not a direction). The PointPair
+ * and its points are scratch objects reused for every test, so implementations should read them and not keep them.
+ * <br>
+ * On a grid, {@link LineWalker#supercover(Point2, Point2, CellVisitor2)} with a visitor that returns false on a
+ * blocked cell is a good fit, since it returns false exactly when the segment touches a blocked cell.
+ *
+ * @param <P> the type of point in the paths being tested
+ */
+@FunctionalInterface
+public interface RaycastCollisionDetector<P extends PointN<P>> {
+    /**
+     * Checks whether anything blocks the segment from {@code segment.a} to {@code segment.b}.
+     * @param segment the segment to test, with {@code a} as the start and {@code b} as the end; should not be modified
+     * @return true if the segment is blocked, or false if it is clear
+     */
+    boolean collides(PointPair<P> segment);
+}
@@ -0,0 +1,473 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * A uniform spatial hash grid over {@link Point3} points, for finding every point within some radius of a query point
+ * without checking every point. Space is divided into cubic cells with side length {@link #getCellSize()}, and each
+ * point is stored in the list for its cell. A radius query only checks the cells its sphere overlaps, so its cost
+ * depends on how many points are near the query rather than on how many points there are in total. Cells are hashed
+ * into a power-of-two bucket table, so the grid has no bounds and empty space costs nothing.
+ * <br>
+ * Each inserted point gets an int id, which stays the same until that point is removed (ids of removed points are
+ * reused). The position of each point is copied in when it is inserted or updated, so if a mutable point moves, call
+ * {@link #update(int)} (or {@link #updateAll()}) to move it to its new cell. Only points that change cells need any
+ * list changes, so updating a point that moved a little is cheap.
+ * <br>
+ * The cell size should usually be close to the most common query radius; much smaller cells make queries check many
+ * empty cells, and much larger cells make queries check many points that are too far away. The cell size can be
+ * changed later with {@link #setCellSize(float)}, which rehashes everything.
+ * <br>
+ * Points must not be inserted, updated, or removed from inside a {@link PointVisitor} during a query on this.
+ *
+ * @param <P> the type of point this holds
+ */
+public class SpatialHash3<P extends Point3<P>> {
+    protected float cellSize, inverseCellSize;
+
+    protected Object[] points;
+    protected float[] px, py, pz;
+    protected int[] cellX, cellY, cellZ;
+    protected int[] next, prev;
+    /**
+     * The id of the first point in each bucket, or -1 if empty.
+     */
+    protected int[] heads;
+    protected int mask;
+    /**
+     * Ids that were removed and can be reused, as a stack.
+     */
+    protected int[] freeIds;
+    protected int freeCount;
+    /**
+     * One more than the highest id ever handed out.
+     */
+    protected int limit;
+    protected int size;
+    /**
+     * Bounds on the cells that hold points, inclusive. These only grow as points are linked into cells, and are only
+     * made exact again when everything is rehashed or {@link #clear()} is called, so every point is inside them, but
+     * cells near their edges may be empty. If nothing is inside them, the mins are greater than the maxes.
+     */
+    protected int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE,
+            minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE,
+            minCellZ = Integer.MAX_VALUE, maxCellZ = Integer.MIN_VALUE;
+
+    /**
+     * Creates an empty SpatialHash3 with the given cell size and room for 64 points before resizing.
+     * @param cellSize the side length of each cell; should be close to the typical query radius
+     */
+    public SpatialHash3(float cellSize) {
+        this(cellSize, 64);
+    }
+
+    /**
+     * Creates an empty SpatialHash3 with the given cell size and room for {@code capacity} points before resizing.
+     * @param cellSize the side length of each cell; should be close to the typical query radius
+     * @param capacity how many points this can hold before resizing
+     */
+    public SpatialHash3(float cellSize, int capacity) {
+        setCellSizeInternal(cellSize);
+        capacity = Math.max(capacity, 4);
+        points = new Object[capacity];
+        px = new float[capacity];
+        py = new float[capacity];
+        pz = new float[capacity];
+        cellX = new int[capacity];
+        cellY = new int[capacity];
+        cellZ = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        freeIds = new int[capacity];
+        int buckets = Integer.highestOneBit(capacity - 1) << 1;
+        heads = new int[buckets];
+        Arrays.fill(heads, -1);
+        mask = buckets - 1;
+    }
+
+    private void setCellSizeInternal(float cellSize) {
+        if (!(cellSize > 0f) || cellSize == Float.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("cellSize must be positive and finite: " + cellSize);
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+    }
+
+    /**
+     * Gets the side length of each cell.
+     * @return the cell size
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Changes the side length of each cell and moves every point into its new cell. This takes time proportional to
+     * the number of points, but doesn't allocate.
+     * @param cellSize the new side length of each cell; should be close to the typical query radius
+     */
+    public void setCellSize(float cellSize) {
+        setCellSizeInternal(cellSize);
+        rehash(heads.length);
+    }
+
+    /**
+     * Gets how many points this holds.
+     * @return how many points this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the point with the given id.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @return the point with that id, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public P get(int id) {
+        return (P) points[id];
+    }
+
+    /**
+     * Removes every point from this.
+     */
+    public void clear() {
+        Arrays.fill(points, 0, limit, null);
+        Arrays.fill(heads, -1);
+        size = 0;
+        limit = 0;
+        freeCount = 0;
+        resetBounds();
+    }
+
+    private void resetBounds() {
+        minCellX = minCellY = minCellZ = Integer.MAX_VALUE;
+        maxCellX = maxCellY = maxCellZ = Integer.MIN_VALUE;
+    }
+
+    protected int cell(float v) {
+        return (int) Math.floor(v * inverseCellSize);
+    }
+
+    protected int bucket(int cx, int cy, int cz) {
+        return PointHasher.hash(cx, cy, cz) & mask;
+    }
+
+    private void link(int id) {
+        int b = bucket(cellX[id], cellY[id], cellZ[id]);
+        int head = heads[b];
+        next[id] = head;
+        prev[id] = -1;
+        if (head >= 0) prev[head] = id;
+        heads[b] = id;
+        int cx = cellX[id], cy = cellY[id], cz = cellZ[id];
+        if (cx < minCellX) minCellX = cx;
+        if (cx > maxCellX) maxCellX = cx;
+        if (cy < minCellY) minCellY = cy;
+        if (cy > maxCellY) maxCellY = cy;
+        if (cz < minCellZ) minCellZ = cz;
+        if (cz > maxCellZ) maxCellZ = cz;
+    }
+
+    private void unlink(int id) {
+        int n = next[id], p = prev[id];
+        if (p >= 0) next[p] = n;
+        else heads[bucket(cellX[id], cellY[id], cellZ[id])] = n;
+        if (n >= 0) prev[n] = p;
+    }
+
+    private void grow() {
+        int cap = points.length + (points.length >>> 1);
+        points = Arrays.copyOf(points, cap);
+        px = Arrays.copyOf(px, cap);
+        py = Arrays.copyOf(py, cap);
+        pz = Arrays.copyOf(pz, cap);
+        cellX = Arrays.copyOf(cellX, cap);
+        cellY = Arrays.copyOf(cellY, cap);
+        cellZ = Arrays.copyOf(cellZ, cap);
+        next = Arrays.copyOf(next, cap);
+        prev = Arrays.copyOf(prev, cap);
+        freeIds = Arrays.copyOf(freeIds, cap);
+    }
+
+    private void rehash(int buckets) {
+        if (buckets != heads.length) heads = new int[buckets];
+        Arrays.fill(heads, -1);
+        mask = buckets - 1;
+        resetBounds();
+        for (int id = 0; id < limit; id++) {
+            if (points[id] == null) continue;
+            cellX[id] = cell(px[id]);
+            cellY[id] = cell(py[id]);
+            cellZ[id] = cell(pz[id]);
+            link(id);
+        }
+    }
+
+    /**
+     * Adds {@code point} to this, storing its current position.
+     * @param point a non-null point to add; it will be stored by reference, not copied
+     * @return the id of the added point, which can be used to update or remove it
+     */
+    public int insert(P point) {
+        int id;
+        if (freeCount > 0) id = freeIds[--freeCount];
+        else {
+            if (limit == points.length) grow();
+            id = limit++;
+        }
+        points[id] = point;
+        px[id] = point.x();
+        py[id] = point.y();
+        pz[id] = point.z();
+        cellX[id] = cell(px[id]);
+        cellY[id] = cell(py[id]);
+        cellZ[id] = cell(pz[id]);
+        link(id);
+        if (++size > heads.length) rehash(heads.length << 1);
+        return id;
+    }
+
+    /**
+     * Reads the current position of the point with the given id, and moves it to a different cell if needed.
+     * Call this after changing a mutable point that was inserted into this.
+     * @param id an id returned by {@link #insert(Point3)}
+     */
+    public void update(int id) {
+        P point = get(id);
+        if (point == null) throw new IllegalArgumentException("No point has id " + id);
+        move(id, point.x(), point.y(), point.z());
+    }
+
+    /**
+     * Calls {@link #update(int)} on every point in this.
+     */
+    public void updateAll() {
+        for (int id = 0; id < limit; id++) {
+            P point = get(id);
+            if (point != null) move(id, point.x(), point.y(), point.z());
+        }
+    }
+
+    /**
+     * Stores the given position for the point with the given id, without reading the point itself. This is useful
+     * for immutable points, where the stored point can be replaced with {@link #replace(int, Point3)}.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @param x the new x position
+     * @param y the new y position
+     * @param z the new z position
+     */
+    public void move(int id, float x, float y, float z) {
+        int cx = cell(x);
+        int cy = cell(y);
+        int cz = cell(z);
+        px[id] = x;
+        py[id] = y;
+        pz[id] = z;
+        if (cx != cellX[id] || cy != cellY[id] || cz != cellZ[id]) {
+            unlink(id);
+            cellX[id] = cx;
+            cellY[id] = cy;
+            cellZ[id] = cz;
+            link(id);
+        }
+    }
+
+    /**
+     * Replaces the point with the given id by {@code point}, and updates its position. This is the way to move
+     * immutable points, since they can't change in-place.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @param point the point to store in place of the current one
+     */
+    public void replace(int id, P point) {
+        if (points[id] == null) throw new IllegalArgumentException("No point has id " + id);
+        points[id] = point;
+        move(id, point.x(), point.y(), point.z());
+    }
+
+    /**
+     * Removes the point with the given id. The id may be reused by a later insert.
+     * @param id an id returned by {@link #insert(Point3)}
+     * @return the removed point
+     */
+    public P remove(int id) {
+        P point = get(id);
+        if (point == null) throw new IllegalArgumentException("No point has id " + id);
+        unlink(id);
+        points[id] = null;
+        freeIds[freeCount++] = id;
+        --size;
+        return point;
+    }
+
+    /**
+     * Visits every point within {@code radius} of the given position (inclusive), using the positions stored by the
+     * last insert or update.
+     * @param x the x position to search around
+     * @param y the y position to search around
+     * @param z the z position to search around
+     * @param radius the maximum Euclidean distance from the search position
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int query(float x, float y, float z, float radius, PointVisitor<? super P> visitor) {
+        float r2 = radius * radius;
+        int loX = Math.max(cell(x - radius), minCellX), hiX = Math.min(cell(x + radius), maxCellX);
+        int loY = Math.max(cell(y - radius), minCellY), hiY = Math.min(cell(y + radius), maxCellY);
+        int loZ = Math.max(cell(z - radius), minCellZ), hiZ = Math.min(cell(z + radius), maxCellZ);
+        if (loX > hiX || loY > hiY || loZ > hiZ) return 0;
+        int count = 0;
+        if ((hiX - (double) loX + 1.0) * (hiY - (double) loY + 1.0) * (hiZ - (double) loZ + 1.0) > size) {
+            // more cells than points, so checking every point is cheaper
+            for (int id = 0; id < limit; id++) {
+                if (points[id] == null) continue;
+                float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+                if (dx * dx + dy * dy + dz * dz <= r2) {
+                    ++count;
+                    if (!visitor.visit(id, get(id))) return count;
+                }
+            }
+            return count;
+        }
+        // do-while loops, so a bound of Integer.MAX_VALUE can't overflow
+        int cz = loZ;
+        do {
+            int cy = loY;
+            do {
+                int cx = loX;
+                do {
+                    for (int id = heads[bucket(cx, cy, cz)]; id >= 0; id = next[id]) {
+                        if (cellX[id] != cx || cellY[id] != cy || cellZ[id] != cz) continue;
+                        float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+                        if (dx * dx + dy * dy + dz * dz <= r2) {
+                            ++count;
+                            if (!visitor.visit(id, get(id))) return count;
+                        }
+                    }
+                } while (cx++ < hiX);
+            } while (cy++ < hiY);
+        } while (cz++ < hiZ);
+        return count;
+    }
+
+    /**
+     * Visits every point within {@code radius} of {@code center} (inclusive).
+     * @param center the position to search around; will not be modified
+     * @param radius the maximum Euclidean distance from center
+     * @param visitor called for each point found; if it returns false, the query stops
+     * @return how many points were passed to the visitor
+     */
+    public int query(Point3<?> center, float radius, PointVisitor<? super P> visitor) {
+        return query(center.x(), center.y(), center.z(), radius, visitor);
+    }
+
+    /**
+     * Finds the id of the point closest to the given position, searching outward one shell of cells at a time, and
+     * ignoring points farther away than {@code maxRadius}. Only the cells on the surface of each shell are checked, and
+     * the search stops once the shells pass every occupied cell; if a shell would have more cells than this has
+     * points, the rest of the search checks every point instead, so a distant nearest point can't make this slower
+     * than a scan.
+     * @param x the x position to search around
+     * @param y the y position to search around
+     * @param z the z position to search around
+     * @param maxRadius the maximum Euclidean distance to search
+     * @return the id of the closest point, or -1 if no point is within maxRadius
+     */
+    public int nearest(float x, float y, float z, float maxRadius) {
+        if (size == 0) return -1;
+        int oX = cell(x);
+        int oY = cell(y);
+        int oZ = cell(z);
+        int best = -1;
+        float maxDist = maxRadius * maxRadius;
+        long rings = (long) Math.min(Integer.MAX_VALUE, Math.ceil(maxRadius * inverseCellSize));
+        // past this shell, every cell is outside the occupied bounds
+        long farthest = Math.max(Math.max(Math.max((long) oX - minCellX, (long) maxCellX - oX),
+                Math.max((long) oY - minCellY, (long) maxCellY - oY)),
+                Math.max((long) oZ - minCellZ, (long) maxCellZ - oZ));
+        rings = Math.min(rings, farthest);
+        for (long ring = 0; ring <= rings; ring++) {
+            if (ring * ring * 24 + 2 > size) return nearestScan(x, y, z, best, maxDist);
+            long lo = -ring, hi = ring;
+            // the bottom face, then the top face, then the four sides between them
+            best = nearestIn(oX + lo, oX + hi, oY + lo, oY + hi, oZ + lo, oZ + lo, x, y, z, best, maxDist);
+            if (ring > 0) {
+                best = nearestIn(oX + lo, oX + hi, oY + lo, oY + hi, oZ + hi, oZ + hi, x, y, z, best, maxDist);
+                best = nearestIn(oX + lo, oX + hi, oY + lo, oY + lo, oZ + lo + 1, oZ + hi - 1, x, y, z, best, maxDist);
+                best = nearestIn(oX + lo, oX + hi, oY + hi, oY + hi, oZ + lo + 1, oZ + hi - 1, x, y, z, best, maxDist);
+                best = nearestIn(oX + lo, oX + lo, oY + lo + 1, oY + hi - 1, oZ + lo + 1, oZ + hi - 1,
+                        x, y, z, best, maxDist);
+                best = nearestIn(oX + hi, oX + hi, oY + lo + 1, oY + hi - 1, oZ + lo + 1, oZ + hi - 1,
+                        x, y, z, best, maxDist);
+            }
+            if (best >= 0) {
+                float dx = px[best] - x, dy = py[best] - y, dz = pz[best] - z;
+                float bestDist = dx * dx + dy * dy + dz * dz;
+                float reach = ring * cellSize;
+                if (bestDist <= reach * reach) break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks the points in the cells from (loX, loY, loZ) to (hiX, hiY, hiZ), inclusive, for one closer than the
+     * current best. The cell range is clipped to the occupied bounds first, so it can be given outside int range.
+     * @return the id of the closest point found that is no farther than {@code best} (and no farther than the
+     *         square root of {@code maxDist}), or {@code best} if none was
+     */
+    private int nearestIn(long loX, long hiX, long loY, long hiY, long loZ, long hiZ, float x, float y, float z,
+                          int best, float maxDist) {
+        float bestDist = maxDist;
+        if (best >= 0) {
+            float dx = px[best] - x, dy = py[best] - y, dz = pz[best] - z;
+            bestDist = dx * dx + dy * dy + dz * dz;
+        }
+        int lx = (int) Math.max(loX, minCellX), hx = (int) Math.min(hiX, maxCellX);
+        int ly = (int) Math.max(loY, minCellY), hy = (int) Math.min(hiY, maxCellY);
+        int lz = (int) Math.max(loZ, minCellZ), hz = (int) Math.min(hiZ, maxCellZ);
+        if (lx > hx || ly > hy || lz > hz) return best;
+        int cz = lz;
+        do {
+            int cy = ly;
+            do {
+                int cx = lx;
+                do {
+                    for (int id = heads[bucket(cx, cy, cz)]; id >= 0; id = next[id]) {
+                        if (cellX[id] != cx || cellY[id] != cy || cellZ[id] != cz) continue;
+                        float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+                        float dist = dx * dx + dy * dy + dz * dz;
+                        if (dist <= bestDist) {
+                            bestDist = dist;
+                            best = id;
+                        }
+                    }
+                } while (cx++ < hx);
+            } while (cy++ < hy);
+        } while (cz++ < hz);
+        return best;
+    }
+
+    /**
+     * Checks every point for one closer than the current best.
+     * @return the id of the closest point that is no farther than {@code best} (and no farther than the square
+     *         root of {@code maxDist}), or {@code best} if none was
+     */
+    private int nearestScan(float x, float y, float z, int best, float maxDist) {
+        float bestDist = maxDist;
+        if (best >= 0) {
+            float dx = px[best] - x, dy = py[best] - y, dz = pz[best] - z;
+            bestDist = dx * dx + dy * dy + dz * dz;
+        }
+        for (int id = 0; id < limit; id++) {
+            if (points[id] == null) continue;
+            float dx = px[id] - x, dy = py[id] - y, dz = pz[id] - z;
+            float dist = dx * dx + dy * dy + dz * dz;
+            if (dist <= bestDist) {
+                bestDist = dist;
+                best = id;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.tommyettinger.crux;
+
+import java.util.Arrays;
+
+/**
+ * A sweep-and-prune broad phase for 3D axis-aligned boxes, which finds every pair of boxes that overlap without
+ * checking every box against every other. Each box is a {@link PointPair}, where {@code a} is the corner with the
+ * lowest x, y, and z and {@code b} is the corner with the highest x, y, and z. Boxes that only touch at a face, edge,
+ * or corner count as overlapping.
+ * <br>
+ * This keeps the start and end x of every box in one array, sorted by x, and keeps that order between calls to
+ * {@link #findPairs(PairBuffer)}. Each call first re-sorts the array with insertion sort, which only does work for
+ * endpoints that passed each other since the last call, and then sweeps along x, checking y and z only for boxes that
+ * overlap on x. When boxes move a little between frames, as in most games and simulations, this takes time close to
+ * linear in the number of boxes plus the number of pairs that overlap on x.
+ * <br>
+ * Each inserted box gets an int id, which stays the same until that box is removed (ids of removed boxes are reused).
+ * The corners of each box are copied in when it is inserted or updated, so if a mutable box moves, call
+ * {@link #update(int)} (or {@link #updateAll()}) before finding pairs again.
+ *
+ * @param <P> the type of point used for box corners
+ */
+public class SweepAndPrune3<P extends Point3<P>> {
+    protected Object[] boxes;
+    protected float[] minX, minY, minZ, maxX, maxY, maxZ;
+    /**
+     * Every endpoint on the x-axis, as {@code id << 1} for a box's start or {@code id << 1 | 1} for its end, sorted by
+     * {@link #endValues}; only the first {@code size * 2} items are used.
+     */
+    protected int[] endpoints;
+    /**
+     * The x of each item in {@link #endpoints} as of the last sort.
+     */
+    protected float[] endValues;
+    /**
+     * How many endpoints at the end of {@link #endpoints} were added since the last sort.
+     */
+    protected int unsorted;
+    /**
+     * Ids of boxes that overlap the sweep line, and the position of each id in that array, used during a sweep.
+     */
+    protected int[] active, activeIndex;
+    /**
+     * Ids that were removed and can be reused, as a stack.
+     */
+    protected int[] freeIds;
+    protected int freeCount;
+    /**
+     * One more than the highest id ever handed out.
+     */
+    protected int limit;
+    protected int size;
+
+    /**
+     * Creates an empty SweepAndPrune3 with room for 64 boxes before resizing.
+     */
+    public SweepAndPrune3() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty SweepAndPrune3 with room for {@code capacity} boxes before resizing.
+     * @param capacity how many boxes this can hold before resizing
+     */
+    public SweepAndPrune3(int capacity) {
+        capacity = Math.max(capacity, 4);
+        boxes = new Object[capacity];
+        minX = new float[capacity];
+        minY = new float[capacity];
+        minZ = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        maxZ = new float[capacity];
+        endpoints = new int[capacity << 1];
+        endValues = new float[capacity << 1];
+        active = new int[capacity];
+        activeIndex = new int[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /**
+     * Gets how many boxes this holds.
+     * @return how many boxes this holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the box with the given id.
+     * @param id an id returned by {@link #insert(PointPair)}
+     * @return the box with that id, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public PointPair<P> get(int id) {
+        return (PointPair<P>) boxes[id];
+    }
+
+    /**
+     * Removes every box from this.
+     */
+    public void clear() {
+        Arrays.fill(boxes, 0, limit, null);
+        size = 0;
+        limit = 0;
+        freeCount = 0;
+        unsorted = 0;
+    }
+
+    private void grow() {
+        int cap = boxes.length + (boxes.length >>> 1);
+        boxes = Arrays.copyOf(boxes, cap);
+        minX = Arrays.copyOf(minX, cap);
+        minY = Arrays.copyOf(minY, cap);
+        minZ = Arrays.copyOf(minZ, cap);
+        maxX = Arrays.copyOf(maxX, cap);
+        maxY = Arrays.copyOf(maxY, cap);
+        maxZ = Arrays.copyOf(maxZ, cap);
+        endpoints = Arrays.copyOf(endpoints, cap << 1);
+        endValues = Arrays.copyOf(endValues, cap << 1);
+        active = Arrays.copyOf(active, cap);
+        activeIndex = Arrays.copyOf(activeIndex, cap);
+        freeIds = Arrays.copyOf(freeIds, cap);
+    }
+
+    /**
+     * Adds {@code box} to this, storing its current corners.
+     * @param box a non-null box to add, with {@code a} as its lowest corner and {@code b} as its highest; it will be
+     *            stored by reference, not copied
+     * @return the id of the added box, which can be used to update or remove it
+     */
+    public int insert(PointPair<P> box) {
+        int id;
+        if (freeCount > 0) id = freeIds[--freeCount];
+        else {
+            if (limit == boxes.length) grow();
+            id = limit++;
+        }
+        boxes[id] = box;
+        move(id, box.a.x(), box.a.y(), box.a.z(), box.b.x(), box.b.y(), box.b.z());
+        int n = size++ << 1;
+        endpoints[n] = id << 1;
+        endpoints[n + 1] = id << 1 | 1;
+        unsorted += 2;
+        return id;
+    }
+
+    /**
+     * Reads the current corners of the box with the given id. Call this after changing a mutable box that was
+     * inserted into this.
+     * @param id an id returned by {@link #insert(PointPair)}
+     */
+    public void update(int id) {
+        PointPair<P> box = get(id);
+        if (box == null) throw new IllegalArgumentException("No box has id " + id);
+        move(id, box.a.x(), box.a.y(), box.a.z(), box.b.x(), box.b.y(), box.b.z());
+    }
+
+    /**
+     * Calls {@link #update(int)} on every box in this.
+     */
+    public void updateAll() {
+        for (int id = 0; id < limit; id++) {
+            PointPair<P> box = get(id);
+            if (box != null) move(id, box.a.x(), box.a.y(), box.a.z(), box.b.x(), box.b.y(), box.b.z());
+        }
+    }
+
+    /**
+     * Stores the given corners for the box with the given id, without reading the box itself. This is useful for
+     * immutable points, where the stored box can be replaced with {@link #replace(int, PointPair)}. The endpoint order
+     * is fixed by the next call to {@link #findPairs(PairBuffer)}.
+     * @param id an id returned by {@link #insert(PointPair)}
+     * @param lowX the lowest x of the box
+     * @param lowY the lowest y of the box
+     * @param lowZ the lowest z of the box
+     * @param highX the highest x of the box
+     * @param highY the highest y of the box
+     * @param highZ the highest z of the box
+     */
+    public void move(int id, float lowX, float lowY, float lowZ, float highX, float highY, float highZ) {
+        minX[id] = lowX;
+        minY[id] = lowY;
+        minZ[id] = lowZ;
+        maxX[id] = highX;
+        maxY[id] = highY;
+        maxZ[id] = highZ;
+    }
+
+    /**
+     * Replaces the box with the given id by {@code box}, and updates its corners.
+     * @param id an id returned by {@link #insert(PointPair)}
+     * @param box the box to store in place of the current one
+     */
+    public void replace(int id, PointPair<P> box) {
+        if (boxes[id] == null) throw new IllegalArgumentException("No box has id " + id);
+        boxes[id] = box;
+        move(id, box.a.x(), box.a.y(), box.a.z(), box.b.x(), box.b.y(), box.b.z());
+    }
+
+    /**
+     * Removes the box with the given id. The id may be reused by a later insert. This takes time proportional to the
+     * number of boxes, since it removes two endpoints while keeping the rest in order.
+     * @param id an id returned by {@link #insert(PointPair)}
+     * @return the removed box
+     */
+    public PointPair<P> remove(int id) {
+        PointPair<P> box = get(id);
+        if (box == null) throw new IllegalArgumentException("No box has id " + id);
+        int n = size << 1, kept = 0, start = id << 1, end = id << 1 | 1, sorted = n - unsorted;
+        for (int i = 0; i < n; i++) {
+            int e = endpoints[i];
+            if (e == start || e == end) {
+                if (i >= sorted) --unsorted;
+                continue;
+            }
+            endpoints[kept] = e;
+            endValues[kept++] = endValues[i];
+        }
+        boxes[id] = null;
+        freeIds[freeCount++] = id;
+        --size;
+        return box;
+    }
+
+    /**
+     * Checks if the boxes with ids {@code first} and {@code second} overlap, using their stored corners.
+     * @param first an id returned by {@link #insert(PointPair)}
+     * @param second an id returned by {@link #insert(PointPair)}
+     * @return true if the boxes overlap or touch
+     */
+    public boolean overlaps(int first, int second) {
+        return minX[first] <= maxX[second] && minX[second] <= maxX[first]
+                && minY[first] <= maxY[second] && minY[second] <= maxY[first]
+                && minZ[first] <= maxZ[second] && minZ[second] <= maxZ[first];
+    }
+
+    private float value(int endpoint) {
+        return (endpoint & 1) == 0 ? minX[endpoint >>> 1] : maxX[endpoint >>> 1];
+    }
+
+    /**
+     * Brings {@link #endpoints} up to date with the stored corners.
+     */
+    protected void sortEndpoints() {
+        final int n = size << 1;
+        for (int i = 0; i < n; i++) {
+            endValues[i] = value(endpoints[i]);
+        }
+        SweepAndPrune2.sort(endpoints, endValues, n, unsorted);
+        unsorted = 0;
+    }
+
+    /**
+     * Finds every pair of boxes that overlap or touch, and puts their ids in {@code out}. Each pair is reported once,
+     * with the lower id first. The order of pairs depends on the positions of the boxes.
+     * @param out will be cleared, then receive the ids of each overlapping pair
+     * @return how many pairs were found
+     */
+    public int findPairs(PairBuffer out) {
+        out.clear();
+        sortEndpoints();
+        int activeCount = 0;
+        for (int i = 0, n = size << 1; i < n; i++) {
+            final int e = endpoints[i], id = e >>> 1;
+            if ((e & 1) == 0) {
+                final float lowY = minY[id], highY = maxY[id], lowZ = minZ[id], highZ = maxZ[id];
+                for (int j = 0; j < activeCount; j++) {
+                    final int other = active[j];
+                    if (minY[other] <= highY && lowY <= maxY[other]
+                            && minZ[other] <= highZ && lowZ <= maxZ[other]) {
+                        if (other < id) out.add(other, id);
+                        else out.add(id, other);
+                    }
+                }
+                activeIndex[id] = activeCount;
+                active[activeCount++] = id;
+            } else {
+                final int last = active[--activeCount], index = activeIndex[id];
+                active[index] = last;
+                activeIndex[last] = index;
+            }
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.tommyettinger.crux;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Passes bulk operations recorded by {@link Instrumentation} on to a profiler.
+ * <br>
+ * This is the Java 17 version, which commits a JDK Flight Recorder event named
+ * {@code com.github.tommyettinger.crux.BulkOperation} for each operation, if the {@code jdk.jfr} module is present and
+ * a recording has that event enabled. The event is enabled in the default recording settings, so
+ * {@code -XX:StartFlightRecording} together with {@code -Dcrux.instrument=true} is enough to see it.
+ */
+final class PointEvents {
+    private PointEvents() {
+    }
+
+    private static final boolean JFR = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    /**
+     * Reports one bulk operation.
+     * @param kind the name of the operation's {@link Instrumentation.Bulk} kind
+     * @param operation a short name for the operation
+     * @param elapsed how long the operation took, in nanoseconds
+     * @param items how many points or cells the operation touched, or -1 if unknown
+     */
+    static void bulk(String kind, String operation, long elapsed, long items) {
+        if (JFR) BulkOperationEvent.commit(kind, operation, elapsed, items);
+    }
+
+    /**
+     * Only loaded if {@code jdk.jfr} is present, so a runtime without it never needs to resolve {@link Event}.
+     */
+    @Name("com.github.tommyettinger.crux.BulkOperation")
+    @Label("Crux Bulk Operation")
+    @Category("Crux")
+    @Description("A query, reduction, or search over many points, recorded when crux.instrument is true")
+    @StackTrace(false)
+    static final class BulkOperationEvent extends Event {
+        @Label("Kind")
+        String kind;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Items")
+        long items;
+
+        static void commit(String kind, String operation, long elapsed, long items) {
+            final BulkOperationEvent event = new BulkOperationEvent();
+            if (!event.isEnabled()) return;
+            event.kind = kind;
+            event.operation = operation;
+            event.elapsed = elapsed;
+            event.items = items;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.github.tommyettinger.crux;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API implementations behind {@link PointKernels}, used only when the {@code jdk.incubator.vector} module
+ * is present. Each method runs full-width vectors over as much of the range as it can, then finishes the remainder
+ * with the same scalar arithmetic as {@link PointOps}. Multiplies and adds are kept separate (never fused), so
+ * results match PointOps exactly.
+ */
+final class VectorPointKernels {
+    private VectorPointKernels() {
+    }
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    // 2D
+
+    static void add(float[] xs, float[] ys, float dx, float dy, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(dx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(dy).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    static void add(float[] xs, float[] ys, float[] oxs, float[] oys, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(FloatVector.fromArray(SPECIES, oxs, i)).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(FloatVector.fromArray(SPECIES, oys, i)).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+        }
+    }
+
+    static void scl(float[] xs, float[] ys, float sx, float sy, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(sx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(sy).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+        }
+    }
+
+    static void times(float[] xs, float[] ys, float scalar, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(scalar).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(scalar).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+        }
+    }
+
+    static void nor(float[] xs, float[] ys, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy));
+            VectorMask<Float> zero = len2.compare(VectorOperators.EQ, 0f);
+            FloatVector inv = FloatVector.broadcast(SPECIES, 1f).div(len2.sqrt()).blend(1f, zero);
+            vx.mul(inv).intoArray(xs, i);
+            vy.mul(inv).intoArray(ys, i);
+        }
+        for (; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+        }
+    }
+
+    static void len2(float[] xs, float[] ys, float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy));
+            len2.intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i];
+        }
+    }
+
+    static void dst2(float qx, float qy, float[] xs, float[] ys, float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector dx = FloatVector.fromArray(SPECIES, xs, i).sub(qx);
+            FloatVector dy = FloatVector.fromArray(SPECIES, ys, i).sub(qy);
+            dx.mul(dx).add(dy.mul(dy)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy;
+            out[i] = dx * dx + dy * dy;
+        }
+    }
+
+    // 3D
+
+    static void add(float[] xs, float[] ys, float[] zs, float dx, float dy, float dz, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(dx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(dy).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).add(dz).intoArray(zs, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+        }
+    }
+
+    static void add(float[] xs, float[] ys, float[] zs, float[] oxs, float[] oys, float[] ozs, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(FloatVector.fromArray(SPECIES, oxs, i)).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(FloatVector.fromArray(SPECIES, oys, i)).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).add(FloatVector.fromArray(SPECIES, ozs, i)).intoArray(zs, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+        }
+    }
+
+    static void scl(float[] xs, float[] ys, float[] zs, float sx, float sy, float sz, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(sx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(sy).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).mul(sz).intoArray(zs, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+        }
+    }
+
+    static void times(float[] xs, float[] ys, float[] zs, float scalar, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(scalar).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(scalar).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).mul(scalar).intoArray(zs, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+        }
+    }
+
+    static void nor(float[] xs, float[] ys, float[] zs, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector vz = FloatVector.fromArray(SPECIES, zs, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz));
+            VectorMask<Float> zero = len2.compare(VectorOperators.EQ, 0f);
+            FloatVector inv = FloatVector.broadcast(SPECIES, 1f).div(len2.sqrt()).blend(1f, zero);
+            vx.mul(inv).intoArray(xs, i);
+            vy.mul(inv).intoArray(ys, i);
+            vz.mul(inv).intoArray(zs, i);
+        }
+        for (; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+        }
+    }
+
+    static void len2(float[] xs, float[] ys, float[] zs, float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector vz = FloatVector.fromArray(SPECIES, zs, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz));
+            len2.intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i];
+        }
+    }
+
+    static void dst2(float qx, float qy, float qz, float[] xs, float[] ys, float[] zs, float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector dx = FloatVector.fromArray(SPECIES, xs, i).sub(qx);
+            FloatVector dy = FloatVector.fromArray(SPECIES, ys, i).sub(qy);
+            FloatVector dz = FloatVector.fromArray(SPECIES, zs, i).sub(qz);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz;
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    // 4D
+
+    static void add(float[] xs, float[] ys, float[] zs, float[] ws, float dx, float dy, float dz, float dw, int from,
+            int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(dx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(dy).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).add(dz).intoArray(zs, i);
+            FloatVector.fromArray(SPECIES, ws, i).add(dw).intoArray(ws, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+            ws[i] += dw;
+        }
+    }
+
+    static void add(float[] xs, float[] ys, float[] zs, float[] ws, float[] oxs, float[] oys, float[] ozs,
+            float[] ows, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).add(FloatVector.fromArray(SPECIES, oxs, i)).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).add(FloatVector.fromArray(SPECIES, oys, i)).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).add(FloatVector.fromArray(SPECIES, ozs, i)).intoArray(zs, i);
+            FloatVector.fromArray(SPECIES, ws, i).add(FloatVector.fromArray(SPECIES, ows, i)).intoArray(ws, i);
+        }
+        for (; i < to; i++) {
+            xs[i] += oxs[i];
+            ys[i] += oys[i];
+            zs[i] += ozs[i];
+            ws[i] += ows[i];
+        }
+    }
+
+    static void scl(float[] xs, float[] ys, float[] zs, float[] ws, float sx, float sy, float sz, float sw, int from,
+            int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(sx).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(sy).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).mul(sz).intoArray(zs, i);
+            FloatVector.fromArray(SPECIES, ws, i).mul(sw).intoArray(ws, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= sx;
+            ys[i] *= sy;
+            zs[i] *= sz;
+            ws[i] *= sw;
+        }
+    }
+
+    static void times(float[] xs, float[] ys, float[] zs, float[] ws, float scalar, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, xs, i).mul(scalar).intoArray(xs, i);
+            FloatVector.fromArray(SPECIES, ys, i).mul(scalar).intoArray(ys, i);
+            FloatVector.fromArray(SPECIES, zs, i).mul(scalar).intoArray(zs, i);
+            FloatVector.fromArray(SPECIES, ws, i).mul(scalar).intoArray(ws, i);
+        }
+        for (; i < to; i++) {
+            xs[i] *= scalar;
+            ys[i] *= scalar;
+            zs[i] *= scalar;
+            ws[i] *= scalar;
+        }
+    }
+
+    static void nor(float[] xs, float[] ys, float[] zs, float[] ws, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector vz = FloatVector.fromArray(SPECIES, zs, i);
+            FloatVector vw = FloatVector.fromArray(SPECIES, ws, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz)).add(vw.mul(vw));
+            VectorMask<Float> zero = len2.compare(VectorOperators.EQ, 0f);
+            FloatVector inv = FloatVector.broadcast(SPECIES, 1f).div(len2.sqrt()).blend(1f, zero);
+            vx.mul(inv).intoArray(xs, i);
+            vy.mul(inv).intoArray(ys, i);
+            vz.mul(inv).intoArray(zs, i);
+            vw.mul(inv).intoArray(ws, i);
+        }
+        for (; i < to; i++) {
+            float len2 = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i];
+            float inv = len2 == 0f ? 1f : 1f / (float) Math.sqrt(len2);
+            xs[i] *= inv;
+            ys[i] *= inv;
+            zs[i] *= inv;
+            ws[i] *= inv;
+        }
+    }
+
+    static void len2(float[] xs, float[] ys, float[] zs, float[] ws, float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector vz = FloatVector.fromArray(SPECIES, zs, i);
+            FloatVector vw = FloatVector.fromArray(SPECIES, ws, i);
+            FloatVector len2 = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz)).add(vw.mul(vw));
+            len2.intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = xs[i] * xs[i] + ys[i] * ys[i] + zs[i] * zs[i] + ws[i] * ws[i];
+        }
+    }
+
+    static void dst2(float qx, float qy, float qz, float qw, float[] xs, float[] ys, float[] zs, float[] ws,
+            float[] out, int from, int to) {
+        int i = from;
+        for (final int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            FloatVector dx = FloatVector.fromArray(SPECIES, xs, i).sub(qx);
+            FloatVector dy = FloatVector.fromArray(SPECIES, ys, i).sub(qy);
+            FloatVector dz = FloatVector.fromArray(SPECIES, zs, i).sub(qz);
+            FloatVector dw = FloatVector.fromArray(SPECIES, ws, i).sub(qw);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).add(dw.mul(dw)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            float dx = xs[i] - qx, dy = ys[i] - qy, dz = zs[i] - qz, dw = ws[i] - qw;
+            out[i] = dx * dx + dy * dy + dz * dz + dw * dw;
+        }
+    }
+}